@@ -0,0 +1,263 @@
+package com.legalconnect.lawyerbooking.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counters for the STOMP endpoint: open sessions and why they closed,
+ * frames in and out per destination, channel executor queue depth, and
+ * broadcast latency from the moment a message is published on the broker
+ * channel until its frame is handed to each session.
+ *
+ * Sessions that fall behind are closed by Spring once they exceed the send
+ * time or buffer limit configured in {@link WebSocketConfig}; they are
+ * counted here as evicted. Latency is only measured with the simple broker,
+ * since relayed frames come back from the external broker as new messages.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketMetrics.class);
+
+    private static final String PUBLISHED_AT_HEADER = "wsPublishedAtNanos";
+
+    // Distinct destinations tracked before the rest are folded into "other"
+    private static final int MAX_DESTINATIONS = 256;
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern USER_SESSION_SUFFIX = Pattern.compile("-user[^/]+$");
+
+    // Upper bounds of the latency histogram buckets, in milliseconds
+    private static final long[] LATENCY_BUCKETS_MS = { 1, 5, 20, 100, 500, 2000 };
+
+    @Lazy
+    @Autowired(required = false)
+    @Qualifier("clientInboundChannelExecutor")
+    private ThreadPoolTaskExecutor inboundExecutor;
+
+    @Lazy
+    @Autowired(required = false)
+    @Qualifier("clientOutboundChannelExecutor")
+    private ThreadPoolTaskExecutor outboundExecutor;
+
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicLong sessionsOpened = new AtomicLong();
+    private final AtomicLong sessionsEvicted = new AtomicLong();
+    private final Map<Integer, AtomicLong> closeCodes = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> inbound = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outbound = new ConcurrentHashMap<>();
+
+    private final LongAdder latencyCount = new LongAdder();
+    private final LongAdder latencyTotalNanos = new LongAdder();
+    private final AtomicLong latencyMaxNanos = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+    /**
+     * Counts SEND frames from clients per destination.
+     */
+    public ExecutorChannelInterceptor inboundInterceptor() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                    count(inbound, SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                }
+                return message;
+            }
+        };
+    }
+
+    /**
+     * Stamps messages published by the application so delivery can be timed.
+     */
+    public ExecutorChannelInterceptor brokerInterceptor() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (message.getHeaders().containsKey(PUBLISHED_AT_HEADER)) {
+                    return message;
+                }
+                MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+                accessor.setHeader(PUBLISHED_AT_HEADER, System.nanoTime());
+                return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+            }
+        };
+    }
+
+    /**
+     * Counts MESSAGE frames per destination and records how long each took
+     * from publication to the session.
+     */
+    public ExecutorChannelInterceptor outboundInterceptor() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                    return;
+                }
+                count(outbound, SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                Long publishedAt = message.getHeaders().get(PUBLISHED_AT_HEADER, Long.class);
+                if (publishedAt != null) {
+                    recordLatency(System.nanoTime() - publishedAt);
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps the endpoint handler to follow sessions opening and closing.
+     */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                openSessions.incrementAndGet();
+                sessionsOpened.incrementAndGet();
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
+                openSessions.decrementAndGet();
+                closeCodes.computeIfAbsent(status.getCode(), c -> new AtomicLong()).incrementAndGet();
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(status)) {
+                    sessionsEvicted.incrementAndGet();
+                    logger.warn("Evicted slow WebSocket session {} ({}): {}", session.getId(),
+                            session.getPrincipal() != null ? session.getPrincipal().getName() : "anonymous",
+                            status.getReason());
+                }
+                super.afterConnectionClosed(session, status);
+            }
+        };
+    }
+
+    public long getSessionsEvicted() {
+        return sessionsEvicted.get();
+    }
+
+    public int getOpenSessions() {
+        return openSessions.get();
+    }
+
+    public long getOutboundCount(String destination) {
+        LongAdder adder = outbound.get(normalize(destination));
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+
+        Map<String, Object> sessions = new LinkedHashMap<>();
+        sessions.put("open", openSessions.get());
+        sessions.put("opened", sessionsOpened.get());
+        sessions.put("evicted", sessionsEvicted.get());
+        Map<Integer, Long> closed = new TreeMap<>();
+        closeCodes.forEach((code, count) -> closed.put(code, count.get()));
+        sessions.put("closedByCode", closed);
+        metrics.put("sessions", sessions);
+
+        metrics.put("inbound", snapshot(inbound));
+        metrics.put("outbound", snapshot(outbound));
+        metrics.put("inboundExecutor", executor(inboundExecutor));
+        metrics.put("outboundExecutor", executor(outboundExecutor));
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        long count = latencyCount.sum();
+        latency.put("count", count);
+        latency.put("avgMs", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latencyTotalNanos.sum() / count));
+        latency.put("maxMs", TimeUnit.NANOSECONDS.toMillis(latencyMaxNanos.get()));
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+            buckets.put("le" + LATENCY_BUCKETS_MS[i] + "ms", latencyBuckets.get(i));
+        }
+        buckets.put("over" + LATENCY_BUCKETS_MS[LATENCY_BUCKETS_MS.length - 1] + "ms",
+                latencyBuckets.get(LATENCY_BUCKETS_MS.length));
+        latency.put("buckets", buckets);
+        metrics.put("broadcastLatency", latency);
+        return metrics;
+    }
+
+    private void recordLatency(long nanos) {
+        latencyCount.increment();
+        latencyTotalNanos.add(nanos);
+        latencyMaxNanos.accumulateAndGet(nanos, Math::max);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS_MS.length && millis > LATENCY_BUCKETS_MS[bucket]) {
+            bucket++;
+        }
+        latencyBuckets.incrementAndGet(bucket);
+    }
+
+    private static void count(Map<String, LongAdder> counters, String destination) {
+        String key = normalize(destination);
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            if (counters.size() >= MAX_DESTINATIONS) {
+                key = "other";
+            }
+            adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    // "/topic/case/42" -> "/topic/case/{id}", "/queue/unread-user3f2a" -> "/queue/unread"
+    static String normalize(String destination) {
+        if (destination == null) {
+            return "none";
+        }
+        String stripped = USER_SESSION_SUFFIX.matcher(destination).replaceFirst("");
+        return NUMERIC_SEGMENT.matcher(stripped).replaceAll("/{id}");
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> copy = new TreeMap<>();
+        counters.forEach((destination, adder) -> copy.put(destination, adder.sum()));
+        return copy;
+    }
+
+    private static Map<String, Object> executor(ThreadPoolTaskExecutor executor) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (executor == null) {
+            return stats;
+        }
+        try {
+            stats.put("poolSize", executor.getPoolSize());
+            stats.put("active", executor.getActiveCount());
+            stats.put("queued", executor.getQueueSize());
+            stats.put("completed", executor.getThreadPoolExecutor().getCompletedTaskCount());
+        } catch (RuntimeException e) {
+            // Not created or not initialized yet
+        }
+        return stats;
+    }
+}
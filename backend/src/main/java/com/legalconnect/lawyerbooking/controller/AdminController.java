@@ -50,6 +50,9 @@ public class AdminController {
     @Autowired
     private com.legalconnect.lawyerbooking.service.CaseService caseService;
 
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.LawyerSearchIndex lawyerSearchIndex;
+
     @Autowired
     private CaseRepository caseRepository;
 
@@ -62,6 +65,33 @@ public class AdminController {
     @Autowired
     private com.legalconnect.lawyerbooking.service.AuditLogService auditLogService;
 
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.AiRequestCoalescer aiRequestCoalescer;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.AdaptiveCallExecutor adaptiveCallExecutor;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.CaseReclassificationService caseReclassificationService;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.config.WebSocketMetrics webSocketMetrics;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.MessageWriteBehindService messageWriteBehindService;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.CaseTopicPublisher caseTopicPublisher;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.security.TokenRevocationRegistry tokenRevocations;
+
     // Admin Login
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> adminLogin(@RequestBody LoginRequest request) {
@@ -194,6 +224,7 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             userRepository.deleteById(id);
+            tokenRevocations.revoke("USER", id);
             Long adminId = extractAdminId(request);
             auditLogService.logAction(adminId, "System", "DELETE", "USER", id, "Deleted user account with ID: " + id);
             Map<String, String> response = new HashMap<>();
@@ -252,6 +283,8 @@ public class AdminController {
             if (lawyerUpdate.getBarNumber() != null) lawyer.setBarNumber(lawyerUpdate.getBarNumber());
             
             Lawyer savedLawyer = lawyerRepository.save(lawyer);
+            lawyerSearchIndex.upsert(savedLawyer);
+            presenceRegistry.specializationsChanged(savedLawyer.getId(), savedLawyer.getSpecializationMask());
             Long adminId = extractAdminId(request);
             auditLogService.logAction(adminId, "System", "UPDATE", "LAWYER", savedLawyer.getId(), "Updated lawyer profile for: " + savedLawyer.getFullName());
             return ResponseEntity.ok(savedLawyer);
@@ -268,6 +301,8 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             lawyerRepository.deleteById(id);
+            lawyerSearchIndex.remove(id);
+            tokenRevocations.revoke("LAWYER", id);
             Long adminId = extractAdminId(request);
             auditLogService.logAction(adminId, "System", "DELETE", "LAWYER", id, "Deleted lawyer account with ID: " + id);
             Map<String, String> response = new HashMap<>();
@@ -383,6 +418,7 @@ public class AdminController {
             Lawyer lawyer = lawyerOpt.get();
             lawyer.setVerified(verified);
             Lawyer savedLawyer = lawyerRepository.save(lawyer);
+            lawyerSearchIndex.upsert(savedLawyer);
             Long adminId = extractAdminId(request);
             auditLogService.logAction(adminId, "System", "VERIFY", "LAWYER", savedLawyer.getId(), "Set lawyer verification to: " + verified);
             return ResponseEntity.ok(savedLawyer);
@@ -391,6 +427,32 @@ public class AdminController {
         }
     }
 
+    // Batch reclassification of OTHER cases (resumes from the last checkpoint unless restart=true)
+    @PostMapping("/cases/reclassify")
+    public ResponseEntity<Map<String, Object>> startReclassification(jakarta.servlet.http.HttpServletRequest request,
+            @RequestParam(value = "restart", defaultValue = "false") boolean restart) {
+        try {
+            Map<String, Object> report = caseReclassificationService.start(restart);
+            Long adminId = extractAdminId(request);
+            auditLogService.logAction(adminId, "System", "RECLASSIFY", "CASE", 0L,
+                    "Started batch reclassification of OTHER cases" + (restart ? " from the beginning" : ""));
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            System.err.println("Error starting reclassification: " + e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    @PostMapping("/cases/reclassify/stop")
+    public ResponseEntity<Map<String, Object>> stopReclassification() {
+        return ResponseEntity.ok(caseReclassificationService.stop());
+    }
+
+    @GetMapping("/cases/reclassify")
+    public ResponseEntity<Map<String, Object>> getReclassificationReport() {
+        return ResponseEntity.ok(caseReclassificationService.getReport());
+    }
+
     // Delete Case
     @DeleteMapping("/cases/{id}")
     public ResponseEntity<Map<String, String>> deleteCase(jakarta.servlet.http.HttpServletRequest request, @PathVariable("id") Long id) {
@@ -467,6 +529,29 @@ public class AdminController {
             return ResponseEntity.status(500).body(null);
         }
     }
+
+    // AI request metrics (coalescing, scheduling, latency)
+    @GetMapping("/ai-metrics")
+    public ResponseEntity<Map<String, Object>> getAiMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("coalescing", aiRequestCoalescer.getMetrics());
+        metrics.put("scheduler", aiWorkScheduler.getMetrics());
+        metrics.put("latency", adaptiveCallExecutor.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    // WebSocket sessions, traffic per destination, channel queues and delivery latency
+    @GetMapping("/websocket-metrics")
+    public ResponseEntity<Map<String, Object>> getWebSocketMetrics() {
+        Map<String, Object> metrics = new HashMap<>(webSocketMetrics.getMetrics());
+        metrics.put("presence", Map.of(
+                "sessions", presenceRegistry.getSessionCount(),
+                "lawyers", presenceRegistry.getConnectedLawyerCount()));
+        metrics.put("writeBehind", messageWriteBehindService.getStats());
+        metrics.put("caseTopic", caseTopicPublisher.getStats());
+        return ResponseEntity.ok(metrics);
+    }
+
         // -- System Settings --
 
     @GetMapping("/settings")
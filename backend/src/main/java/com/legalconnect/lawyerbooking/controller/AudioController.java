@@ -10,6 +10,7 @@ import com.legalconnect.lawyerbooking.service.AudioProcessingService;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.entity.ClientAudio;
 import com.legalconnect.lawyerbooking.dto.ClientAudioDTO;
+import com.legalconnect.lawyerbooking.enums.TranslationStatus;
 
 import java.util.List;
 import java.util.Map;
@@ -39,6 +40,12 @@ public class AudioController {
     @Autowired
     private com.legalconnect.lawyerbooking.service.RateLimitService rateLimitService;
 
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.AudioDeduplicationService deduplicationService;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.service.GujaratiTranslationService gujaratiTranslationService;
+
     @PostMapping("/upload")
     public ResponseEntity<?> uploadAudio(
             @RequestParam("file") MultipartFile file,
@@ -66,8 +73,10 @@ public class AudioController {
                     .body("{\"error\": \"File size exceeds 20MB limit.\"}");
             }
 
-            // Using the refactored, robust method from AudioProcessingService
-            ClientAudio saved = audioService.processAndCreateCase(file, userId, caseTitle, lawyerId);
+            // Retries of the same recording reuse the earlier results instead of re-running the AI pipeline
+            ClientAudio saved = deduplicationService.processOnce(file, userId,
+                    hash -> audioService.processAndCreateCase(file, userId, caseTitle, lawyerId, hash),
+                    earlier -> audioService.createFromEarlierUpload(earlier, file, userId, caseTitle, lawyerId));
             
             // Convert to DTO using service helper to include caseTitle and masked audio
             ClientAudioDTO dto = audioService.convertToDTO(saved);
@@ -131,16 +140,7 @@ public class AudioController {
         ClientAudio record = repository.findById(id)
             .orElseThrow(() -> new RuntimeException("Record not found with id: " + id));
         
-        // STRICT SECURITY: Validate access using AuthorizationService
-        if (record.getCaseId() != null) {
-            authorizationService.verifyCaseAccess(record.getCaseId());
-        } else {
-            // If audio is not linked to a case, check if the current user owns it
-            com.legalconnect.lawyerbooking.security.UserPrincipal currentUser = authorizationService.getCurrentUser();
-            if ("user".equalsIgnoreCase(currentUser.getRole()) && !record.getUserId().equals(currentUser.getUserId())) {
-                throw new com.legalconnect.lawyerbooking.exception.UnauthorizedException("Access denied to this audio record");
-            }
-        }
+        verifyRecordAccess(record);
         
         System.out.println("Fetching record ID: " + id + 
             ", English masked audio: " + (record.getMaskedTextAudio() != null ? 
@@ -152,4 +152,35 @@ public class AudioController {
         
         return ResponseEntity.ok(dto);
     }
+
+    /**
+     * Returns the Gujarati translation of a record, translating it on first access.
+     */
+    @GetMapping("/{id}/gujarati")
+    public ResponseEntity<Map<String, Object>> getGujaratiTranslation(@PathVariable("id") Long id) {
+        ClientAudio record = repository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Record not found with id: " + id));
+        verifyRecordAccess(record);
+
+        String text = gujaratiTranslationService.getOrTranslate(id);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", id);
+        response.put("maskedGujaratiText", text);
+        response.put("status", text != null ? TranslationStatus.READY.name() : TranslationStatus.FAILED.name());
+        return ResponseEntity.ok(response);
+    }
+
+    private void verifyRecordAccess(ClientAudio record) {
+        // STRICT SECURITY: Validate access using AuthorizationService
+        if (record.getCaseId() != null) {
+            authorizationService.verifyCaseAccess(record.getCaseId());
+        } else {
+            // If audio is not linked to a case, check if the current user owns it
+            com.legalconnect.lawyerbooking.security.UserPrincipal currentUser = authorizationService.getCurrentUser();
+            if ("user".equalsIgnoreCase(currentUser.getRole()) && !record.getUserId().equals(currentUser.getUserId())) {
+                throw new com.legalconnect.lawyerbooking.exception.UnauthorizedException("Access denied to this audio record");
+            }
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.legalconnect.lawyerbooking.controller;
 import com.legalconnect.lawyerbooking.dto.MessageDTO;
 import com.legalconnect.lawyerbooking.dto.MessageRequest;
 import com.legalconnect.lawyerbooking.service.MessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -12,15 +14,18 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class ChatController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatController.class);
+
     @Autowired
     private MessageService messageService;
 
     @MessageMapping("/chat.send")
     public void sendMessage(@Payload MessageRequest request) {
-        System.out.println("Received WebSocket message for case " + request.getCaseId() + 
-                           " from sender " + request.getSenderId() + " (" + request.getSenderType() + ")");
-        
-        // Forward request directly to MessageService, which will now use IDs from payload
+        logger.debug("Received WebSocket message for case {} from sender {} ({})",
+                request.getCaseId(), request.getSenderId(), request.getSenderType());
+
+        // Forward request directly to MessageService, which will now use IDs from payload.
+        // With messaging.write-behind.enabled the message is broadcast before it is stored.
         messageService.sendMessage(request);
     }
 }
@@ -8,10 +8,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
 import com.legalconnect.lawyerbooking.enums.CaseType;
-import com.legalconnect.lawyerbooking.repository.LawyerSpecifications;
-import org.springframework.data.domain.Page;
+import com.legalconnect.lawyerbooking.dto.LawyerSearchResponse;
+import com.legalconnect.lawyerbooking.service.LawyerSearchIndex;
+import com.legalconnect.lawyerbooking.service.LawyerService;
+import com.legalconnect.lawyerbooking.service.PresenceRegistry;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -30,6 +31,15 @@ public class LawyerController {
     @Autowired
     private com.legalconnect.lawyerbooking.service.AuthorizationService authorizationService;
 
+    @Autowired
+    private LawyerService lawyerService;
+
+    @Autowired
+    private LawyerSearchIndex lawyerSearchIndex;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
     @GetMapping("/{lawyerId}/profile")
     public ResponseEntity<LawyerProfileDTO> getLawyerProfile(@PathVariable("lawyerId") Long lawyerId) {
         Lawyer lawyer = lawyerRepository.findById(lawyerId)
@@ -86,6 +96,8 @@ public class LawyerController {
         if (profileDTO.getNotableSuccesses() != null) lawyer.setNotableSuccesses(profileDTO.getNotableSuccesses());
 
         Lawyer savedLawyer = lawyerRepository.save(lawyer);
+        lawyerSearchIndex.upsert(savedLawyer);
+        presenceRegistry.specializationsChanged(lawyerId, savedLawyer.getSpecializationMask());
 
         LawyerProfileDTO responseDTO = new LawyerProfileDTO(
                 savedLawyer.getId(),
@@ -118,6 +130,7 @@ public class LawyerController {
             @RequestParam(required = false) Integer minExperience,
             @RequestParam(required = false) Integer minCompletedCases,
             @RequestParam(required = false) String availability,
+            @RequestParam(defaultValue = "false") boolean facets,
             Pageable pageable) {
 
         LawyerSearchCriteria criteria = new LawyerSearchCriteria();
@@ -128,34 +141,16 @@ public class LawyerController {
         criteria.setMinCompletedCases(minCompletedCases);
         criteria.setAvailability(availability);
 
-        Specification<Lawyer> spec = LawyerSpecifications.withCriteria(criteria);
-        Page<Lawyer> page = lawyerRepository.findAll(spec, pageable);
-
-        java.util.List<LawyerProfileDTO> dtos = page.getContent().stream().map(lawyer -> new LawyerProfileDTO(
-                lawyer.getId(),
-                lawyer.getFullName(),
-                lawyer.getSpecializations(),
-                lawyer.getYearsOfExperience(),
-                lawyer.getLanguagesKnown(),
-                lawyer.getRating(),
-                lawyer.getCompletedCasesCount(),
-                lawyer.getProfilePhotoUrl(),
-                lawyer.getAvailabilityInfo(),
-                lawyer.getBarNumber(),
-                lawyer.getEmail(),
-                lawyer.getBio(),
-                lawyer.getConsultationModes(),
-                lawyer.getHeadline(),
-                lawyer.isVerified(),
-                lawyer.getExperienceTimeline(),
-                lawyer.getNotableSuccesses()
-        )).collect(java.util.stream.Collectors.toList());
+        LawyerSearchResponse page = lawyerService.searchLawyers(criteria, pageable, facets);
 
         Map<String, Object> response = new HashMap<>();
-        response.put("lawyers", dtos);
-        response.put("currentPage", page.getNumber());
+        response.put("lawyers", page.getLawyers());
+        response.put("currentPage", page.getCurrentPage());
         response.put("totalItems", page.getTotalElements());
         response.put("totalPages", page.getTotalPages());
+        if (page.getFacets() != null) {
+            response.put("facets", page.getFacets());
+        }
 
         return ResponseEntity.ok(response);
     }
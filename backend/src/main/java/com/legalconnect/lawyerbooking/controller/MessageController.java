@@ -9,10 +9,14 @@ import com.legalconnect.lawyerbooking.service.MessageService;
 import com.legalconnect.lawyerbooking.service.AuthorizationService;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
 import com.legalconnect.lawyerbooking.dto.MessageRequest;
+import com.legalconnect.lawyerbooking.dto.MessageSearchResultDTO;
 import com.legalconnect.lawyerbooking.exception.UnauthorizedException;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -60,6 +64,29 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/case/{caseId}/page")
+    public ResponseEntity<MessagePageDTO> getMessagePageByCaseId(
+            @PathVariable("caseId") Long caseId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "30") int size) {
+        authorizationService.verifyMessageAccess(caseId);
+        return ResponseEntity.ok(messageService.getMessagesByCaseId(caseId, before, after, size));
+    }
+
+    /**
+     * Searches one case's conversation for the participants of that case.
+     */
+    @GetMapping("/case/{caseId}/search")
+    public ResponseEntity<MessageSearchResultDTO> searchCaseMessages(
+            @PathVariable("caseId") Long caseId,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int limit) {
+        authorizationService.verifyMessageAccess(caseId);
+        return ResponseEntity.ok(messageService.searchCaseMessages(caseId, query, before, limit));
+    }
+
     @GetMapping("/receiver/{receiverId}/{receiverType}")
     public ResponseEntity<List<MessageDTO>> getMessagesByReceiver(
             @PathVariable("receiverId") Long receiverId,
@@ -68,16 +95,55 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/receiver/{receiverId}/{receiverType}/page")
+    public ResponseEntity<MessagePageDTO> getMessagePageByReceiver(
+            @PathVariable("receiverId") Long receiverId,
+            @PathVariable("receiverType") String receiverType,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "30") int size) {
+        authorizationService.verifyReceiverAccess(receiverId, receiverType);
+        return ResponseEntity.ok(messageService.getMessagesByReceiver(receiverId, receiverType, before, after, size));
+    }
+
     @PutMapping("/{messageId}/read")
     public ResponseEntity<Void> markMessageAsRead(@PathVariable("messageId") Long messageId) {
         try {
+            authorizationService.verifyMessageReadAccess(messageId);
             messageService.markMessageAsRead(messageId);
             return ResponseEntity.ok().build();
+        } catch (UnauthorizedException e) {
+            logger.warn("Unauthorized mark-read attempt: {}", e.getMessage());
+            return ResponseEntity.status(401).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Marks the case conversation read for the signed-in participant, up to
+     * {@code upTo} or the latest message.
+     */
+    @PutMapping("/case/{caseId}/read")
+    public ResponseEntity<Void> markConversationRead(
+            @PathVariable("caseId") Long caseId,
+            @RequestParam(required = false) Long upTo) {
+        authorizationService.verifyMessageAccess(caseId);
+        UserPrincipal currentUser = authorizationService.getCurrentUser();
+        messageService.markConversationRead(caseId, currentUser.getUserId(),
+                currentUser.getRole().toLowerCase(Locale.ROOT), upTo);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/case/{caseId}/unread-count")
+    public ResponseEntity<Map<String, Long>> getCaseUnreadCount(@PathVariable("caseId") Long caseId) {
+        authorizationService.verifyMessageAccess(caseId);
+        UserPrincipal currentUser = authorizationService.getCurrentUser();
+        long count = messageService.getUnreadMessageCount(caseId, currentUser.getUserId(),
+                currentUser.getRole().toLowerCase(Locale.ROOT));
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+
     @GetMapping("/unread-count/{receiverId}/{receiverType}")
     public ResponseEntity<Map<String, Long>> getUnreadMessageCount(
             @PathVariable("receiverId") Long receiverId,
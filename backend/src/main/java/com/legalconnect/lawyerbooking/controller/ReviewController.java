@@ -1,10 +1,16 @@
 package com.legalconnect.lawyerbooking.controller;
 
+import com.legalconnect.lawyerbooking.dto.RatingSummaryDTO;
+import com.legalconnect.lawyerbooking.dto.ReviewPageDTO;
 import com.legalconnect.lawyerbooking.entity.Review;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
 import com.legalconnect.lawyerbooking.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -12,6 +18,8 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ReviewController {
 
+    private static final Duration SUMMARY_MAX_AGE = Duration.ofSeconds(60);
+
     @Autowired
     private ReviewService reviewService;
 
@@ -19,6 +27,8 @@ public class ReviewController {
     public ResponseEntity<Review> submitReview(@RequestBody Review review) {
         try {
             return ResponseEntity.ok(reviewService.saveReview(review));
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -28,4 +38,25 @@ public class ReviewController {
     public ResponseEntity<List<Review>> getLawyerReviews(@PathVariable("lawyerId") Long lawyerId) {
         return ResponseEntity.ok(reviewService.getReviewsForLawyer(lawyerId));
     }
+
+    @GetMapping("/lawyer/{lawyerId}/page")
+    public ResponseEntity<ReviewPageDTO> getLawyerReviewPage(
+            @PathVariable("lawyerId") Long lawyerId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(reviewService.getReviewPage(lawyerId, cursor, size));
+    }
+
+    /**
+     * Average, count and star histogram. Revalidated with the ETag, which
+     * changes only when a review is added; unchanged summaries get a 304.
+     */
+    @GetMapping("/lawyer/{lawyerId}/summary")
+    public ResponseEntity<RatingSummaryDTO> getRatingSummary(@PathVariable("lawyerId") Long lawyerId) {
+        RatingSummaryDTO summary = reviewService.getRatingSummary(lawyerId);
+        return ResponseEntity.ok()
+                .eTag(summary.version())
+                .cacheControl(CacheControl.maxAge(SUMMARY_MAX_AGE).cachePrivate())
+                .body(summary);
+    }
 }
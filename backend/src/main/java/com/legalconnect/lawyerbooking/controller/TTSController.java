@@ -5,9 +5,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import com.legalconnect.lawyerbooking.service.OpenAITextToSpeechService;
+import com.legalconnect.lawyerbooking.service.GujaratiTranslationService;
+import com.legalconnect.lawyerbooking.service.AiProviderRouter;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.provider.SpeechSynthesisProvider;
 import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
 import java.util.Base64;
 import java.util.Map;
@@ -21,11 +23,14 @@ public class TTSController {
     private static final Logger logger = LoggerFactory.getLogger(TTSController.class);
 
     @Autowired
-    private OpenAITextToSpeechService ttsService;
+    private AiProviderRouter aiProviderRouter;
 
     @Autowired
     private ClientAudioRepository clientAudioRepository;
 
+    @Autowired
+    private GujaratiTranslationService gujaratiTranslationService;
+
     @PostMapping("/generate")
     public ResponseEntity<Map<String, String>> generateTTS(@RequestBody Map<String, Object> request) {
         try {
@@ -37,8 +42,7 @@ public class TTSController {
             // 1. Retrieve ClientAudio by caseId
             // Note: We assume one audio record per case for now.
             // If multiple exist (unlikely in current flow), we take the first one.
-            ClientAudio clientAudio = clientAudioRepository.findAllAudio().stream()
-                    .filter(ca -> caseId.equals(ca.getCaseId()))
+            ClientAudio clientAudio = clientAudioRepository.findByCaseId(caseId).stream()
                     .findFirst()
                     .orElseThrow(() -> new ResourceNotFoundException("Audio record not found for case ID: " + caseId));
 
@@ -49,22 +53,28 @@ public class TTSController {
             logger.info("Using gender: {} for TTS generation", gender);
 
             byte[] audioBytes = null;
+            String contentType;
 
             // 2. Check if audio already exists (Cache Hit)
             if ("gu".equalsIgnoreCase(language)) {
                 if (clientAudio.getMaskedGujaratiAudio() != null && clientAudio.getMaskedGujaratiAudio().length > 0) {
                     logger.info("Returning CACHED Gujarati audio for case {}", caseId);
                     audioBytes = clientAudio.getMaskedGujaratiAudio();
+                    contentType = SpeechSynthesisProvider.contentTypeOf(audioBytes);
                 } else {
                     // Generate new with gender
                     logger.info("Generating NEW Gujarati audio for case {} with gender: {}", caseId, gender);
-                    String textToSpeak = clientAudio.getMaskedGujaratiText();
+                    // Gujarati text is translated lazily, so it may not exist yet
+                    String textToSpeak = gujaratiTranslationService.getOrTranslate(clientAudio.getId());
                     if (textToSpeak == null || textToSpeak.isEmpty()) {
                         return ResponseEntity.badRequest().body(Map.of("error", "No Gujarati text available to speak"));
                     }
-                    audioBytes = ttsService.textToSpeech(textToSpeak, "gu", gender);
+                    audioBytes = aiProviderRouter.textToSpeech(textToSpeak, "gu", gender);
+                    contentType = aiProviderRouter.speechContentType();
 
                     // Save to DB (Cache)
+                    clientAudio.setMaskedGujaratiText(textToSpeak);
+                    clientAudio.setGujaratiTranslationStatus(com.legalconnect.lawyerbooking.enums.TranslationStatus.READY);
                     clientAudio.setMaskedGujaratiAudio(audioBytes);
                     clientAudioRepository.save(clientAudio);
                 }
@@ -73,6 +83,7 @@ public class TTSController {
                 if (clientAudio.getMaskedTextAudio() != null && clientAudio.getMaskedTextAudio().length > 0) {
                     logger.info("Returning CACHED English audio for case {}", caseId);
                     audioBytes = clientAudio.getMaskedTextAudio();
+                    contentType = SpeechSynthesisProvider.contentTypeOf(audioBytes);
                 } else {
                     // Generate new with gender
                     logger.info("Generating NEW English audio for case {} with gender: {}", caseId, gender);
@@ -80,7 +91,8 @@ public class TTSController {
                     if (textToSpeak == null || textToSpeak.isEmpty()) {
                         return ResponseEntity.badRequest().body(Map.of("error", "No English text available to speak"));
                     }
-                    audioBytes = ttsService.textToSpeech(textToSpeak, "en", gender);
+                    audioBytes = aiProviderRouter.textToSpeech(textToSpeak, "en", gender);
+                    contentType = aiProviderRouter.speechContentType();
 
                     // Save to DB (Cache)
                     clientAudio.setMaskedTextAudio(audioBytes);
@@ -92,6 +104,7 @@ public class TTSController {
             String base64Audio = Base64.getEncoder().encodeToString(audioBytes);
             Map<String, String> response = new HashMap<>();
             response.put("audio", base64Audio);
+            response.put("contentType", contentType);
             response.put("language", language);
             response.put("gender", gender);
 
@@ -2,18 +2,23 @@ package com.legalconnect.lawyerbooking.dto;
 
 import java.util.Base64;
 
+import com.legalconnect.lawyerbooking.enums.TranslationStatus;
+import com.legalconnect.lawyerbooking.provider.SpeechSynthesisProvider;
+
 public class ClientAudioDTO {
     private Long id;
     private String language;
     private String originalEnglishText;
     private String maskedEnglishText;
     private String maskedTextAudioBase64; // Base64 encoded audio
+    private String contentType; // MIME type of maskedTextAudioBase64
     private String maskedGujaratiText;
     private String maskedGujaratiAudioBase64; // Base64 encoded Gujarati audio
     private Long userId;
     private Long caseId;
     private String caseTitle;
     private Long lawyerId;
+    private String gujaratiTranslationStatus; // PENDING, READY or FAILED
 
     // Constructors
     public ClientAudioDTO() {}
@@ -26,11 +31,7 @@ public class ClientAudioDTO {
         this.language = language;
         this.originalEnglishText = originalEnglishText;
         this.maskedEnglishText = maskedEnglishText;
-        if (maskedTextAudio != null && maskedTextAudio.length > 0) {
-            this.maskedTextAudioBase64 = Base64.getEncoder().encodeToString(maskedTextAudio);
-        } else {
-            this.maskedTextAudioBase64 = null;
-        }
+        setMaskedTextAudio(maskedTextAudio);
         this.maskedGujaratiText = maskedGujaratiText;
         if (maskedGujaratiAudio != null && maskedGujaratiAudio.length > 0) {
             this.maskedGujaratiAudioBase64 = Base64.getEncoder().encodeToString(maskedGujaratiAudio);
@@ -42,6 +43,24 @@ public class ClientAudioDTO {
         this.lawyerId = lawyerId;
     }
 
+    /**
+     * List projection: no audio blobs or original transcript, case title
+     * joined in the same query.
+     */
+    public ClientAudioDTO(Long id, String language, String maskedEnglishText, String maskedGujaratiText,
+                         TranslationStatus gujaratiTranslationStatus, Long userId, Long caseId,
+                         Long lawyerId, String caseTitle) {
+        this.id = id;
+        this.language = language;
+        this.maskedEnglishText = maskedEnglishText;
+        this.maskedGujaratiText = maskedGujaratiText;
+        this.gujaratiTranslationStatus = TranslationStatus.effective(gujaratiTranslationStatus, maskedGujaratiText).name();
+        this.userId = userId;
+        this.caseId = caseId;
+        this.lawyerId = lawyerId;
+        this.caseTitle = caseTitle;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -86,11 +105,21 @@ public class ClientAudioDTO {
     public void setMaskedTextAudio(byte[] maskedTextAudio) {
         if (maskedTextAudio != null && maskedTextAudio.length > 0) {
             this.maskedTextAudioBase64 = Base64.getEncoder().encodeToString(maskedTextAudio);
+            this.contentType = SpeechSynthesisProvider.contentTypeOf(maskedTextAudio);
         } else {
             this.maskedTextAudioBase64 = null;
+            this.contentType = null;
         }
     }
 
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
     public String getMaskedGujaratiText() {
         return maskedGujaratiText;
     }
@@ -146,5 +175,12 @@ public class ClientAudioDTO {
     public void setLawyerId(Long lawyerId) {
         this.lawyerId = lawyerId;
     }
-}
 
+    public String getGujaratiTranslationStatus() {
+        return gujaratiTranslationStatus;
+    }
+
+    public void setGujaratiTranslationStatus(String gujaratiTranslationStatus) {
+        this.gujaratiTranslationStatus = gujaratiTranslationStatus;
+    }
+}
@@ -1,6 +1,7 @@
 package com.legalconnect.lawyerbooking.dto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Response wrapper for lawyer search results.
@@ -9,16 +10,18 @@ import java.util.List;
  * This follows the DTO pattern and gives us control over the API contract.
  */
 public class LawyerSearchResponse {
-    private List<LawyerDTO> lawyers;
+    private List<LawyerProfileDTO> lawyers;
     private int currentPage;
     private int totalPages;
     private long totalElements;
     private int pageSize;
+    // Facet name -> value -> count under the other filters; null unless requested
+    private Map<String, Map<String, Long>> facets;
     
     // Constructors
     public LawyerSearchResponse() {}
     
-    public LawyerSearchResponse(List<LawyerDTO> lawyers, int currentPage, int totalPages, 
+    public LawyerSearchResponse(List<LawyerProfileDTO> lawyers, int currentPage, int totalPages, 
                                 long totalElements, int pageSize) {
         this.lawyers = lawyers;
         this.currentPage = currentPage;
@@ -26,13 +29,19 @@ public class LawyerSearchResponse {
         this.totalElements = totalElements;
         this.pageSize = pageSize;
     }
+
+    public LawyerSearchResponse(List<LawyerProfileDTO> lawyers, int currentPage, int totalPages,
+                                long totalElements, int pageSize, Map<String, Map<String, Long>> facets) {
+        this(lawyers, currentPage, totalPages, totalElements, pageSize);
+        this.facets = facets;
+    }
     
     // Getters and Setters
-    public List<LawyerDTO> getLawyers() {
+    public List<LawyerProfileDTO> getLawyers() {
         return lawyers;
     }
     
-    public void setLawyers(List<LawyerDTO> lawyers) {
+    public void setLawyers(List<LawyerProfileDTO> lawyers) {
         this.lawyers = lawyers;
     }
     
@@ -67,4 +76,12 @@ public class LawyerSearchResponse {
     public void setPageSize(int pageSize) {
         this.pageSize = pageSize;
     }
+    
+    public Map<String, Map<String, Long>> getFacets() {
+        return facets;
+    }
+    
+    public void setFacets(Map<String, Map<String, Long>> facets) {
+        this.facets = facets;
+    }
 }
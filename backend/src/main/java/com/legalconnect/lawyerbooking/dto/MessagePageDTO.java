@@ -0,0 +1,42 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import java.util.List;
+
+/**
+ * A window of a conversation, oldest message first. Pass {@code olderCursor}
+ * back as {@code before} to load earlier messages and {@code newerCursor} as
+ * {@code after} to catch up; the flags say whether either page is non-empty.
+ */
+public class MessagePageDTO {
+    private List<MessageDTO> messages;
+    private String olderCursor;
+    private String newerCursor;
+    private boolean hasOlder;
+    private boolean hasNewer;
+
+    public MessagePageDTO() {}
+
+    public MessagePageDTO(List<MessageDTO> messages, String olderCursor, String newerCursor,
+                          boolean hasOlder, boolean hasNewer) {
+        this.messages = messages;
+        this.olderCursor = olderCursor;
+        this.newerCursor = newerCursor;
+        this.hasOlder = hasOlder;
+        this.hasNewer = hasNewer;
+    }
+
+    public List<MessageDTO> getMessages() { return messages; }
+    public void setMessages(List<MessageDTO> messages) { this.messages = messages; }
+
+    public String getOlderCursor() { return olderCursor; }
+    public void setOlderCursor(String olderCursor) { this.olderCursor = olderCursor; }
+
+    public String getNewerCursor() { return newerCursor; }
+    public void setNewerCursor(String newerCursor) { this.newerCursor = newerCursor; }
+
+    public boolean isHasOlder() { return hasOlder; }
+    public void setHasOlder(boolean hasOlder) { this.hasOlder = hasOlder; }
+
+    public boolean isHasNewer() { return hasNewer; }
+    public void setHasNewer(boolean hasNewer) { this.hasNewer = hasNewer; }
+}
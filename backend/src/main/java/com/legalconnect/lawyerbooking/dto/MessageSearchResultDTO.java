@@ -0,0 +1,31 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import java.util.List;
+
+/**
+ * One page of messages matching a search, newest first. {@code total} counts
+ * every match in the case; pass {@code nextBefore} back as {@code before} to
+ * get the next page, it is null on the last one.
+ */
+public class MessageSearchResultDTO {
+    private List<MessageDTO> messages;
+    private long total;
+    private Long nextBefore;
+
+    public MessageSearchResultDTO() {}
+
+    public MessageSearchResultDTO(List<MessageDTO> messages, long total, Long nextBefore) {
+        this.messages = messages;
+        this.total = total;
+        this.nextBefore = nextBefore;
+    }
+
+    public List<MessageDTO> getMessages() { return messages; }
+    public void setMessages(List<MessageDTO> messages) { this.messages = messages; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public Long getNextBefore() { return nextBefore; }
+    public void setNextBefore(Long nextBefore) { this.nextBefore = nextBefore; }
+}
@@ -0,0 +1,61 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precomputed rating summary of a lawyer, read straight from the aggregate
+ * columns on the lawyer row.
+ */
+public class RatingSummaryDTO {
+    private Long lawyerId;
+    private Double average;
+    private long count;
+    private long sum;
+    private Map<Integer, Integer> histogram;
+    private Double rankingScore;
+
+    public RatingSummaryDTO() {}
+
+    // JPQL projection constructor
+    public RatingSummaryDTO(Long lawyerId, Double average, Long sum, Integer count,
+                            Integer oneStar, Integer twoStar, Integer threeStar, Integer fourStar, Integer fiveStar,
+                            Double rankingScore) {
+        this.lawyerId = lawyerId;
+        this.average = average;
+        this.sum = sum != null ? sum : 0;
+        this.count = count != null ? count : 0;
+        this.histogram = new LinkedHashMap<>();
+        this.histogram.put(5, fiveStar);
+        this.histogram.put(4, fourStar);
+        this.histogram.put(3, threeStar);
+        this.histogram.put(2, twoStar);
+        this.histogram.put(1, oneStar);
+        this.rankingScore = rankingScore;
+    }
+
+    /**
+     * Changes exactly when a review is added, so it serves as the ETag.
+     */
+    public String version() {
+        return lawyerId + "-" + count + "-" + sum;
+    }
+
+    public Long getLawyerId() { return lawyerId; }
+    public void setLawyerId(Long lawyerId) { this.lawyerId = lawyerId; }
+
+    public Double getAverage() { return average; }
+    public void setAverage(Double average) { this.average = average; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+
+    public long getSum() { return sum; }
+    public void setSum(long sum) { this.sum = sum; }
+
+    public Map<Integer, Integer> getHistogram() { return histogram; }
+    public void setHistogram(Map<Integer, Integer> histogram) { this.histogram = histogram; }
+
+    public Double getRankingScore() { return rankingScore; }
+    public void setRankingScore(Double rankingScore) { this.rankingScore = rankingScore; }
+}
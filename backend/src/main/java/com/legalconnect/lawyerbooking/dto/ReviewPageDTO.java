@@ -0,0 +1,26 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import com.legalconnect.lawyerbooking.entity.Review;
+import java.util.List;
+
+/**
+ * One page of reviews, newest first. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the next page; it is null on the last page.
+ */
+public class ReviewPageDTO {
+    private List<Review> reviews;
+    private Long nextCursor;
+
+    public ReviewPageDTO() {}
+
+    public ReviewPageDTO(List<Review> reviews, Long nextCursor) {
+        this.reviews = reviews;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Review> getReviews() { return reviews; }
+    public void setReviews(List<Review> reviews) { this.reviews = reviews; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+}
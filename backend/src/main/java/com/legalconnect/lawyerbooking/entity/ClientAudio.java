@@ -3,7 +3,9 @@ package com.legalconnect.lawyerbooking.entity;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "client_audio")
+@Table(name = "client_audio", indexes = {
+    @Index(name = "idx_audio_user_content_hash", columnList = "user_id, content_hash")
+})
 public class ClientAudio {
 
     @Id
@@ -48,9 +50,24 @@ public class ClientAudio {
     @Column(name = "masked_gujarati_audio", columnDefinition = "LONGBLOB")
     private byte[] maskedGujaratiAudio;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "gujarati_translation_status", length = 20)
+    private com.legalconnect.lawyerbooking.enums.TranslationStatus gujaratiTranslationStatus;
+
     @Column(name = "gender", length = 20)
     private String gender; // MALE, FEMALE, or NEUTRAL
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // SHA-256 of the uploaded file, used to detect retries
+
+    @Column(name = "created_at")
+    private java.time.LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = java.time.LocalDateTime.now();
+    }
+
     // getters & setters
     public Long getId() {
         return id;
@@ -158,4 +175,29 @@ public class ClientAudio {
     public void setGender(String gender) {
         this.gender = gender;
     }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public com.legalconnect.lawyerbooking.enums.TranslationStatus getGujaratiTranslationStatus() {
+        return gujaratiTranslationStatus;
+    }
+
+    public void setGujaratiTranslationStatus(
+            com.legalconnect.lawyerbooking.enums.TranslationStatus gujaratiTranslationStatus) {
+        this.gujaratiTranslationStatus = gujaratiTranslationStatus;
+    }
+
+    public java.time.LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(java.time.LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
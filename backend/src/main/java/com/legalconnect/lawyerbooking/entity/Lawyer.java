@@ -1,7 +1,11 @@
 package com.legalconnect.lawyerbooking.entity;
 
 import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+import com.legalconnect.lawyerbooking.util.RatingScore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -29,21 +33,63 @@ public class Lawyer {
     @Column(name = "bar_number", length = 100)
     private String barNumber;
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Normalized copy of specializationMask; only written, so it stays lazy
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @CollectionTable(name = "lawyer_specializations", joinColumns = @JoinColumn(name = "lawyer_id"))
     @Convert(converter = com.legalconnect.lawyerbooking.converter.CaseTypeConverter.class)
     @Column(name = "specialization")
     private Set<CaseType> specializations = new HashSet<>();
 
+    // One bit per CaseType ordinal, see CaseTypeMask
+    @ColumnDefault("0")
+    @Column(name = "specialization_mask", nullable = false)
+    private Long specializationMask = 0L;
+
     @Column(name = "years_of_experience")
     private Integer yearsOfExperience;
 
     @Column(name = "languages_known", length = 255)
     private String languagesKnown;
 
-    @Column(name = "rating")
+    // Running review aggregates, maintained only by LawyerRepository.addRating.
+    // Written on insert but never on update, so saving a loaded profile cannot
+    // overwrite ratings added since it was read.
+    @Column(name = "rating", updatable = false)
     private Double rating;
 
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private Long ratingSum = 0L;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private Integer ratingCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "one_star_count", nullable = false, updatable = false)
+    private Integer oneStarCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "two_star_count", nullable = false, updatable = false)
+    private Integer twoStarCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "three_star_count", nullable = false, updatable = false)
+    private Integer threeStarCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "four_star_count", nullable = false, updatable = false)
+    private Integer fourStarCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "five_star_count", nullable = false, updatable = false)
+    private Integer fiveStarCount = 0;
+
+    // Bayesian-smoothed rating for ranking, see RatingScore
+    @Column(name = "ranking_score", updatable = false)
+    private Double rankingScore = RatingScore.of(0, 0);
+
     @Column(name = "completed_cases_count")
     private Integer completedCasesCount;
 
@@ -108,13 +154,16 @@ public class Lawyer {
     public void setBarNumber(String barNumber) { this.barNumber = barNumber; }
 
     public Set<CaseType> getSpecializations() {
-        return specializations;
+        return CaseTypeMask.toSet(specializationMask != null ? specializationMask : 0L);
     }
 
     public void setSpecializations(Set<CaseType> specializations) {
-        this.specializations = specializations;
+        this.specializations = specializations != null ? new HashSet<>(specializations) : new HashSet<>();
+        this.specializationMask = CaseTypeMask.of(this.specializations);
     }
 
+    public Long getSpecializationMask() { return specializationMask; }
+
     public Integer getYearsOfExperience() { return yearsOfExperience; }
     public void setYearsOfExperience(Integer yearsOfExperience) { this.yearsOfExperience = yearsOfExperience; }
 
@@ -124,6 +173,30 @@ public class Lawyer {
     public Double getRating() { return rating; }
     public void setRating(Double rating) { this.rating = rating; }
 
+    public Long getRatingSum() { return ratingSum; }
+    public void setRatingSum(Long ratingSum) { this.ratingSum = ratingSum; }
+
+    public Integer getRatingCount() { return ratingCount; }
+    public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
+
+    public Integer getOneStarCount() { return oneStarCount; }
+    public void setOneStarCount(Integer oneStarCount) { this.oneStarCount = oneStarCount; }
+
+    public Integer getTwoStarCount() { return twoStarCount; }
+    public void setTwoStarCount(Integer twoStarCount) { this.twoStarCount = twoStarCount; }
+
+    public Integer getThreeStarCount() { return threeStarCount; }
+    public void setThreeStarCount(Integer threeStarCount) { this.threeStarCount = threeStarCount; }
+
+    public Integer getFourStarCount() { return fourStarCount; }
+    public void setFourStarCount(Integer fourStarCount) { this.fourStarCount = fourStarCount; }
+
+    public Integer getFiveStarCount() { return fiveStarCount; }
+    public void setFiveStarCount(Integer fiveStarCount) { this.fiveStarCount = fiveStarCount; }
+
+    public Double getRankingScore() { return rankingScore; }
+    public void setRankingScore(Double rankingScore) { this.rankingScore = rankingScore; }
+
     public Integer getCompletedCasesCount() { return completedCasesCount; }
     public void setCompletedCasesCount(Integer completedCasesCount) { this.completedCasesCount = completedCasesCount; }
 
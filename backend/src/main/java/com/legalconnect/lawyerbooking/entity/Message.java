@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_message_case_created", columnList = "case_id, created_at, id"),
+    @Index(name = "idx_message_receiver_created", columnList = "receiver_id, receiver_type, created_at, id")
+})
 public class Message {
 
     @Id
@@ -0,0 +1,80 @@
+package com.legalconnect.lawyerbooking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * How far one participant has read a case conversation. Every message in
+ * the case addressed to them with an id up to {@code lastReadMessageId}
+ * counts as read, so opening a chat is one update however many messages
+ * it covers.
+ */
+@Entity
+@Table(name = "message_read_watermarks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_watermark_participant", columnNames = {"case_id", "participant_id", "participant_type"})
+})
+public class MessageReadWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    @Column(name = "participant_id", nullable = false)
+    private Long participantId;
+
+    @Column(name = "participant_type", nullable = false, length = 20)
+    private String participantType; // "user" or "lawyer"
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public MessageReadWatermark() {
+    }
+
+    public MessageReadWatermark(Long caseId, Long participantId, String participantType, Long lastReadMessageId) {
+        this.caseId = caseId;
+        this.participantId = participantId;
+        this.participantType = participantType;
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCaseId() {
+        return caseId;
+    }
+
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    public String getParticipantType() {
+        return participantType;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
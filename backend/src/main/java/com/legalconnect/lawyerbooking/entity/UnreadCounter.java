@@ -0,0 +1,67 @@
+package com.legalconnect.lawyerbooking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Number of unread messages addressed to a user or lawyer across all their
+ * cases. Kept in step with sends and read watermarks so the badge never
+ * needs a COUNT over messages.
+ */
+@Entity
+@Table(name = "unread_counters", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_unread_counter_participant", columnNames = {"participant_id", "participant_type"})
+})
+public class UnreadCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "participant_id", nullable = false)
+    private Long participantId;
+
+    @Column(name = "participant_type", nullable = false, length = 20)
+    private String participantType; // "user" or "lawyer"
+
+    @Column(name = "unread_count", nullable = false)
+    private Long unreadCount = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public UnreadCounter() {
+    }
+
+    public UnreadCounter(Long participantId, String participantType, Long unreadCount) {
+        this.participantId = participantId;
+        this.participantType = participantType;
+        this.unreadCount = unreadCount;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    public String getParticipantType() {
+        return participantType;
+    }
+
+    public Long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.legalconnect.lawyerbooking.enums;
+
+public enum AiPriority {
+    INTERACTIVE,    // A user is waiting on the result (uploads, case creation, TTS)
+    BACKFILL        // Background and bulk work; only uses capacity interactive work leaves free
+}
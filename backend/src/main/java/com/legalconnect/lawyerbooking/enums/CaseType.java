@@ -1,5 +1,7 @@
 package com.legalconnect.lawyerbooking.enums;
 
+// Order matters: lawyers.specialization_mask stores one bit per ordinal, so
+// new values must be appended
 public enum CaseType {
     CRIMINAL,
     CIVIL,
@@ -0,0 +1,18 @@
+package com.legalconnect.lawyerbooking.enums;
+
+public enum TranslationStatus {
+    PENDING,        // Not translated yet (queued or waiting for first access)
+    READY,          // Translation stored and can be served as-is
+    FAILED;         // Last attempt failed; retried on next access
+
+    /**
+     * Effective status of a record. Rows written before translation became lazy
+     * have no status; they are READY if they already carry Gujarati text.
+     */
+    public static TranslationStatus effective(TranslationStatus stored, String gujaratiText) {
+        if (stored != null) {
+            return stored;
+        }
+        return gujaratiText != null ? READY : PENDING;
+    }
+}
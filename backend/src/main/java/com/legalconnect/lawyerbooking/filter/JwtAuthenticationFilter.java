@@ -5,6 +5,9 @@ import com.legalconnect.lawyerbooking.util.JwtUtil;
 import com.legalconnect.lawyerbooking.repository.UserRepository;
 import com.legalconnect.lawyerbooking.repository.LawyerRepository;
 import com.legalconnect.lawyerbooking.repository.AdminRepository;
+import com.legalconnect.lawyerbooking.security.JwtTokenCache;
+import com.legalconnect.lawyerbooking.security.TokenRevocationRegistry;
+import com.legalconnect.lawyerbooking.security.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,6 +23,14 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 
+/**
+ * Authenticates requests carrying a Bearer access token.
+ *
+ * A token is parsed and its signature checked once; after its account has
+ * been found it is cached by {@link JwtTokenCache}, so later requests with
+ * the same token touch neither the parser nor the database. Revocations in
+ * {@link TokenRevocationRegistry} apply to cached tokens as well.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -35,86 +46,102 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private AdminRepository adminRepository;
 
+    @Autowired
+    private JwtTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocations;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        // HEARTBEAT LOG: Keep this for debugging persistent 401s
-        if (logger.isInfoEnabled()) {
-            logger.info("FILTER HEARTBEAT: Processing request " + request.getMethod() + " " + request.getRequestURI());
-        }
-
-        String username = null;
-        String jwtToken = null;
-        String role = null;
-        Long userId = null;
-
-        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7).trim(); // Added .trim() for robustness
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-                role = jwtUtil.extractRole(jwtToken);
-                userId = jwtUtil.extractUserId(jwtToken);
-            } catch (Exception e) {
-                logger.warn("JWT Token parsing failed: " + e.getMessage());
-            }
-        }
-
-        // Overwrite AnonymousAuthenticationToken if a valid username is extracted
+        // Overwrite AnonymousAuthenticationToken if a valid token is presented
         org.springframework.security.core.Authentication currentAuth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAnonymous = currentAuth instanceof org.springframework.security.authentication.AnonymousAuthenticationToken;
 
-        if (username != null && (currentAuth == null || isAnonymous)) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("Validating token for user: " + username + " with role: " + role);
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ") && (currentAuth == null || isAnonymous)) {
+            String jwtToken = requestTokenHeader.substring(7).trim(); // Added .trim() for robustness
+            VerifiedToken token = verify(jwtToken);
+
+            if (token != null && tokenRevocations.isRevoked(token)) {
+                logger.warn("Access Denied: Token revoked [ID: " + token.getUserId() + ", Role: " + token.getRole() + "]");
+                token = null;
             }
-            
-            if (jwtUtil.validateToken(jwtToken, username)) {
-                
-                // CRITICAL: Database check to ensure user still exists and isn't deleted/banned
-                boolean userExists = false;
-                
-                try {
-                    if ("USER".equals(role)) {
-                        userExists = userRepository.existsById(userId);
-                    } else if ("LAWYER".equals(role)) {
-                        userExists = lawyerRepository.existsById(userId);
-                    } else if ("ADMIN".equals(role)) {
-                        userExists = adminRepository.existsById(userId);
-                    } else {
-                        logger.warn("Unknown role: " + role + " for user: " + username);
-                    }
-                } catch (Exception e) {
-                    logger.error("Database check failed for user: " + username + " (ID: " + userId + "). Error: " + e.getMessage());
-                }
-                
-                if (userExists) {
-                    com.legalconnect.lawyerbooking.security.UserPrincipal principal = 
-                        new com.legalconnect.lawyerbooking.security.UserPrincipal(userId, username, role);
-                    
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
-                    
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            principal, null, Collections.singletonList(authority));
-                    
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("role", role);
-                    
-                    logger.info("Successfully authenticated user: " + username + " [Role: " + role + "]");
-                } else {
-                    logger.warn("Access Denied: Token valid but user record not found in DB [ID: " + userId + ", Role: " + role + ", Username: " + username + "]");
+
+            if (token != null) {
+                String role = token.getRole();
+                com.legalconnect.lawyerbooking.security.UserPrincipal principal = token.toPrincipal();
+
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, Collections.singletonList(authority));
+
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+
+                request.setAttribute("userId", token.getUserId());
+                request.setAttribute("role", role);
+
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Authenticated user: " + token.getUsername() + " [Role: " + role + "]");
                 }
-            } else {
-                logger.warn("Token validation failed for user: " + username);
             }
         }
-        
+
         chain.doFilter(request, response);
     }
-}
 
+    /**
+     * The token's claims, from the cache or from a single parse that checks
+     * signature and expiry. A freshly parsed token is only trusted, and
+     * cached, if its account still exists. Returns null if the token is
+     * not accepted.
+     */
+    private VerifiedToken verify(String jwtToken) {
+        VerifiedToken cached = tokenCache.get(jwtToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken token;
+        try {
+            token = jwtUtil.parseToken(jwtToken);
+        } catch (Exception e) {
+            logger.warn("JWT Token parsing failed: " + e.getMessage());
+            return null;
+        }
+        if (token.getUsername() == null || token.getUserId() == null) {
+            logger.warn("Token validation failed: missing subject or user id");
+            return null;
+        }
+
+        // CRITICAL: Database check to ensure user still exists and isn't deleted
+        String role = token.getRole();
+        Long userId = token.getUserId();
+        boolean userExists = false;
+        try {
+            if ("USER".equals(role)) {
+                userExists = userRepository.existsById(userId);
+            } else if ("LAWYER".equals(role)) {
+                userExists = lawyerRepository.existsById(userId);
+            } else if ("ADMIN".equals(role)) {
+                userExists = adminRepository.existsById(userId);
+            } else {
+                logger.warn("Unknown role: " + role + " for user: " + token.getUsername());
+            }
+        } catch (Exception e) {
+            logger.error("Database check failed for user: " + token.getUsername() + " (ID: " + userId + "). Error: " + e.getMessage());
+        }
+
+        if (!userExists) {
+            logger.warn("Access Denied: Token valid but user record not found in DB [ID: " + userId + ", Role: " + role + ", Username: " + token.getUsername() + "]");
+            return null;
+        }
+        tokenCache.put(jwtToken, token);
+        return token;
+    }
+}
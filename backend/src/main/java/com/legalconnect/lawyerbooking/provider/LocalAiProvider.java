@@ -0,0 +1,121 @@
+package com.legalconnect.lawyerbooking.provider;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.service.CaseClassificationService;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic in-process engine that needs no network access.
+ *
+ * Intended for tests, load runs and for routing cheap stages away from the
+ * remote API. Output is a stable function of the input: masking and
+ * classification use regexes and keyword tables, "transcription" echoes text
+ * uploads and fingerprints binary ones, and speech synthesis produces a tone
+ * whose length follows the text.
+ */
+@Component
+public class LocalAiProvider implements SpeechToTextProvider, TextTransformProvider, SpeechSynthesisProvider {
+
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+(\\.[\\w-]+)+");
+    private static final Pattern AADHAR = Pattern.compile("\\b\\d{4}\\s?\\d{4}\\s?\\d{4}\\b");
+    private static final Pattern PAN = Pattern.compile("\\b[A-Z]{5}\\d{4}[A-Z]\\b");
+    private static final Pattern PHONE = Pattern.compile("(\\+?\\d{1,3}[\\s-]?)?\\b\\d{5}[\\s-]?\\d{5}\\b");
+    private static final Pattern NAME = Pattern.compile(
+            "\\b(Mr|Mrs|Ms|Dr|Shri|Smt)\\.?\\s+[A-Z][a-z]+(\\s+[A-Z][a-z]+)*|(?<=\\b[Mm]y name is )[A-Z][a-z]+(\\s+[A-Z][a-z]+)*");
+
+    private static final float TTS_SAMPLE_RATE = 16000f;
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    // ================= Speech to text =================
+
+    @Override
+    public String translateToEnglish(MultipartFile file) throws Exception {
+        byte[] bytes = file.getBytes();
+        String contentType = file.getContentType();
+        // Load runs can upload plain text in place of a recording
+        if (contentType != null && contentType.startsWith("text/")) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        return "Local transcript of " + bytes.length + " byte recording " + digest.substring(0, 12) + ".";
+    }
+
+    // ================= Text operations =================
+
+    @Override
+    public String transform(TextOperation operation, String text) {
+        if (text == null) {
+            return null;
+        }
+        switch (operation) {
+            case MASK_PII:
+                return mask(text);
+            case TRANSLATE_TO_GUJARATI:
+                // No offline translation model; mark the text so it is distinguishable from the input
+                return "[gu] " + text;
+            case CLASSIFY_CASE:
+                return CaseClassificationService.classifyWithKeywords(text);
+            case GENERATE_TITLE:
+                return CaseClassificationService.classifyWithKeywords(text) + " Legal Matter";
+            default:
+                throw new IllegalArgumentException("Unsupported text operation: " + operation);
+        }
+    }
+
+    private String mask(String text) {
+        String masked = EMAIL.matcher(text).replaceAll("[EMAIL_MASKED]");
+        masked = AADHAR.matcher(masked).replaceAll("[ID_MASKED]");
+        masked = PAN.matcher(masked).replaceAll("[ID_MASKED]");
+        masked = PHONE.matcher(masked).replaceAll("[PHONE_MASKED]");
+        masked = NAME.matcher(masked).replaceAll("[NAME_MASKED]");
+        return masked;
+    }
+
+    // ================= Speech synthesis =================
+
+    @Override
+    public String getContentType() {
+        return "audio/wav";
+    }
+
+    @Override
+    public byte[] textToSpeech(String text, String languageCode, String gender) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Text cannot be null or empty");
+        }
+        // ~60ms per character, capped at 30s, pitched by gender
+        double frequency = "MALE".equalsIgnoreCase(gender) ? 120 : "FEMALE".equalsIgnoreCase(gender) ? 220 : 170;
+        int samples = (int) (TTS_SAMPLE_RATE * Math.min(30.0, text.length() * 0.06));
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            short value = (short) (Math.sin(2 * Math.PI * frequency * i / TTS_SAMPLE_RATE) * 8000);
+            pcm[2 * i] = (byte) value;
+            pcm[2 * i + 1] = (byte) (value >> 8);
+        }
+
+        AudioFormat format = new AudioFormat(TTS_SAMPLE_RATE, 16, 1, true, false);
+        try (AudioInputStream in = new AudioInputStream(new ByteArrayInputStream(pcm), format, samples)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pcm.length + 44);
+            AudioSystem.write(in, AudioFileFormat.Type.WAVE, out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException("Local speech synthesis failed: " + e.getMessage(), e);
+        }
+    }
+}
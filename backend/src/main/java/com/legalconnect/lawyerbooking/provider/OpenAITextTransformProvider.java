@@ -0,0 +1,54 @@
+package com.legalconnect.lawyerbooking.provider;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import com.legalconnect.lawyerbooking.service.CaseClassificationService;
+import com.legalconnect.lawyerbooking.service.TextMaskingService;
+import com.legalconnect.lawyerbooking.service.TextTranslationService;
+
+/**
+ * Text operations backed by the OpenAI chat completion services.
+ */
+@Component
+public class OpenAITextTransformProvider implements TextTransformProvider {
+
+    private final TextMaskingService maskingService;
+    private final TextTranslationService translationService;
+    private final CaseClassificationService classificationService;
+
+    public OpenAITextTransformProvider(TextMaskingService maskingService,
+            TextTranslationService translationService,
+            CaseClassificationService classificationService) {
+        this.maskingService = maskingService;
+        this.translationService = translationService;
+        this.classificationService = classificationService;
+    }
+
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
+    @Override
+    public String transform(TextOperation operation, String text) {
+        switch (operation) {
+            case MASK_PII:
+                return maskingService.maskEnglishPersonalInfo(text);
+            case TRANSLATE_TO_GUJARATI:
+                return translationService.translateToGujarati(text);
+            case CLASSIFY_CASE:
+                return classificationService.classifyCase(text);
+            case GENERATE_TITLE:
+                return classificationService.generateTitle(text);
+            default:
+                throw new IllegalArgumentException("Unsupported text operation: " + operation);
+        }
+    }
+
+    @Override
+    public List<String> classifyBatch(List<String> texts) {
+        return classificationService.classifyBatch(texts);
+    }
+}
@@ -0,0 +1,40 @@
+package com.legalconnect.lawyerbooking.provider;
+
+/**
+ * Text-to-speech engine used for on-demand playback of masked transcripts.
+ */
+public interface SpeechSynthesisProvider {
+
+    /**
+     * Name used to select this provider in configuration (e.g. "openai", "local").
+     */
+    String getName();
+
+    /**
+     * Converts text to speech.
+     *
+     * @param text         The text to speak
+     * @param languageCode Language code (e.g., "en" for English, "gu" for Gujarati)
+     * @param gender       Voice gender ("MALE", "FEMALE", or "NEUTRAL")
+     * @return Encoded audio bytes
+     */
+    byte[] textToSpeech(String text, String languageCode, String gender);
+
+    /**
+     * MIME type of the audio returned by {@link #textToSpeech}.
+     */
+    String getContentType();
+
+    /**
+     * MIME type of stored audio, which may have come from another provider:
+     * WAV if it has a RIFF/WAVE header, otherwise MP3.
+     */
+    static String contentTypeOf(byte[] audio) {
+        if (audio != null && audio.length >= 12
+                && audio[0] == 'R' && audio[1] == 'I' && audio[2] == 'F' && audio[3] == 'F'
+                && audio[8] == 'W' && audio[9] == 'A' && audio[10] == 'V' && audio[11] == 'E') {
+            return "audio/wav";
+        }
+        return "audio/mpeg";
+    }
+}
@@ -0,0 +1,19 @@
+package com.legalconnect.lawyerbooking.provider;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Speech-to-text engine used by the audio pipeline.
+ */
+public interface SpeechToTextProvider {
+
+    /**
+     * Name used to select this provider in configuration (e.g. "openai", "local").
+     */
+    String getName();
+
+    /**
+     * Transcribes the audio and returns the text in English.
+     */
+    String translateToEnglish(MultipartFile file) throws Exception;
+}
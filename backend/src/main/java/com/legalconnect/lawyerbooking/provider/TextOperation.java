@@ -0,0 +1,8 @@
+package com.legalconnect.lawyerbooking.provider;
+
+public enum TextOperation {
+    MASK_PII,               // Replace personal information with mask tokens
+    TRANSLATE_TO_GUJARATI,  // Translate masked English text to Gujarati
+    CLASSIFY_CASE,          // Return one case category (e.g. "Family")
+    GENERATE_TITLE          // Return a short case title
+}
@@ -0,0 +1,38 @@
+package com.legalconnect.lawyerbooking.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text-to-text engine used for masking, translation, classification and title
+ * generation.
+ */
+public interface TextTransformProvider {
+
+    /**
+     * Name used to select this provider in configuration (e.g. "openai", "local").
+     */
+    String getName();
+
+    /**
+     * Applies the given operation to the text.
+     *
+     * @return The transformed text, or null if the provider could not produce a
+     *         result (callers apply their own fallback)
+     */
+    String transform(TextOperation operation, String text);
+
+    /**
+     * Classifies several case descriptions at once. Providers that can answer
+     * many in one request override this; the default classifies one by one.
+     *
+     * @return One category per text, in order, or null if the batch failed
+     */
+    default List<String> classifyBatch(List<String> texts) {
+        List<String> categories = new ArrayList<>();
+        for (String text : texts) {
+            categories.add(transform(TextOperation.CLASSIFY_CASE, text));
+        }
+        return categories;
+    }
+}
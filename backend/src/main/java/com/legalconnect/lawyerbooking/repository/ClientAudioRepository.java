@@ -7,19 +7,44 @@ import java.util.List;
 
 public interface ClientAudioRepository extends JpaRepository<ClientAudio, Long> {
     
-    @org.springframework.data.jpa.repository.Query("SELECT ca FROM ClientAudio ca")
-    List<ClientAudio> findAllAudio();
+    @org.springframework.data.jpa.repository.Query("SELECT ca FROM ClientAudio ca WHERE ca.caseId = :caseId")
+    List<ClientAudio> findByCaseId(@Param("caseId") Long caseId);
+
+    java.util.Optional<ClientAudio> findFirstByUserIdAndContentHashAndCreatedAtAfterOrderByIdDesc(
+            Long userId, String contentHash, java.time.LocalDateTime createdAfter);
+
+    // List projections: one query each, without blobs or the unmasked transcript
+    String LIST_SELECT = "SELECT new com.legalconnect.lawyerbooking.dto.ClientAudioDTO(" +
+           "ca.id, ca.language, ca.maskedEnglishText, ca.maskedGujaratiText, ca.gujaratiTranslationStatus, " +
+           "ca.userId, ca.caseId, ca.lawyerId, c.caseTitle) ";
 
-    @org.springframework.data.jpa.repository.Query("SELECT ca FROM ClientAudio ca WHERE ca.userId = :userId")
-    List<ClientAudio> findForUser(@Param("userId") Long userId);
+    @org.springframework.data.jpa.repository.Query(LIST_SELECT + "FROM ClientAudio ca LEFT JOIN ca.caseEntity c")
+    List<com.legalconnect.lawyerbooking.dto.ClientAudioDTO> findAllListItems();
 
-    @org.springframework.data.jpa.repository.Query("SELECT ca FROM ClientAudio ca JOIN ca.caseEntity c " +
+    @org.springframework.data.jpa.repository.Query(LIST_SELECT + "FROM ClientAudio ca LEFT JOIN ca.caseEntity c " +
+           "WHERE ca.userId = :userId")
+    List<com.legalconnect.lawyerbooking.dto.ClientAudioDTO> findListItemsForUser(@Param("userId") Long userId);
+
+    @org.springframework.data.jpa.repository.Query(LIST_SELECT + "FROM ClientAudio ca JOIN ca.caseEntity c " +
            "WHERE c.deleted = false AND c.lawyerId IS NULL AND c.caseType IN :specializations")
-    List<ClientAudio> findForLawyer(@Param("lawyerId") Long lawyerId, 
-                                    @Param("specializations") java.util.Collection<com.legalconnect.lawyerbooking.enums.CaseType> specializations);
+    List<com.legalconnect.lawyerbooking.dto.ClientAudioDTO> findListItemsForLawyer(
+            @Param("specializations") java.util.Collection<com.legalconnect.lawyerbooking.enums.CaseType> specializations);
 
-    @org.springframework.data.jpa.repository.Query("SELECT ca FROM ClientAudio ca WHERE ca.caseId = :caseId")
-    List<ClientAudio> findByCaseId(@Param("caseId") Long caseId);
+    // Translation results touch only their own columns, so a slow translation
+    // cannot overwrite changes made to the record while it ran
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE ClientAudio ca SET ca.maskedGujaratiText = :text, " +
+           "ca.gujaratiTranslationStatus = :status WHERE ca.id = :id")
+    int updateGujaratiTranslation(@Param("id") Long id, @Param("text") String text,
+            @Param("status") com.legalconnect.lawyerbooking.enums.TranslationStatus status);
+
+    @org.springframework.transaction.annotation.Transactional
+    @org.springframework.data.jpa.repository.Modifying(flushAutomatically = true, clearAutomatically = true)
+    @org.springframework.data.jpa.repository.Query("UPDATE ClientAudio ca SET ca.gujaratiTranslationStatus = :status " +
+           "WHERE ca.id = :id")
+    int updateGujaratiTranslationStatus(@Param("id") Long id,
+            @Param("status") com.legalconnect.lawyerbooking.enums.TranslationStatus status);
 
     void deleteByCaseId(Long caseId);
 }
@@ -1,9 +1,15 @@
 package com.legalconnect.lawyerbooking.repository;
 
+import com.legalconnect.lawyerbooking.dto.RatingSummaryDTO;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,5 +20,40 @@ public interface LawyerRepository extends JpaRepository<Lawyer, Long>, org.sprin
     Optional<Lawyer> findFirstByEmail(String email);
     boolean existsByEmail(String email);
     long countByVerifiedFalse();
+
+    @Query("SELECT l.specializationMask FROM Lawyer l WHERE l.id = :lawyerId")
+    Optional<Long> findSpecializationMask(@Param("lawyerId") Long lawyerId);
+
+    /**
+     * (id, specialization mask) pairs for the given lawyers.
+     */
+    @Query("SELECT l.id, l.specializationMask FROM Lawyer l WHERE l.id IN :ids")
+    List<Object[]> findSpecializationMasks(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.legalconnect.lawyerbooking.dto.RatingSummaryDTO(l.id, l.rating, l.ratingSum, l.ratingCount, "
+            + "l.oneStarCount, l.twoStarCount, l.threeStarCount, l.fourStarCount, l.fiveStarCount, l.rankingScore) "
+            + "FROM Lawyer l WHERE l.id = :lawyerId")
+    Optional<RatingSummaryDTO> findRatingSummary(@Param("lawyerId") Long lawyerId);
+
+    /**
+     * Adds one review to the lawyer's running aggregates in a single
+     * statement. The derived columns are assigned first and written in terms
+     * of the old sum and count, because MySQL applies SET clauses left to
+     * right and later clauses would otherwise see the incremented values.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Lawyer l SET "
+            + "l.rating = ROUND(1.0 * (l.ratingSum + :stars) / (l.ratingCount + 1), 1), "
+            + "l.rankingScore = (:priorWeight * :priorMean + l.ratingSum + :stars) / (:priorWeight + l.ratingCount + 1), "
+            + "l.ratingSum = l.ratingSum + :stars, "
+            + "l.ratingCount = l.ratingCount + 1, "
+            + "l.oneStarCount = l.oneStarCount + CASE WHEN :stars = 1 THEN 1 ELSE 0 END, "
+            + "l.twoStarCount = l.twoStarCount + CASE WHEN :stars = 2 THEN 1 ELSE 0 END, "
+            + "l.threeStarCount = l.threeStarCount + CASE WHEN :stars = 3 THEN 1 ELSE 0 END, "
+            + "l.fourStarCount = l.fourStarCount + CASE WHEN :stars = 4 THEN 1 ELSE 0 END, "
+            + "l.fiveStarCount = l.fiveStarCount + CASE WHEN :stars = 5 THEN 1 ELSE 0 END "
+            + "WHERE l.id = :lawyerId")
+    int addRating(@Param("lawyerId") Long lawyerId, @Param("stars") int stars,
+            @Param("priorMean") double priorMean, @Param("priorWeight") double priorWeight);
 }
 
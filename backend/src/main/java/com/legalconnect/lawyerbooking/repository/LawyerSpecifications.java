@@ -2,7 +2,12 @@ package com.legalconnect.lawyerbooking.repository;
 
 import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
@@ -11,6 +16,15 @@ import java.util.List;
 
 public class LawyerSpecifications {
 
+    /**
+     * {@code specialization_mask & bit <> 0}, without joining lawyer_specializations.
+     */
+    public static Predicate hasSpecialization(Root<Lawyer> root, CriteriaBuilder cb, CaseType specialization) {
+        Expression<Long> masked = cb.function("bitand", Long.class,
+                root.get("specializationMask"), cb.literal(CaseTypeMask.bit(specialization)));
+        return cb.notEqual(masked, 0L);
+    }
+
     public static Specification<Lawyer> withCriteria(LawyerSearchCriteria criteria) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -21,7 +35,7 @@ public class LawyerSpecifications {
             }
 
             if (criteria.getSpecialization() != null) {
-                predicates.add(cb.isMember(criteria.getSpecialization(), root.get("specializations")));
+                predicates.add(hasSpecialization(root, cb, criteria.getSpecialization()));
             }
 
             if (criteria.getMinRating() != null) {
@@ -0,0 +1,32 @@
+package com.legalconnect.lawyerbooking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.legalconnect.lawyerbooking.entity.MessageReadWatermark;
+import java.util.Optional;
+
+@Repository
+public interface MessageReadWatermarkRepository extends JpaRepository<MessageReadWatermark, Long> {
+
+    Optional<MessageReadWatermark> findByCaseIdAndParticipantIdAndParticipantType(Long caseId, Long participantId, String participantType);
+
+    /**
+     * Moves the watermark from {@code fromMessageId} to {@code toMessageId}.
+     * Returns 0 when another request moved it first, so the caller knows
+     * exactly which range of messages it marked read.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MessageReadWatermark w SET w.lastReadMessageId = :toMessageId, w.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE w.caseId = :caseId AND w.participantId = :participantId AND w.participantType = :participantType " +
+           "AND w.lastReadMessageId = :fromMessageId")
+    int advance(@Param("caseId") Long caseId,
+                @Param("participantId") Long participantId,
+                @Param("participantType") String participantType,
+                @Param("fromMessageId") Long fromMessageId,
+                @Param("toMessageId") Long toMessageId);
+}
@@ -1,10 +1,14 @@
 package com.legalconnect.lawyerbooking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.legalconnect.lawyerbooking.entity.Message;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,7 +30,82 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * This is the primary method for chat message retrieval
      */
     List<Message> findByCaseIdOrderByCreatedAtAsc(Long caseId);
+
+    /**
+     * Keyset pages over (createdAt, id), served by idx_message_case_created.
+     * The redundant createdAt bound keeps the scan a single index range.
+     */
+    List<Message> findByCaseIdOrderByCreatedAtDescIdDesc(Long caseId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.caseId = :caseId AND m.createdAt <= :createdAt AND " +
+           "(m.createdAt < :createdAt OR m.id < :id) ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findCaseMessagesBefore(@Param("caseId") Long caseId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.caseId = :caseId AND m.createdAt >= :createdAt AND " +
+           "(m.createdAt > :createdAt OR m.id > :id) ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findCaseMessagesAfter(@Param("caseId") Long caseId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    /**
+     * Keyset pages over a receiver's inbox, served by idx_message_receiver_created
+     */
+    List<Message> findByReceiverIdAndReceiverTypeOrderByCreatedAtDescIdDesc(Long receiverId, String receiverType, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.receiverId = :receiverId AND m.receiverType = :receiverType AND " +
+           "m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR m.id < :id) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findReceiverMessagesBefore(@Param("receiverId") Long receiverId,
+                                             @Param("receiverType") String receiverType,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.receiverId = :receiverId AND m.receiverType = :receiverType AND " +
+           "m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR m.id > :id) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findReceiverMessagesAfter(@Param("receiverId") Long receiverId,
+                                            @Param("receiverType") String receiverType,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
     
+    /**
+     * Unread messages for a participant in one case: those addressed to
+     * them past their read watermark (see MessageReadWatermark)
+     */
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.caseId = :caseId AND m.receiverId = :receiverId " +
+           "AND m.receiverType = :receiverType AND m.isRead = false AND m.id > COALESCE(" +
+           "(SELECT w.lastReadMessageId FROM MessageReadWatermark w WHERE w.caseId = m.caseId " +
+           "AND w.participantId = :receiverId AND w.participantType = :receiverType), 0)")
+    long countUnreadInCase(@Param("caseId") Long caseId,
+                           @Param("receiverId") Long receiverId,
+                           @Param("receiverType") String receiverType);
+
+    /**
+     * Unread messages for a participant across all their cases
+     */
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiverId = :receiverId " +
+           "AND m.receiverType = :receiverType AND m.isRead = false AND m.id > COALESCE(" +
+           "(SELECT w.lastReadMessageId FROM MessageReadWatermark w WHERE w.caseId = m.caseId " +
+           "AND w.participantId = :receiverId AND w.participantType = :receiverType), 0)")
+    long countUnread(@Param("receiverId") Long receiverId, @Param("receiverType") String receiverType);
+
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.caseId = :caseId")
+    Long findLatestMessageId(@Param("caseId") Long caseId);
+
+    /**
+     * Read flag for messages outside any case, which have no watermark
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.id = :id")
+    int markRead(@Param("id") Long id);
+
     /**
      * Get unread message count for a specific user in a specific case
      * Used for unread message indicators
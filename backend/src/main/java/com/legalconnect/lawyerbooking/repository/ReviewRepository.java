@@ -1,6 +1,7 @@
 package com.legalconnect.lawyerbooking.repository;
 
 import com.legalconnect.lawyerbooking.entity.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -9,4 +10,8 @@ import java.util.List;
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByLawyerId(Long lawyerId);
     List<Review> findByCaseId(Long caseId);
+
+    // Keyset pages over (lawyer_id, id), newest first
+    List<Review> findByLawyerIdOrderByIdDesc(Long lawyerId, Pageable pageable);
+    List<Review> findByLawyerIdAndIdLessThanOrderByIdDesc(Long lawyerId, Long id, Pageable pageable);
 }
@@ -0,0 +1,42 @@
+package com.legalconnect.lawyerbooking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.legalconnect.lawyerbooking.entity.UnreadCounter;
+import java.util.Optional;
+
+@Repository
+public interface UnreadCounterRepository extends JpaRepository<UnreadCounter, Long> {
+
+    @Query("SELECT c.unreadCount FROM UnreadCounter c WHERE c.participantId = :participantId AND c.participantType = :participantType")
+    Optional<Long> findCount(@Param("participantId") Long participantId, @Param("participantType") String participantType);
+
+    /**
+     * Adds delta in place. Returns 0 when the participant has no counter row yet.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UnreadCounter c SET " +
+           "c.unreadCount = c.unreadCount + :delta, " +
+           "c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.participantId = :participantId AND c.participantType = :participantType")
+    int add(@Param("participantId") Long participantId,
+            @Param("participantType") String participantType,
+            @Param("delta") long delta);
+
+    /**
+     * Overwrites the count with a recomputed value. Returns 0 when the
+     * participant has no counter row yet.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UnreadCounter c SET c.unreadCount = :count, c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.participantId = :participantId AND c.participantType = :participantType")
+    int set(@Param("participantId") Long participantId,
+            @Param("participantType") String participantType,
+            @Param("count") long count);
+}
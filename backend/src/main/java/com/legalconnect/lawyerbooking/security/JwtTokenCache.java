@@ -0,0 +1,102 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access tokens that have already been verified, keyed by a SHA-256 hash of
+ * the token so the tokens themselves are not kept in memory. A hit skips
+ * parsing, the signature check and the account lookup.
+ *
+ * Entries live for {@code jwt.cache.ttl-ms} or until the token expires,
+ * whichever is sooner; a TTL of 0 disables the cache. When
+ * {@code jwt.cache.max-entries} is reached expired entries are dropped,
+ * and if that is not enough the cache starts over.
+ */
+@Component
+public class JwtTokenCache {
+
+    @Value("${jwt.cache.ttl-ms:300000}")
+    private long ttlMs = 300000;
+
+    @Value("${jwt.cache.max-entries:100000}")
+    private int maxEntries = 100000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final class Entry {
+        final VerifiedToken token;
+        final long validUntil;
+
+        Entry(VerifiedToken token, long validUntil) {
+            this.token = token;
+            this.validUntil = validUntil;
+        }
+    }
+
+    public VerifiedToken get(String token) {
+        if (ttlMs <= 0) {
+            return null;
+        }
+        String key = hash(token);
+        Entry entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() < entry.validUntil) {
+            hits.incrementAndGet();
+            return entry.token;
+        }
+        if (entry != null) {
+            entries.remove(key, entry);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (ttlMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long validUntil = Math.min(now + ttlMs, verified.getExpiresAtMillis());
+        if (validUntil <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(e -> e.validUntil <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(hash(token), new Entry(verified, validUntil));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Authentication attached to a STOMP session. Its name is the principal's
+ * session name rather than the username, so user destinations reach one
+ * account even when a user and a lawyer share a username.
+ */
+public class StompAuthentication extends UsernamePasswordAuthenticationToken {
+
+    public StompAuthentication(UserPrincipal principal, Collection<? extends GrantedAuthority> authorities) {
+        super(principal, null, authorities);
+    }
+
+    @Override
+    public String getName() {
+        return ((UserPrincipal) getPrincipal()).getSessionName();
+    }
+}
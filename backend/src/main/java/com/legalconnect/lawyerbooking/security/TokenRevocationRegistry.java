@@ -0,0 +1,72 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals whose access tokens must stop working before they expire:
+ * deleted accounts, and accounts whose refresh token was stolen. Every
+ * token issued to the principal up to the millisecond of revocation is
+ * refused, including ones the JWT filter has already cached. Tokens carry
+ * their issue time in milliseconds, so a login right after a revocation
+ * is accepted; a token with only the standard whole-second issue time is
+ * refused through the end of the second of revocation.
+ *
+ * An entry is only needed until the tokens it covers have expired, so it is
+ * dropped after {@code jwt.expiration}. The set is per node and not kept
+ * across restarts; the filter's database check on a cache miss covers
+ * deletions it has not seen.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    @Value("${jwt.expiration:3600000}")
+    private long tokenLifetimeMs = 3600000;
+
+    // "ROLE:id" -> revocation time in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * Refuses every token issued to this principal until now.
+     */
+    public void revoke(String role, Long userId) {
+        if (role == null || userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revoked.put(key(role, userId), now);
+        revoked.values().removeIf(at -> now - at > tokenLifetimeMs);
+        logger.info("Revoked access tokens of {} {}", role, userId);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (revoked.isEmpty()) {
+            return false;
+        }
+        Long at = revoked.get(key(token.getRole(), token.getUserId()));
+        if (at == null) {
+            return false;
+        }
+        if (token.hasMillisecondIssueTime()) {
+            return token.getIssuedAtMillis() <= at;
+        }
+        // Whole seconds: anything from the second of revocation may predate it
+        return token.getIssuedAtMillis() <= at - at % 1000;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private static String key(String role, Long userId) {
+        return role.toUpperCase(Locale.ROOT) + ":" + userId;
+    }
+}
@@ -1,6 +1,7 @@
 package com.legalconnect.lawyerbooking.security;
 
 import java.security.Principal;
+import java.util.Locale;
 
 public class UserPrincipal implements Principal {
     private final Long userId;
@@ -26,6 +27,18 @@ public class UserPrincipal implements Principal {
         return username;
     }
 
+    /**
+     * Name of this account's STOMP session user, e.g. "lawyer-7". Usernames
+     * are only unique per role, so user destinations are addressed by this.
+     */
+    public String getSessionName() {
+        return sessionName(role, userId);
+    }
+
+    public static String sessionName(String role, Long userId) {
+        return role.toLowerCase(Locale.ROOT) + "-" + userId;
+    }
+
     @Override
     public String toString() {
         return "UserPrincipal{" +
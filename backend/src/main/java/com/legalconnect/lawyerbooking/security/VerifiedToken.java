@@ -0,0 +1,59 @@
+package com.legalconnect.lawyerbooking.security;
+
+/**
+ * The claims of an access token whose signature and expiry have been
+ * checked, read out once so a request never parses the token again.
+ */
+public final class VerifiedToken {
+    private final Long userId;
+    private final String username;
+    private final String role;
+    private final long issuedAtMillis;
+    private final boolean millisecondIssueTime;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(Long userId, String username, String role, long issuedAtMillis,
+            boolean millisecondIssueTime, long expiresAtMillis) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.issuedAtMillis = issuedAtMillis;
+        this.millisecondIssueTime = millisecondIssueTime;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    /**
+     * False for tokens with only the standard {@code iat}, which is truncated to the second.
+     */
+    public boolean hasMillisecondIssueTime() {
+        return millisecondIssueTime;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, username, role);
+    }
+}
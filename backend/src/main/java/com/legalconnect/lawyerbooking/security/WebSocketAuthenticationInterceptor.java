@@ -1,5 +1,6 @@
 package com.legalconnect.lawyerbooking.security;
 
+import com.legalconnect.lawyerbooking.service.PresenceRegistry;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,9 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
@@ -49,14 +53,16 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
                         UserPrincipal principal = new UserPrincipal(userId, username, role);
                         SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
                         
-                        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                                principal, null, Collections.singletonList(authority));
+                        UsernamePasswordAuthenticationToken auth = new StompAuthentication(
+                                principal, Collections.singletonList(authority));
                         
                         // Set the user in the accessor so it's available in the session
                         accessor.setUser(auth);
                         
                         // Also set in SecurityContextHolder for the current thread
                         SecurityContextHolder.getContext().setAuthentication(auth);
+
+                        presenceRegistry.connected(accessor.getSessionId(), principal);
                     } else {
                         logger.warn("WebSocket Auth Failed: Invalid token for user {}", username);
                     }
@@ -66,6 +72,9 @@ public class WebSocketAuthenticationInterceptor implements ChannelInterceptor {
             } else {
                 logger.warn("WebSocket CONNECT without Bearer token");
             }
+        } else if (accessor != null && StompCommand.DISCONNECT.equals(accessor.getCommand())) {
+            // Also sent by the server when a socket drops without a DISCONNECT frame
+            presenceRegistry.disconnected(accessor.getSessionId());
         }
 
         return message;
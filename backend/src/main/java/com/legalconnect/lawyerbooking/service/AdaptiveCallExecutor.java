@@ -0,0 +1,359 @@
+package com.legalconnect.lawyerbooking.service;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Executes OpenAI HTTP calls with timeouts and hedging derived from observed
+ * latency.
+ *
+ * Each endpoint keeps a rolling window of recent successful latencies, with
+ * calls that timed out counted at their timeout. Once
+ * enough samples exist, the call timeout becomes a multiple of the window's
+ * p99 (never above the client's own read timeout), so a stalled response is
+ * abandoned after a few typical response times instead of minutes.
+ *
+ * Idempotent calls can additionally be hedged: if no answer has arrived by the
+ * endpoint's p95, an identical second request is sent and whichever responds
+ * first wins. Hedges are capped at a fraction of calls so a slow upstream
+ * cannot double the load, and are only sent while the {@link AiWorkScheduler}
+ * has a slot and tokens to spare for them.
+ */
+@Service
+public class AdaptiveCallExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveCallExecutor.class);
+
+    @Value("${ai.latency.window-size:500}")
+    private int windowSize;
+
+    @Value("${ai.latency.min-samples:20}")
+    private int minSamples;
+
+    @Value("${ai.latency.timeout-multiplier:4.0}")
+    private double timeoutMultiplier;
+
+    @Value("${ai.latency.min-timeout-ms:5000}")
+    private long minTimeoutMillis;
+
+    // Extra requests allowed per call, e.g. 0.1 = at most one hedge per ten calls
+    @Value("${ai.hedging.budget-ratio:0.1}")
+    private double hedgeBudgetRatio;
+
+    @Value("${ai.hedging.enabled:true}")
+    private boolean hedgingEnabled;
+
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    // Source of the latencies that are recorded; tests substitute a scripted clock
+    private LongSupplier nanoClock = System::nanoTime;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new java.util.concurrent.ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "openai-call-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Executes the request with an adaptive timeout.
+     *
+     * @param endpoint Latency bucket, e.g. "chat.classify"; calls of very
+     *                 different sizes should use different buckets
+     * @param hedge    Whether the call is idempotent and may be sent twice
+     */
+    public Response execute(String endpoint, OkHttpClient client, Request request, boolean hedge) throws IOException {
+        return execute(endpoint, client, request, hedge, 0);
+    }
+
+    /**
+     * {@link #execute(String, OkHttpClient, Request, boolean)} for calls that
+     * count against the token limit; a hedge claims the same tokens again.
+     */
+    public Response execute(String endpoint, OkHttpClient client, Request request, boolean hedge,
+            int estimatedTokens) throws IOException {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, k -> new EndpointStats(windowSize));
+        stats.calls.incrementAndGet();
+        long timeoutMillis = stats.timeoutMillis(client.readTimeoutMillis());
+        long hedgeDelayMillis = stats.percentile(0.95);
+
+        if (!hedge || !hedgingEnabled || hedgeDelayMillis < 0) {
+            return attempt(stats, client, request, timeoutMillis);
+        }
+        stats.earnHedgeCredit(hedgeBudgetRatio);
+
+        CompletableFuture<Attempt> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        Attempt primary = launch(stats, client, request, timeoutMillis, winner, pending, null);
+        Attempt secondary = null;
+        try {
+            try {
+                return winner.get(hedgeDelayMillis, TimeUnit.MILLISECONDS).response;
+            } catch (TimeoutException e) {
+                if (!winner.isDone() && stats.tryHedge()) {
+                    AiWorkScheduler.Permit permit = aiWorkScheduler.tryAcquire(estimatedTokens);
+                    if (permit == null) {
+                        logger.debug("{} slower than p95 but no AI capacity to spare, not hedging", endpoint);
+                        stats.refundHedge();
+                    } else {
+                        logger.debug("{} slower than p95 ({}ms), sending hedged request", endpoint, hedgeDelayMillis);
+                        pending.incrementAndGet();
+                        secondary = launch(stats, client, request, timeoutMillis, winner, pending, permit);
+                    }
+                }
+            }
+            Attempt won = winner.get();
+            if (won == secondary) {
+                stats.hedgeWins.incrementAndGet();
+            }
+            return won.response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + endpoint, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            // The winner's body is still to be read by the caller; only stop the others
+            Attempt won = winner.getNow(null);
+            if (won != primary) {
+                primary.abandon();
+            }
+            if (secondary != null && won != secondary) {
+                secondary.abandon();
+            }
+        }
+    }
+
+    private Response attempt(EndpointStats stats, OkHttpClient client, Request request, long timeoutMillis)
+            throws IOException {
+        Call call = newCall(client, request, timeoutMillis);
+        long start = nanoClock.getAsLong();
+        try {
+            Response response = call.execute();
+            stats.record(response, nanoClock.getAsLong() - start);
+            return response;
+        } catch (IOException e) {
+            stats.recordFailure(e, nanoClock.getAsLong() - start, timeoutMillis);
+            throw e;
+        }
+    }
+
+    private Attempt launch(EndpointStats stats, OkHttpClient client, Request request, long timeoutMillis,
+            CompletableFuture<Attempt> winner, AtomicInteger pending, AiWorkScheduler.Permit permit) {
+        Attempt attempt = new Attempt(newCall(client, request, timeoutMillis));
+        executor.execute(() -> {
+            long start = nanoClock.getAsLong();
+            try {
+                attempt.response = attempt.call.execute();
+                stats.record(attempt.response, nanoClock.getAsLong() - start);
+                if (!winner.complete(attempt)) {
+                    attempt.response.close();
+                }
+            } catch (IOException e) {
+                // A call we gave up on says nothing about the endpoint
+                if (!attempt.abandoned) {
+                    stats.recordFailure(e, nanoClock.getAsLong() - start, timeoutMillis);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+            } finally {
+                if (permit != null) {
+                    permit.close();
+                }
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Latency bucket for calls whose duration grows with their size, so that
+     * long inputs are not judged against the timings of short ones.
+     */
+    public static String endpointFor(String endpoint, long size, long largeThreshold) {
+        return size > largeThreshold ? endpoint + ".large" : endpoint;
+    }
+
+    /**
+     * Latency bucket for calls whose duration is roughly proportional to their
+     * size: sizes are grouped in doubling bands of the given unit, so no two
+     * calls in a bucket differ by more than a factor of two. The suffix is the
+     * lower edge of the band, e.g. "whisper.60" for 60 to 119 seconds of audio.
+     */
+    public static String endpointForBand(String endpoint, long size, long unit) {
+        long band = Long.highestOneBit(Math.max(0, size / Math.max(1, unit)));
+        return endpoint + "." + band * unit;
+    }
+
+    private static Call newCall(OkHttpClient client, Request request, long timeoutMillis) {
+        Call call = client.newCall(request);
+        if (timeoutMillis > 0) {
+            call.timeout().timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+
+    /**
+     * Latency percentiles, current timeout and hedging counts per endpoint.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        endpoints.forEach((endpoint, s) -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("calls", s.calls.get());
+            m.put("failures", s.failures.get());
+            m.put("p50Ms", s.percentile(0.50));
+            m.put("p95Ms", s.percentile(0.95));
+            m.put("p99Ms", s.percentile(0.99));
+            m.put("timeoutMs", s.timeoutMillis(0));
+            m.put("hedges", s.hedges.get());
+            m.put("hedgeWins", s.hedgeWins.get());
+            m.put("hedgesSkipped", s.hedgesSkipped.get());
+            metrics.put(endpoint, m);
+        });
+        return metrics;
+    }
+
+    private static class Attempt {
+        private final Call call;
+        private volatile Response response;
+        private volatile boolean abandoned;
+
+        private Attempt(Call call) {
+            this.call = call;
+        }
+
+        private void abandon() {
+            abandoned = true;
+            call.cancel();
+        }
+    }
+
+    private class EndpointStats {
+        // Ring buffer of the most recent latencies, in milliseconds
+        private final long[] window;
+        private int next;
+        private int size;
+
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong hedges = new AtomicLong();
+        private final AtomicLong hedgeWins = new AtomicLong();
+        private final AtomicLong hedgesSkipped = new AtomicLong();
+        private double hedgeCredit;
+
+        private EndpointStats(int capacity) {
+            this.window = new long[Math.max(1, capacity)];
+        }
+
+        private void record(Response response, long elapsedNanos) {
+            // Errors come back fast and would drag the percentiles down
+            if (!response.isSuccessful()) {
+                return;
+            }
+            recordMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+
+        private void recordFailure(IOException e, long elapsedNanos, long timeoutMillis) {
+            failures.incrementAndGet();
+            // A timeout is a latency of at least the timeout; leaving it out would
+            // keep the percentiles, and so the next timeout, too low
+            if (e instanceof InterruptedIOException) {
+                recordMillis(Math.max(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), timeoutMillis));
+            }
+        }
+
+        private synchronized void recordMillis(long millis) {
+            window[next] = millis;
+            next = (next + 1) % window.length;
+            size = Math.min(size + 1, window.length);
+        }
+
+        /**
+         * Latency at the given quantile, or -1 until enough samples exist.
+         */
+        private long percentile(double quantile) {
+            long[] sorted;
+            synchronized (this) {
+                if (size < minSamples) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(window, size);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        /**
+         * Multiple of p99, clamped to [min-timeout, ceiling]. 0 (no per-call
+         * timeout, client defaults apply) until enough samples exist.
+         */
+        private long timeoutMillis(long ceilingMillis) {
+            long p99 = percentile(0.99);
+            if (p99 < 0) {
+                return 0;
+            }
+            long timeout = Math.max(minTimeoutMillis, (long) (p99 * timeoutMultiplier));
+            return ceilingMillis > 0 ? Math.min(timeout, ceilingMillis) : timeout;
+        }
+
+        private synchronized void earnHedgeCredit(double ratio) {
+            // Cap the credit so a long quiet spell cannot fund a burst of hedges
+            hedgeCredit = Math.min(hedgeCredit + ratio, 10);
+        }
+
+        private synchronized boolean tryHedge() {
+            if (hedgeCredit < 1) {
+                return false;
+            }
+            hedgeCredit -= 1;
+            hedges.incrementAndGet();
+            return true;
+        }
+
+        private synchronized void refundHedge() {
+            hedgeCredit += 1;
+            hedges.decrementAndGet();
+            hedgesSkipped.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.provider.SpeechSynthesisProvider;
+import com.legalconnect.lawyerbooking.provider.SpeechToTextProvider;
+import com.legalconnect.lawyerbooking.provider.TextOperation;
+import com.legalconnect.lawyerbooking.provider.TextTransformProvider;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes each AI stage to the provider configured for it.
+ *
+ * Every stage defaults to {@code ai.provider.default} ("openai" unless set)
+ * and can be overridden individually, e.g.
+ * {@code ai.provider.classification=local} keeps transcription on OpenAI
+ * while classifying in-process.
+ */
+@Service
+public class AiProviderRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiProviderRouter.class);
+
+    private final List<SpeechToTextProvider> speechToTextProviders;
+    private final List<TextTransformProvider> textProviders;
+    private final List<SpeechSynthesisProvider> speechSynthesisProviders;
+    private final AiRequestCoalescer coalescer;
+
+    @Value("${ai.provider.transcription:${ai.provider.default:openai}}")
+    private String transcriptionProviderName;
+
+    @Value("${ai.provider.masking:${ai.provider.default:openai}}")
+    private String maskingProviderName;
+
+    @Value("${ai.provider.translation:${ai.provider.default:openai}}")
+    private String translationProviderName;
+
+    @Value("${ai.provider.classification:${ai.provider.default:openai}}")
+    private String classificationProviderName;
+
+    @Value("${ai.provider.title:${ai.provider.default:openai}}")
+    private String titleProviderName;
+
+    @Value("${ai.provider.speech:${ai.provider.default:openai}}")
+    private String speechProviderName;
+
+    private SpeechToTextProvider speechToText;
+    private SpeechSynthesisProvider speechSynthesis;
+    private final Map<TextOperation, TextTransformProvider> textRoutes = new EnumMap<>(TextOperation.class);
+
+    public AiProviderRouter(List<SpeechToTextProvider> speechToTextProviders,
+            List<TextTransformProvider> textProviders,
+            List<SpeechSynthesisProvider> speechSynthesisProviders,
+            AiRequestCoalescer coalescer) {
+        this.speechToTextProviders = speechToTextProviders;
+        this.textProviders = textProviders;
+        this.speechSynthesisProviders = speechSynthesisProviders;
+        this.coalescer = coalescer;
+    }
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        speechToText = select(speechToTextProviders, transcriptionProviderName, SpeechToTextProvider::getName);
+        speechSynthesis = select(speechSynthesisProviders, speechProviderName, SpeechSynthesisProvider::getName);
+        textRoutes.put(TextOperation.MASK_PII,
+                select(textProviders, maskingProviderName, TextTransformProvider::getName));
+        textRoutes.put(TextOperation.TRANSLATE_TO_GUJARATI,
+                select(textProviders, translationProviderName, TextTransformProvider::getName));
+        textRoutes.put(TextOperation.CLASSIFY_CASE,
+                select(textProviders, classificationProviderName, TextTransformProvider::getName));
+        textRoutes.put(TextOperation.GENERATE_TITLE,
+                select(textProviders, titleProviderName, TextTransformProvider::getName));
+
+        logger.info("AI providers: transcription={}, masking={}, translation={}, classification={}, title={}, speech={}",
+                transcriptionProviderName, maskingProviderName, translationProviderName,
+                classificationProviderName, titleProviderName, speechProviderName);
+    }
+
+    private <T> T select(List<T> providers, String name, java.util.function.Function<T, String> nameOf) {
+        return providers.stream()
+                .filter(p -> nameOf.apply(p).equalsIgnoreCase(name.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown AI provider '" + name + "'. Available: "
+                        + providers.stream().map(nameOf).toList()));
+    }
+
+    public String transcribe(MultipartFile audio) throws Exception {
+        return speechToText.translateToEnglish(audio);
+    }
+
+    public String maskPersonalInfo(String text) {
+        return transform(TextOperation.MASK_PII, text);
+    }
+
+    public String translateToGujarati(String text) {
+        return transform(TextOperation.TRANSLATE_TO_GUJARATI, text);
+    }
+
+    public String classifyCase(String text) {
+        return transform(TextOperation.CLASSIFY_CASE, text);
+    }
+
+    /**
+     * Classifies many descriptions in as few provider requests as possible.
+     * Not coalesced; batches are built by a single job.
+     */
+    public List<String> classifyBatch(List<String> texts) {
+        return textRoutes.get(TextOperation.CLASSIFY_CASE).classifyBatch(texts);
+    }
+
+    public String generateTitle(String text) {
+        return transform(TextOperation.GENERATE_TITLE, text);
+    }
+
+    // Identical concurrent requests (e.g. case creation and the audio upload
+    // classifying the same description) share one provider call
+    private String transform(TextOperation operation, String text) {
+        return coalescer.execute(operation.name(), text, () -> textRoutes.get(operation).transform(operation, text));
+    }
+
+    public byte[] textToSpeech(String text, String languageCode, String gender) {
+        return speechSynthesis.textToSpeech(text, languageCode, gender);
+    }
+
+    /**
+     * MIME type of the audio {@link #textToSpeech} returns.
+     */
+    public String speechContentType() {
+        return speechSynthesis.getContentType();
+    }
+}
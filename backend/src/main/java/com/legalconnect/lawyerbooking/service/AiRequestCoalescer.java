@@ -0,0 +1,115 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer for AI calls.
+ *
+ * Concurrent calls for the same operation on the same input share one
+ * in-flight request: the first caller executes it and the others wait for its
+ * result. Nothing is cached once the call completes.
+ *
+ * Only calls of the same {@link AiWorkScheduler} priority class are shared:
+ * a joiner waits at the leader's priority, so an interactive caller must
+ * never join a backfill call that may be queued behind the backfill limits.
+ */
+@Service
+public class AiRequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiRequestCoalescer.class);
+
+    private final AiWorkScheduler aiWorkScheduler;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    public AiRequestCoalescer(AiWorkScheduler aiWorkScheduler) {
+        this.aiWorkScheduler = aiWorkScheduler;
+    }
+
+    /**
+     * Runs the call, or joins an identical call that is already running.
+     *
+     * @param operation Name of the operation (e.g. "classify")
+     * @param input     The input text; identical inputs at the same priority are coalesced
+     * @param call      Performs the request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String input, Supplier<T> call) {
+        OperationStats opStats = stats.computeIfAbsent(operation, k -> new OperationStats());
+        AiPriority priority = aiWorkScheduler.currentContext().getPriority();
+        String key = priority + ":" + operation + ":" + hash(input);
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            opStats.coalesced.incrementAndGet();
+            logger.debug("Coalesced {} request onto in-flight call", operation);
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        opStats.executed.incrementAndGet();
+        try {
+            T result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Per-operation counts of executed and coalesced calls.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        stats.forEach((operation, s) -> metrics.put(operation, Map.of(
+                "executed", s.executed.get(),
+                "coalesced", s.coalesced.get())));
+        metrics.put("inFlight", inFlight.size());
+        return metrics;
+    }
+
+    private static String hash(String input) {
+        if (input == null) {
+            return "null";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class OperationStats {
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+    }
+}
@@ -0,0 +1,417 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for calls to OpenAI.
+ *
+ * Every call waits here for a concurrency slot and for its estimated tokens
+ * from a tokens-per-minute bucket sized to the account's rate limit. Queued
+ * calls are ordered by priority class first: interactive work always goes
+ * before backfill, and backfill is only admitted while a reserve of the
+ * bucket stays free for interactive arrivals. Within a class, users are
+ * served by weighted fair queuing (self-clocked virtual finish times), so one
+ * user's large upload or bulk job cannot starve everyone else.
+ *
+ * The priority and user of a call come from the calling thread: set them
+ * explicitly with {@link #runAs}, otherwise the call is interactive and
+ * attributed to the authenticated user.
+ */
+@Service
+public class AiWorkScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiWorkScheduler.class);
+
+    private static final ThreadLocal<WorkContext> CONTEXT = new ThreadLocal<>();
+    private static final String ANONYMOUS = "anonymous";
+
+    @Value("${ai.scheduler.tokens-per-minute:200000}")
+    private long tokensPerMinute;
+
+    @Value("${ai.scheduler.max-concurrent:8}")
+    private int maxConcurrent;
+
+    @Value("${ai.scheduler.backfill-max-concurrent:2}")
+    private int backfillMaxConcurrent;
+
+    // Share of the token bucket backfill may not dip into
+    @Value("${ai.scheduler.backfill-reserve:0.25}")
+    private double backfillReserve;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final Map<AiPriority, PriorityQueue<Ticket>> queues = new EnumMap<>(AiPriority.class);
+    private final Map<AiPriority, Map<String, Double>> lastFinish = new EnumMap<>(AiPriority.class);
+    private final Map<AiPriority, Double> virtualTime = new EnumMap<>(AiPriority.class);
+    private final Map<AiPriority, Integer> running = new EnumMap<>(AiPriority.class);
+    private final Map<AiPriority, ClassStats> stats = new EnumMap<>(AiPriority.class);
+
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long sequence;
+
+    public AiWorkScheduler() {
+        for (AiPriority priority : AiPriority.values()) {
+            queues.put(priority, new PriorityQueue<>(
+                    Comparator.comparingDouble((Ticket t) -> t.finish).thenComparingLong(t -> t.seq)));
+            lastFinish.put(priority, new HashMap<>());
+            virtualTime.put(priority, 0.0);
+            running.put(priority, 0);
+            stats.put(priority, new ClassStats());
+        }
+    }
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        availableTokens = tokensPerMinute;
+        lastRefillNanos = System.nanoTime();
+        logger.info("AI scheduler: {} tokens/min, {} concurrent calls ({} backfill), {}% reserved for interactive",
+                tokensPerMinute, maxConcurrent, backfillMaxConcurrent, Math.round(backfillReserve * 100));
+    }
+
+    /**
+     * Priority class and fair-queuing key of the work running on a thread.
+     */
+    public static class WorkContext {
+        private final AiPriority priority;
+        private final String userKey;
+
+        public WorkContext(AiPriority priority, String userKey) {
+            this.priority = priority;
+            this.userKey = userKey;
+        }
+
+        public AiPriority getPriority() {
+            return priority;
+        }
+
+        public String getUserKey() {
+            return userKey;
+        }
+    }
+
+    /**
+     * Runs work with the given priority and user; AI calls made from it on
+     * this thread are scheduled accordingly.
+     */
+    public <T> T runAs(AiPriority priority, String userKey, Supplier<T> work) {
+        return runWith(new WorkContext(priority, userKey), work);
+    }
+
+    /**
+     * Runs work under a context captured on another thread with
+     * {@link #currentContext()}, e.g. when fanning out to a worker pool.
+     */
+    public <T> T runWith(WorkContext context, Supplier<T> work) {
+        WorkContext previous = CONTEXT.get();
+        CONTEXT.set(context);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CONTEXT.set(previous);
+            } else {
+                CONTEXT.remove();
+            }
+        }
+    }
+
+    public WorkContext currentContext() {
+        WorkContext context = CONTEXT.get();
+        if (context != null) {
+            return context;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof UserPrincipal) {
+            UserPrincipal principal = (UserPrincipal) auth.getPrincipal();
+            return new WorkContext(AiPriority.INTERACTIVE, principal.getRole() + ":" + principal.getUserId());
+        }
+        return new WorkContext(AiPriority.INTERACTIVE, ANONYMOUS);
+    }
+
+    /**
+     * Waits for capacity, then performs the call.
+     *
+     * @param estimatedTokens Tokens the call counts against the per-minute limit
+     *                        (prompt plus requested completion); 0 for calls
+     *                        limited by request count only
+     * @param call            The API call
+     */
+    public <T> T execute(int estimatedTokens, Callable<T> call) throws Exception {
+        Ticket ticket = acquire(estimatedTokens);
+        try {
+            return call.call();
+        } finally {
+            release(ticket);
+        }
+    }
+
+    /**
+     * {@link #execute} for calls without checked exceptions.
+     */
+    public <T> T run(int estimatedTokens, Supplier<T> call) {
+        Ticket ticket = acquire(estimatedTokens);
+        try {
+            return call.get();
+        } finally {
+            release(ticket);
+        }
+    }
+
+    /**
+     * Claims capacity for an optional extra call, such as a hedged request,
+     * without waiting. Returns null unless a slot and the tokens are free now
+     * and no queued call is waiting for them; the permit must be closed when
+     * the call ends.
+     */
+    public Permit tryAcquire(int estimatedTokens) {
+        AiPriority priority = currentContext().getPriority();
+        double cost = Math.min(Math.max(estimatedTokens, 0), tokensPerMinute);
+
+        lock.lock();
+        try {
+            refill();
+            boolean queued = false;
+            for (PriorityQueue<Ticket> queue : queues.values()) {
+                queued |= !queue.isEmpty();
+            }
+            if (queued || totalRunning() >= maxConcurrent) {
+                return null;
+            }
+            if (priority == AiPriority.BACKFILL) {
+                double reserve = tokensPerMinute * backfillReserve;
+                if (running.get(priority) >= backfillMaxConcurrent
+                        || availableTokens < Math.min(cost + reserve, tokensPerMinute)) {
+                    return null;
+                }
+            } else if (availableTokens < cost) {
+                return null;
+            }
+            availableTokens -= cost;
+            running.merge(priority, 1, Integer::sum);
+            Ticket ticket = new Ticket(priority, ANONYMOUS, cost, sequence++);
+            ticket.granted = true;
+            return new Permit(ticket);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Capacity claimed with {@link #tryAcquire}.
+     */
+    public final class Permit implements AutoCloseable {
+        private final Ticket ticket;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Ticket ticket) {
+            this.ticket = ticket;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                release(ticket);
+            }
+        }
+    }
+
+    private Ticket acquire(int estimatedTokens) {
+        WorkContext context = currentContext();
+        AiPriority priority = context.getPriority();
+        double cost = Math.min(Math.max(estimatedTokens, 0), tokensPerMinute);
+        long enqueuedAt = System.nanoTime();
+
+        lock.lock();
+        try {
+            Ticket ticket = new Ticket(priority, context.getUserKey(), cost, sequence++);
+            Map<String, Double> finishes = lastFinish.get(priority);
+            double start = Math.max(virtualTime.get(priority), finishes.getOrDefault(ticket.userKey, 0.0));
+            ticket.finish = start + Math.max(cost, 1);
+            finishes.put(ticket.userKey, ticket.finish);
+            queues.get(priority).add(ticket);
+
+            dispatch();
+            while (!ticket.granted) {
+                try {
+                    changed.awaitNanos(nanosUntilAffordable());
+                } catch (InterruptedException e) {
+                    if (ticket.granted) {
+                        release(ticket);
+                    } else {
+                        queues.get(priority).remove(ticket);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for AI capacity", e);
+                }
+                dispatch();
+            }
+
+            stats.get(priority).record(System.nanoTime() - enqueuedAt);
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Ticket ticket) {
+        lock.lock();
+        try {
+            running.merge(ticket.priority, -1, Integer::sum);
+            dispatch();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Grants as many queued tickets as slots and tokens allow. Caller holds the lock.
+    private void dispatch() {
+        refill();
+        boolean grantedAny = false;
+        while (totalRunning() < maxConcurrent) {
+            Ticket next = queues.get(AiPriority.INTERACTIVE).peek();
+            if (next != null) {
+                // Interactive waits for tokens rather than letting backfill jump ahead
+                if (availableTokens < next.cost) {
+                    break;
+                }
+            } else {
+                next = queues.get(AiPriority.BACKFILL).peek();
+                if (next == null || running.get(AiPriority.BACKFILL) >= backfillMaxConcurrent) {
+                    break;
+                }
+                double reserve = tokensPerMinute * backfillReserve;
+                if (availableTokens < Math.min(next.cost + reserve, tokensPerMinute)) {
+                    break;
+                }
+            }
+
+            queues.get(next.priority).poll();
+            availableTokens -= next.cost;
+            running.merge(next.priority, 1, Integer::sum);
+            virtualTime.put(next.priority, Math.max(virtualTime.get(next.priority), next.finish - Math.max(next.cost, 1)));
+            next.granted = true;
+            grantedAny = true;
+        }
+        if (grantedAny) {
+            pruneIdleUsers();
+            changed.signalAll();
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double refilled = (now - lastRefillNanos) * tokensPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        availableTokens = Math.min(tokensPerMinute, availableTokens + refilled);
+        lastRefillNanos = now;
+    }
+
+    private long nanosUntilAffordable() {
+        Ticket next = queues.get(AiPriority.INTERACTIVE).peek();
+        if (next == null) {
+            next = queues.get(AiPriority.BACKFILL).peek();
+        }
+        if (next == null || availableTokens >= next.cost) {
+            // Waiting for a slot; release() signals
+            return TimeUnit.SECONDS.toNanos(1);
+        }
+        double deficit = next.cost - availableTokens;
+        long nanos = (long) (deficit * TimeUnit.MINUTES.toNanos(1) / tokensPerMinute);
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(5), nanos);
+    }
+
+    // Users whose last finish time has passed start fresh at the virtual clock anyway
+    private void pruneIdleUsers() {
+        for (AiPriority priority : AiPriority.values()) {
+            double now = virtualTime.get(priority);
+            lastFinish.get(priority).values().removeIf(finish -> finish <= now);
+        }
+    }
+
+    private int totalRunning() {
+        int total = 0;
+        for (int n : running.values()) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Queue depth, running calls and wait times per priority class, plus the
+     * tokens currently available.
+     */
+    public Map<String, Object> getMetrics() {
+        lock.lock();
+        try {
+            refill();
+            Map<String, Object> metrics = new LinkedHashMap<>();
+            for (AiPriority priority : AiPriority.values()) {
+                ClassStats s = stats.get(priority);
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("queued", queues.get(priority).size());
+                m.put("running", running.get(priority));
+                m.put("admitted", s.admitted.get());
+                m.put("avgWaitMs", s.admitted.get() == 0 ? 0 : s.totalWaitNanos.get() / s.admitted.get() / 1_000_000);
+                m.put("maxWaitMs", s.maxWaitNanos.get() / 1_000_000);
+                metrics.put(priority.name().toLowerCase(), m);
+            }
+            metrics.put("availableTokens", (long) availableTokens);
+            metrics.put("tokensPerMinute", tokensPerMinute);
+            return metrics;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Ticket {
+        private final AiPriority priority;
+        private final String userKey;
+        private final double cost;
+        private final long seq;
+        private double finish;
+        private boolean granted;
+
+        private Ticket(AiPriority priority, String userKey, double cost, long seq) {
+            this.priority = priority;
+            this.userKey = userKey;
+            this.cost = cost;
+            this.seq = seq;
+        }
+    }
+
+    private static class ClassStats {
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong totalWaitNanos = new AtomicLong();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private void record(long waitNanos) {
+            admitted.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+}
@@ -144,7 +144,7 @@ public class AudioConversionService {
     /**
      * Simple MultipartFile implementation backed by a byte array.
      */
-    private static class ByteArrayMultipartFile implements MultipartFile {
+    static class ByteArrayMultipartFile implements MultipartFile {
         private final byte[] content;
         private final String name;
         private final String contentType;
@@ -0,0 +1,134 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
+import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
+
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Detects re-uploads of the same recording so the AI pipeline (Whisper,
+ * masking, translation, classification) runs once per recording instead of
+ * once per retry.
+ *
+ * A recording is identified by the SHA-256 of its bytes and scoped to the
+ * uploading user, so one user can never receive another user's transcript.
+ * Only the pipeline outputs are shared: every upload still gets its own
+ * record and case, tied to the request that made it. Earlier uploads are
+ * reused for {@code audio.dedup.reuse-window-ms} after they were stored.
+ */
+@Service
+public class AudioDeduplicationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioDeduplicationService.class);
+
+    private final ClientAudioRepository repository;
+
+    // How long a stored upload's results are reused; 0 only joins uploads still running
+    @Value("${audio.dedup.reuse-window-ms:600000}")
+    private long reuseWindowMs = 600000;
+
+    // Uploads currently being processed, keyed by userId:hash
+    private final Map<String, CompletableFuture<ClientAudio>> inFlight = new ConcurrentHashMap<>();
+
+    public AudioDeduplicationService(ClientAudioRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Runs the pipeline, or, when an identical upload is still running or was
+     * stored within the reuse window, builds this upload's record from that
+     * upload's results.
+     *
+     * @param audio    The uploaded audio file
+     * @param userId   The uploading user; anonymous uploads are never deduplicated
+     * @param pipeline Runs the full pipeline for the given content hash
+     * @param reuse    Creates this upload's record from an earlier identical one
+     * @return The ClientAudio created for this upload
+     */
+    public ClientAudio processOnce(MultipartFile audio, Long userId, Function<String, ClientAudio> pipeline,
+            Function<ClientAudio, ClientAudio> reuse) {
+        String hash = contentHash(audio);
+        if (userId == null || hash == null) {
+            return pipeline.apply(hash);
+        }
+
+        String key = userId + ":" + hash;
+        CompletableFuture<ClientAudio> mine = new CompletableFuture<>();
+        CompletableFuture<ClientAudio> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            logger.info("Upload from user {} is already being processed, waiting for it", userId);
+            ClientAudio earlier;
+            try {
+                earlier = running.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+            return reuse.apply(earlier);
+        }
+
+        try {
+            // Checked after claiming the key so a run that just finished is always seen
+            Optional<ClientAudio> existing = reuseWindowMs > 0
+                    ? repository.findFirstByUserIdAndContentHashAndCreatedAtAfterOrderByIdDesc(userId, hash,
+                            LocalDateTime.now().minus(Duration.ofMillis(reuseWindowMs)))
+                    : Optional.empty();
+            ClientAudio result;
+            if (existing.isPresent()) {
+                logger.info("Duplicate upload from user {} matches audio ID {}, reusing pipeline results",
+                        userId, existing.get().getId());
+                result = reuse.apply(existing.get());
+            } else {
+                result = pipeline.apply(hash);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Hashes the upload by streaming it through a digest, without materializing
+     * a second copy of the file in memory.
+     */
+    public String contentHash(MultipartFile audio) {
+        try (InputStream in = new DigestInputStream(audio.getInputStream(), MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // digest is updated as the stream is read
+            }
+            return HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+        } catch (Exception e) {
+            logger.warn("Could not hash upload {}: {}", audio.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    private RuntimeException unwrap(CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+            return (RuntimeException) e.getCause();
+        }
+        return new AudioProcessingException("Failed to process audio file", e.getCause());
+    }
+}
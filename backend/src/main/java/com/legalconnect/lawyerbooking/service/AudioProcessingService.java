@@ -13,10 +13,11 @@ import com.legalconnect.lawyerbooking.dto.CaseDTO;
 import com.legalconnect.lawyerbooking.dto.ClientAudioDTO;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
 import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.enums.TranslationStatus;
 import com.legalconnect.lawyerbooking.repository.LawyerRepository;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service responsible for processing audio files...
@@ -26,48 +27,41 @@ public class AudioProcessingService {
 
     private static final Logger logger = LoggerFactory.getLogger(AudioProcessingService.class);
 
-    private final OpenAIWhisperService whisperService;
-    private final TextMaskingService maskingService;
-    private final OpenAITextToSpeechService textToSpeechService;
-    private final TextTranslationService translationService;
+    private final AiProviderRouter aiProviderRouter;
+    private final GujaratiTranslationService gujaratiTranslationService;
     private final ClientAudioRepository repository;
     private final CaseService caseService;
-    private final CaseClassificationService classificationService;
     private final LawyerRepository lawyerRepository;
     private final GenderDetectionService genderDetectionService;
+    private final AudioSegmentationService segmentationService;
 
     @Autowired
     public AudioProcessingService(
-            OpenAIWhisperService whisperService,
-            TextMaskingService maskingService,
-            OpenAITextToSpeechService textToSpeechService,
-            TextTranslationService translationService,
+            AiProviderRouter aiProviderRouter,
+            GujaratiTranslationService gujaratiTranslationService,
             ClientAudioRepository repository,
             CaseService caseService,
-            CaseClassificationService classificationService,
             LawyerRepository lawyerRepository,
-            GenderDetectionService genderDetectionService) {
-        this.whisperService = whisperService;
-        this.maskingService = maskingService;
-        this.textToSpeechService = textToSpeechService;
-        this.translationService = translationService;
+            GenderDetectionService genderDetectionService,
+            AudioSegmentationService segmentationService) {
+        this.aiProviderRouter = aiProviderRouter;
+        this.gujaratiTranslationService = gujaratiTranslationService;
         this.repository = repository;
         this.caseService = caseService;
-        this.classificationService = classificationService;
         this.lawyerRepository = lawyerRepository;
         this.genderDetectionService = genderDetectionService;
+        this.segmentationService = segmentationService;
     }
 
+    // Listings use a projection with the case title joined in; full records
+    // (audio, original transcript) come from convertToDTO on single lookups
+
     public List<ClientAudioDTO> getAllAudioForAdmin() {
-        return repository.findAllAudio().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return repository.findAllListItems();
     }
 
     public List<ClientAudioDTO> getAudioForUser(Long userId) {
-        return repository.findForUser(userId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return repository.findListItemsForUser(userId);
     }
 
     public List<ClientAudioDTO> getAudioForLawyer(Long lawyerId) {
@@ -78,9 +72,7 @@ public class AudioProcessingService {
         java.util.Set<CaseType> specs = lawyer.getSpecializations();
         // If no specs, they might only see audio for cases explicitly assigned to them
         // The JPQL handles this if we pass the specs (even if empty)
-        return repository.findForLawyer(lawyerId, specs).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return repository.findListItemsForLawyer(specs);
     }
 
     public ClientAudioDTO convertToDTO(ClientAudio ca) {
@@ -95,6 +87,7 @@ public class AudioProcessingService {
                 ca.getUserId(),
                 ca.getCaseId(),
                 ca.getLawyerId());
+        dto.setGujaratiTranslationStatus(GujaratiTranslationService.statusOf(ca).name());
 
         if (ca.getCaseId() != null) {
             try {
@@ -122,8 +115,18 @@ public class AudioProcessingService {
      */
     @Transactional
     public ClientAudio processAndCreateCase(MultipartFile audio, Long userId, String caseTitle, Long lawyerId) {
+        return processAndCreateCase(audio, userId, caseTitle, lawyerId, null);
+    }
+
+    /**
+     * Same as {@link #processAndCreateCase(MultipartFile, Long, String, Long)},
+     * recording the upload's content hash so retries can be detected.
+     */
+    @Transactional
+    public ClientAudio processAndCreateCase(MultipartFile audio, Long userId, String caseTitle, Long lawyerId,
+            String contentHash) {
         // Core Processing Phase
-        ClientAudio clientAudio = processAudioPipeline(audio, userId);
+        ClientAudio clientAudio = processAudioPipeline(audio, userId, contentHash);
 
         // Case Creation Phase
         if (userId != null) {
@@ -135,6 +138,46 @@ public class AudioProcessingService {
         return clientAudio;
     }
 
+    /**
+     * Creates a record for a repeated upload from the pipeline outputs of an
+     * earlier identical one, skipping transcription and masking. The new
+     * record and its case belong to the current request; the case takes its
+     * title and type from the earlier upload's case instead of asking the AI
+     * again.
+     */
+    @Transactional
+    public ClientAudio createFromEarlierUpload(ClientAudio earlier, MultipartFile audio, Long userId,
+            String caseTitle, Long lawyerId) {
+        boolean translated = GujaratiTranslationService.statusOf(earlier) == TranslationStatus.READY;
+        ClientAudio clientAudio = saveClientAudio(userId, earlier.getOriginalEnglishText(),
+                earlier.getMaskedEnglishText(), earlier.getMaskedTextAudio(),
+                translated ? earlier.getMaskedGujaratiText() : null,
+                translated ? earlier.getMaskedGujaratiAudio() : null,
+                earlier.getGender(), earlier.getContentHash());
+        logger.info("Audio ID {} reuses pipeline results of audio ID {}", clientAudio.getId(), earlier.getId());
+
+        if (userId == null) {
+            return clientAudio;
+        }
+        CaseDTO earlierCase = null;
+        if (earlier.getCaseId() != null) {
+            try {
+                earlierCase = caseService.getCaseById(earlier.getCaseId());
+            } catch (ResourceNotFoundException e) {
+                logger.warn("Case {} of audio ID {} no longer exists", earlier.getCaseId(), earlier.getId());
+            }
+        }
+        if (earlierCase != null) {
+            String title = caseTitle != null && !caseTitle.trim().isEmpty() ? caseTitle : earlierCase.getCaseTitle();
+            CaseType caseType = earlierCase.getCaseType() != null ? earlierCase.getCaseType() : CaseType.OTHER;
+            createAndLinkCase(clientAudio, userId, title, caseType, lawyerId);
+        } else {
+            // The earlier upload never got a case, so there is nothing to copy
+            linkToCase(clientAudio, userId, caseTitle, audio.getOriginalFilename(), lawyerId);
+        }
+        return clientAudio;
+    }
+
     // Legacy method support if needed, or redirect to main flow
     public ClientAudio process(MultipartFile audio) {
         return processAndCreateCase(audio, null, null, null);
@@ -144,7 +187,7 @@ public class AudioProcessingService {
         return processAndCreateCase(audio, userId, null, null);
     }
 
-    private ClientAudio processAudioPipeline(MultipartFile audio, Long userId) {
+    private ClientAudio processAudioPipeline(MultipartFile audio, Long userId, String contentHash) {
         try {
             logger.info("Starting audio pipeline for file: {} (size: {} bytes)",
                     audio.getOriginalFilename(), audio.getSize());
@@ -158,8 +201,8 @@ public class AudioProcessingService {
             // 3. Masking
             String maskedEnglish = maskPersonalInfo(originalEnglish);
 
-            // 4. Translation (Keep translation text, but skip audio)
-            String maskedGujarati = translateToGujarati(maskedEnglish);
+            // 4. Translation is materialized lazily (first access or background queue)
+            String maskedGujarati = null;
 
             // TTS is now generated ON-DEMAND via TTSController to save costs.
             // We initialize with null audio bytes.
@@ -168,7 +211,7 @@ public class AudioProcessingService {
 
             // 5. Persistence
             return saveClientAudio(userId, originalEnglish, maskedEnglish,
-                    maskedTextAudio, maskedGujarati, maskedGujaratiAudio, gender);
+                    maskedTextAudio, maskedGujarati, maskedGujaratiAudio, gender, contentHash);
 
         } catch (Exception e) {
             logger.error("Audio pipeline failed: {}", e.getMessage(), e);
@@ -192,7 +235,15 @@ public class AudioProcessingService {
         logger.debug("Step 1: Transcribing audio...");
         String text = null;
         try {
-            text = whisperService.translateToEnglish(audio);
+            // Long recordings are split at pauses and transcribed in parallel
+            List<AudioSegmentationService.TranscriptSegment> segments = segmentationService.transcribe(audio);
+            for (AudioSegmentationService.TranscriptSegment segment : segments) {
+                logger.debug("Segment [{}s - {}s]: {} chars", segment.getStartSeconds(), segment.getEndSeconds(),
+                        segment.getText() != null ? segment.getText().length() : 0);
+            }
+            text = AudioSegmentationService.stitch(segments);
+        } catch (AudioProcessingException e) {
+            throw e;
         } catch (Exception e) {
             throw new AudioProcessingException("Whisper transcription failed", e);
         }
@@ -206,7 +257,7 @@ public class AudioProcessingService {
 
     private String maskPersonalInfo(String text) {
         logger.debug("Step 2: Masking personal info...");
-        String masked = maskingService.maskEnglishPersonalInfo(text);
+        String masked = aiProviderRouter.maskPersonalInfo(text);
         if (masked == null || masked.trim().isEmpty()) {
             logger.warn("Masking returned empty, falling back to original");
             return text;
@@ -214,18 +265,8 @@ public class AudioProcessingService {
         return masked;
     }
 
-    private String translateToGujarati(String text) {
-        logger.debug("Step 4: Translating to Gujarati...");
-        try {
-            return translationService.translateToGujarati(text);
-        } catch (Exception e) {
-            logger.error("Gujarati translation failed", e);
-            return null; // Non-blocking failure
-        }
-    }
-
     private ClientAudio saveClientAudio(Long userId, String original, String masked,
-            byte[] audioEn, String gujarati, byte[] audioGu, String gender) {
+            byte[] audioEn, String gujarati, byte[] audioGu, String gender, String contentHash) {
         logger.info("Saving ClientAudio with gender: '{}'", gender);
         ClientAudio ca = new ClientAudio();
         ca.setUserId(userId);
@@ -234,10 +275,15 @@ public class AudioProcessingService {
         ca.setMaskedEnglishText(masked);
         ca.setMaskedTextAudio(audioEn);
         ca.setMaskedGujaratiText(gujarati);
+        ca.setGujaratiTranslationStatus(gujarati != null ? TranslationStatus.READY : TranslationStatus.PENDING);
         ca.setMaskedGujaratiAudio(audioGu);
         ca.setGender(gender);
+        ca.setContentHash(contentHash);
         ClientAudio saved = repository.save(ca);
         logger.info("✓ Saved ClientAudio ID: {}, Gender in DB: '{}'", saved.getId(), saved.getGender());
+        if (gujarati == null) {
+            gujaratiTranslationService.scheduleTranslation(saved.getId());
+        }
         return saved;
     }
 
@@ -247,35 +293,47 @@ public class AudioProcessingService {
 
             if (title == null || title.trim().isEmpty()) {
                 logger.debug("Step 5.5: Generating AI Title...");
-                title = classificationService.generateTitle(clientAudio.getMaskedEnglishText());
+                title = aiProviderRouter.generateTitle(clientAudio.getMaskedEnglishText());
 
                 if (title == null) {
                     title = "Case from Audio - " + (fileName != null ? fileName : "recording");
                 }
             }
 
-            CaseRequest caseRequest = new CaseRequest();
-            caseRequest.setUserId(userId);
-            caseRequest.setCaseTitle(title);
-            caseRequest.setLawyerId(lawyerId);
-
             // 6. Classification
             logger.debug("Step 6: Classifying case category...");
-            String category = classificationService.classifyCase(clientAudio.getMaskedEnglishText());
+            String category = aiProviderRouter.classifyCase(clientAudio.getMaskedEnglishText());
 
             // Map classified category to CaseType enum
+            CaseType caseType;
             try {
                 if (category != null && !category.trim().isEmpty()) {
                     String normCategory = category.trim().toUpperCase().replace(" ", "_");
-                    caseRequest.setCaseType(com.legalconnect.lawyerbooking.enums.CaseType.valueOf(normCategory));
+                    caseType = CaseType.valueOf(normCategory);
                 } else {
-                    caseRequest.setCaseType(com.legalconnect.lawyerbooking.enums.CaseType.OTHER);
+                    caseType = CaseType.OTHER;
                 }
             } catch (Exception e) {
                 logger.warn("Failed to map audio classification '{}' to CaseType, defaulting to OTHER", category);
-                caseRequest.setCaseType(com.legalconnect.lawyerbooking.enums.CaseType.OTHER);
+                caseType = CaseType.OTHER;
             }
 
+            createAndLinkCase(clientAudio, userId, title, caseType, lawyerId);
+        } catch (Exception e) {
+            logger.error("Failed to create/link case for user {}: {}", userId, e.getMessage(), e);
+            // We do NOT throw here to preserve the saved audio
+        }
+    }
+
+    private void createAndLinkCase(ClientAudio clientAudio, Long userId, String title, CaseType caseType,
+            Long lawyerId) {
+        try {
+            CaseRequest caseRequest = new CaseRequest();
+            caseRequest.setUserId(userId);
+            caseRequest.setCaseTitle(title);
+            caseRequest.setLawyerId(lawyerId);
+            caseRequest.setCaseType(caseType);
+
             // Generate description safely (max 500 chars)
             String description = clientAudio.getMaskedEnglishText() != null
                     ? clientAudio.getMaskedEnglishText()
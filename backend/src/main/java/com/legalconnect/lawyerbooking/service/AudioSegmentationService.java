@@ -0,0 +1,277 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits long recordings at silence boundaries and transcribes the pieces in
+ * parallel.
+ *
+ * Whisper is called once per segment instead of once per recording, so long
+ * consultations no longer run into the read timeout or the upload size limit,
+ * and wall-clock time shrinks with the number of workers.
+ */
+@Service
+public class AudioSegmentationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioSegmentationService.class);
+
+    // 30ms analysis frames @ 16kHz, smoothed over ~300ms when looking for pauses
+    private static final int FRAME_MS = 30;
+    private static final int SMOOTHING_FRAMES = 10;
+
+    private final AudioConversionService audioConversionService;
+    private final AiProviderRouter aiProviderRouter;
+    private final AiWorkScheduler aiWorkScheduler;
+
+    @Value("${audio.segmentation.max-segment-seconds:120}")
+    private int maxSegmentSeconds;
+
+    @Value("${audio.segmentation.min-segment-seconds:30}")
+    private int minSegmentSeconds;
+
+    @Value("${audio.segmentation.parallelism:4}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    public AudioSegmentationService(AudioConversionService audioConversionService,
+            AiProviderRouter aiProviderRouter, AiWorkScheduler aiWorkScheduler) {
+        this.audioConversionService = audioConversionService;
+        this.aiProviderRouter = aiProviderRouter;
+        this.aiWorkScheduler = aiWorkScheduler;
+    }
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, "whisper-segment-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        logger.info("Audio segmentation enabled: max {}s per segment, {} parallel transcriptions",
+                maxSegmentSeconds, parallelism);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Transcribes (and translates to English) the given recording. Recordings
+     * shorter than the maximum segment length go to Whisper unchanged; longer
+     * ones are cut at pauses and the segments are transcribed concurrently.
+     *
+     * @param audio The uploaded audio file (any format FFmpeg understands)
+     * @return Transcript segments in playback order
+     */
+    public List<TranscriptSegment> transcribe(MultipartFile audio) throws Exception {
+        byte[] pcm;
+        AudioFormat format;
+        try {
+            MultipartFile wav = audioConversionService.convertToWav(audio);
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(new ByteArrayInputStream(wav.getBytes()))) {
+                format = in.getFormat();
+                pcm = in.readAllBytes();
+            }
+        } catch (Exception e) {
+            // Without PCM we cannot look for pauses; fall back to a single request
+            logger.warn("Could not decode audio for segmentation ({}), sending whole file", e.getMessage());
+            return List.of(new TranscriptSegment(0, -1, aiProviderRouter.transcribe(audio)));
+        }
+
+        int bytesPerSample = format.getSampleSizeInBits() / 8;
+        float sampleRate = format.getSampleRate();
+        float[] samples = GenderDetectionService.toSamples(pcm, 0, bytesPerSample);
+        List<int[]> bounds = findSegments(samples, sampleRate);
+
+        if (bounds.size() == 1) {
+            logger.info("Recording is {}s, transcribing as a single request",
+                    Math.round(samples.length / sampleRate));
+            return List.of(new TranscriptSegment(0, samples.length / sampleRate,
+                    aiProviderRouter.transcribe(audio)));
+        }
+
+        logger.info("Split {}s recording into {} segments, transcribing with {} workers",
+                Math.round(samples.length / sampleRate), bounds.size(), parallelism);
+        long start = System.currentTimeMillis();
+
+        // Segment calls are scheduled as the uploading user, not the worker thread
+        AiWorkScheduler.WorkContext caller = aiWorkScheduler.currentContext();
+        List<CompletableFuture<TranscriptSegment>> futures = new ArrayList<>();
+        for (int i = 0; i < bounds.size(); i++) {
+            int[] b = bounds.get(i);
+            int index = i;
+            byte[] segmentWav = toWav(pcm, b[0] * bytesPerSample, b[1] * bytesPerSample, format);
+            futures.add(CompletableFuture.supplyAsync(() -> aiWorkScheduler.runWith(caller, () -> {
+                try {
+                    String name = "segment_" + index + ".wav";
+                    String text = aiProviderRouter.transcribe(
+                            new AudioConversionService.ByteArrayMultipartFile(segmentWav, name, "audio/wav"));
+                    return new TranscriptSegment(b[0] / sampleRate, b[1] / sampleRate, text);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }), executor));
+        }
+
+        List<TranscriptSegment> segments = new ArrayList<>();
+        try {
+            for (CompletableFuture<TranscriptSegment> future : futures) {
+                segments.add(future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new AudioProcessingException("Segment transcription failed", e.getCause());
+        }
+
+        logger.info("Transcribed {} segments in {}ms", segments.size(), System.currentTimeMillis() - start);
+        return segments;
+    }
+
+    /**
+     * Joins segment transcripts in order into a single text.
+     */
+    public static String stitch(List<TranscriptSegment> segments) {
+        StringBuilder sb = new StringBuilder();
+        for (TranscriptSegment segment : segments) {
+            if (segment.getText() == null || segment.getText().isBlank()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(segment.getText().trim());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Computes [startSample, endSample) ranges no longer than the maximum segment
+     * length, cutting each one at the quietest point between the minimum and
+     * maximum length.
+     */
+    List<int[]> findSegments(float[] samples, float sampleRate) {
+        List<int[]> bounds = new ArrayList<>();
+        int frameSize = Math.max(1, (int) (sampleRate * FRAME_MS / 1000));
+        int maxLen = (int) (sampleRate * maxSegmentSeconds);
+        int minLen = Math.min((int) (sampleRate * minSegmentSeconds), maxLen);
+
+        if (samples.length <= maxLen) {
+            bounds.add(new int[] { 0, samples.length });
+            return bounds;
+        }
+
+        double[] energy = smoothedFrameEnergy(samples, frameSize);
+
+        int start = 0;
+        while (samples.length - start > maxLen) {
+            int fromFrame = (start + minLen) / frameSize;
+            int toFrame = Math.min((start + maxLen) / frameSize, energy.length - 1);
+
+            int cutFrame = toFrame;
+            double quietest = Double.MAX_VALUE;
+            for (int f = fromFrame; f <= toFrame; f++) {
+                // <= prefers later pauses so segments stay close to the maximum length
+                if (energy[f] <= quietest) {
+                    quietest = energy[f];
+                    cutFrame = f;
+                }
+            }
+
+            int end = Math.max(start + 1, Math.min(cutFrame * frameSize, start + maxLen));
+            bounds.add(new int[] { start, end });
+            start = end;
+        }
+        bounds.add(new int[] { start, samples.length });
+        return bounds;
+    }
+
+    private double[] smoothedFrameEnergy(float[] samples, int frameSize) {
+        int frames = samples.length / frameSize;
+        double[] rms = new double[frames];
+        for (int f = 0; f < frames; f++) {
+            double sum = 0;
+            int offset = f * frameSize;
+            for (int i = 0; i < frameSize; i++) {
+                float s = samples[offset + i];
+                sum += s * s;
+            }
+            rms[f] = Math.sqrt(sum / frameSize);
+        }
+
+        double[] smoothed = new double[frames];
+        double window = 0;
+        for (int f = 0; f < frames; f++) {
+            window += rms[f];
+            if (f >= SMOOTHING_FRAMES) {
+                window -= rms[f - SMOOTHING_FRAMES];
+            }
+            smoothed[f] = window / Math.min(f + 1, SMOOTHING_FRAMES);
+        }
+        return smoothed;
+    }
+
+    private byte[] toWav(byte[] pcm, int from, int to, AudioFormat format) {
+        int length = to - from;
+        try (AudioInputStream segment = new AudioInputStream(
+                new ByteArrayInputStream(pcm, from, length), format, length / format.getFrameSize())) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length + 44);
+            AudioSystem.write(segment, AudioFileFormat.Type.WAVE, out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            throw new AudioProcessingException("Failed to encode audio segment", e);
+        }
+    }
+
+    /**
+     * A transcribed slice of a recording. Times are in seconds from the start of
+     * the recording; an end of -1 means the length is unknown.
+     */
+    public static class TranscriptSegment {
+        private final float startSeconds;
+        private final float endSeconds;
+        private final String text;
+
+        public TranscriptSegment(float startSeconds, float endSeconds, String text) {
+            this.startSeconds = startSeconds;
+            this.endSeconds = endSeconds;
+            this.text = text;
+        }
+
+        public float getStartSeconds() {
+            return startSeconds;
+        }
+
+        public float getEndSeconds() {
+            return endSeconds;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -66,6 +66,12 @@ public class AuthService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private LawyerSearchIndex lawyerSearchIndex;
+
+    @Autowired
+    private com.legalconnect.lawyerbooking.security.TokenRevocationRegistry tokenRevocations;
+
     @Transactional
     public LoginResponse loginUser(LoginRequest request) {
         validateLoginRequest(request);
@@ -197,6 +203,7 @@ public class AuthService {
         newLawyer.setCompletedCasesCount(0);
 
         Lawyer savedLawyer = lawyerRepository.save(newLawyer);
+        lawyerSearchIndex.upsert(savedLawyer);
         logger.info("Lawyer registered: {}", savedLawyer.getUsername());
 
         RegistrationResponse response = new RegistrationResponse(true, "Registration successful");
@@ -297,6 +304,8 @@ public class AuthService {
                     if (refreshToken.isUsed()) {
                         logger.error("Refresh token reuse detected! Potential theft for user: {}", userId);
                         refreshTokenRepository.deleteByUserIdAndUserType(userId, userType);
+                        // Access tokens minted from the stolen refresh token stop working too
+                        tokenRevocations.revoke(role.name(), userId);
                         throw new UnauthorizedException("Security violation. Please login again.");
                     }
 
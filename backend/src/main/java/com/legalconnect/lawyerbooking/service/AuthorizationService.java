@@ -260,4 +260,33 @@ public class AuthorizationService {
             throw new UnauthorizedException("You can only manage your own lawyer profile");
         }
     }
+
+    /**
+     * Verifies that the current user is the receiver whose inbox is requested
+     */
+    public void verifyReceiverAccess(Long receiverId, String receiverType) {
+        com.legalconnect.lawyerbooking.security.UserPrincipal currentUser = getCurrentUser();
+        Long userId = currentUser.getUserId();
+        String userType = currentUser.getRole();
+
+        if (!userType.equalsIgnoreCase(receiverType) || !userId.equals(receiverId)) {
+            logger.warn("User {} with type {} attempted to read messages of {} {}",
+                       userId, userType, receiverType, receiverId);
+            throw new UnauthorizedException("You can only read your own messages");
+        }
+    }
+
+    /**
+     * Verifies that the current user received the message and, for a case
+     * message, is a party to the case. Marking a message read moves the
+     * receiver's watermark for the whole conversation.
+     */
+    public void verifyMessageReadAccess(Long messageId) {
+        Message message = messageRepository.findById(messageId)
+            .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + messageId));
+        if (message.getCaseId() != null) {
+            verifyMessageAccess(message.getCaseId());
+        }
+        verifyReceiverAccess(message.getReceiverId(), message.getReceiverType());
+    }
 }
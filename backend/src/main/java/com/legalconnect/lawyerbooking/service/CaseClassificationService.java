@@ -7,10 +7,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.legalconnect.lawyerbooking.util.TokenEstimator;
+
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -30,6 +35,15 @@ public class CaseClassificationService {
             .build();
 
     private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private AdaptiveCallExecutor callExecutor;
+
+    // Prompt wrapper plus a generous bound on the one-line answer
+    private static final int REQUEST_OVERHEAD_TOKENS = 300;
     
     @jakarta.annotation.PostConstruct
     public void init() {
@@ -65,6 +79,20 @@ public class CaseClassificationService {
             Case Description:
             """;
 
+    private static final String BATCH_CLASSIFICATION_PROMPT = """
+            Act as a legal classification engine.
+            
+            Each case below starts with its number in square brackets. For every case, choose ONE category:
+            
+            Criminal | Family | Civil | Corporate | Property | Cyber Crime | Labour | Other
+            
+            Use "Other" only when the description is too vague to decide.
+            Respond with a JSON array of category names and nothing else: one entry per case, in order.
+            Example for three cases: ["Family", "Criminal", "Other"]
+            
+            Cases:
+            """;
+
     private static final String TITLE_GENERATION_PROMPT = """
             Act as a legal secretary.
             
@@ -82,7 +110,7 @@ public class CaseClassificationService {
         }
 
         try {
-            String title = callOpenAI(maskedText, TITLE_GENERATION_PROMPT);
+            String title = callOpenAI(maskedText, TITLE_GENERATION_PROMPT, "chat.title", true);
             System.out.println("DEBUG: AI Generated Title: " + title);
             if (title != null) {
                 return title.replace("\"", "").trim();
@@ -118,6 +146,65 @@ public class CaseClassificationService {
         return classifyWithKeywords(maskedText);
     }
 
+    /**
+     * Classifies several descriptions with a single request.
+     *
+     * @return One category per description, in order; "Other" where the model
+     *         could not decide. Null if the request failed or the answer could
+     *         not be matched to the input, so the caller can retry the batch.
+     */
+    public List<String> classifyBatch(List<String> maskedTexts) {
+        if (maskedTexts.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        StringBuilder cases = new StringBuilder();
+        for (int i = 0; i < maskedTexts.size(); i++) {
+            String text = maskedTexts.get(i) == null ? "" : maskedTexts.get(i).replaceAll("\\s+", " ").trim();
+            cases.append('[').append(i + 1).append("] ").append(text).append('\n');
+        }
+
+        String aiResult;
+        try {
+            aiResult = callOpenAI(cases.toString(), BATCH_CLASSIFICATION_PROMPT, "chat.classify.batch", false);
+        } catch (Exception e) {
+            logger.warn("Batch classification of {} cases failed: {}", maskedTexts.size(), e.getMessage());
+            return null;
+        }
+        return parseBatch(aiResult, maskedTexts.size());
+    }
+
+    /**
+     * Matches a batch answer to its input: one category per case, or null if
+     * the answer has no array of exactly that many entries.
+     */
+    List<String> parseBatch(String aiResult, int expected) {
+        if (aiResult == null) {
+            return null;
+        }
+
+        try {
+            // Tolerate markdown fences or prose around the array
+            int start = aiResult.indexOf('[');
+            int end = aiResult.lastIndexOf(']');
+            JsonNode array = start >= 0 && end > start ? mapper.readTree(aiResult.substring(start, end + 1)) : null;
+            if (array == null || !array.isArray() || array.size() != expected) {
+                logger.warn("Batch classification returned {} answers for {} cases",
+                        array != null && array.isArray() ? array.size() : "no", expected);
+                return null;
+            }
+            List<String> categories = new ArrayList<>();
+            for (JsonNode node : array) {
+                String category = node.asText();
+                categories.add(isValidCategory(category) ? normalizeCategory(category) : "Other");
+            }
+            return categories;
+        } catch (Exception e) {
+            logger.warn("Could not parse batch classification response: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private boolean isValidCategory(String category) {
         String trimmed = category.trim();
         return trimmed.equalsIgnoreCase("Criminal") ||
@@ -142,10 +229,10 @@ public class CaseClassificationService {
     }
 
     private String callOpenAI(String text) throws Exception {
-        return callOpenAI(text, CLASSIFICATION_PROMPT);
+        return callOpenAI(text, CLASSIFICATION_PROMPT, "chat.classify", true);
     }
 
-    private String callOpenAI(String text, String promptSystem) throws Exception {
+    private String callOpenAI(String text, String promptSystem, String endpoint, boolean hedge) throws Exception {
         ObjectNode requestJson = mapper.createObjectNode();
         requestJson.put("model", "gpt-3.5-turbo"); // Fallback to widely available model
         
@@ -174,7 +261,10 @@ public class CaseClassificationService {
                 .post(body)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        int estimatedTokens = REQUEST_OVERHEAD_TOKENS + TokenEstimator.estimate(promptSystem + text);
+        // Classification and titles are idempotent and short, so slow calls are hedged
+        try (Response response = aiWorkScheduler.execute(estimatedTokens,
+                () -> callExecutor.execute(endpoint, client, request, hedge, estimatedTokens))) {
             if (!response.isSuccessful()) {
                 String errorBody = response.body() != null ? response.body().string() : "No body";
                 logger.error("OpenAI API Failed. Status: {}, Body: {}", response.code(), errorBody);
@@ -191,7 +281,10 @@ public class CaseClassificationService {
         }
     }
 
-    private String classifyWithKeywords(String text) {
+    /**
+     * Classifies using the keyword table only, without calling the API.
+     */
+    public static String classifyWithKeywords(String text) {
         String lowerText = text.toLowerCase();
         for (Map.Entry<String, String[]> entry : KEYWORD_MAP.entrySet()) {
             for (String keyword : entry.getValue()) {
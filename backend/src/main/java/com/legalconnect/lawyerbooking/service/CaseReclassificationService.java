@@ -0,0 +1,384 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.legalconnect.lawyerbooking.entity.SystemSetting;
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.SystemSettingRepository;
+import com.legalconnect.lawyerbooking.util.TokenEstimator;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Admin-triggered job that reclassifies cases stuck at {@link CaseType#OTHER}.
+ *
+ * Candidates are cases typed OTHER, untyped, or holding a legacy value the
+ * converter maps to OTHER. Their descriptions are packed many to a prompt and
+ * classified with one request per batch; the results are written back with a
+ * JDBC batch update. The last processed case ID is stored as a system setting
+ * after every batch, so a stopped or failed run resumes where it left off.
+ * A batch whose answer cannot be used is logged and skipped; only several
+ * failures in a row stop the job, since that points to the provider being
+ * down rather than to a bad answer.
+ */
+@Service
+public class CaseReclassificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseReclassificationService.class);
+
+    static final String CHECKPOINT_KEY = "reclassification_checkpoint";
+
+    private static final int MAX_FAILED_BATCHES_IN_A_ROW = 3;
+
+    public enum JobState { IDLE, RUNNING, STOPPING, STOPPED, COMPLETED, FAILED }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SystemSettingRepository systemSettingRepository;
+    private final AiProviderRouter aiProviderRouter;
+    private final AiWorkScheduler aiWorkScheduler;
+
+    @Value("${reclassification.batch-size:25}")
+    private int batchSize;
+
+    // Input budget per request; keeps each prompt well inside the model context
+    @Value("${reclassification.max-batch-tokens:6000}")
+    private int maxBatchTokens;
+
+    // Only the start of a description is sent; it carries the gist of the case
+    @Value("${reclassification.max-description-chars:1500}")
+    private int maxDescriptionChars;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "case-reclassification");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile JobState state = JobState.IDLE;
+    private volatile String error;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startCheckpoint;
+    private volatile long checkpoint;
+    private volatile long candidatesAtStart;
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong editedMeanwhile = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    public CaseReclassificationService(JdbcTemplate jdbcTemplate, SystemSettingRepository systemSettingRepository,
+            AiProviderRouter aiProviderRouter, AiWorkScheduler aiWorkScheduler) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.systemSettingRepository = systemSettingRepository;
+        this.aiProviderRouter = aiProviderRouter;
+        this.aiWorkScheduler = aiWorkScheduler;
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the job in the background, resuming from the stored checkpoint
+     * unless {@code restart} is set.
+     */
+    public synchronized Map<String, Object> start(boolean restart) {
+        if (state == JobState.RUNNING || state == JobState.STOPPING) {
+            return getReport();
+        }
+        if (restart) {
+            saveCheckpoint(0);
+        }
+
+        startCheckpoint = loadCheckpoint();
+        checkpoint = startCheckpoint;
+        candidatesAtStart = countCandidates(startCheckpoint);
+        scanned.set(0);
+        updated.set(0);
+        unchanged.set(0);
+        editedMeanwhile.set(0);
+        skipped.set(0);
+        requests.set(0);
+        error = null;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        state = JobState.RUNNING;
+
+        logger.info("Starting case reclassification after case {} ({} candidates)", startCheckpoint, candidatesAtStart);
+        executor.submit(() -> aiWorkScheduler.runAs(AiPriority.BACKFILL, "reclassification", () -> {
+            run();
+            return null;
+        }));
+        return getReport();
+    }
+
+    /**
+     * Asks a running job to stop after the current batch.
+     */
+    public synchronized Map<String, Object> stop() {
+        if (state == JobState.RUNNING) {
+            state = JobState.STOPPING;
+        }
+        return getReport();
+    }
+
+    private void run() {
+        long saved = checkpoint;
+        int failedInARow = 0;
+        long skippedInARow = 0;
+        try {
+            while (state == JobState.RUNNING) {
+                List<Candidate> page = fetchCandidates(checkpoint, batchSize * 4);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (List<Candidate> batch : pack(page)) {
+                    if (state != JobState.RUNNING) {
+                        break;
+                    }
+                    if (processBatch(batch)) {
+                        failedInARow = 0;
+                        skippedInARow = 0;
+                        saveCheckpoint(checkpoint);
+                        saved = checkpoint;
+                        continue;
+                    }
+                    skippedInARow += batch.size();
+                    if (++failedInARow >= MAX_FAILED_BATCHES_IN_A_ROW) {
+                        // Resume from before the failures rather than skipping them all
+                        logger.warn("{} batches in a row failed; stopping so the job can be resumed", failedInARow);
+                        skipped.addAndGet(-skippedInARow);
+                        checkpoint = saved;
+                        state = JobState.FAILED;
+                        break;
+                    }
+                }
+            }
+            if (state == JobState.RUNNING) {
+                saveCheckpoint(checkpoint);
+                state = JobState.COMPLETED;
+            } else if (state == JobState.STOPPING) {
+                checkpoint = saved;
+                state = JobState.STOPPED;
+            }
+        } catch (Exception e) {
+            checkpoint = saved;
+            logger.error("Case reclassification failed after case {}", checkpoint, e);
+            error = e.getMessage();
+            state = JobState.FAILED;
+        } finally {
+            finishedAt = LocalDateTime.now();
+            logger.info("Case reclassification {}: {}", state, getReport());
+        }
+    }
+
+    // Moves the checkpoint past the batch; returns false if it could not be classified and was skipped
+    private boolean processBatch(List<Candidate> batch) {
+        List<String> texts = batch.stream().map(c -> c.description).collect(Collectors.toList());
+        requests.incrementAndGet();
+        List<String> categories = aiProviderRouter.classifyBatch(texts);
+        checkpoint = batch.get(batch.size() - 1).id;
+        if (categories == null || categories.size() != batch.size()) {
+            error = "Classification request failed for cases " + batch.get(0).id + "-" + checkpoint;
+            logger.warn("{}; skipping them", error);
+            skipped.addAndGet(batch.size());
+            return false;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            CaseType type = toCaseType(categories.get(i));
+            if (type == null || type == CaseType.OTHER) {
+                unchanged.incrementAndGet();
+            } else {
+                // Only overwrite the value we read, in case the case was edited meanwhile
+                updates.add(new Object[] { type.name(), now, batch.get(i).id, batch.get(i).caseType });
+            }
+        }
+        writeTypes(updates);
+        scanned.addAndGet(batch.size());
+        return true;
+    }
+
+    // Rows are [type, updatedAt, id, type read]; untyped rows need IS NULL to match
+    private void writeTypes(List<Object[]> updates) {
+        List<Object[]> typed = new ArrayList<>();
+        List<Object[]> untyped = new ArrayList<>();
+        for (Object[] row : updates) {
+            if (row[3] != null) {
+                typed.add(row);
+            } else {
+                untyped.add(Arrays.copyOf(row, 3));
+            }
+        }
+        long written = 0;
+        if (!typed.isEmpty()) {
+            written += countWritten(jdbcTemplate.batchUpdate(
+                    "UPDATE cases SET case_type = ?, updated_at = ? WHERE id = ? AND case_type = ?", typed));
+        }
+        if (!untyped.isEmpty()) {
+            written += countWritten(jdbcTemplate.batchUpdate(
+                    "UPDATE cases SET case_type = ?, updated_at = ? WHERE id = ? AND case_type IS NULL", untyped));
+        }
+        updated.addAndGet(written);
+        editedMeanwhile.addAndGet(updates.size() - written);
+    }
+
+    private static long countWritten(int[] counts) {
+        return Arrays.stream(counts).filter(n -> n > 0 || n == java.sql.Statement.SUCCESS_NO_INFO).count();
+    }
+
+    /**
+     * Splits a page into batches bounded by case count and prompt tokens.
+     */
+    List<List<Candidate>> pack(List<Candidate> page) {
+        List<List<Candidate>> batches = new ArrayList<>();
+        List<Candidate> current = new ArrayList<>();
+        int currentTokens = 0;
+        for (Candidate candidate : page) {
+            int tokens = TokenEstimator.estimate(candidate.description) + 4; // "[n] " prefix
+            if (!current.isEmpty() && (current.size() >= batchSize || currentTokens + tokens > maxBatchTokens)) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentTokens = 0;
+            }
+            current.add(candidate);
+            currentTokens += tokens;
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+
+    private List<Candidate> fetchCandidates(long afterId, int limit) {
+        List<String> known = knownTypes();
+        String sql = "SELECT id, case_type, description FROM cases WHERE deleted = FALSE AND id > ? AND "
+                + candidateCondition(known) + " ORDER BY id LIMIT ?";
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        args.addAll(known);
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Candidate(
+                rs.getLong("id"), rs.getString("case_type"), truncate(rs.getString("description"))), args.toArray());
+    }
+
+    private long countCandidates(long afterId) {
+        List<String> known = knownTypes();
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        args.addAll(known);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cases WHERE deleted = FALSE AND id > ? AND "
+                + candidateCondition(known), Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+
+    // Anything the converter would not read as a specific type, matching its normalization
+    private static String candidateCondition(List<String> known) {
+        return "(case_type IS NULL OR UPPER(REPLACE(TRIM(case_type), ' ', '_')) NOT IN ("
+                + String.join(", ", Collections.nCopies(known.size(), "?")) + "))";
+    }
+
+    private static List<String> knownTypes() {
+        return Arrays.stream(CaseType.values())
+                .filter(t -> t != CaseType.OTHER)
+                .map(Enum::name)
+                .collect(Collectors.toList());
+    }
+
+    private String truncate(String description) {
+        if (description == null) {
+            return "";
+        }
+        return description.length() > maxDescriptionChars ? description.substring(0, maxDescriptionChars) : description;
+    }
+
+    static CaseType toCaseType(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return CaseType.valueOf(category.trim().toUpperCase().replace(" ", "_"));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private long loadCheckpoint() {
+        return systemSettingRepository.findBySettingKey(CHECKPOINT_KEY)
+                .map(s -> Long.parseLong(s.getSettingValue()))
+                .orElse(0L);
+    }
+
+    private void saveCheckpoint(long caseId) {
+        SystemSetting setting = systemSettingRepository.findBySettingKey(CHECKPOINT_KEY)
+                .orElseGet(() -> new SystemSetting(CHECKPOINT_KEY, "0",
+                        "Last case ID processed by the OTHER-case reclassification job", "AI"));
+        setting.setSettingValue(String.valueOf(caseId));
+        systemSettingRepository.save(setting);
+    }
+
+    /**
+     * Progress and throughput of the current or last run.
+     */
+    public Map<String, Object> getReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("state", state);
+        report.put("startedAt", startedAt);
+        report.put("finishedAt", finishedAt);
+        report.put("resumedFrom", startCheckpoint);
+        report.put("checkpoint", checkpoint);
+        report.put("candidates", candidatesAtStart);
+        report.put("scanned", scanned.get());
+        report.put("updated", updated.get());
+        report.put("leftAsOther", unchanged.get());
+        report.put("editedMeanwhile", editedMeanwhile.get());
+        report.put("skipped", skipped.get());
+        report.put("requests", requests.get());
+
+        if (startedAt != null) {
+            LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            report.put("elapsedSeconds", seconds);
+            report.put("casesPerSecond", Math.round(scanned.get() / seconds * 100) / 100.0);
+            report.put("casesPerRequest", requests.get() == 0 ? 0 : Math.round(scanned.get() * 100.0 / requests.get()) / 100.0);
+        }
+        if (error != null) {
+            report.put("error", error);
+        }
+        return report;
+    }
+
+    static class Candidate {
+        final long id;
+        final String caseType;
+        final String description;
+
+        Candidate(long id, String caseType, String description) {
+            this.id = id;
+            this.caseType = caseType;
+            this.description = description;
+        }
+    }
+}
@@ -26,6 +26,10 @@ public class CaseService {
 
     private static final Logger logger = LoggerFactory.getLogger(CaseService.class);
 
+    // User destinations: each lawyer gets /user/queue/lawyer/... for cases they can take
+    public static final String LAWYER_REQUESTS_DESTINATION = "/queue/lawyer/requests";
+    public static final String LAWYER_UPDATES_DESTINATION = "/queue/lawyer/updates";
+
     @Autowired
     private CaseRepository caseRepository;
 
@@ -36,7 +40,7 @@ public class CaseService {
     private com.legalconnect.lawyerbooking.repository.UserRepository userRepository;
 
     @Autowired
-    private CaseClassificationService classificationService;
+    private AiProviderRouter aiProviderRouter;
 
     @Autowired
     private ClientAudioRepository clientAudioRepository;
@@ -51,10 +55,33 @@ public class CaseService {
     private CaseAuditLogService auditLogService;
 
     @Autowired
-    private TextMaskingService textMaskingService;
+    private AuthorizationService authorizationService;
 
     @Autowired
-    private AuthorizationService authorizationService;
+    private LawyerSearchIndex lawyerSearchIndex;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private CaseTopicPublisher caseTopicPublisher;
+
+    /**
+     * Sends a case event to the connected lawyers whose specializations cover
+     * the case type, plus {@code alsoLawyerId} when given. Returns the number
+     * of lawyers addressed.
+     */
+    private int sendToLawyers(CaseType caseType, Long alsoLawyerId, String destination, Object payload) {
+        java.util.Set<Long> recipients = new java.util.LinkedHashSet<>(presenceRegistry.lawyersFor(caseType));
+        if (alsoLawyerId != null) {
+            recipients.add(alsoLawyerId);
+        }
+        for (Long id : recipients) {
+            messagingTemplate.convertAndSendToUser(
+                    com.legalconnect.lawyerbooking.security.UserPrincipal.sessionName("lawyer", id), destination, payload);
+        }
+        return recipients.size();
+    }
 
     public CaseDTO createCase(CaseRequest request) {
         Case caseEntity = new Case();
@@ -64,7 +91,7 @@ public class CaseService {
         
         // If type is still null, attempt auto-classification
         if (caseEntity.getCaseType() == null) {
-            String category = classificationService.classifyCase(request.getDescription());
+            String category = aiProviderRouter.classifyCase(request.getDescription());
             try {
                 if (category != null && !category.trim().isEmpty()) {
                     String normCategory = category.trim().toUpperCase().replace(" ", "_");
@@ -122,8 +149,8 @@ public class CaseService {
                 );
                 
                 if (messagingTemplate != null) {
-                    messagingTemplate.convertAndSend("/topic/lawyer/requests", requestPayload);
-                    logger.info("Sent new case request for case ID: {}", dto.getId());
+                    int sent = sendToLawyers(saved.getCaseType(), null, LAWYER_REQUESTS_DESTINATION, requestPayload);
+                    logger.info("Sent new case request for case ID: {} to {} lawyers", dto.getId(), sent);
                 }
             } catch (Exception e) {
                 logger.error("Failed to send lawyer request: {}", e.getMessage());
@@ -188,8 +215,8 @@ public class CaseService {
             );
             
             if (messagingTemplate != null) {
-                messagingTemplate.convertAndSend("/topic/lawyer/requests", requestPayload);
-                logger.info("Broadcasted published case ID: {} to lawyers", dto.getId());
+                int sent = sendToLawyers(saved.getCaseType(), null, LAWYER_REQUESTS_DESTINATION, requestPayload);
+                logger.info("Sent published case ID: {} to {} lawyers", dto.getId(), sent);
             }
         } catch (Exception e) {
             logger.error("Failed to broadcast published case: {}", e.getMessage());
@@ -223,7 +250,7 @@ public class CaseService {
             // Automatically mask PII in the new description
             try {
                 logger.info("Masking PII in updated description for case {}", caseId);
-                String maskedDesc = textMaskingService.maskEnglishPersonalInfo(originalDesc);
+                String maskedDesc = aiProviderRouter.maskPersonalInfo(originalDesc);
                 caseEntity.setDescription(maskedDesc);
             } catch (Exception e) {
                 logger.error("Failed to mask description update for case {}. Using original text.", caseId, e);
@@ -389,7 +416,7 @@ public class CaseService {
 
         // Broadcast that a case has been taken
         try {
-            messagingTemplate.convertAndSend("/topic/lawyer/updates", Map.of(
+            sendToLawyers(caseEntity.getCaseType(), lawyerId, LAWYER_UPDATES_DESTINATION, Map.of(
                 "type", "CASE_ASSIGNED",
                 "caseId", caseId,
                 "lawyerId", lawyerId
@@ -414,7 +441,7 @@ public class CaseService {
         Case updated = caseRepository.save(caseEntity);
         CaseDTO dto = convertToDTO(updated);
         
-        messagingTemplate.convertAndSend("/topic/case/" + caseId, dto);
+        caseTopicPublisher.publishCase(caseId, dto);
         
         return dto;
     }
@@ -447,7 +474,7 @@ public class CaseService {
                 if (lawyer != null) {
                     Integer currentCount = lawyer.getCompletedCasesCount();
                     lawyer.setCompletedCasesCount(currentCount == null ? 1 : currentCount + 1);
-                    lawyerRepository.save(lawyer);
+                    lawyerSearchIndex.upsert(lawyerRepository.save(lawyer));
                     logger.info("Incremented completedCasesCount for lawyer {}", lawyer.getId());
                 }
             } catch (Exception e) {
@@ -474,7 +501,7 @@ public class CaseService {
             logger.warn("Could not log audit for status change: {}", e.getMessage());
         }
         
-        messagingTemplate.convertAndSend("/topic/case/" + caseId, dto);
+        caseTopicPublisher.publishCase(caseId, dto);
         
         return dto;
     }
@@ -490,7 +517,7 @@ public class CaseService {
         logger.info("Case {} soft-deleted", caseId);
 
         try {
-            messagingTemplate.convertAndSend("/topic/lawyer/updates", Map.of(
+            sendToLawyers(caseEntity.getCaseType(), caseEntity.getLawyerId(), LAWYER_UPDATES_DESTINATION, Map.of(
                 "type", "CASE_DELETED",
                 "caseId", caseId
             ));
@@ -0,0 +1,175 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalconnect.lawyerbooking.dto.CaseDTO;
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Publishes case events on {@code /topic/case/{id}}.
+ *
+ * Messages and case changes for the same case within
+ * {@code coalesce-window-ms} of the first one go out as a single
+ * {@code CASE_EVENTS} frame: the new messages in order, and the latest
+ * full state of the case. Frames carry whole state rather than deltas, so a
+ * subscriber that missed a frame, or was served by another node's broker
+ * relay, is correct again after the next one. Each frame is serialized once
+ * and handed to the broker as bytes, so the broker fans out the same payload
+ * to every subscriber. A window of 0 publishes each event in its own frame
+ * straight away.
+ */
+@Service
+public class CaseTopicPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaseTopicPublisher.class);
+
+    public static final String FRAME_TYPE = "CASE_EVENTS";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    // The application's mapper, which the STOMP converter also uses, so the wire format is unchanged
+    private final ObjectMapper mapper;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "case-topic-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${messaging.case-topic.coalesce-window-ms:50}")
+    private long coalesceWindowMs = 50;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+
+    private static final class Pending {
+        final List<MessageDTO> messages = new ArrayList<>();
+        CaseDTO caseState;
+    }
+
+    public CaseTopicPublisher(SimpMessagingTemplate messagingTemplate, ObjectMapper mapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.mapper = mapper;
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (Long caseId : new ArrayList<>(pending.keySet())) {
+            flush(caseId);
+        }
+        logger.info("Case topic publisher stopped: {} events in {} frames", events.get(), frames.get());
+    }
+
+    public static String destination(Long caseId) {
+        return "/topic/case/" + caseId;
+    }
+
+    public void publishMessage(Long caseId, MessageDTO message) {
+        if (caseId != null && message != null) {
+            enqueue(caseId, p -> p.messages.add(message));
+        }
+    }
+
+    /**
+     * Queues the current state of a case; only the latest state within a
+     * window is sent.
+     */
+    public void publishCase(Long caseId, CaseDTO caseState) {
+        if (caseId != null && caseState != null) {
+            enqueue(caseId, p -> p.caseState = caseState);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("coalesceWindowMs", coalesceWindowMs);
+        stats.put("pendingCases", pending.size());
+        stats.put("events", events.get());
+        stats.put("frames", frames.get());
+        return stats;
+    }
+
+    private void enqueue(Long caseId, Consumer<Pending> update) {
+        events.incrementAndGet();
+        if (coalesceWindowMs <= 0) {
+            Pending single = new Pending();
+            update.accept(single);
+            send(caseId, single);
+            return;
+        }
+        boolean[] first = new boolean[1];
+        pending.compute(caseId, (id, current) -> {
+            if (current == null) {
+                current = new Pending();
+                first[0] = true;
+            }
+            update.accept(current);
+            return current;
+        });
+        if (first[0]) {
+            try {
+                scheduler.schedule(() -> flush(caseId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                flush(caseId);
+            }
+        }
+    }
+
+    private void flush(Long caseId) {
+        // Removed before sending: anything queued from now on starts the next frame
+        Pending batch = pending.remove(caseId);
+        if (batch != null) {
+            send(caseId, batch);
+        }
+    }
+
+    private void send(Long caseId, Pending batch) {
+        try {
+            Map<String, Object> frame = new LinkedHashMap<>();
+            frame.put("type", FRAME_TYPE);
+            frame.put("caseId", caseId);
+            if (!batch.messages.isEmpty()) {
+                frame.put("messages", batch.messages);
+            }
+            if (batch.caseState != null) {
+                frame.put("caseState", batch.caseState);
+            }
+
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setLeaveMutable(true);
+            byte[] payload = mapper.writeValueAsBytes(frame);
+            messagingTemplate.send(destination(caseId),
+                    MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+            frames.incrementAndGet();
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize events for case {}: {}", caseId, e.getMessage());
+        } catch (Exception e) {
+            logger.error("Failed to publish events for case {}: {}", caseId, e.getMessage());
+        }
+    }
+}
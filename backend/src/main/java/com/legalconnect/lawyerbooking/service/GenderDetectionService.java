@@ -112,6 +112,15 @@ public class GenderDetectionService {
         if (bytes.length <= offset)
             return new float[0];
 
+        return toSamples(bytes, offset, bytesPerSample);
+    }
+
+    /**
+     * Decodes little-endian PCM bytes into normalized samples in [-1, 1].
+     * Shared with {@link AudioSegmentationService} so that silence detection and
+     * pitch detection read the signal the same way.
+     */
+    static float[] toSamples(byte[] bytes, int offset, int bytesPerSample) {
         int length = (bytes.length - offset) / bytesPerSample;
         float[] samples = new float[length];
 
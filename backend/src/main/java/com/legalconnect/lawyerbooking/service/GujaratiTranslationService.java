@@ -0,0 +1,208 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+import com.legalconnect.lawyerbooking.enums.TranslationStatus;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
+import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Materializes the Gujarati translation of a ClientAudio record lazily.
+ *
+ * Uploads no longer wait for translation. The text is produced either on
+ * first access or by a low-priority background worker, whichever comes first,
+ * and concurrent requests for the same record share a single translation.
+ * A reader never waits behind the background worker: if the running
+ * translation is backfill work, the reader takes its place and translates
+ * at interactive priority. Waiting on a shared translation is bounded by
+ * {@code audio.translation.join-timeout-ms}.
+ */
+@Service
+public class GujaratiTranslationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GujaratiTranslationService.class);
+
+    private final ClientAudioRepository repository;
+    private final AiProviderRouter aiProviderRouter;
+    private final AiWorkScheduler aiWorkScheduler;
+
+    @Value("${audio.translation.background-enabled:true}")
+    private boolean backgroundEnabled;
+
+    @Value("${audio.translation.join-timeout-ms:60000}")
+    private long joinTimeoutMs = 60000;
+
+    private record InFlight(AiPriority priority, CompletableFuture<String> result) {
+    }
+
+    // Translations currently running, keyed by ClientAudio ID
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    private ExecutorService backgroundExecutor;
+
+    public GujaratiTranslationService(ClientAudioRepository repository, AiProviderRouter aiProviderRouter,
+            AiWorkScheduler aiWorkScheduler) {
+        this.repository = repository;
+        this.aiProviderRouter = aiProviderRouter;
+        this.aiWorkScheduler = aiWorkScheduler;
+    }
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        backgroundExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "gujarati-translation");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Effective status of a record, see {@link TranslationStatus#effective}.
+     */
+    public static TranslationStatus statusOf(ClientAudio ca) {
+        return TranslationStatus.effective(ca.getGujaratiTranslationStatus(), ca.getMaskedGujaratiText());
+    }
+
+    /**
+     * Queues translation on the background worker once the current transaction
+     * (if any) has committed, so the worker can see the new row.
+     */
+    public void scheduleTranslation(Long audioId) {
+        if (!backgroundEnabled || audioId == null) {
+            return;
+        }
+        Runnable enqueue = () -> backgroundExecutor.submit(() -> {
+            try {
+                // Nobody is waiting on this one; an interactive request for the
+                // same record joins it through the in-flight map
+                aiWorkScheduler.runAs(AiPriority.BACKFILL, "gujarati-translation", () -> getOrTranslate(audioId));
+            } catch (Exception e) {
+                logger.warn("Background Gujarati translation failed for audio {}: {}", audioId, e.getMessage());
+            }
+        });
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue.run();
+                }
+            });
+        } else {
+            enqueue.run();
+        }
+    }
+
+    /**
+     * Returns the Gujarati text for the record, translating and storing it first
+     * if needed. Returns null if translation fails; the record is marked FAILED
+     * and the next access retries.
+     */
+    public String getOrTranslate(Long audioId) {
+        ClientAudio ca = repository.findById(audioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Audio record not found with id: " + audioId));
+        if (statusOf(ca) == TranslationStatus.READY) {
+            return ca.getMaskedGujaratiText();
+        }
+
+        AiPriority priority = aiWorkScheduler.currentContext().getPriority();
+        InFlight mine = new InFlight(priority, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(audioId, mine);
+        while (running != null && running.priority() == AiPriority.BACKFILL && priority == AiPriority.INTERACTIVE) {
+            // The background run may still be queued behind the backfill limits; translate now instead
+            if (inFlight.replace(audioId, running, mine)) {
+                logger.debug("Taking over background Gujarati translation for audio {}", audioId);
+                running = null;
+            } else {
+                running = inFlight.putIfAbsent(audioId, mine);
+            }
+        }
+        if (running != null) {
+            logger.debug("Gujarati translation for audio {} already running, waiting for it", audioId);
+            return join(audioId, running.result());
+        }
+
+        try {
+            String result = translate(audioId);
+            mine.result().complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(audioId, mine);
+        }
+    }
+
+    private String join(Long audioId, CompletableFuture<String> running) {
+        try {
+            return running.get(joinTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Gujarati translation for audio {} still running after {} ms", audioId, joinTimeoutMs);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String translate(Long audioId) {
+        // Re-read after claiming the slot: another worker may have just finished
+        ClientAudio ca = repository.findById(audioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Audio record not found with id: " + audioId));
+        if (statusOf(ca) == TranslationStatus.READY) {
+            return ca.getMaskedGujaratiText();
+        }
+
+        String english = ca.getMaskedEnglishText();
+        if (english == null || english.trim().isEmpty()) {
+            repository.updateGujaratiTranslation(audioId, english, TranslationStatus.READY);
+            return english;
+        }
+
+        long start = System.currentTimeMillis();
+        String gujarati = null;
+        try {
+            gujarati = aiProviderRouter.translateToGujarati(english);
+        } catch (Exception e) {
+            logger.error("Gujarati translation failed for audio {}", audioId, e);
+        }
+
+        // The OpenAI translator falls back to the input text when the API call fails
+        if (gujarati == null || gujarati.equals(english)) {
+            repository.updateGujaratiTranslationStatus(audioId, TranslationStatus.FAILED);
+            return null;
+        }
+
+        // Only the translation columns: the record may have changed during the call
+        repository.updateGujaratiTranslation(audioId, gujarati, TranslationStatus.READY);
+        logger.info("Gujarati translation for audio {} stored in {}ms", audioId, System.currentTimeMillis() - start);
+        return gujarati;
+    }
+}
@@ -0,0 +1,820 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.legalconnect.lawyerbooking.dto.LawyerProfileDTO;
+import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory search index over all lawyer profiles.
+ *
+ * Filterable and sortable fields are kept column-wise in primitive arrays
+ * indexed by a dense slot number, specializations and the verified flag as
+ * one bitset each, and names in a bigram/trigram index. A search intersects
+ * bitsets, narrows name matches through the shortest n-gram posting list,
+ * checks the numeric columns for the surviving slots and selects only the
+ * requested page, so the directory no longer queries MySQL per keystroke.
+ *
+ * The index is loaded once the application is ready and kept current by
+ * {@link #upsert} and {@link #remove}, which apply after the surrounding
+ * transaction commits. Until the first load finishes {@link #isReady()} is
+ * false and callers fall back to the database.
+ */
+@Service
+public class LawyerSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LawyerSearchIndex.class);
+
+    private final LawyerRepository lawyerRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(16);
+    private volatile boolean ready;
+
+    // Changes that arrive while a rebuild is reading the table, replayed on swap
+    private List<Runnable> pendingDuringRebuild;
+
+    public LawyerSearchIndex(LawyerRepository lawyerRepository) {
+        this.lawyerRepository = lawyerRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.currentTimeMillis();
+        List<Lawyer> lawyers = lawyerRepository.findAll();
+        Columns fresh = new Columns(Math.max(16, lawyers.size()));
+        for (Lawyer lawyer : lawyers) {
+            fresh.put(new Row(lawyer));
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns = fresh;
+            pendingDuringRebuild.forEach(Runnable::run);
+            pendingDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Lawyer search index built: {} lawyers in {}ms", lawyers.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Adds or refreshes a lawyer once the current transaction commits.
+     */
+    public void upsert(Lawyer lawyer) {
+        if (lawyer == null || lawyer.getId() == null) {
+            return;
+        }
+        Row row = new Row(lawyer);
+        afterCommit(() -> columns.put(row));
+    }
+
+    public void remove(Long lawyerId) {
+        afterCommit(() -> columns.remove(lawyerId));
+    }
+
+    private void afterCommit(Runnable change) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(change);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Runs the search with the same semantics as the JPA specification:
+     * substring match on name and availability, at-least bounds on the numeric
+     * fields, exact match on specialization and verified.
+     */
+    public Result search(LawyerSearchCriteria criteria, Pageable pageable) {
+        return search(criteria, pageable, false);
+    }
+
+    /**
+     * As {@link #search(LawyerSearchCriteria, Pageable)}, optionally with
+     * facet counts for the filter sidebar. Each facet counts the lawyers that
+     * match every filter except its own, so the sidebar shows what choosing
+     * another value would return.
+     */
+    public Result search(LawyerSearchCriteria criteria, Pageable pageable, boolean withFacets) {
+        lock.readLock().lock();
+        try {
+            return columns.search(criteria, pageable, withFacets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One page of matches and the total number of matches.
+     */
+    public static class Result {
+        private final List<LawyerProfileDTO> lawyers;
+        private final long totalElements;
+        private final Map<String, Map<String, Long>> facets;
+
+        Result(List<LawyerProfileDTO> lawyers, long totalElements, Map<String, Map<String, Long>> facets) {
+            this.lawyers = lawyers;
+            this.totalElements = totalElements;
+            this.facets = facets;
+        }
+
+        public List<LawyerProfileDTO> getLawyers() {
+            return lawyers;
+        }
+
+        public long getTotalElements() {
+            return totalElements;
+        }
+
+        /**
+         * Facet name to value to count, or null if not requested.
+         */
+        public Map<String, Map<String, Long>> getFacets() {
+            return facets;
+        }
+    }
+
+    // Immutable copy of the indexed fields, taken when the change is made
+    private static class Row {
+        private final long id;
+        private final String name;
+        private final String availability;
+        private final double rating;
+        private final double rankingScore;
+        private final int experience;
+        private final int completedCases;
+        private final boolean verified;
+        private final CaseType[] specializations;
+        private final LawyerProfileDTO dto;
+
+        private Row(Lawyer lawyer) {
+            this.id = lawyer.getId();
+            this.name = lower(lawyer.getFullName());
+            this.availability = lower(lawyer.getAvailabilityInfo());
+            // Missing values fail every lower bound, like NULL in SQL, and sort lowest
+            this.rating = lawyer.getRating() != null ? lawyer.getRating() : Double.NEGATIVE_INFINITY;
+            this.rankingScore = lawyer.getRankingScore() != null ? lawyer.getRankingScore() : Double.NEGATIVE_INFINITY;
+            this.experience = lawyer.getYearsOfExperience() != null ? lawyer.getYearsOfExperience() : Integer.MIN_VALUE;
+            this.completedCases = lawyer.getCompletedCasesCount() != null ? lawyer.getCompletedCasesCount() : Integer.MIN_VALUE;
+            this.verified = lawyer.isVerified();
+            this.specializations = lawyer.getSpecializations() != null
+                    ? lawyer.getSpecializations().toArray(new CaseType[0])
+                    : new CaseType[0];
+            this.dto = LawyerService.toProfileDTO(lawyer);
+        }
+    }
+
+    // Non-overlapping bands, highest first; a value belongs to the first band whose lower bound it reaches
+    private static final double[] RATING_BAND_FLOORS = { 4.0, 3.0, 2.0, 1.0, 0.0 };
+    private static final String[] RATING_BAND_LABELS = { "4-5", "3-4", "2-3", "1-2", "0-1" };
+    private static final String UNRATED = "unrated";
+    private static final double[] EXPERIENCE_BAND_FLOORS = { 21, 11, 6, 3, 0 };
+    private static final String[] EXPERIENCE_BAND_LABELS = { "21+", "11-20", "6-10", "3-5", "0-2" };
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Column storage. Slots are never reused; removed lawyers leave a hole
+     * until the next rebuild.
+     */
+    static class Columns {
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final BitSet verified = new BitSet();
+        private final Map<CaseType, BitSet> bySpecialization = new EnumMap<>(CaseType.class);
+        private final BitSet[] ratingBands = bitsets(RATING_BAND_LABELS.length + 1);
+        private final BitSet[] experienceBands = bitsets(EXPERIENCE_BAND_LABELS.length);
+        private final Map<Long, IntList> nameGrams = new HashMap<>();
+        private final Map<String, int[]> orderings = new ConcurrentHashMap<>();
+
+        private int size;
+        private long[] ids;
+        private double[] rating;
+        private double[] rankingScore;
+        private int[] experience;
+        private int[] completedCases;
+        private String[] names;
+        private String[] availability;
+        private LawyerProfileDTO[] rows;
+
+        // Posting entries left behind by renames; the name index is rebuilt when they pile up
+        private int staleGrams;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            rating = new double[capacity];
+            rankingScore = new double[capacity];
+            experience = new int[capacity];
+            completedCases = new int[capacity];
+            names = new String[capacity];
+            availability = new String[capacity];
+            rows = new LawyerProfileDTO[capacity];
+            for (CaseType type : CaseType.values()) {
+                bySpecialization.put(type, new BitSet());
+            }
+        }
+
+        private void put(Row row) {
+            orderings.clear();
+            Integer existing = slotById.get(row.id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                for (BitSet bits : bySpecialization.values()) {
+                    bits.clear(slot);
+                }
+            } else {
+                slot = size++;
+                ensureCapacity(size);
+                slotById.put(row.id, slot);
+            }
+
+            String previousName = names[slot];
+            ids[slot] = row.id;
+            rating[slot] = row.rating;
+            rankingScore[slot] = row.rankingScore;
+            experience[slot] = row.experience;
+            completedCases[slot] = row.completedCases;
+            names[slot] = row.name;
+            availability[slot] = row.availability;
+            rows[slot] = row.dto;
+            verified.set(slot, row.verified);
+            for (CaseType type : row.specializations) {
+                bySpecialization.get(type).set(slot);
+            }
+            for (BitSet band : ratingBands) {
+                band.clear(slot);
+            }
+            ratingBands[ratingBand(row.rating)].set(slot);
+            for (BitSet band : experienceBands) {
+                band.clear(slot);
+            }
+            int experienceBand = experienceBand(row.experience);
+            if (experienceBand >= 0) {
+                experienceBands[experienceBand].set(slot);
+            }
+            live.set(slot);
+
+            if (existing == null || !Objects.equals(previousName, row.name)) {
+                if (existing != null && previousName != null) {
+                    staleGrams += previousName.length();
+                }
+                indexName(slot, row.name);
+                if (staleGrams > size * 8) {
+                    reindexNames();
+                }
+            }
+        }
+
+        private void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            orderings.clear();
+            live.clear(slot);
+            verified.clear(slot);
+            for (BitSet bits : bySpecialization.values()) {
+                bits.clear(slot);
+            }
+            for (BitSet band : ratingBands) {
+                band.clear(slot);
+            }
+            for (BitSet band : experienceBands) {
+                band.clear(slot);
+            }
+            rows[slot] = null;
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(needed, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            rating = Arrays.copyOf(rating, capacity);
+            rankingScore = Arrays.copyOf(rankingScore, capacity);
+            experience = Arrays.copyOf(experience, capacity);
+            completedCases = Arrays.copyOf(completedCases, capacity);
+            names = Arrays.copyOf(names, capacity);
+            availability = Arrays.copyOf(availability, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+
+        private void indexName(int slot, String name) {
+            if (name == null) {
+                return;
+            }
+            for (int n = 2; n <= 3; n++) {
+                for (int i = 0; i + n <= name.length(); i++) {
+                    IntList postings = nameGrams.computeIfAbsent(gram(name, i, n), k -> new IntList());
+                    if (postings.size == 0 || postings.last() != slot) {
+                        postings.add(slot);
+                    }
+                }
+            }
+        }
+
+        private void reindexNames() {
+            nameGrams.clear();
+            staleGrams = 0;
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                indexName(slot, names[slot]);
+            }
+        }
+
+        private static long gram(String s, int from, int n) {
+            long key = n;
+            for (int i = 0; i < n; i++) {
+                key = (key << 16) | s.charAt(from + i);
+            }
+            return key;
+        }
+
+        Result search(LawyerSearchCriteria criteria, Pageable pageable, boolean withFacets) {
+            Map<String, Map<String, Long>> facets = null;
+            BitSet matches;
+            if (withFacets) {
+                facets = new LinkedHashMap<>();
+                matches = filterWithFacets(criteria, facets);
+            } else {
+                matches = filter(criteria);
+            }
+            int total = matches.cardinality();
+
+            int offset = 0;
+            int limit = total;
+            if (pageable != null && pageable.isPaged()) {
+                offset = (int) Math.min(pageable.getOffset(), total);
+                limit = Math.min(pageable.getPageSize(), total - offset);
+            }
+
+            Sort sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+            int[] page = select(matches, total, offset + limit, sort);
+
+            List<LawyerProfileDTO> lawyers = new ArrayList<>(limit);
+            for (int i = offset; i < offset + limit; i++) {
+                lawyers.add(rows[page[i]]);
+            }
+            return new Result(lawyers, total, facets);
+        }
+
+        /**
+         * The first k matches in sort order. Broad result sets walk a cached
+         * ordering of all slots and stop after k hits; narrow ones are ranked
+         * with a bounded heap.
+         */
+        private int[] select(BitSet matches, int total, int k, Sort sort) {
+            int[] ordering = total > size / 32 ? ordering(sort) : null;
+            if (ordering != null) {
+                int[] out = new int[k];
+                int found = 0;
+                for (int i = 0; i < ordering.length && found < k; i++) {
+                    if (matches.get(ordering[i])) {
+                        out[found++] = ordering[i];
+                    }
+                }
+                return out;
+            }
+
+            int[] slots = new int[total];
+            int count = 0;
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                slots[count++] = slot;
+            }
+            return TopK.select(slots, k, order(sort));
+        }
+
+        /**
+         * All live slots sorted by a single column, cached until the next
+         * write. Null for multi-column sorts.
+         */
+        private int[] ordering(Sort sort) {
+            List<Sort.Order> orders = sort.toList();
+            if (orders.size() > 1 || (orders.size() == 1 && column(orders.get(0).getProperty()) == null)) {
+                return null;
+            }
+            String key = orders.isEmpty() ? "id:ASC" : orders.get(0).getProperty() + ":" + orders.get(0).getDirection();
+            // Readers share the lock; two of them may sort concurrently and store the same result
+            return orderings.computeIfAbsent(key, k -> {
+                int[] slots = new int[slotById.size()];
+                int count = 0;
+                for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                    slots[count++] = slot;
+                }
+                return TopK.select(slots, slots.length, order(sort));
+            });
+        }
+
+        /**
+         * Slots matching every criterion.
+         */
+        BitSet filter(LawyerSearchCriteria criteria) {
+            BitSet candidates = (BitSet) live.clone();
+            if (criteria.getSpecialization() != null) {
+                candidates.and(bySpecialization.get(criteria.getSpecialization()));
+            }
+            if (criteria.getVerified() != null) {
+                if (criteria.getVerified()) {
+                    candidates.and(verified);
+                } else {
+                    candidates.andNot(verified);
+                }
+            }
+            if (criteria.getName() != null && !criteria.getName().isEmpty()) {
+                candidates = matchName(criteria.getName().toLowerCase(Locale.ROOT), candidates);
+            }
+
+            if (criteria.getMinRating() != null) {
+                candidates = atLeastRating(candidates, criteria.getMinRating());
+            }
+            if (criteria.getMinExperience() != null) {
+                candidates = atLeastExperience(candidates, criteria.getMinExperience());
+            }
+
+            boolean checkCompleted = criteria.getMinCompletedCases() != null;
+            String available = criteria.getAvailability() != null && !criteria.getAvailability().isEmpty()
+                    ? criteria.getAvailability().toLowerCase(Locale.ROOT)
+                    : null;
+            if (!checkCompleted && available == null) {
+                return candidates;
+            }
+
+            int minCompleted = checkCompleted ? criteria.getMinCompletedCases() : 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if ((checkCompleted && completedCases[slot] < minCompleted)
+                        || (available != null && (availability[slot] == null || !availability[slot].contains(available)))) {
+                    candidates.clear(slot);
+                }
+            }
+            return candidates;
+        }
+
+        private BitSet atLeastRating(BitSet candidates, double min) {
+            return atLeast(candidates, ratingBands, RATING_BAND_FLOORS, min, slot -> rating[slot] >= min);
+        }
+
+        private BitSet atLeastExperience(BitSet candidates, int min) {
+            return atLeast(candidates, experienceBands, EXPERIENCE_BAND_FLOORS, min, slot -> experience[slot] >= min);
+        }
+
+        /**
+         * Candidates whose value reaches the threshold. Bands wholly above it
+         * are taken as they are; only the band the threshold falls in is
+         * checked slot by slot.
+         */
+        private BitSet atLeast(BitSet candidates, BitSet[] bands, double[] floors, double threshold, IntPredicate passes) {
+            BitSet result = new BitSet(size);
+            for (int i = 0; i < floors.length; i++) {
+                if (floors[i] >= threshold) {
+                    result.or(bands[i]);
+                    continue;
+                }
+                BitSet partial = (BitSet) candidates.clone();
+                partial.and(bands[i]);
+                for (int slot = partial.nextSetBit(0); slot >= 0; slot = partial.nextSetBit(slot + 1)) {
+                    if (passes.test(slot)) {
+                        result.set(slot);
+                    }
+                }
+                break;
+            }
+            result.and(candidates);
+            return result;
+        }
+
+        /**
+         * Same matches as {@link #filter}, plus facet counts. Filters shared
+         * by all facets (name, verified, availability, completed cases) give
+         * a base set; specialization, rating and experience each give their
+         * own set. A facet's counts are the cardinalities of the base, the
+         * other two sets and each value's bitset intersected.
+         */
+        BitSet filterWithFacets(LawyerSearchCriteria criteria, Map<String, Map<String, Long>> facets) {
+            LawyerSearchCriteria shared = new LawyerSearchCriteria();
+            shared.setName(criteria.getName());
+            shared.setVerified(criteria.getVerified());
+            shared.setAvailability(criteria.getAvailability());
+            shared.setMinCompletedCases(criteria.getMinCompletedCases());
+            BitSet base = filter(shared);
+
+            BitSet specializationOk = criteria.getSpecialization() != null
+                    ? bySpecialization.get(criteria.getSpecialization())
+                    : null;
+            BitSet ratingOk = criteria.getMinRating() != null ? atLeastRating(base, criteria.getMinRating()) : null;
+            BitSet experienceOk = criteria.getMinExperience() != null ? atLeastExperience(base, criteria.getMinExperience()) : null;
+
+            Map<String, Long> bySpecializationFacet = new LinkedHashMap<>();
+            BitSet forSpecialization = intersect(base, ratingOk, experienceOk);
+            for (CaseType type : CaseType.values()) {
+                bySpecializationFacet.put(type.name(), countAnd(forSpecialization, bySpecialization.get(type)));
+            }
+            Map<String, Long> byRating = new LinkedHashMap<>();
+            BitSet forRating = intersect(base, specializationOk, experienceOk);
+            for (int i = 0; i < RATING_BAND_LABELS.length; i++) {
+                byRating.put(RATING_BAND_LABELS[i], countAnd(forRating, ratingBands[i]));
+            }
+            byRating.put(UNRATED, countAnd(forRating, ratingBands[RATING_BAND_LABELS.length]));
+            Map<String, Long> byExperience = new LinkedHashMap<>();
+            BitSet forExperience = intersect(base, specializationOk, ratingOk);
+            for (int i = 0; i < EXPERIENCE_BAND_LABELS.length; i++) {
+                byExperience.put(EXPERIENCE_BAND_LABELS[i], countAnd(forExperience, experienceBands[i]));
+            }
+            facets.put("specialization", bySpecializationFacet);
+            facets.put("rating", byRating);
+            facets.put("experience", byExperience);
+
+            return intersect(forSpecialization, specializationOk, null);
+        }
+
+        // Null sets stand for "no filter"
+        private static BitSet intersect(BitSet base, BitSet a, BitSet b) {
+            BitSet result = (BitSet) base.clone();
+            if (a != null) {
+                result.and(a);
+            }
+            if (b != null) {
+                result.and(b);
+            }
+            return result;
+        }
+
+        private static long countAnd(BitSet a, BitSet b) {
+            BitSet both = (BitSet) a.clone();
+            both.and(b);
+            return both.cardinality();
+        }
+
+        private static BitSet[] bitsets(int count) {
+            BitSet[] sets = new BitSet[count];
+            for (int i = 0; i < count; i++) {
+                sets[i] = new BitSet();
+            }
+            return sets;
+        }
+
+        // Index into RATING_BAND_LABELS, or one past the end for unrated lawyers
+        private static int ratingBand(double value) {
+            for (int i = 0; i < RATING_BAND_FLOORS.length; i++) {
+                if (value >= RATING_BAND_FLOORS[i]) {
+                    return i;
+                }
+            }
+            return RATING_BAND_FLOORS.length;
+        }
+
+        // -1 when experience is missing or negative
+        private static int experienceBand(double value) {
+            for (int i = 0; i < EXPERIENCE_BAND_FLOORS.length; i++) {
+                if (value >= EXPERIENCE_BAND_FLOORS[i]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private BitSet matchName(String query, BitSet candidates) {
+            BitSet matched = new BitSet();
+            if (query.length() < 2) {
+                for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                    if (names[slot] != null && names[slot].contains(query)) {
+                        matched.set(slot);
+                    }
+                }
+                return matched;
+            }
+
+            // Every gram of the query must occur in the name; walk the rarest one
+            int n = Math.min(3, query.length());
+            IntList shortest = null;
+            for (int i = 0; i + n <= query.length(); i++) {
+                IntList postings = nameGrams.get(gram(query, i, n));
+                if (postings == null) {
+                    return matched;
+                }
+                if (shortest == null || postings.size < shortest.size) {
+                    shortest = postings;
+                }
+            }
+            for (int i = 0; i < shortest.size; i++) {
+                int slot = shortest.values[i];
+                if (candidates.get(slot) && names[slot] != null && names[slot].contains(query)) {
+                    matched.set(slot);
+                }
+            }
+            return matched;
+        }
+
+        private SlotOrder order(Sort sort) {
+            SlotOrder order = null;
+            for (Sort.Order o : sort) {
+                SlotOrder next = column(o.getProperty());
+                if (next == null) {
+                    continue;
+                }
+                if (o.isDescending()) {
+                    SlotOrder ascending = next;
+                    next = (a, b) -> ascending.compare(b, a);
+                }
+                order = order == null ? next : then(order, next);
+            }
+            // Ties, and unsorted searches, fall back to ID order like the table scan
+            SlotOrder byId = (a, b) -> Long.compare(ids[a], ids[b]);
+            return order == null ? byId : then(order, byId);
+        }
+
+        private SlotOrder column(String property) {
+            switch (property) {
+                case "rating":
+                    return (a, b) -> Double.compare(rating[a], rating[b]);
+                case "rankingScore":
+                    return (a, b) -> Double.compare(rankingScore[a], rankingScore[b]);
+                case "yearsOfExperience":
+                    return (a, b) -> Integer.compare(experience[a], experience[b]);
+                case "completedCasesCount":
+                    return (a, b) -> Integer.compare(completedCases[a], completedCases[b]);
+                case "fullName":
+                    return (a, b) -> {
+                        String x = names[a] != null ? names[a] : "";
+                        String y = names[b] != null ? names[b] : "";
+                        return x.compareTo(y);
+                    };
+                case "id":
+                    return (a, b) -> Long.compare(ids[a], ids[b]);
+                default:
+                    return null;
+            }
+        }
+
+        private static SlotOrder then(SlotOrder first, SlotOrder second) {
+            return (a, b) -> {
+                int c = first.compare(a, b);
+                return c != 0 ? c : second.compare(a, b);
+            };
+        }
+    }
+
+    @FunctionalInterface
+    interface SlotOrder {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Partial sort: the first k slots in order, without sorting the rest.
+     */
+    static final class TopK {
+
+        private TopK() {
+        }
+
+        static int[] select(int[] slots, int k, SlotOrder order) {
+            if (k >= slots.length / 2) {
+                return sorted(slots, order);
+            }
+            // Max-heap of the k best seen so far; the root is the worst of them
+            int[] heap = new int[k];
+            int size = 0;
+            for (int slot : slots) {
+                if (size < k) {
+                    heap[size] = slot;
+                    siftUp(heap, size++, order);
+                } else if (k > 0 && order.compare(slot, heap[0]) < 0) {
+                    heap[0] = slot;
+                    siftDown(heap, k, order);
+                }
+            }
+            return sorted(Arrays.copyOf(heap, size), order);
+        }
+
+        private static int[] sorted(int[] slots, SlotOrder order) {
+            Integer[] boxed = new Integer[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                boxed[i] = slots[i];
+            }
+            Arrays.sort(boxed, order::compare);
+            int[] out = new int[slots.length];
+            for (int i = 0; i < out.length; i++) {
+                out[i] = boxed[i];
+            }
+            return out;
+        }
+
+        private static void siftUp(int[] heap, int i, SlotOrder order) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (order.compare(heap[i], heap[parent]) <= 0) {
+                    return;
+                }
+                swap(heap, i, parent);
+                i = parent;
+            }
+        }
+
+        private static void siftDown(int[] heap, int size, SlotOrder order) {
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                int right = left + 1;
+                int largest = i;
+                if (left < size && order.compare(heap[left], heap[largest]) > 0) {
+                    largest = left;
+                }
+                if (right < size && order.compare(heap[right], heap[largest]) > 0) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(heap, i, largest);
+                i = largest;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int last() {
+            return values[size - 1];
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package com.legalconnect.lawyerbooking.service;
 
+import com.legalconnect.lawyerbooking.converter.CaseTypeConverter;
 import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
 import com.legalconnect.lawyerbooking.enums.CaseType;
 import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerSpecifications;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import jakarta.persistence.criteria.Predicate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import com.legalconnect.lawyerbooking.dto.LawyerDTO;
+import com.legalconnect.lawyerbooking.dto.LawyerProfileDTO;
 import com.legalconnect.lawyerbooking.dto.LawyerSearchResponse;
 
 @Service
@@ -22,10 +35,45 @@ public class LawyerService {
     @Autowired
     private LawyerRepository lawyerRepository;
 
+    @Autowired
+    private LawyerSearchIndex lawyerSearchIndex;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final Logger logger = LoggerFactory.getLogger(LawyerService.class);
+
     /**
-     * Search lawyers with caching and pagination
+     * Search lawyers with pagination. Served from the in-memory index; the
+     * database is only queried until the index has finished loading.
      */
     public LawyerSearchResponse searchLawyers(LawyerSearchCriteria criteria, Pageable pageable) {
+        return searchLawyers(criteria, pageable, false);
+    }
+
+    /**
+     * Search lawyers, optionally with specialization, rating band and
+     * experience band counts for the filter sidebar. Facets need the index
+     * and are left out while it is still loading.
+     */
+    public LawyerSearchResponse searchLawyers(LawyerSearchCriteria criteria, Pageable pageable, boolean withFacets) {
+        if (lawyerSearchIndex.isReady()) {
+            LawyerSearchIndex.Result result = lawyerSearchIndex.search(criteria, pageable, withFacets);
+            int pageSize = pageable.isPaged() ? pageable.getPageSize() : Math.max(result.getLawyers().size(), 1);
+            int pageNumber = pageable.isPaged() ? pageable.getPageNumber() : 0;
+            return new LawyerSearchResponse(
+                result.getLawyers(),
+                pageNumber,
+                (int) Math.ceil((double) result.getTotalElements() / pageSize),
+                result.getTotalElements(),
+                pageSize,
+                result.getFacets()
+            );
+        }
+
         Page<Lawyer> page = lawyerRepository.findAll((Specification<Lawyer>) (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -34,8 +82,7 @@ public class LawyerService {
             }
 
             if (criteria.getSpecialization() != null) {
-                // Check if the set of specializations contains the requested enum
-                predicates.add(cb.isMember(criteria.getSpecialization(), root.get("specializations")));
+                predicates.add(LawyerSpecifications.hasSpecialization(root, cb, criteria.getSpecialization()));
             }
 
             if (criteria.getMinRating() != null) {
@@ -61,8 +108,8 @@ public class LawyerService {
             return cb.and(predicates.toArray(new Predicate[0]));
         }, pageable);
         
-        List<LawyerDTO> dtos = page.getContent().stream()
-            .map(this::convertToDTO)
+        List<LawyerProfileDTO> dtos = page.getContent().stream()
+            .map(LawyerService::toProfileDTO)
             .collect(Collectors.toList());
         
         return new LawyerSearchResponse(
@@ -116,17 +163,11 @@ public class LawyerService {
         }
         
         Lawyer savedLawyer = lawyerRepository.save(lawyer);
+        lawyerSearchIndex.upsert(savedLawyer);
+        presenceRegistry.specializationsChanged(lawyerId, savedLawyer.getSpecializationMask());
         return convertToDTO(savedLawyer);
     }
     
-    public void updateLawyerRating(Long lawyerId, Double newRating) {
-        Lawyer lawyer = lawyerRepository.findById(lawyerId)
-            .orElseThrow(() -> new RuntimeException("Lawyer not found with id: " + lawyerId));
-        
-        lawyer.setRating(newRating);
-        lawyerRepository.save(lawyer);
-    }
-    
     private LawyerDTO convertToDTO(Lawyer lawyer) {
         LawyerDTO dto = new LawyerDTO();
         dto.setId(lawyer.getId());
@@ -146,4 +187,59 @@ public class LawyerService {
         dto.setNotableSuccesses(lawyer.getNotableSuccesses());
         return dto;
     }
+
+    static LawyerProfileDTO toProfileDTO(Lawyer lawyer) {
+        return new LawyerProfileDTO(
+            lawyer.getId(),
+            lawyer.getFullName(),
+            lawyer.getSpecializations(),
+            lawyer.getYearsOfExperience(),
+            lawyer.getLanguagesKnown(),
+            lawyer.getRating(),
+            lawyer.getCompletedCasesCount(),
+            lawyer.getProfilePhotoUrl(),
+            lawyer.getAvailabilityInfo(),
+            lawyer.getBarNumber(),
+            lawyer.getEmail(),
+            lawyer.getBio(),
+            lawyer.getConsultationModes(),
+            lawyer.getHeadline(),
+            lawyer.isVerified(),
+            lawyer.getExperienceTimeline(),
+            lawyer.getNotableSuccesses()
+        );
+    }
+
+    /**
+     * Fill specialization_mask for lawyers saved before the column existed.
+     * Runs ahead of the search index rebuild, which reads the mask.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillSpecializationMasks() {
+        try {
+            CaseTypeConverter converter = new CaseTypeConverter();
+            Map<Long, Long> masks = new HashMap<>();
+            jdbcTemplate.query(
+                    "SELECT s.lawyer_id, s.specialization FROM lawyer_specializations s "
+                    + "JOIN lawyers l ON l.id = s.lawyer_id WHERE l.specialization_mask = 0",
+                    rs -> {
+                        CaseType type = converter.convertToEntityAttribute(rs.getString(2));
+                        if (type != null) {
+                            masks.merge(rs.getLong(1), CaseTypeMask.bit(type), (a, b) -> a | b);
+                        }
+                    });
+            if (masks.isEmpty()) {
+                return;
+            }
+            List<Object[]> args = masks.entrySet().stream()
+                    .map(e -> new Object[] { e.getValue(), e.getKey() })
+                    .collect(Collectors.toList());
+            jdbcTemplate.batchUpdate(
+                    "UPDATE lawyers SET specialization_mask = ? WHERE id = ? AND specialization_mask = 0", args);
+            logger.info("Backfilled specialization masks for {} lawyers", masks.size());
+        } catch (Exception e) {
+            logger.warn("Could not backfill specialization masks: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,341 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessageSearchResultDTO;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory full-text index over chat messages, one partition per case.
+ *
+ * Each partition keeps the case's messages in arrival order and an inverted
+ * index from lower-cased words to their positions. A query matches messages
+ * containing every word, the last one as a prefix so results follow the
+ * user's typing, newest first.
+ *
+ * The index is loaded from the messages table once the application is ready
+ * and kept current by {@link #add}, applied after the surrounding
+ * transaction commits. Messages are never edited or deleted, so partitions
+ * only grow. Until the first load finishes a search scans the case's
+ * messages from the database with the same matching rules.
+ */
+@Service
+public class MessageSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageSearchIndex.class);
+
+    public static final int MAX_QUERY_LENGTH = 200;
+    public static final int MAX_LIMIT = 100;
+
+    // Rows read per query while rebuilding
+    private static final int REBUILD_PAGE = 5000;
+
+    private static final String REBUILD_SQL = "SELECT id, case_id, sender_id, sender_type, message_text, created_at "
+            + "FROM messages WHERE case_id IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageRepository messageRepository;
+
+    private volatile Map<Long, CasePartition> partitions = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Messages that arrive while a rebuild is reading the table, replayed on swap. Starts
+    // collecting at construction: chat can be written to before the application is ready.
+    private List<Entry> pendingDuringRebuild = new ArrayList<>();
+
+    public MessageSearchIndex(JdbcTemplate jdbcTemplate, MessageRepository messageRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageRepository = messageRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            if (pendingDuringRebuild == null) {
+                pendingDuringRebuild = new ArrayList<>();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        Map<Long, CasePartition> fresh = new ConcurrentHashMap<>();
+        long lastId = 0;
+        int count = 0;
+        while (true) {
+            List<Entry> page = jdbcTemplate.query(REBUILD_SQL, (rs, n) -> {
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                return new Entry(rs.getLong("id"), rs.getLong("case_id"), rs.getLong("sender_id"),
+                        rs.getString("sender_type"), rs.getString("message_text"),
+                        createdAt != null ? createdAt.toLocalDateTime() : null);
+            }, lastId, REBUILD_PAGE);
+            for (Entry entry : page) {
+                fresh.computeIfAbsent(entry.caseId, id -> new CasePartition()).add(entry);
+            }
+            count += page.size();
+            if (page.size() < REBUILD_PAGE) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).id;
+        }
+
+        synchronized (this) {
+            for (Entry entry : pendingDuringRebuild) {
+                fresh.computeIfAbsent(entry.caseId, id -> new CasePartition()).add(entry);
+            }
+            pendingDuringRebuild = null;
+            partitions = fresh;
+            ready = true;
+        }
+        logger.info("Message search index built: {} messages in {} cases in {}ms",
+                count, fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Indexes a stored message once the current transaction commits.
+     */
+    public void add(Message message) {
+        if (message == null || message.getId() == null || message.getCaseId() == null) {
+            return;
+        }
+        Entry entry = new Entry(message.getId(), message.getCaseId(), message.getSenderId(),
+                message.getSenderType(), message.getMessageText(), message.getCreatedAt());
+        Runnable apply = () -> {
+            synchronized (this) {
+                if (pendingDuringRebuild != null) {
+                    pendingDuringRebuild.add(entry);
+                }
+            }
+            partitions.computeIfAbsent(entry.caseId, id -> new CasePartition()).add(entry);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+
+    /**
+     * Messages of one case matching {@code query}, newest first. Pass the
+     * returned {@code nextBefore} as {@code before} for the next page.
+     * Access to the case is checked by the caller.
+     */
+    public MessageSearchResultDTO search(Long caseId, String query, Long before, int limit) {
+        if (query == null || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("Search query must contain at least one word");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        CasePartition partition;
+        if (ready) {
+            partition = partitions.get(caseId);
+        } else {
+            CasePartition scanned = new CasePartition();
+            messageRepository.findByCaseIdOrderByCreatedAtAsc(caseId).forEach(m -> scanned.add(new Entry(
+                    m.getId(), m.getCaseId(), m.getSenderId(), m.getSenderType(), m.getMessageText(), m.getCreatedAt())));
+            partition = scanned;
+        }
+        if (partition == null) {
+            return new MessageSearchResultDTO(List.of(), 0, null);
+        }
+        return partition.search(terms, before, size);
+    }
+
+    public int caseCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Lower-cased words: runs of letters, digits and combining marks, so
+     * Gujarati and other scripts with vowel signs stay whole.
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && isWordChar(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static boolean isWordChar(char c) {
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    // Immutable copy of the indexed fields, taken when the message is stored
+    private static final class Entry {
+        private final long id;
+        private final long caseId;
+        private final Long senderId;
+        private final String senderType;
+        private final String text;
+        private final LocalDateTime createdAt;
+
+        private Entry(long id, long caseId, Long senderId, String senderType, String text, LocalDateTime createdAt) {
+            this.id = id;
+            this.caseId = caseId;
+            this.senderId = senderId;
+            this.senderType = senderType;
+            this.text = text;
+            this.createdAt = createdAt;
+        }
+
+        // Receiver and read state are left out: search results are for locating, not for inbox state
+        private MessageDTO toDTO() {
+            return new MessageDTO(id, caseId, senderId, senderType, null, null, text, null, createdAt);
+        }
+    }
+
+    /**
+     * One case's messages. Positions are arrival order; posting lists only
+     * ever grow at the end, so they stay sorted.
+     */
+    static final class CasePartition {
+        private final List<Entry> entries = new ArrayList<>();
+        private final Set<Long> ids = new HashSet<>();
+        private final TreeMap<String, IntList> postings = new TreeMap<>();
+
+        private synchronized void add(Entry entry) {
+            // A rebuild may read a message that was also queued for replay
+            if (!ids.add(entry.id)) {
+                return;
+            }
+            int position = entries.size();
+            entries.add(entry);
+            for (String word : tokenize(entry.text)) {
+                IntList list = postings.computeIfAbsent(word, k -> new IntList());
+                if (list.size == 0 || list.last() != position) {
+                    list.add(position);
+                }
+            }
+        }
+
+        private synchronized MessageSearchResultDTO search(List<String> terms, Long before, int limit) {
+            BitSet matches = null;
+            for (int i = 0; i < terms.size(); i++) {
+                BitSet term = i == terms.size() - 1 ? prefixMatches(terms.get(i)) : exactMatches(terms.get(i));
+                if (matches == null) {
+                    matches = term;
+                } else {
+                    matches.and(term);
+                }
+                if (matches.isEmpty()) {
+                    return new MessageSearchResultDTO(List.of(), 0, null);
+                }
+            }
+
+            // Arrival order is nearly id order; sort so pages are exact
+            int n = matches.cardinality();
+            Integer[] order = new Integer[n];
+            int i = 0;
+            for (int p = matches.nextSetBit(0); p >= 0; p = matches.nextSetBit(p + 1)) {
+                order[i++] = p;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(entries.get(b).id, entries.get(a).id));
+
+            List<MessageDTO> page = new ArrayList<>();
+            Long nextBefore = null;
+            for (Integer position : order) {
+                Entry entry = entries.get(position);
+                if (before != null && entry.id >= before) {
+                    continue;
+                }
+                if (page.size() == limit) {
+                    nextBefore = page.get(page.size() - 1).getId();
+                    break;
+                }
+                page.add(entry.toDTO());
+            }
+            return new MessageSearchResultDTO(page, n, nextBefore);
+        }
+
+        private BitSet exactMatches(String word) {
+            BitSet bits = new BitSet(entries.size());
+            IntList list = postings.get(word);
+            if (list != null) {
+                list.addTo(bits);
+            }
+            return bits;
+        }
+
+        private BitSet prefixMatches(String prefix) {
+            BitSet bits = new BitSet(entries.size());
+            NavigableMap<String, IntList> words = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            for (IntList list : words.values()) {
+                list.addTo(bits);
+            }
+            return bits;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[2];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int last() {
+            return values[size - 1];
+        }
+
+        private void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(values[i]);
+            }
+        }
+    }
+}
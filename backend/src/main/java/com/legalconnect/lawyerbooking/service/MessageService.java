@@ -4,13 +4,34 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.entity.MessageReadWatermark;
 import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.repository.MessageReadWatermarkRepository;
 import com.legalconnect.lawyerbooking.repository.MessageRepository;
 import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
 import com.legalconnect.lawyerbooking.dto.MessageRequest;
+import com.legalconnect.lawyerbooking.dto.MessageSearchResultDTO;
+import com.legalconnect.lawyerbooking.util.MessageCursor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,12 +39,32 @@ public class MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // How long a sender or case found in the database is trusted without asking again
+    @Value("${messaging.sender-cache-ttl-ms:300000}")
+    private long senderCacheTtlMs = 300000;
+
+    private final Map<String, Long> verifiedRecords = new ConcurrentHashMap<>();
+
     @Autowired
     private MessageRepository messageRepository;
 
     @Autowired
     private AuthorizationService authorizationService;
 
+    @Autowired
+    private MessageReadWatermarkRepository watermarkRepository;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MessageWriteBehindService writeBehind;
+
     @Autowired
     private com.legalconnect.lawyerbooking.repository.UserRepository userRepository;
 
@@ -31,7 +72,13 @@ public class MessageService {
     private com.legalconnect.lawyerbooking.repository.LawyerRepository lawyerRepository;
 
     @Autowired
-    private org.springframework.messaging.simp.SimpMessagingTemplate messagingTemplate;
+    private com.legalconnect.lawyerbooking.repository.CaseRepository caseRepository;
+
+    @Autowired
+    private CaseTopicPublisher caseTopicPublisher;
+
+    @Autowired
+    private MessageSearchIndex messageSearchIndex;
 
     public MessageDTO sendMessage(MessageRequest request) {
         // 1. Validate message text
@@ -47,18 +94,25 @@ public class MessageService {
             throw new BadRequestException("Sender ID and Type must be provided");
         }
 
-        boolean senderExists = false;
-        if ("user".equalsIgnoreCase(senderType)) {
-            senderExists = userRepository.existsById(senderId);
-        } else if ("lawyer".equalsIgnoreCase(senderType)) {
-            senderExists = lawyerRepository.existsById(senderId);
-        }
+        boolean senderExists = senderExists(senderId, senderType);
 
         if (!senderExists) {
             throw new com.legalconnect.lawyerbooking.exception.UnauthorizedException("Sender not found: " + senderType + " ID " + senderId);
         }
 
-        // 3. Simple Access Check (Optional but good for stability)
+        // 3. Validate the receiver and the case. With write-behind the message is broadcast
+        // before it is stored, so anything the insert would reject must be refused here
+        String receiverType = request.getReceiverType();
+        if (request.getReceiverId() == null
+                || !("user".equalsIgnoreCase(receiverType) || "lawyer".equalsIgnoreCase(receiverType))) {
+            throw new BadRequestException("Receiver ID and Type (user or lawyer) must be provided");
+        }
+        if (request.getCaseId() != null && !caseExists(request.getCaseId())) {
+            throw new com.legalconnect.lawyerbooking.exception.ResourceNotFoundException(
+                    "Case not found with ID: " + request.getCaseId());
+        }
+
+        // 4. Simple Access Check (Optional but good for stability)
         // In a simplified WebSocket flow, we might skip verifyMessageAccess or refactor it 
         // to take raw IDs. For now, let's keep it simple as requested.
 
@@ -76,34 +130,217 @@ public class MessageService {
         message.setMessageText(request.getMessageText().trim());
         message.setIsRead(false);
         
-        Message saved = messageRepository.save(message);
+        Message saved;
+        if (writeBehind.isEnabled()) {
+            // Stored and counted later in a batch; the ID is already final
+            saved = writeBehind.submit(message);
+        } else {
+            saved = messageRepository.save(message);
+            unreadCounterService.messageReceived(saved.getReceiverId(), saved.getReceiverType());
+        }
+        messageSearchIndex.add(saved);
         MessageDTO dto = convertToDTO(saved);
         
         // Broadcast the message to the case topic
-        messagingTemplate.convertAndSend("/topic/case/" + request.getCaseId(), dto);
+        caseTopicPublisher.publishMessage(request.getCaseId(), dto);
         
         return dto;
     }
 
+    private boolean senderExists(Long senderId, String senderType) {
+        String key = senderType.toLowerCase() + ":" + senderId;
+        Long verifiedAt = verifiedRecords.get(key);
+        long now = System.currentTimeMillis();
+        if (verifiedAt != null && now - verifiedAt < senderCacheTtlMs) {
+            return true;
+        }
+        boolean exists = false;
+        if ("user".equalsIgnoreCase(senderType)) {
+            exists = userRepository.existsById(senderId);
+        } else if ("lawyer".equalsIgnoreCase(senderType)) {
+            exists = lawyerRepository.existsById(senderId);
+        }
+        if (exists) {
+            verifiedRecords.put(key, now);
+        }
+        return exists;
+    }
+
+    private boolean caseExists(Long caseId) {
+        String key = "case:" + caseId;
+        Long verifiedAt = verifiedRecords.get(key);
+        long now = System.currentTimeMillis();
+        if (verifiedAt != null && now - verifiedAt < senderCacheTtlMs) {
+            return true;
+        }
+        boolean exists = caseRepository.existsById(caseId);
+        if (exists) {
+            verifiedRecords.put(key, now);
+        }
+        return exists;
+    }
+
+    /**
+     * Messages in a case containing every word of {@code query}, newest first.
+     */
+    public MessageSearchResultDTO searchCaseMessages(Long caseId, String query, Long before, int limit) {
+        return messageSearchIndex.search(caseId, query, before, limit);
+    }
+
     public List<MessageDTO> getMessagesByCaseId(Long caseId) {
         List<Message> messages = messageRepository.findByCaseIdOrderByCreatedAtAsc(caseId);
         return messages.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    /**
+     * A page of a case conversation. With no cursor this is the latest page;
+     * {@code before} walks back through history and {@code after} returns
+     * what arrived since.
+     */
+    public MessagePageDTO getMessagesByCaseId(Long caseId, String before, String after, int size) {
+        return page(before, after, size,
+                limit -> messageRepository.findByCaseIdOrderByCreatedAtDescIdDesc(caseId, limit),
+                (c, limit) -> messageRepository.findCaseMessagesBefore(caseId, c.getCreatedAt(), c.getId(), limit),
+                (c, limit) -> messageRepository.findCaseMessagesAfter(caseId, c.getCreatedAt(), c.getId(), limit));
+    }
+
     public List<MessageDTO> getMessagesByReceiver(Long receiverId, String receiverType) {
         List<Message> messages = messageRepository.findByReceiverIdAndReceiverType(receiverId, receiverType);
         return messages.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    /**
+     * A page of the messages sent to a user or lawyer across cases, with the
+     * same cursor semantics as {@link #getMessagesByCaseId(Long, String, String, int)}.
+     */
+    public MessagePageDTO getMessagesByReceiver(Long receiverId, String receiverType, String before, String after, int size) {
+        return page(before, after, size,
+                limit -> messageRepository.findByReceiverIdAndReceiverTypeOrderByCreatedAtDescIdDesc(receiverId, receiverType, limit),
+                (c, limit) -> messageRepository.findReceiverMessagesBefore(receiverId, receiverType, c.getCreatedAt(), c.getId(), limit),
+                (c, limit) -> messageRepository.findReceiverMessagesAfter(receiverId, receiverType, c.getCreatedAt(), c.getId(), limit));
+    }
+
+    private MessagePageDTO page(String before, String after, int size,
+                                Function<Pageable, List<Message>> latest,
+                                BiFunction<MessageCursor, Pageable, List<Message>> older,
+                                BiFunction<MessageCursor, Pageable, List<Message>> newer) {
+        if (before != null && after != null) {
+            throw new BadRequestException("Pass either before or after, not both");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether the page has a neighbour in that direction
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        if (after != null) {
+            List<Message> rows = newer.apply(MessageCursor.parse(after), limit);
+            boolean hasNewer = rows.size() > pageSize;
+            List<Message> window = hasNewer ? rows.subList(0, pageSize) : rows;
+            return toPage(window, after, true, hasNewer);
+        }
+
+        List<Message> rows = before != null
+                ? older.apply(MessageCursor.parse(before), limit)
+                : latest.apply(limit);
+        boolean hasOlder = rows.size() > pageSize;
+        List<Message> window = new ArrayList<>(hasOlder ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(window);
+        return toPage(window, before, hasOlder, before != null);
+    }
+
+    // Cursors bound the window; an empty window keeps the cursor it was asked with
+    private MessagePageDTO toPage(List<Message> window, String cursor, boolean hasOlder, boolean hasNewer) {
+        if (window.isEmpty()) {
+            return new MessagePageDTO(List.of(), cursor, cursor, hasOlder, hasNewer);
+        }
+        return new MessagePageDTO(
+                window.stream().map(this::convertToDTO).collect(Collectors.toList()),
+                MessageCursor.of(window.get(0)),
+                MessageCursor.of(window.get(window.size() - 1)),
+                hasOlder,
+                hasNewer);
+    }
+
+    /**
+     * Compatibility shim for the per-message read endpoint: marks the
+     * receiver's conversation read up to this message.
+     */
     public void markMessageAsRead(Long messageId) {
         Message message = messageRepository.findById(messageId)
             .orElseThrow(() -> new RuntimeException("Message not found with id: " + messageId));
-        message.setIsRead(true);
-        messageRepository.save(message);
+        if (message.getCaseId() == null) {
+            if (messageRepository.markRead(messageId) > 0 && !Boolean.TRUE.equals(message.getIsRead())) {
+                unreadCounterService.readStateChanged(message.getReceiverId(), message.getReceiverType());
+            }
+            return;
+        }
+        markConversationRead(message.getCaseId(), message.getReceiverId(), message.getReceiverType(), messageId);
+    }
+
+    /**
+     * Marks everything in the case addressed to the participant as read up
+     * to {@code upToMessageId}, or up to the latest message when null. The
+     * watermark only moves forward, so late or repeated calls are harmless.
+     * The statements issued do not depend on how many messages are covered.
+     */
+    public void markConversationRead(Long caseId, Long participantId, String participantType, Long upToMessageId) {
+        Long upTo = upToMessageId != null ? upToMessageId : messageRepository.findLatestMessageId(caseId);
+        if (upTo == null) {
+            return;
+        }
+        while (true) {
+            Optional<MessageReadWatermark> current =
+                    watermarkRepository.findByCaseIdAndParticipantIdAndParticipantType(caseId, participantId, participantType);
+            if (current.isPresent()) {
+                long from = current.get().getLastReadMessageId();
+                if (upTo <= from) {
+                    return;
+                }
+                if (watermarkRepository.advance(caseId, participantId, participantType, from, upTo) > 0) {
+                    break;
+                }
+            } else {
+                try {
+                    watermarkRepository.saveAndFlush(new MessageReadWatermark(caseId, participantId, participantType, upTo));
+                    break;
+                } catch (DataIntegrityViolationException e) {
+                    // Another request created the row first; retry against it
+                }
+            }
+        }
+        unreadCounterService.readStateChanged(participantId, participantType);
+    }
+
+    public long getUnreadMessageCount(Long caseId, Long receiverId, String receiverType) {
+        return messageRepository.countUnreadInCase(caseId, receiverId, receiverType);
     }
 
     public long getUnreadMessageCount(Long receiverId, String receiverType) {
-        return messageRepository.countByReceiverIdAndReceiverTypeAndIsRead(receiverId, receiverType, false);
+        return unreadCounterService.getUnreadCount(receiverId, receiverType);
+    }
+
+    /**
+     * Seed watermarks from the per-message read flags written before
+     * watermarks existed: each conversation is read up to its newest read
+     * message. Conversations that already have a watermark are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillReadWatermarks() {
+        try {
+            int seeded = jdbcTemplate.update(
+                    "INSERT INTO message_read_watermarks "
+                    + "(case_id, participant_id, participant_type, last_read_message_id, updated_at) "
+                    + "SELECT m.case_id, m.receiver_id, m.receiver_type, MAX(m.id), CURRENT_TIMESTAMP "
+                    + "FROM messages m WHERE m.is_read = TRUE AND m.case_id IS NOT NULL AND NOT EXISTS ("
+                    + "SELECT 1 FROM message_read_watermarks w WHERE w.case_id = m.case_id "
+                    + "AND w.participant_id = m.receiver_id AND w.participant_type = m.receiver_type) "
+                    + "GROUP BY m.case_id, m.receiver_id, m.receiver_type");
+            if (seeded > 0) {
+                logger.info("Seeded read watermarks for {} conversations", seeded);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill read watermarks: {}", e.getMessage());
+        }
     }
 
     // Removed resolvePrincipal as we now pass senderId in payload
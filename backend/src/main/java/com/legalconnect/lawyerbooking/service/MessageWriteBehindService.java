@@ -0,0 +1,435 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.util.MessageIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional write-behind persistence for chat messages.
+ *
+ * When enabled, a message gets its ID from a local {@link MessageIdGenerator}
+ * and can be broadcast straight away; a single flusher thread writes queued
+ * messages in JDBC batches of up to {@code batch-size}, waiting at most
+ * {@code flush-interval-ms} for a batch to fill. Every message goes through
+ * here while the mode is on, so generated IDs never race AUTO_INCREMENT.
+ * On MySQL, add rewriteBatchedStatements=true to the JDBC URL so a batch
+ * becomes one multi-row INSERT.
+ *
+ * The queue is bounded: when it is full the caller writes its own message
+ * synchronously, which slows senders down instead of dropping messages.
+ * Unread counters are raised in the batch transaction for messages beyond
+ * the receiver's read watermark, so they agree with the stored rows.
+ *
+ * A batch that fails because the database is unreachable is retried until
+ * it is written. Any other failure splits the batch to find the rows the
+ * database will never accept; each of those is appended to a dead-letter
+ * file and the rest are written, so one bad row cannot hold up the others.
+ *
+ * On shutdown the queue is drained and flushed. Whatever cannot be written
+ * (database unreachable) is appended to a spill file that is replayed on
+ * the next start.
+ */
+@Service
+public class MessageWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriteBehindService.class);
+
+    private static final String INSERT_SQL = "INSERT INTO messages "
+            + "(id, case_id, sender_id, sender_type, receiver_id, receiver_type, message_text, is_read, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Locks the watermark so a concurrent mark-read counts this batch after it commits
+    private static final String WATERMARK_SQL = "SELECT last_read_message_id FROM message_read_watermarks "
+            + "WHERE case_id = ? AND participant_id = ? AND participant_type = ? FOR UPDATE";
+
+    private static final long MAX_RETRY_DELAY_MS = 5000;
+
+    // Longest the flusher blocks on the queue before re-checking for shutdown
+    private static final long POLL_SLICE_MS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Value("${messaging.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${messaging.write-behind.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${messaging.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs = 50;
+
+    @Value("${messaging.write-behind.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    // Must differ between nodes sharing a database, 0-15
+    @Value("${messaging.write-behind.node-id:0}")
+    private int nodeId;
+
+    @Value("${messaging.write-behind.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs = 10000;
+
+    @Value("${messaging.write-behind.spill-file:data/message-spill.jsonl}")
+    private String spillFile = "data/message-spill.jsonl";
+
+    @Value("${messaging.write-behind.dead-letter-file:data/message-dead-letter.jsonl}")
+    private String deadLetterFile = "data/message-dead-letter.jsonl";
+
+    private MessageIdGenerator idGenerator;
+    private BlockingQueue<Message> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong directWrites = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    public MessageWriteBehindService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            UnreadCounterService unreadCounterService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unreadCounterService = unreadCounterService;
+    }
+
+    @jakarta.annotation.PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        idGenerator = new MessageIdGenerator(nodeId);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        replaySpill();
+        running = true;
+        flusher = new Thread(this::flushLoop, "message-write-behind");
+        flusher.start();
+        logger.info("Message write-behind: node {}, batches of {} every {} ms, queue of {}",
+                nodeId, batchSize, flushIntervalMs, queueCapacity);
+    }
+
+    @jakarta.annotation.PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Message> left = new ArrayList<>();
+        queue.drainTo(left);
+        if (!left.isEmpty()) {
+            spill(left);
+        }
+        logger.info("Message write-behind stopped: {} persisted in {} batches, {} written directly, {} spilled",
+                persisted.get(), batches.get(), directWrites.get(), spilled.get());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Assigns the message its ID and creation time and queues it for
+     * persistence. Falls back to writing it on the calling thread when the
+     * queue is full or the service is stopping. Rejects a message missing a
+     * column the insert requires, since it is broadcast before it is stored.
+     */
+    public Message submit(Message message) {
+        if (message.getSenderId() == null || message.getSenderType() == null
+                || message.getReceiverId() == null || message.getReceiverType() == null
+                || message.getMessageText() == null) {
+            throw new IllegalArgumentException("Message is missing its sender, receiver or text");
+        }
+        message.setId(idGenerator.nextId());
+        message.setCreatedAt(LocalDateTime.now());
+        if (message.getIsRead() == null) {
+            message.setIsRead(false);
+        }
+        if (!running || !queue.offer(message)) {
+            persist(List.of(message));
+            directWrites.incrementAndGet();
+        }
+        return message;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", queue != null ? queue.size() : 0);
+        stats.put("persisted", persisted.get());
+        stats.put("batches", batches.get());
+        stats.put("directWrites", directWrites.get());
+        stats.put("spilled", spilled.get());
+        stats.put("deadLettered", deadLettered.get());
+        return stats;
+    }
+
+    private void flushLoop() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Message first = queue.poll(Math.min(flushIntervalMs, POLL_SLICE_MS), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Message next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_SLICE_MS)),
+                            TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                // Shutdown waits for the loop to drain the queue; keep going
+            }
+            if (!batch.isEmpty() && !flushWithRetry(batch)) {
+                List<Message> left = new ArrayList<>(batch);
+                queue.drainTo(left);
+                spill(left);
+            }
+            batch.clear();
+        }
+    }
+
+    // Retries until the batch is written; gives up only once shutdown has begun
+    private boolean flushWithRetry(List<Message> batch) {
+        long delay = 100;
+        while (true) {
+            try {
+                persistIsolating(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    logger.error("Could not flush {} messages during shutdown: {}", batch.size(), e.getMessage());
+                    return false;
+                }
+                logger.warn("Could not flush {} messages, retrying in {} ms: {}", batch.size(), delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    // Re-check running on the next attempt
+                }
+                delay = Math.min(delay * 2, MAX_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, halving it on failures other than an unreachable
+     * database until the rows that cannot be stored are found. Those go to
+     * the dead-letter file; a row that is already stored is skipped.
+     * Connection failures propagate so the caller can retry.
+     */
+    private void persistIsolating(List<Message> batch) {
+        try {
+            persist(batch);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (batch.size() > 1) {
+                int half = batch.size() / 2;
+                persistIsolating(batch.subList(0, half));
+                persistIsolating(batch.subList(half, batch.size()));
+            } else if (!(e instanceof DuplicateKeyException)) {
+                logger.error("Message {} can never be stored, moving it to the dead-letter file: {}",
+                        batch.get(0).getId(), e.getMessage());
+                deadLetter(batch.get(0));
+            }
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void persist(List<Message> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, m) -> {
+                ps.setLong(1, m.getId());
+                if (m.getCaseId() != null) {
+                    ps.setLong(2, m.getCaseId());
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setLong(3, m.getSenderId());
+                ps.setString(4, m.getSenderType());
+                ps.setLong(5, m.getReceiverId());
+                ps.setString(6, m.getReceiverType());
+                ps.setString(7, m.getMessageText());
+                ps.setBoolean(8, Boolean.TRUE.equals(m.getIsRead()));
+                ps.setTimestamp(9, Timestamp.valueOf(m.getCreatedAt()));
+            });
+            countUnread(batch).forEach((receiver, count) ->
+                    unreadCounterService.messagesReceived(receiver.id(), receiver.type(), count));
+        });
+        persisted.addAndGet(batch.size());
+        batches.incrementAndGet();
+    }
+
+    private record Participant(Long id, String type) {
+    }
+
+    private record Conversation(Long caseId, Participant receiver) {
+    }
+
+    // Unread messages per receiver, skipping those already behind a read watermark
+    private Map<Participant, Long> countUnread(List<Message> batch) {
+        Map<Conversation, List<Message>> byConversation = new LinkedHashMap<>();
+        for (Message m : batch) {
+            if (!Boolean.TRUE.equals(m.getIsRead())) {
+                Participant receiver = new Participant(m.getReceiverId(), m.getReceiverType());
+                byConversation.computeIfAbsent(new Conversation(m.getCaseId(), receiver), k -> new ArrayList<>()).add(m);
+            }
+        }
+        Map<Participant, Long> unread = new HashMap<>();
+        byConversation.forEach((conversation, messages) -> {
+            long watermark = 0;
+            if (conversation.caseId() != null) {
+                List<Long> rows = jdbcTemplate.queryForList(WATERMARK_SQL, Long.class,
+                        conversation.caseId(), conversation.receiver().id(), conversation.receiver().type());
+                watermark = rows.isEmpty() ? 0 : rows.get(0);
+            }
+            long after = watermark;
+            long count = messages.stream().filter(m -> m.getId() > after).count();
+            if (count > 0) {
+                unread.merge(conversation.receiver(), count, Long::sum);
+            }
+        });
+        return unread;
+    }
+
+    /**
+     * Row of the spill file; one JSON object per line.
+     */
+    record SpilledMessage(long id, Long caseId, Long senderId, String senderType, Long receiverId,
+            String receiverType, String messageText, boolean read, String createdAt) {
+
+        static SpilledMessage of(Message m) {
+            return new SpilledMessage(m.getId(), m.getCaseId(), m.getSenderId(), m.getSenderType(),
+                    m.getReceiverId(), m.getReceiverType(), m.getMessageText(),
+                    Boolean.TRUE.equals(m.getIsRead()), m.getCreatedAt().toString());
+        }
+
+        Message toMessage() {
+            Message m = new Message();
+            m.setId(id);
+            m.setCaseId(caseId);
+            m.setSenderId(senderId);
+            m.setSenderType(senderType);
+            m.setReceiverId(receiverId);
+            m.setReceiverType(receiverType);
+            m.setMessageText(messageText);
+            m.setIsRead(read);
+            m.setCreatedAt(LocalDateTime.parse(createdAt));
+            return m;
+        }
+    }
+
+    private void deadLetter(Message message) {
+        Path path = Path.of(deadLetterFile);
+        try {
+            append(path, List.of(message));
+            deadLettered.incrementAndGet();
+        } catch (IOException e) {
+            logger.error("Lost message {}: could not write dead-letter file {}: {}",
+                    message.getId(), path, e.getMessage());
+        }
+    }
+
+    private void spill(List<Message> messages) {
+        Path path = Path.of(spillFile);
+        try {
+            append(path, messages);
+            spilled.addAndGet(messages.size());
+            logger.warn("Spilled {} unwritten messages to {}", messages.size(), path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Lost {} messages: could not write spill file {}: {}", messages.size(), path, e.getMessage());
+        }
+    }
+
+    private synchronized void append(Path path, List<Message> messages) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Message m : messages) {
+                out.write(mapper.writeValueAsString(SpilledMessage.of(m)));
+                out.newLine();
+            }
+        }
+    }
+
+    private void replaySpill() {
+        Path path = Path.of(spillFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            List<Message> messages = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    messages.add(mapper.readValue(line, SpilledMessage.class).toMessage());
+                }
+            }
+            // Rows stored before the spill are skipped as duplicates
+            for (int from = 0; from < messages.size(); from += batchSize) {
+                persistIsolating(messages.subList(from, Math.min(messages.size(), from + batchSize)));
+            }
+            Files.delete(path);
+            logger.info("Replayed {} spilled messages from {}", messages.size(), path.toAbsolutePath());
+        } catch (Exception e) {
+            logger.error("Could not replay spilled messages from {}, leaving the file in place: {}",
+                    path.toAbsolutePath(), e.getMessage());
+        }
+    }
+}
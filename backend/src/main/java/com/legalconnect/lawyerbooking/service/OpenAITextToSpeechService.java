@@ -5,14 +5,17 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.legalconnect.lawyerbooking.provider.SpeechSynthesisProvider;
+
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class OpenAITextToSpeechService {
+public class OpenAITextToSpeechService implements SpeechSynthesisProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenAITextToSpeechService.class);
 
@@ -29,6 +32,24 @@ public class OpenAITextToSpeechService {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    // Audio endpoints are limited by request count, not tokens
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private AdaptiveCallExecutor callExecutor;
+
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
+    // Requested as response_format mp3
+    @Override
+    public String getContentType() {
+        return "audio/mpeg";
+    }
+
     /**
      * Converts text to speech using OpenAI TTS API (English, neutral voice)
      * 
@@ -61,6 +82,7 @@ public class OpenAITextToSpeechService {
      *                     "NEUTRAL")
      * @return Byte array containing the audio data (MP3 format)
      */
+    @Override
     public byte[] textToSpeech(String text, String languageCode, String gender) {
         if (text == null || text.trim().isEmpty()) {
             throw new IllegalArgumentException("Text cannot be null or empty");
@@ -81,7 +103,7 @@ public class OpenAITextToSpeechService {
                     .post(body)
                     .build();
 
-            try (Response response = client.newCall(request).execute()) {
+            try (Response response = aiWorkScheduler.execute(0, () -> callExecutor.execute("tts", client, request, false))) {
                 logger.debug("OpenAI TTS Response Status: {}", response.code());
 
                 if (!response.isSuccessful()) {
@@ -5,14 +5,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.legalconnect.lawyerbooking.provider.SpeechToTextProvider;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.util.concurrent.TimeUnit;
 
 @Service
-public class OpenAIWhisperService {
+public class OpenAIWhisperService implements SpeechToTextProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(OpenAIWhisperService.class);
 
@@ -30,6 +37,19 @@ public class OpenAIWhisperService {
             .build();
     
     private final ObjectMapper mapper = new ObjectMapper();
+
+    // Latency buckets double from this many seconds of audio
+    private static final long LATENCY_BAND_SECONDS = 15;
+
+    // Rough bitrate of compressed uploads (128 kbps), for formats whose length cannot be read
+    private static final long ASSUMED_BYTES_PER_SECOND = 16_000;
+
+    // Audio endpoints are limited by request count, not tokens
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private AdaptiveCallExecutor callExecutor;
     
     @jakarta.annotation.PostConstruct
     public void init() {
@@ -41,7 +61,13 @@ public class OpenAIWhisperService {
         }
     }
 
+    @Override
+    public String getName() {
+        return "openai";
+    }
+
     // ================= Gujarati Audio → English Text =================
+    @Override
     public String translateToEnglish(MultipartFile file) throws Exception {
         
         long fileSize = file.getSize();
@@ -52,12 +78,17 @@ public class OpenAIWhisperService {
                 file.getContentType() != null ? file.getContentType() : "audio/wav"
         );
 
+        byte[] audio = file.getBytes();
+        // Whisper's latency grows with the length of the audio, so a long segment
+        // must not be timed out against the latencies of short clips
+        String endpoint = AdaptiveCallExecutor.endpointForBand("whisper", durationSeconds(audio), LATENCY_BAND_SECONDS);
+
         RequestBody body = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
                 .addFormDataPart(
                         "file",
                         file.getOriginalFilename(),
-                        RequestBody.create(file.getBytes(), mediaType)
+                        RequestBody.create(audio, mediaType)
                 )
                 // 🔥 STABLE MODEL
                 .addFormDataPart("model", "whisper-1")
@@ -69,7 +100,7 @@ public class OpenAIWhisperService {
                 .post(body)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = aiWorkScheduler.execute(0, () -> callExecutor.execute(endpoint, client, request, false))) {
 
             String responseBody = response.body() != null
                     ? response.body().string()
@@ -121,4 +152,22 @@ public class OpenAIWhisperService {
             throw e;
         }
     }
+
+    /**
+     * Length of the audio, read from the header where the format allows
+     * (e.g. WAV), otherwise estimated from its size.
+     */
+    private static long durationSeconds(byte[] audio) {
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(
+                    new BufferedInputStream(new ByteArrayInputStream(audio)));
+            float frameRate = format.getFormat().getFrameRate();
+            if (format.getFrameLength() != AudioSystem.NOT_SPECIFIED && frameRate > 0) {
+                return (long) (format.getFrameLength() / frameRate);
+            }
+        } catch (Exception e) {
+            // Not a format Java Sound can read, e.g. MP3
+        }
+        return audio.length / ASSUMED_BYTES_PER_SECOND;
+    }
 }
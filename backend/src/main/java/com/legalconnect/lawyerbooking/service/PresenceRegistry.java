@@ -0,0 +1,160 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Principals connected over STOMP, and the specializations of connected
+ * lawyers, so case events can be sent to the lawyers they concern instead
+ * of to every socket. Fed by the WebSocket interceptor on CONNECT and
+ * DISCONNECT; a lawyer stays present while any of their sessions is open.
+ *
+ * With the broker relay, lawyers connected to other nodes are only known
+ * through the cluster-wide {@link SimpUserRegistry}; their specializations
+ * are read from the database when an event is routed.
+ */
+@Service
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    private static final String LAWYER_PREFIX = "lawyer-";
+
+    @Autowired
+    private LawyerRepository lawyerRepository;
+
+    // Lazy: the user registry is built from the inbound channel this registry is called from
+    @Lazy
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    private final Map<String, UserPrincipal> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, LawyerPresence> lawyers = new ConcurrentHashMap<>();
+
+    private static final class LawyerPresence {
+        final Set<String> sessionIds = ConcurrentHashMap.newKeySet();
+        volatile long specializationMask;
+
+        LawyerPresence(long specializationMask) {
+            this.specializationMask = specializationMask;
+        }
+    }
+
+    public void connected(String sessionId, UserPrincipal principal) {
+        if (sessionId == null || principal == null || principal.getUserId() == null) {
+            return;
+        }
+        sessions.put(sessionId, principal);
+        if (isLawyer(principal)) {
+            // Read before compute: the query must not run while holding the map's bin lock
+            long mask = lawyerRepository.findSpecializationMask(principal.getUserId()).orElse(0L);
+            lawyers.compute(principal.getUserId(), (id, presence) -> {
+                LawyerPresence current = presence != null ? presence : new LawyerPresence(mask);
+                current.sessionIds.add(sessionId);
+                return current;
+            });
+        }
+        logger.debug("{} connected ({} sessions)", principal.getSessionName(), sessions.size());
+    }
+
+    public void disconnected(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        UserPrincipal principal = sessions.remove(sessionId);
+        if (principal != null && isLawyer(principal)) {
+            lawyers.computeIfPresent(principal.getUserId(), (id, presence) -> {
+                presence.sessionIds.remove(sessionId);
+                return presence.sessionIds.isEmpty() ? null : presence;
+            });
+        }
+    }
+
+    /**
+     * Keeps routing current when a connected lawyer edits their profile.
+     */
+    public void specializationsChanged(Long lawyerId, long specializationMask) {
+        LawyerPresence presence = lawyers.get(lawyerId);
+        if (presence != null) {
+            presence.specializationMask = specializationMask;
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public int getConnectedLawyerCount() {
+        return lawyers.size();
+    }
+
+    /**
+     * Connected lawyers who list this case type among their specializations,
+     * the same rule {@code assignLawyerToCase} enforces. A case without a
+     * type goes to every connected lawyer.
+     */
+    public List<Long> lawyersFor(CaseType caseType) {
+        long bit = caseType != null ? CaseTypeMask.bit(caseType) : 0;
+        List<Long> matches = new ArrayList<>();
+        lawyers.forEach((id, presence) -> {
+            if (matches(presence.specializationMask, bit)) {
+                matches.add(id);
+            }
+        });
+
+        Set<Long> remote = remoteLawyerIds();
+        if (!remote.isEmpty()) {
+            for (Object[] row : lawyerRepository.findSpecializationMasks(remote)) {
+                if (matches(row[1] != null ? (Long) row[1] : 0L, bit)) {
+                    matches.add((Long) row[0]);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static boolean matches(long mask, long bit) {
+        return bit == 0 || (mask & bit) != 0;
+    }
+
+    // Lawyers the user registry knows about that have no session on this node
+    private Set<Long> remoteLawyerIds() {
+        Set<Long> remote = new LinkedHashSet<>();
+        if (userRegistry == null) {
+            return remote;
+        }
+        for (SimpUser user : userRegistry.getUsers()) {
+            String name = user.getName();
+            if (name != null && name.startsWith(LAWYER_PREFIX)) {
+                try {
+                    Long id = Long.valueOf(name.substring(LAWYER_PREFIX.length()));
+                    if (!lawyers.containsKey(id)) {
+                        remote.add(id);
+                    }
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return remote;
+    }
+
+    private static boolean isLawyer(UserPrincipal principal) {
+        return "lawyer".equalsIgnoreCase(principal.getRole());
+    }
+}
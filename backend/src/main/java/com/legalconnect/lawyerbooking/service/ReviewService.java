@@ -1,8 +1,23 @@
 package com.legalconnect.lawyerbooking.service;
 
+import com.legalconnect.lawyerbooking.dto.RatingSummaryDTO;
+import com.legalconnect.lawyerbooking.dto.ReviewPageDTO;
 import com.legalconnect.lawyerbooking.entity.Review;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
 import com.legalconnect.lawyerbooking.repository.ReviewRepository;
+import com.legalconnect.lawyerbooking.util.RatingScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -10,16 +25,38 @@ import java.util.List;
 @Service
 public class ReviewService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+
+    private static final int MAX_PAGE_SIZE = 50;
+
     @Autowired
     private ReviewRepository reviewRepository;
 
     @Autowired
-    private LawyerService lawyerService;
+    private LawyerRepository lawyerRepository;
+
+    @Autowired
+    private LawyerSearchIndex lawyerSearchIndex;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stores the review and adds it to the lawyer's running rating aggregates
+     * in the same transaction, without reading the lawyer's other reviews.
+     */
     @Transactional
     public Review saveReview(Review review) {
+        if (review.getRating() == null || review.getRating() < 1 || review.getRating() > 5) {
+            throw new BadRequestException("Rating must be between 1 and 5");
+        }
         Review saved = reviewRepository.save(review);
-        updateLawyerAverageRating(review.getLawyerId());
+        int updated = lawyerRepository.addRating(review.getLawyerId(), review.getRating(),
+                RatingScore.PRIOR_MEAN, RatingScore.PRIOR_WEIGHT);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Lawyer not found with id: " + review.getLawyerId());
+        }
+        lawyerRepository.findById(review.getLawyerId()).ifPresent(lawyerSearchIndex::upsert);
         return saved;
     }
 
@@ -27,19 +64,60 @@ public class ReviewService {
         return reviewRepository.findByLawyerId(lawyerId);
     }
 
-    private void updateLawyerAverageRating(Long lawyerId) {
-        List<Review> reviews = reviewRepository.findByLawyerId(lawyerId);
-        if (reviews.isEmpty()) {
-            lawyerService.updateLawyerRating(lawyerId, 0.0);
-            return;
+    /**
+     * A page of the lawyer's reviews, newest first, starting after the
+     * review ID given as cursor (or at the newest when null).
+     */
+    public ReviewPageDTO getReviewPage(Long lawyerId, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // One extra row tells whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Review> rows = cursor == null
+                ? reviewRepository.findByLawyerIdOrderByIdDesc(lawyerId, limit)
+                : reviewRepository.findByLawyerIdAndIdLessThanOrderByIdDesc(lawyerId, cursor, limit);
+
+        if (rows.size() <= pageSize) {
+            return new ReviewPageDTO(rows, null);
         }
+        List<Review> page = rows.subList(0, pageSize);
+        return new ReviewPageDTO(page, page.get(pageSize - 1).getId());
+    }
 
-        double sum = reviews.stream().mapToInt(Review::getRating).sum();
-        double average = sum / reviews.size();
-        
-        // Round to 1 decimal place
-        average = Math.round(average * 10.0) / 10.0;
-        
-        lawyerService.updateLawyerRating(lawyerId, average);
+    public RatingSummaryDTO getRatingSummary(Long lawyerId) {
+        return lawyerRepository.findRatingSummary(lawyerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lawyer not found with id: " + lawyerId));
+    }
+
+    /**
+     * Seeds the aggregate columns from existing reviews for lawyers that
+     * predate them, and the prior score for lawyers without reviews. Only
+     * touches rows whose count is still zero, so later startups are no-ops.
+     * Runs before the search index loads so it picks up the scores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillRatingAggregates() {
+        try {
+            int seeded = jdbcTemplate.update(
+                    "UPDATE lawyers l JOIN (SELECT lawyer_id, COUNT(*) AS cnt, SUM(rating) AS total, "
+                    + "SUM(rating = 1) AS s1, SUM(rating = 2) AS s2, SUM(rating = 3) AS s3, "
+                    + "SUM(rating = 4) AS s4, SUM(rating = 5) AS s5 FROM reviews GROUP BY lawyer_id) r "
+                    + "ON r.lawyer_id = l.id "
+                    + "SET l.rating = ROUND(r.total / r.cnt, 1), "
+                    + "l.ranking_score = (? * ? + r.total) / (? + r.cnt), "
+                    + "l.rating_sum = r.total, l.rating_count = r.cnt, "
+                    + "l.one_star_count = r.s1, l.two_star_count = r.s2, l.three_star_count = r.s3, "
+                    + "l.four_star_count = r.s4, l.five_star_count = r.s5 "
+                    + "WHERE l.rating_count = 0",
+                    RatingScore.PRIOR_WEIGHT, RatingScore.PRIOR_MEAN, RatingScore.PRIOR_WEIGHT);
+            int unrated = jdbcTemplate.update(
+                    "UPDATE lawyers SET ranking_score = ? WHERE rating_count = 0 AND ranking_score IS NULL",
+                    RatingScore.of(0, 0));
+            if (seeded > 0 || unrated > 0) {
+                logger.info("Backfilled rating aggregates for {} lawyers, prior score for {}", seeded, unrated);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not backfill rating aggregates: {}", e.getMessage());
+        }
     }
 }
@@ -7,9 +7,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.legalconnect.lawyerbooking.util.PromptBudget;
+import com.legalconnect.lawyerbooking.util.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -28,14 +34,19 @@ public class TextMaskingService {
             .writeTimeout(120, TimeUnit.SECONDS)
             .build();
 
-    // Maximum tokens for input (gpt-4o-mini supports ~128k, but we'll use a safe
-    // limit)
-    private static final int MAX_INPUT_TOKENS = 100000; // Safe limit for context window
-    private static final int CHUNK_SIZE = 50000; // Characters per chunk (roughly ~12k tokens)
-    private static final int OVERLAP_SIZE = 500; // Overlap to avoid splitting in middle of sentences
+    // gpt-4o-mini: 128k context, 16k output. Masked text is about as long as the
+    // input (mask tokens are slightly longer than what they replace), so the
+    // output limit is what bounds a single call.
+    static final PromptBudget BUDGET = new PromptBudget(128000, 16000, 600, 1.1, 500);
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private AdaptiveCallExecutor callExecutor;
+
     private static final String MASKING_PROMPT = """
             You are a privacy protection assistant. Your task is to mask ONLY personal information in the given legal case text, while preserving ALL case-related information.
 
@@ -85,9 +96,10 @@ public class TextMaskingService {
 
         try {
             // For very long texts, process in chunks
-            if (text.length() > CHUNK_SIZE) {
-                logger.info("Text is long ({} chars), processing in chunks...", text.length());
-                return maskLongText(text);
+            List<String> chunks = BUDGET.pack(text);
+            if (chunks.size() > 1) {
+                logger.info("Text is long ({} chars), processing in {} chunks...", text.length(), chunks.size());
+                return maskLongText(chunks);
             }
 
             // For normal length texts, process directly
@@ -119,7 +131,10 @@ public class TextMaskingService {
                     .post(body)
                     .build();
 
-            try (Response response = client.newCall(request).execute()) {
+            int requestTokens = BUDGET.requestTokensFor(text);
+            String endpoint = AdaptiveCallExecutor.endpointFor("chat.mask", requestTokens, 4000);
+            try (Response response = aiWorkScheduler.execute(requestTokens,
+                    () -> callExecutor.execute(endpoint, client, request, false))) {
                 String responseBody = response.body() != null
                         ? response.body().string()
                         : "";
@@ -177,41 +192,16 @@ public class TextMaskingService {
     }
 
     /**
-     * Processes very long texts by splitting into chunks and masking each chunk
+     * Processes very long texts by packing whole sentences into token-budgeted
+     * chunks and masking each chunk
      */
-    private String maskLongText(String text) {
-        StringBuilder maskedResult = new StringBuilder();
-        int totalLength = text.length();
-        int processed = 0;
-
-        while (processed < totalLength) {
-            int chunkEnd = Math.min(processed + CHUNK_SIZE, totalLength);
-
-            // Try to break at sentence boundary if not at end
-            if (chunkEnd < totalLength) {
-                int lastPeriod = text.lastIndexOf('.', chunkEnd);
-                int lastNewline = text.lastIndexOf('\n', chunkEnd);
-                int breakPoint = Math.max(lastPeriod, lastNewline);
-
-                if (breakPoint > processed + CHUNK_SIZE / 2) {
-                    chunkEnd = breakPoint + 1;
-                }
-            }
-
-            String chunk = text.substring(processed, chunkEnd);
-            logger.debug("Processing chunk {} (chars {}-{} of {})",
-                    processed / CHUNK_SIZE + 1, processed, chunkEnd, totalLength);
-
-            String maskedChunk = maskTextChunk(chunk);
-            maskedResult.append(maskedChunk);
-
-            // Move forward, with overlap to avoid missing context
-            processed = chunkEnd - OVERLAP_SIZE;
-            if (processed < 0)
-                processed = chunkEnd;
+    private String maskLongText(List<String> chunks) {
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            logger.debug("Processing chunk {} of {}", i + 1, chunks.size());
+            results.add(maskTextChunk(chunks.get(i)));
         }
-
-        return maskedResult.toString();
+        return PromptBudget.join(chunks, results);
     }
 
     /**
@@ -223,14 +213,9 @@ public class TextMaskingService {
 
         String fullPrompt = MASKING_PROMPT + text;
 
-        // Calculate max_tokens dynamically based on input length
-        // Rough estimate: 1 token ≈ 4 characters, but we need output tokens
-        // Set max_tokens to be at least as long as input (in tokens) + buffer
-        int estimatedInputTokens = text.length() / 4;
-        int maxTokens = Math.max(estimatedInputTokens + 500, 2000); // At least 2000, or input length + buffer
-        // Cap at model's max output tokens (gpt-4o-mini supports up to 16384 output
-        // tokens)
-        maxTokens = Math.min(maxTokens, 16000);
+        // Calculate max_tokens from the estimated token count of the chunk
+        int estimatedInputTokens = TokenEstimator.estimate(text);
+        int maxTokens = BUDGET.maxOutputTokensFor(text);
 
         logger.debug("Building request: input length={} chars, estimated tokens={}, max_output_tokens={}",
                 text.length(), estimatedInputTokens, maxTokens);
@@ -7,9 +7,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.legalconnect.lawyerbooking.util.PromptBudget;
+import com.legalconnect.lawyerbooking.util.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -29,11 +35,19 @@ public class TextTranslationService {
             .writeTimeout(120, TimeUnit.SECONDS)
             .build();
     
-    private static final int CHUNK_SIZE = 50000; // Characters per chunk
-    private static final int OVERLAP_SIZE = 500; // Overlap to avoid splitting in middle of sentences
+    // gpt-4o-mini: 128k context, 16k output. Gujarati takes roughly twice as many
+    // tokens as the English it was translated from, so a call can only carry
+    // about half the output limit as input.
+    static final PromptBudget BUDGET = new PromptBudget(128000, 16000, 250, 2.2, 500);
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Autowired
+    private AiWorkScheduler aiWorkScheduler;
+
+    @Autowired
+    private AdaptiveCallExecutor callExecutor;
+
     private static final String TRANSLATION_PROMPT = """
             You are a professional translator. Translate the following English text to Gujarati.
             
@@ -58,9 +72,10 @@ public class TextTranslationService {
 
         try {
             // For very long texts, process in chunks
-            if (englishText.length() > CHUNK_SIZE) {
-                logger.info("Text is long ({} chars), translating in chunks...", englishText.length());
-                return translateLongText(englishText);
+            List<String> chunks = BUDGET.pack(englishText);
+            if (chunks.size() > 1) {
+                logger.info("Text is long ({} chars), translating in {} chunks...", englishText.length(), chunks.size());
+                return translateLongText(chunks);
             }
 
             // For normal length texts, process directly
@@ -93,7 +108,10 @@ public class TextTranslationService {
                     .post(body)
                     .build();
 
-            try (Response response = client.newCall(request).execute()) {
+            int requestTokens = BUDGET.requestTokensFor(text);
+            String endpoint = AdaptiveCallExecutor.endpointFor("chat.translate", requestTokens, 4000);
+            try (Response response = aiWorkScheduler.execute(requestTokens,
+                    () -> callExecutor.execute(endpoint, client, request, false))) {
                 String responseBody = response.body() != null
                         ? response.body().string()
                         : "";
@@ -142,40 +160,16 @@ public class TextTranslationService {
     }
 
     /**
-     * Processes very long texts by splitting into chunks and translating each chunk
+     * Processes very long texts by packing whole sentences into token-budgeted
+     * chunks and translating each chunk
      */
-    private String translateLongText(String text) {
-        StringBuilder translatedResult = new StringBuilder();
-        int totalLength = text.length();
-        int processed = 0;
-
-        while (processed < totalLength) {
-            int chunkEnd = Math.min(processed + CHUNK_SIZE, totalLength);
-            
-            // Try to break at sentence boundary if not at end
-            if (chunkEnd < totalLength) {
-                int lastPeriod = text.lastIndexOf('.', chunkEnd);
-                int lastNewline = text.lastIndexOf('\n', chunkEnd);
-                int breakPoint = Math.max(lastPeriod, lastNewline);
-                
-                if (breakPoint > processed + CHUNK_SIZE / 2) {
-                    chunkEnd = breakPoint + 1;
-                }
-            }
-
-            String chunk = text.substring(processed, chunkEnd);
-            logger.debug("Translating chunk {} (chars {}-{} of {})", 
-                        processed / CHUNK_SIZE + 1, processed, chunkEnd, totalLength);
-
-            String translatedChunk = translateTextChunk(chunk);
-            translatedResult.append(translatedChunk);
-
-            // Move forward, with overlap to avoid missing context
-            processed = chunkEnd - OVERLAP_SIZE;
-            if (processed < 0) processed = chunkEnd;
+    private String translateLongText(List<String> chunks) {
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            logger.debug("Translating chunk {} of {}", i + 1, chunks.size());
+            results.add(translateTextChunk(chunks.get(i)));
         }
-
-        return translatedResult.toString();
+        return PromptBudget.join(chunks, results);
     }
 
     /**
@@ -186,10 +180,9 @@ public class TextTranslationService {
         
         String fullPrompt = TRANSLATION_PROMPT + text;
 
-        // Calculate max_tokens dynamically based on input length
-        int estimatedInputTokens = text.length() / 4;
-        int maxTokens = Math.max(estimatedInputTokens + 500, 2000);
-        maxTokens = Math.min(maxTokens, 16000);
+        // Calculate max_tokens from the estimated token count of the chunk
+        int estimatedInputTokens = TokenEstimator.estimate(text);
+        int maxTokens = BUDGET.maxOutputTokensFor(text);
 
         logger.debug("Building translation request: input length={} chars, estimated tokens={}, max_output_tokens={}", 
                      text.length(), estimatedInputTokens, maxTokens);
@@ -0,0 +1,167 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.entity.UnreadCounter;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.repository.UnreadCounterRepository;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-participant unread totals. The unread_counters row is shared by all
+ * nodes: receipts add to it in place, and every read-state change
+ * overwrites it with the count derived from the read watermarks. Each node
+ * keeps the last value it saw in memory to answer reads. Every change is
+ * pushed to the participant on /user/queue/unread.
+ *
+ * Increments race with recomputes: a message stored just before a
+ * recompute and counted just after it is counted twice. Such drift lasts
+ * until the participant's next read-state change, and at most
+ * {@code messaging.unread.reconcile-interval-ms} for a participant whose
+ * badge is being read.
+ */
+@Service
+public class UnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    public static final String UNREAD_DESTINATION = "/queue/unread";
+
+    @Autowired
+    private UnreadCounterRepository counterRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Bounds how stale a count can be when another node changed it
+    @Value("${messaging.unread.cache-ttl-ms:30000}")
+    private long cacheTtlMs = 30000;
+
+    @Value("${messaging.unread.reconcile-interval-ms:600000}")
+    private long reconcileIntervalMs = 600000;
+
+    @Value("${messaging.unread.cache-max-entries:50000}")
+    private int maxEntries = 50000;
+
+    private final Map<String, Cached> counts = new ConcurrentHashMap<>();
+
+    private record Cached(long value, long loadedAt, long reconciledAt) {
+    }
+
+    public long getUnreadCount(Long participantId, String participantType) {
+        String key = key(participantId, participantType);
+        Cached cached = counts.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.loadedAt() < cacheTtlMs) {
+            return cached.value();
+        }
+        if (cached == null || now - cached.reconciledAt() >= reconcileIntervalMs) {
+            return reconcile(participantId, participantType, false);
+        }
+        long value = counterRepository.findCount(participantId, participantType)
+                .orElseGet(() -> seed(participantId, participantType));
+        remember(key, value, cached.reconciledAt());
+        return value;
+    }
+
+    /**
+     * A message addressed to the participant was stored.
+     */
+    public void messageReceived(Long participantId, String participantType) {
+        messagesReceived(participantId, participantType, 1);
+    }
+
+    /**
+     * {@code count} messages addressed to the participant were stored together.
+     */
+    public void messagesReceived(Long participantId, String participantType, long count) {
+        if (count <= 0) {
+            return;
+        }
+        String key = key(participantId, participantType);
+        long value;
+        if (counterRepository.add(participantId, participantType, count) > 0) {
+            value = counterRepository.findCount(participantId, participantType).orElse(0L);
+        } else {
+            // The derived count already includes these messages
+            value = seed(participantId, participantType);
+        }
+        Cached cached = counts.get(key);
+        remember(key, value, cached != null ? cached.reconciledAt() : 0L);
+        push(participantId, participantType, value);
+    }
+
+    /**
+     * A read watermark or read flag of the participant moved.
+     */
+    public void readStateChanged(Long participantId, String participantType) {
+        reconcile(participantId, participantType, true);
+    }
+
+    // Replaces the stored count with the one derived from the watermarks
+    private long reconcile(Long participantId, String participantType, boolean push) {
+        long now = System.currentTimeMillis();
+        long value = messageRepository.countUnread(participantId, participantType);
+        if (counterRepository.set(participantId, participantType, value) == 0) {
+            value = seed(participantId, participantType);
+        }
+        remember(key(participantId, participantType), value, now);
+        if (push) {
+            push(participantId, participantType, value);
+        }
+        return value;
+    }
+
+    private long seed(Long participantId, String participantType) {
+        long derived = messageRepository.countUnread(participantId, participantType);
+        try {
+            counterRepository.saveAndFlush(new UnreadCounter(participantId, participantType, derived));
+            return derived;
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently; theirs already counts this change
+            return counterRepository.findCount(participantId, participantType).orElse(derived);
+        }
+    }
+
+    private void push(Long participantId, String participantType, long value) {
+        try {
+            messagingTemplate.convertAndSendToUser(
+                    UserPrincipal.sessionName(participantType, participantId),
+                    UNREAD_DESTINATION,
+                    Map.of("count", value));
+        } catch (Exception e) {
+            logger.warn("Could not push unread count to {} {}: {}", participantType, participantId, e.getMessage());
+        }
+    }
+
+    int getCachedCount() {
+        return counts.size();
+    }
+
+    private void remember(String key, long value, long reconciledAt) {
+        long now = System.currentTimeMillis();
+        if (counts.size() >= maxEntries && !counts.containsKey(key)) {
+            // Entries past the TTL are only kept for their reconcile time; dropping one forces a recompute
+            counts.values().removeIf(c -> now - c.loadedAt() >= cacheTtlMs);
+            if (counts.size() >= maxEntries) {
+                counts.clear();
+            }
+        }
+        counts.put(key, new Cached(value, now, reconciledAt));
+    }
+
+    private static String key(Long participantId, String participantType) {
+        return participantType + ":" + participantId;
+    }
+}
@@ -0,0 +1,48 @@
+package com.legalconnect.lawyerbooking.util;
+
+import com.legalconnect.lawyerbooking.enums.CaseType;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A set of case types packed into a long, one bit per {@link CaseType}
+ * ordinal. Stored as {@code lawyers.specialization_mask} so lawyers can be
+ * filtered with {@code mask & bit <> 0} and their specializations read back
+ * without touching {@code lawyer_specializations}.
+ */
+public final class CaseTypeMask {
+
+    private CaseTypeMask() {
+    }
+
+    public static long bit(CaseType type) {
+        return 1L << type.ordinal();
+    }
+
+    public static long of(Collection<CaseType> types) {
+        long mask = 0;
+        if (types != null) {
+            for (CaseType type : types) {
+                if (type != null) {
+                    mask |= bit(type);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static Set<CaseType> toSet(long mask) {
+        Set<CaseType> types = EnumSet.noneOf(CaseType.class);
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int ordinal = Long.numberOfTrailingZeros(bits);
+            if (ordinal < CASE_TYPES.length) {
+                types.add(CASE_TYPES[ordinal]);
+            }
+        }
+        return types;
+    }
+
+    private static final CaseType[] CASE_TYPES = CaseType.values();
+}
@@ -1,6 +1,8 @@
 package com.legalconnect.lawyerbooking.util;
 
+import com.legalconnect.lawyerbooking.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
@@ -24,6 +26,9 @@ public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
 
+    // Issue time in epoch millis; the standard iat claim only holds whole seconds
+    private static final String ISSUED_AT_MS = "iatMs";
+
     @Value("${jwt.secret:your-secret-key-should-be-at-least-256-bits-long-for-HS256-algorithm}")
     private String secret;
 
@@ -33,14 +38,53 @@ public class JwtUtil {
     @Value("${jwt.refreshExpiration:604800000}") // 7 days in milliseconds
     private Long refreshExpiration;
 
+    // Derived from the secret on first use
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
+
     /**
      * Get signing key for JWT token
      */
     private SecretKey getSigningKey() {
-        if (secret == null || secret.length() < 32) {
-            throw new IllegalStateException("JWT secret must be at least 32 characters long for HS256 algorithm");
+        SecretKey key = signingKey;
+        if (key == null) {
+            if (secret == null || secret.length() < 32) {
+                throw new IllegalStateException("JWT secret must be at least 32 characters long for HS256 algorithm");
+            }
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parser().verifyWith(getSigningKey()).build();
+            parser = current;
         }
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return current;
+    }
+
+    /**
+     * Checks the signature and expiry and reads the claims in a single
+     * parse. Throws a {@link io.jsonwebtoken.JwtException} or
+     * {@link IllegalArgumentException} if the token is not valid.
+     */
+    public VerifiedToken parseToken(String token) {
+        Claims claims = getParser().parseSignedClaims(token).getPayload();
+        Object userId = claims.get("userId");
+        Object issuedAtMs = claims.get(ISSUED_AT_MS);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiresAt = claims.getExpiration();
+        return new VerifiedToken(
+                userId instanceof Number ? ((Number) userId).longValue() : null,
+                claims.getSubject(),
+                claims.get("role", String.class),
+                issuedAtMs instanceof Number ? ((Number) issuedAtMs).longValue()
+                        : issuedAt != null ? issuedAt.getTime() : 0L,
+                issuedAtMs instanceof Number,
+                expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
     }
 
     public String extractUsername(String token) {
@@ -72,9 +116,7 @@ public class JwtUtil {
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (Exception e) {
@@ -109,6 +151,7 @@ public class JwtUtil {
 
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MS, now.getTime())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
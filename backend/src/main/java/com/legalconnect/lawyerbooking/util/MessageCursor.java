@@ -0,0 +1,49 @@
+package com.legalconnect.lawyerbooking.util;
+
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position of a message in a conversation, ordered by (created_at, id).
+ * The id breaks ties between messages saved in the same instant. Sent to
+ * clients as {@code <createdAt>_<id>} and handed back unchanged.
+ */
+public final class MessageCursor {
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    private MessageCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String of(Message message) {
+        return message.getCreatedAt() + "_" + message.getId();
+    }
+
+    public static MessageCursor parse(String cursor) {
+        int separator = cursor.lastIndexOf('_');
+        if (separator <= 0) {
+            throw new BadRequestException("Invalid message cursor: " + cursor);
+        }
+        try {
+            return new MessageCursor(
+                    LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new BadRequestException("Invalid message cursor: " + cursor);
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,44 @@
+package com.legalconnect.lawyerbooking.util;
+
+/**
+ * Time-ordered message IDs assigned without a database round trip.
+ *
+ * Layout, 53 bits so the ID survives a JavaScript number: milliseconds
+ * since 2024-01-01 (41 bits), node (4 bits), per-millisecond sequence
+ * (8 bits). IDs from one node strictly increase; across nodes they follow
+ * the clock. Any current timestamp already sorts above the AUTO_INCREMENT
+ * IDs messages got before, so (created_at, id) order is preserved.
+ */
+public final class MessageIdGenerator {
+
+    public static final long EPOCH_MILLIS = 1704067200000L;
+    public static final int NODE_BITS = 4;
+    public static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public MessageIdGenerator(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+    }
+
+    public synchronized long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (now > lastMillis) {
+            lastMillis = now;
+            sequence = 0;
+        } else if (++sequence > SEQUENCE_MASK) {
+            // Sequence exhausted, or the clock stepped back: borrow the next millisecond
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,167 @@
+package com.legalconnect.lawyerbooking.util;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Token budget for a chat completion prompt whose output is roughly
+ * proportional to its input (masking, translation).
+ *
+ * The number of input tokens a single call can take is bounded both by the
+ * context window and by the model's output limit, since the whole transformed
+ * text has to come back in one response. {@link #pack(String)} fills each call
+ * with as many whole sentences as fit that bound, so long documents take the
+ * fewest calls that do not truncate.
+ */
+public class PromptBudget {
+
+    private final int contextTokens;
+    private final int maxOutputTokens;
+    private final int promptOverheadTokens;
+    private final double outputRatio;
+    private final int outputMarginTokens;
+
+    /**
+     * @param contextTokens        Model context window (input + output)
+     * @param maxOutputTokens      Model output limit per response
+     * @param promptOverheadTokens Tokens used by the fixed instructions
+     * @param outputRatio          Expected output tokens per input token
+     * @param outputMarginTokens   Extra output tokens reserved per call
+     */
+    public PromptBudget(int contextTokens, int maxOutputTokens, int promptOverheadTokens,
+            double outputRatio, int outputMarginTokens) {
+        this.contextTokens = contextTokens;
+        this.maxOutputTokens = maxOutputTokens;
+        this.promptOverheadTokens = promptOverheadTokens;
+        this.outputRatio = outputRatio;
+        this.outputMarginTokens = outputMarginTokens;
+    }
+
+    /**
+     * Largest number of input tokens one call can carry.
+     */
+    public int maxInputTokens() {
+        int byOutput = (int) ((maxOutputTokens - outputMarginTokens) / outputRatio);
+        int byContext = (int) ((contextTokens - promptOverheadTokens - outputMarginTokens) / (1 + outputRatio));
+        return Math.max(1, Math.min(byOutput, byContext));
+    }
+
+    /**
+     * The max_tokens value to request for a chunk: expected output plus margin,
+     * capped at the model limit.
+     */
+    public int maxOutputTokensFor(String chunk) {
+        int expected = (int) Math.ceil(TokenEstimator.estimate(chunk) * outputRatio) + outputMarginTokens;
+        return Math.min(expected, maxOutputTokens);
+    }
+
+    /**
+     * Tokens a call for the chunk counts against the per-minute rate limit:
+     * instructions, the chunk itself and the requested max_tokens.
+     */
+    public int requestTokensFor(String chunk) {
+        return promptOverheadTokens + TokenEstimator.estimate(chunk) + maxOutputTokensFor(chunk);
+    }
+
+    /**
+     * Splits text into chunks of whole sentences, each within
+     * {@link #maxInputTokens()}. Sentences longer than the budget on their own
+     * are split at word boundaries. Concatenating the chunks gives back the
+     * original text.
+     */
+    public List<String> pack(String text) {
+        List<String> chunks = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return chunks;
+        }
+        int budget = maxInputTokens();
+        if (TokenEstimator.estimate(text) <= budget) {
+            chunks.add(text);
+            return chunks;
+        }
+
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ENGLISH);
+        sentences.setText(text);
+        int start = sentences.first();
+        for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+            String sentence = text.substring(start, end);
+            int tokens = TokenEstimator.estimate(sentence);
+
+            if (tokens > budget) {
+                if (current.length() > 0) {
+                    chunks.add(current.toString());
+                    current.setLength(0);
+                    currentTokens = 0;
+                }
+                splitOversized(sentence, budget, chunks);
+                continue;
+            }
+            if (currentTokens + tokens > budget) {
+                chunks.add(current.toString());
+                current.setLength(0);
+                currentTokens = 0;
+            }
+            current.append(sentence);
+            currentTokens += tokens;
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    /**
+     * Joins the per-chunk results of {@link #pack(String)} back into one text.
+     * Each result is trimmed, and the whitespace that ended its source chunk
+     * (a space, or a line break between paragraphs) goes between it and the
+     * next, so chunk boundaries read like the original.
+     */
+    public static String join(List<String> chunks, List<String> results) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < results.size(); i++) {
+            String result = results.get(i) != null ? results.get(i).strip() : "";
+            if (result.isEmpty()) {
+                continue;
+            }
+            if (joined.length() > 0) {
+                String previous = chunks.get(i - 1);
+                int end = previous.length();
+                int start = end;
+                while (start > 0 && Character.isWhitespace(previous.charAt(start - 1))) {
+                    start--;
+                }
+                joined.append(start < end ? previous.substring(start, end) : " ");
+            }
+            joined.append(result);
+        }
+        return joined.toString();
+    }
+
+    private void splitOversized(String sentence, int budget, List<String> chunks) {
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+
+        BreakIterator words = BreakIterator.getLineInstance(Locale.ENGLISH);
+        words.setText(sentence);
+        int start = words.first();
+        for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+            String word = sentence.substring(start, end);
+            int tokens = TokenEstimator.estimate(word);
+            if (currentTokens + tokens > budget && current.length() > 0) {
+                chunks.add(current.toString());
+                current.setLength(0);
+                currentTokens = 0;
+            }
+            current.append(word);
+            currentTokens += tokens;
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.legalconnect.lawyerbooking.util;
+
+/**
+ * Bayesian-smoothed rating used to rank lawyers.
+ *
+ * A plain average ranks a single five-star review above hundreds of
+ * 4.8 reviews. The score instead blends the lawyer's reviews with
+ * {@link #PRIOR_WEIGHT} imaginary reviews at {@link #PRIOR_MEAN}, so it
+ * starts at the prior and moves toward the true average as reviews
+ * accumulate. It depends only on the running sum and count, so it can be
+ * kept up to date in the same statement that adds a review.
+ */
+public final class RatingScore {
+
+    public static final double PRIOR_MEAN = 3.5;
+    public static final double PRIOR_WEIGHT = 5.0;
+
+    private RatingScore() {
+    }
+
+    public static double of(long ratingSum, long ratingCount) {
+        return (PRIOR_WEIGHT * PRIOR_MEAN + ratingSum) / (PRIOR_WEIGHT + ratingCount);
+    }
+}
@@ -0,0 +1,60 @@
+package com.legalconnect.lawyerbooking.util;
+
+/**
+ * Dependency-free token count estimator for OpenAI chat models.
+ *
+ * Mirrors how BPE tokenizers (cl100k / o200k) split text closely enough for
+ * budgeting: ASCII words cost about one token per four characters, each
+ * punctuation mark is a token, whitespace is folded into the next word, Indic
+ * scripts such as Gujarati cost about one token per two characters and other
+ * non-ASCII characters one token each. Estimates err on the high side so that
+ * budgets computed from them are safe.
+ */
+public final class TokenEstimator {
+
+    private static final double ASCII_CHARS_PER_TOKEN = 4.0;
+    private static final double INDIC_CHARS_PER_TOKEN = 2.0;
+
+    private TokenEstimator() {
+    }
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        double tokens = 0;
+        int asciiRun = 0;
+        int indicRun = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 128 && Character.isLetterOrDigit(c)) {
+                tokens += Math.ceil(indicRun / INDIC_CHARS_PER_TOKEN);
+                indicRun = 0;
+                asciiRun++;
+                continue;
+            }
+            if (isIndic(c)) {
+                tokens += Math.ceil(asciiRun / ASCII_CHARS_PER_TOKEN);
+                asciiRun = 0;
+                indicRun++;
+                continue;
+            }
+
+            tokens += Math.ceil(asciiRun / ASCII_CHARS_PER_TOKEN) + Math.ceil(indicRun / INDIC_CHARS_PER_TOKEN);
+            asciiRun = 0;
+            indicRun = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens += 1; // punctuation, symbols and other scripts
+            }
+        }
+        tokens += Math.ceil(asciiRun / ASCII_CHARS_PER_TOKEN) + Math.ceil(indicRun / INDIC_CHARS_PER_TOKEN);
+        return (int) tokens;
+    }
+
+    private static boolean isIndic(char c) {
+        // Devanagari through Malayalam, which includes Gujarati (U+0A80 - U+0AFF)
+        return c >= 0x0900 && c <= 0x0D7F;
+    }
+}
@@ -76,6 +76,9 @@ CREATE INDEX IF NOT EXISTS idx_audio_user_id ON client_audio(user_id);
 CREATE INDEX IF NOT EXISTS idx_audio_case_id ON client_audio(case_id);
 CREATE INDEX IF NOT EXISTS idx_audio_created_at ON client_audio(created_at DESC);
 
+-- Duplicate upload detection (retries of the same recording)
+CREATE INDEX IF NOT EXISTS idx_audio_user_content_hash ON client_audio(user_id, content_hash);
+
 -- ============================================
 -- QUERY OPTIMIZATION ANALYSIS
 -- ============================================
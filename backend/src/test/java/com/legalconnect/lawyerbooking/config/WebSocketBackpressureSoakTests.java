@@ -0,0 +1,289 @@
+package com.legalconnect.lawyerbooking.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import com.legalconnect.lawyerbooking.security.WebSocketAuthenticationInterceptor;
+import com.legalconnect.lawyerbooking.service.PresenceRegistry;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thousands of STOMP sessions against the real endpoint handler and simple
+ * broker, configured through {@link WebSocketConfig}: idle subscribers, fast
+ * subscribers to a busy topic, and subscribers that stop reading. The
+ * stalled ones must be evicted without holding back everyone else.
+ */
+class WebSocketBackpressureSoakTests {
+
+	private static final int IDLE = 2000;
+	private static final int FAST = 200;
+	private static final int STALLED = 20;
+	private static final int BROADCASTS = 200;
+	private static final String HOT_TOPIC = "/topic/case/1";
+
+	private AnnotationConfigApplicationContext context;
+	private WebSocketMetrics metrics;
+	private WebSocketHandler handler;
+	private final ExecutorService closer = Executors.newSingleThreadExecutor();
+
+	@BeforeEach
+	void setUp() {
+		context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("soak", Map.of(
+				"app.websocket.broker", "simple",
+				"app.websocket.send-time-limit-ms", "500",
+				"app.websocket.send-buffer-size-limit", "16384",
+				"app.websocket.outbound.core-pool-size", "32")));
+		WebSocketAuthenticationInterceptor auth = new WebSocketAuthenticationInterceptor();
+		ReflectionTestUtils.setField(auth, "presenceRegistry", new PresenceRegistry());
+		context.getBeanFactory().registerSingleton("webSocketAuthenticationInterceptor", auth);
+		context.register(WebSocketMetrics.class, WebSocketConfig.class);
+		context.refresh();
+
+		metrics = context.getBean(WebSocketMetrics.class);
+		// The endpoint mapping applies the same decoration in the running application
+		handler = metrics.decorate(context.getBean(SubProtocolWebSocketHandler.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+		closer.shutdownNow();
+	}
+
+	@Test
+	void stalledSubscribersAreEvictedWhileOthersKeepUp() throws Exception {
+		List<FakeSession> idle = new ArrayList<>();
+		List<FakeSession> fast = new ArrayList<>();
+		List<FakeSession> stalled = new ArrayList<>();
+		for (int i = 0; i < IDLE; i++) {
+			idle.add(open("idle-" + i, false, "/topic/case/" + (1000 + i)));
+		}
+		for (int i = 0; i < FAST; i++) {
+			fast.add(open("fast-" + i, false, HOT_TOPIC));
+		}
+		for (int i = 0; i < STALLED; i++) {
+			stalled.add(open("stalled-" + i, true, HOT_TOPIC));
+		}
+		awaitInboundDrained();
+
+		SimpMessagingTemplate template = context.getBean(SimpMessagingTemplate.class);
+		String body = "x".repeat(1024);
+		long started = System.nanoTime();
+		for (int i = 0; i < BROADCASTS; i++) {
+			template.convertAndSend(HOT_TOPIC, Map.of("seq", i, "body", body));
+			Thread.sleep(5);
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (fast.stream().anyMatch(s -> s.messages.get() < BROADCASTS) && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+		for (FakeSession session : fast) {
+			assertEquals(BROADCASTS, session.messages.get(), session.getId());
+			assertNull(session.closeStatus, session.getId());
+		}
+		for (FakeSession session : stalled) {
+			assertTrue(CloseStatus.SESSION_NOT_RELIABLE.equalsCode(session.closeStatus), session.getId());
+		}
+		for (FakeSession session : idle) {
+			assertNull(session.closeStatus, session.getId());
+		}
+		// Stalls are bounded by the send time limit, not by how long the clients stay stuck
+		assertTrue(elapsedMs < 15_000, "fast subscribers took " + elapsedMs + " ms");
+
+		awaitEvictionsCounted(STALLED);
+		assertEquals(STALLED, metrics.getSessionsEvicted());
+		assertEquals(IDLE + FAST, metrics.getOpenSessions());
+		assertTrue(metrics.getOutboundCount(HOT_TOPIC) >= (long) FAST * BROADCASTS);
+		@SuppressWarnings("unchecked")
+		Map<String, Object> latency = (Map<String, Object>) metrics.getMetrics().get("broadcastLatency");
+		assertTrue((Long) latency.get("count") >= (long) FAST * BROADCASTS);
+	}
+
+	private FakeSession open(String id, boolean stalls, String destination) throws Exception {
+		FakeSession session = new FakeSession(id, stalls);
+		handler.afterConnectionEstablished(session);
+		handler.handleMessage(session, new TextMessage("CONNECT\naccept-version:1.2\nheart-beat:0,0\n\n\0"));
+		handler.handleMessage(session, new TextMessage("SUBSCRIBE\nid:sub-0\ndestination:" + destination + "\n\n\0"));
+		return session;
+	}
+
+	private void awaitInboundDrained() throws InterruptedException {
+		ThreadPoolTaskExecutor inbound = context.getBean("clientInboundChannelExecutor", ThreadPoolTaskExecutor.class);
+		int quiet = 0;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (quiet < 5 && System.nanoTime() < deadline) {
+			quiet = inbound.getActiveCount() == 0 && inbound.getQueueSize() == 0 ? quiet + 1 : 0;
+			Thread.sleep(20);
+		}
+	}
+
+	private void awaitEvictionsCounted(int expected) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (metrics.getSessionsEvicted() < expected && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * A client socket. Stalling ones never return from their first MESSAGE
+	 * write until the server closes them, like a phone that stopped reading.
+	 */
+	private final class FakeSession implements WebSocketSession {
+
+		private final String id;
+		private final boolean stalls;
+		private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+		private final CountDownLatch closed = new CountDownLatch(1);
+		private final AtomicInteger messages = new AtomicInteger();
+		private volatile CloseStatus closeStatus;
+
+		FakeSession(String id, boolean stalls) {
+			this.id = id;
+			this.stalls = stalls;
+		}
+
+		@Override
+		public void sendMessage(WebSocketMessage<?> message) throws java.io.IOException {
+			if (closeStatus != null) {
+				throw new java.io.IOException("closed");
+			}
+			String frame = message.getPayload().toString();
+			if (!frame.startsWith("MESSAGE")) {
+				return;
+			}
+			if (stalls) {
+				try {
+					closed.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new java.io.IOException("closed");
+			}
+			messages.incrementAndGet();
+		}
+
+		@Override
+		public synchronized void close(CloseStatus status) {
+			if (closeStatus != null) {
+				return;
+			}
+			closeStatus = status;
+			closed.countDown();
+			// The container reports the close from its own thread
+			closer.execute(() -> {
+				try {
+					handler.afterConnectionClosed(this, status);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+
+		@Override
+		public void close() {
+			close(CloseStatus.NORMAL);
+		}
+
+		@Override
+		public String getId() {
+			return id;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return closeStatus == null;
+		}
+
+		@Override
+		public URI getUri() {
+			return URI.create("ws://localhost/ws");
+		}
+
+		@Override
+		public HttpHeaders getHandshakeHeaders() {
+			return new HttpHeaders();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return attributes;
+		}
+
+		@Override
+		public Principal getPrincipal() {
+			return null;
+		}
+
+		@Override
+		public InetSocketAddress getLocalAddress() {
+			return null;
+		}
+
+		@Override
+		public InetSocketAddress getRemoteAddress() {
+			return null;
+		}
+
+		@Override
+		public String getAcceptedProtocol() {
+			return null;
+		}
+
+		@Override
+		public void setTextMessageSizeLimit(int messageSizeLimit) {
+		}
+
+		@Override
+		public int getTextMessageSizeLimit() {
+			return 65536;
+		}
+
+		@Override
+		public void setBinaryMessageSizeLimit(int messageSizeLimit) {
+		}
+
+		@Override
+		public int getBinaryMessageSizeLimit() {
+			return 65536;
+		}
+
+		@Override
+		public List<WebSocketExtension> getExtensions() {
+			return List.of();
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.legalconnect.lawyerbooking.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.AbstractMessageBrokerConfiguration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two nodes with their own broker channels, configured through
+ * {@link WebSocketConfig#configureMessageBroker}, and an embedded Artemis
+ * broker standing in for the external one.
+ */
+class WebSocketBrokerRelayTests {
+
+	@TempDir
+	static Path dataDir;
+
+	private static EmbeddedActiveMQ artemis;
+	private static int stompPort;
+
+	@BeforeAll
+	static void startBroker() throws Exception {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			stompPort = socket.getLocalPort();
+		}
+		ConfigurationImpl config = new ConfigurationImpl();
+		config.setPersistenceEnabled(false);
+		config.setSecurityEnabled(false);
+		config.setBrokerInstance(dataDir.toFile());
+		config.addAcceptorConfiguration("stomp", "tcp://127.0.0.1:" + stompPort
+				+ "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/");
+		artemis = new EmbeddedActiveMQ();
+		artemis.setConfiguration(config);
+		artemis.start();
+	}
+
+	@AfterAll
+	static void stopBroker() throws Exception {
+		artemis.stop();
+	}
+
+	@Test
+	void relayDeliversTopicMessagesPublishedOnAnotherNode() throws Exception {
+		try (Node a = new Node("relay"); Node b = new Node("relay")) {
+			a.awaitBrokerAvailable();
+			b.awaitBrokerAvailable();
+
+			a.connect("client-a");
+			a.subscribe("client-a", "/topic/case/42");
+			b.connect("client-b");
+			b.subscribe("client-b", "/topic/case/42");
+
+			b.template.convertAndSend("/topic/case/42", Map.of("content", "hello from b"));
+
+			assertTrue(a.nextMessageBody().contains("hello from b"));
+			assertTrue(b.nextMessageBody().contains("hello from b"));
+		}
+	}
+
+	@Test
+	void simpleBrokerOnlyReachesLocalSubscribers() throws Exception {
+		try (Node a = new Node("simple"); Node b = new Node("simple")) {
+			a.connect("client-a");
+			a.subscribe("client-a", "/topic/case/7");
+
+			b.template.convertAndSend("/topic/case/7", Map.of("content", "lost"));
+			assertNull(a.pollMessage(500));
+
+			a.template.convertAndSend("/topic/case/7", Map.of("content", "local"));
+			assertTrue(a.nextMessageBody().contains("local"));
+		}
+	}
+
+	private static final class Node implements AutoCloseable {
+
+		private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		private final BlockingQueue<Message<?>> outbound = new LinkedBlockingQueue<>();
+		private final MessageChannel inbound;
+		private final SimpMessagingTemplate template;
+		private final boolean relayed;
+
+		Node(String mode) {
+			relayed = "relay".equals(mode);
+			WebSocketConfig config = new WebSocketConfig();
+			ReflectionTestUtils.setField(config, "brokerMode", mode);
+			ReflectionTestUtils.setField(config, "relayHost", "127.0.0.1");
+			ReflectionTestUtils.setField(config, "relayPort", stompPort);
+			ReflectionTestUtils.setField(config, "relayLogin", "guest");
+			ReflectionTestUtils.setField(config, "relayPasscode", "guest");
+			ReflectionTestUtils.setField(config, "relayVirtualHost", "");
+			ReflectionTestUtils.setField(config, "metrics", new WebSocketMetrics());
+			context.getBeanFactory().registerSingleton("webSocketConfig", config);
+			context.register(BrokerConfiguration.class);
+			context.refresh();
+
+			context.getBean("clientOutboundChannel", AbstractSubscribableChannel.class).subscribe(outbound::add);
+			inbound = context.getBean("clientInboundChannel", MessageChannel.class);
+			template = context.getBean(SimpMessagingTemplate.class);
+		}
+
+		void awaitBrokerAvailable() throws InterruptedException {
+			StompBrokerRelayMessageHandler relay = context.getBean(StompBrokerRelayMessageHandler.class);
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (!relay.isBrokerAvailable() && System.nanoTime() < deadline) {
+				Thread.sleep(20);
+			}
+			assertTrue(relay.isBrokerAvailable(), "relay never connected to the broker");
+		}
+
+		void connect(String sessionId) throws InterruptedException {
+			StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+			connect.setAcceptVersion("1.2");
+			send(connect, sessionId);
+			Message<?> reply = outbound.poll(10, TimeUnit.SECONDS);
+			assertNotNull(reply, "no CONNECTED frame");
+		}
+
+		void subscribe(String sessionId, String destination) throws InterruptedException {
+			StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+			subscribe.setSubscriptionId("sub-0");
+			subscribe.setDestination(destination);
+			subscribe.setReceipt("subscribed");
+			send(subscribe, sessionId);
+			if (relayed) {
+				Message<?> receipt = outbound.poll(10, TimeUnit.SECONDS);
+				assertNotNull(receipt, "no RECEIPT for SUBSCRIBE");
+				assertEquals(StompCommand.RECEIPT, StompHeaderAccessor.wrap(receipt).getCommand());
+			}
+		}
+
+		Message<?> pollMessage(long millis) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+			for (long left = millis; left > 0; left = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())) {
+				Message<?> message = outbound.poll(left, TimeUnit.MILLISECONDS);
+				if (message == null) {
+					return null;
+				}
+				if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+					return message;
+				}
+			}
+			return null;
+		}
+
+		String nextMessageBody() throws InterruptedException {
+			Message<?> message = pollMessage(10_000);
+			assertNotNull(message, "no MESSAGE frame delivered");
+			return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+		}
+
+		private void send(StompHeaderAccessor accessor, String sessionId) {
+			accessor.setSessionId(sessionId);
+			accessor.setLeaveMutable(true);
+			inbound.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+		}
+
+		@Override
+		public void close() {
+			context.close();
+		}
+	}
+
+	@Configuration
+	static class BrokerConfiguration extends AbstractMessageBrokerConfiguration {
+
+		@Autowired
+		private WebSocketConfig webSocketConfig;
+
+		@Override
+		protected SimpUserRegistry createLocalUserRegistry(Integer order) {
+			return new DefaultSimpUserRegistry();
+		}
+
+		@Override
+		protected void configureMessageBroker(MessageBrokerRegistry registry) {
+			webSocketConfig.configureMessageBroker(registry);
+		}
+	}
+}
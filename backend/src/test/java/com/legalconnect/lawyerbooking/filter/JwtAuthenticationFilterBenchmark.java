@@ -0,0 +1,152 @@
+package com.legalconnect.lawyerbooking.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.enums.Role;
+import com.legalconnect.lawyerbooking.repository.AdminRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.UserRepository;
+import com.legalconnect.lawyerbooking.security.JwtTokenCache;
+import com.legalconnect.lawyerbooking.security.TokenRevocationRegistry;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticated requests per second through the JWT filter in front of an
+ * endpoint that does nothing. {@code perRequestChecks} is the filter as it
+ * was, deriving the key, building a parser and re-parsing the token for
+ * each claim, and looking the account up on every request; {@code uncached} parses once but still looks up the
+ * account; {@code cached} is the steady state for a returning token.
+ * Account lookups are answered in memory here, so the first two understate
+ * what a database round trip costs. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.legalconnect.lawyerbooking.filter.JwtAuthenticationFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private UserRepository users;
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String token;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setup() {
+        jwtUtil = JwtAuthenticationFilterTests.jwtUtil();
+        users = existing(UserRepository.class);
+        LawyerRepository lawyers = existing(LawyerRepository.class);
+        AdminRepository admins = existing(AdminRepository.class);
+
+        cachedFilter = JwtAuthenticationFilterTests.filter(jwtUtil, users, lawyers, admins,
+                new JwtTokenCache(), new TokenRevocationRegistry());
+        JwtTokenCache disabled = new JwtTokenCache();
+        ReflectionTestUtils.setField(disabled, "ttlMs", 0L);
+        uncachedFilter = JwtAuthenticationFilterTests.filter(jwtUtil, users, lawyers, admins,
+                disabled, new TokenRevocationRegistry());
+
+        token = jwtUtil.generateToken(42L, "rhea", Role.USER);
+        request = new MockHttpServletRequest("GET", "/api/ping");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    // Repository stub whose existsById always finds the account
+    @SuppressWarnings("unchecked")
+    private static <T> T existing(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> "existsById".equals(method.getName()) ? Boolean.TRUE : null);
+    }
+
+    // JwtUtil.extractAllClaims as it was: a new key and parser for every claim read
+    private static Claims claims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(JwtAuthenticationFilterTests.SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Object perRequestChecks() throws Exception {
+        String username = claims(token).getSubject();
+        String role = claims(token).get("role", String.class);
+        Long userId = ((Number) claims(token).get("userId")).longValue();
+        // validateToken read the subject and the expiry with a parse each
+        boolean valid = claims(token).getSubject().equals(username)
+                && !claims(token).getExpiration().before(new Date());
+        if (valid && users.existsById(userId)) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    new UserPrincipal(userId, username, role), null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))));
+        }
+        NO_OP.doFilter(request, response);
+        return authenticated();
+    }
+
+    @Benchmark
+    public Object uncached() throws Exception {
+        uncachedFilter.doFilter(request, response, NO_OP);
+        return authenticated();
+    }
+
+    @Benchmark
+    public Object cached() throws Exception {
+        cachedFilter.doFilter(request, response, NO_OP);
+        return authenticated();
+    }
+
+    private static Object authenticated() {
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        if (authentication == null) {
+            throw new IllegalStateException("request was not authenticated");
+        }
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,169 @@
+package com.legalconnect.lawyerbooking.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.enums.Role;
+import com.legalconnect.lawyerbooking.repository.AdminRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.UserRepository;
+import com.legalconnect.lawyerbooking.security.JwtTokenCache;
+import com.legalconnect.lawyerbooking.security.TokenRevocationRegistry;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.util.JwtUtil;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.util.Date;
+
+class JwtAuthenticationFilterTests {
+
+	static final String SECRET = "test-secret-that-is-long-enough-for-hs256-signing";
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final LawyerRepository lawyerRepository = mock(LawyerRepository.class);
+	private final TokenRevocationRegistry revocations = new TokenRevocationRegistry();
+	private final JwtTokenCache cache = new JwtTokenCache();
+	private JwtUtil jwtUtil;
+	private JwtAuthenticationFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtil = jwtUtil();
+		filter = filter(jwtUtil, userRepository, lawyerRepository, mock(AdminRepository.class), cache, revocations);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	static JwtUtil jwtUtil() {
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+		ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
+		ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 604800000L);
+		return jwtUtil;
+	}
+
+	static JwtAuthenticationFilter filter(JwtUtil jwtUtil, UserRepository users, LawyerRepository lawyers,
+			AdminRepository admins, JwtTokenCache cache, TokenRevocationRegistry revocations) {
+		JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+		ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(filter, "userRepository", users);
+		ReflectionTestUtils.setField(filter, "lawyerRepository", lawyers);
+		ReflectionTestUtils.setField(filter, "adminRepository", admins);
+		ReflectionTestUtils.setField(filter, "tokenCache", cache);
+		ReflectionTestUtils.setField(filter, "tokenRevocations", revocations);
+		return filter;
+	}
+
+	private Authentication request(String token) throws Exception {
+		SecurityContextHolder.clearContext();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cases/1");
+		request.addHeader("Authorization", "Bearer " + token);
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	@Test
+	void tokenIsVerifiedAndLookedUpOnceThenServedFromCache() throws Exception {
+		when(lawyerRepository.existsById(7L)).thenReturn(true);
+		String token = jwtUtil.generateToken(7L, "adv.shah", Role.LAWYER);
+
+		for (int i = 0; i < 5; i++) {
+			Authentication auth = request(token);
+			UserPrincipal principal = (UserPrincipal) auth.getPrincipal();
+			assertEquals(7L, principal.getUserId());
+			assertEquals("adv.shah", principal.getName());
+			assertEquals("ROLE_LAWYER", auth.getAuthorities().iterator().next().getAuthority());
+		}
+		verify(lawyerRepository, times(1)).existsById(7L);
+		assertEquals(4, cache.getHits());
+	}
+
+	// A user token as issued before tokens carried a millisecond issue time
+	private static String wholeSecondToken(Long userId, String username) {
+		long issuedAt = System.currentTimeMillis();
+		return Jwts.builder()
+				.claim("userId", userId)
+				.claim("role", Role.USER.name())
+				.subject(username)
+				.issuedAt(new Date(issuedAt))
+				.expiration(new Date(issuedAt + 3600000L))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+				.compact();
+	}
+
+	@Test
+	void revokedPrincipalIsRefusedEvenWhenCached() throws Exception {
+		when(userRepository.existsById(3L)).thenReturn(true);
+		// Issued in the same second as the revocation, just before it
+		String token = jwtUtil.generateToken(3L, "rhea", Role.USER);
+		request(token);
+
+		revocations.revoke("USER", 3L);
+		assertNull(request(token));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void wholeSecondTokenFromTheSecondOfRevocationIsRefused() throws Exception {
+		when(userRepository.existsById(3L)).thenReturn(true);
+		String token = wholeSecondToken(3L, "rhea");
+		revocations.revoke("USER", 3L);
+
+		assertNull(request(token));
+	}
+
+	@Test
+	void loginRightAfterRevocationIsAccepted() throws Exception {
+		when(userRepository.existsById(3L)).thenReturn(true);
+		revocations.revoke("USER", 3L);
+		long revokedBy = System.currentTimeMillis();
+		while (System.currentTimeMillis() == revokedBy) {
+			Thread.onSpinWait();
+		}
+
+		Authentication auth = request(jwtUtil.generateToken(3L, "rhea", Role.USER));
+		assertEquals(3L, ((UserPrincipal) auth.getPrincipal()).getUserId());
+	}
+
+	@Test
+	void missingAccountIsNotCached() throws Exception {
+		when(userRepository.existsById(4L)).thenReturn(false);
+		String token = jwtUtil.generateToken(4L, "gone", Role.USER);
+
+		assertNull(request(token));
+		assertNull(request(token));
+		verify(userRepository, times(2)).existsById(4L);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void tamperedTokenIsRejectedWithoutLookup() throws Exception {
+		String token = jwtUtil.generateToken(7L, "adv.shah", Role.LAWYER);
+		String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+		assertNull(request(tampered));
+		assertNull(request("not-a-jwt"));
+		verify(lawyerRepository, never()).existsById(anyLong());
+	}
+}
@@ -0,0 +1,53 @@
+package com.legalconnect.lawyerbooking.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+
+class LocalAiProviderTests {
+
+	private final LocalAiProvider provider = new LocalAiProvider();
+
+	@Test
+	void masksCommonPersonalInformation() {
+		String masked = provider.transform(TextOperation.MASK_PII,
+				"My name is Ramesh Patel, call 98765 43210 or mail ramesh@example.com. PAN ABCDE1234F.");
+
+		assertFalse(masked.contains("Ramesh"));
+		assertFalse(masked.contains("98765"));
+		assertFalse(masked.contains("ramesh@example.com"));
+		assertFalse(masked.contains("ABCDE1234F"));
+		assertTrue(masked.contains("[NAME_MASKED]"));
+		assertTrue(masked.contains("[PHONE_MASKED]"));
+		assertTrue(masked.contains("[EMAIL_MASKED]"));
+	}
+
+	@Test
+	void classifiesWithKeywords() {
+		assertEquals("Family", provider.transform(TextOperation.CLASSIFY_CASE, "Seeking custody of my child after divorce"));
+	}
+
+	@Test
+	void isDeterministic() throws Exception {
+		MockMultipartFile audio = new MockMultipartFile("file", "a.webm", "audio/webm", new byte[] { 1, 2, 3 });
+		assertEquals(provider.translateToEnglish(audio), provider.translateToEnglish(audio));
+
+		MockMultipartFile text = new MockMultipartFile("file", "a.txt", "text/plain",
+				"landlord eviction".getBytes(StandardCharsets.UTF_8));
+		assertEquals("landlord eviction", provider.translateToEnglish(text));
+	}
+
+	@Test
+	void speechIsWavAndSaysSo() {
+		byte[] audio = provider.textToSpeech("Hearing on Monday", "en", "FEMALE");
+
+		assertEquals("audio/wav", provider.getContentType());
+		assertEquals("audio/wav", SpeechSynthesisProvider.contentTypeOf(audio));
+		assertEquals("audio/mpeg", SpeechSynthesisProvider.contentTypeOf(new byte[] { 'I', 'D', '3', 4, 0, 0, 0, 0, 0, 0, 0, 0 }));
+	}
+}
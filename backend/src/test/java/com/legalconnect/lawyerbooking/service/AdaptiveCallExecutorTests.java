@@ -0,0 +1,260 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs against a local stand-in for the OpenAI API. Latencies are scripted on
+ * a fake clock that each request advances, so percentiles and timeouts are
+ * exact. Slow responses are modelled by stalling a request on a latch: a
+ * stalled primary is only ever overtaken by its hedge.
+ */
+class AdaptiveCallExecutorTests {
+
+	private HttpServer server;
+	private final AtomicInteger requests = new AtomicInteger();
+	private final OkHttpClient client = new OkHttpClient.Builder().readTimeout(30, TimeUnit.SECONDS).build();
+	private Request request;
+
+	private final AtomicLong clock = new AtomicLong();
+	// Milliseconds each request adds to the clock
+	private volatile long latencyMs = 10;
+	// When set, a request that finds no other request stalled waits up to this long for its hedge
+	private volatile long stallMs;
+	private final AtomicReference<CountDownLatch> stalledPrimary = new AtomicReference<>();
+	private final CountDownLatch shutdown = new CountDownLatch(1);
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.createContext("/v1/chat/completions", exchange -> {
+			int n = requests.incrementAndGet();
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+			if (stallMs > 0) {
+				CountDownLatch primary = stalledPrimary.get();
+				if (primary == null) {
+					CountDownLatch mine = new CountDownLatch(1);
+					stalledPrimary.set(mine);
+					try {
+						// Answers late unless a hedge overtakes it
+						shutdown.await(stallMs, TimeUnit.MILLISECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					stalledPrimary.compareAndSet(mine, null);
+				} else {
+					// The hedge: answer now and leave the next call a fresh primary
+					stalledPrimary.compareAndSet(primary, null);
+				}
+			}
+			byte[] body = ("{\"n\":" + n + "}").getBytes(StandardCharsets.UTF_8);
+			try {
+				exchange.sendResponseHeaders(200, body.length);
+				exchange.getResponseBody().write(body);
+			} catch (java.io.IOException e) {
+				// The executor cancelled the losing request
+			}
+			exchange.close();
+		});
+		server.start();
+		request = new Request.Builder()
+				.url("http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions")
+				.build();
+	}
+
+	@AfterEach
+	void stopServer() {
+		shutdown.countDown();
+		server.stop(0);
+	}
+
+	private static AiWorkScheduler scheduler(int maxConcurrent) {
+		AiWorkScheduler scheduler = new AiWorkScheduler();
+		ReflectionTestUtils.setField(scheduler, "tokensPerMinute", 100_000L);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrent", maxConcurrent);
+		ReflectionTestUtils.setField(scheduler, "backfillMaxConcurrent", maxConcurrent);
+		ReflectionTestUtils.setField(scheduler, "backfillReserve", 0.25);
+		scheduler.init();
+		return scheduler;
+	}
+
+	private AdaptiveCallExecutor executor(double hedgeBudgetRatio) {
+		return executor(hedgeBudgetRatio, scheduler(4));
+	}
+
+	private AdaptiveCallExecutor executor(double hedgeBudgetRatio, AiWorkScheduler scheduler) {
+		AdaptiveCallExecutor executor = new AdaptiveCallExecutor();
+		ReflectionTestUtils.setField(executor, "aiWorkScheduler", scheduler);
+		ReflectionTestUtils.setField(executor, "windowSize", 500);
+		ReflectionTestUtils.setField(executor, "minSamples", 20);
+		ReflectionTestUtils.setField(executor, "timeoutMultiplier", 4.0);
+		ReflectionTestUtils.setField(executor, "minTimeoutMillis", 5000L);
+		ReflectionTestUtils.setField(executor, "hedgeBudgetRatio", hedgeBudgetRatio);
+		ReflectionTestUtils.setField(executor, "hedgingEnabled", true);
+		ReflectionTestUtils.setField(executor, "nanoClock", (LongSupplier) clock::get);
+		return executor;
+	}
+
+	// Number of the request that produced the response
+	private int call(AdaptiveCallExecutor executor, boolean hedge) throws Exception {
+		try (Response response = executor.execute("chat.classify", client, request, hedge)) {
+			assertEquals(200, response.code());
+			String body = response.body().string();
+			return Integer.parseInt(body.replaceAll("\\D", ""));
+		}
+	}
+
+	// Twenty fast samples, enough to enable timeouts and hedging
+	private void warmUp(AdaptiveCallExecutor executor) throws Exception {
+		for (int i = 0; i < 20; i++) {
+			call(executor, false);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> stats(AdaptiveCallExecutor executor) {
+		return (Map<String, Object>) executor.getMetrics().get("chat.classify");
+	}
+
+	@Test
+	void timeoutFollowsObservedLatency() throws Exception {
+		AdaptiveCallExecutor executor = executor(0.1);
+		ReflectionTestUtils.setField(executor, "minTimeoutMillis", 100L);
+		latencyMs = 30;
+		for (int i = 0; i < 19; i++) {
+			call(executor, false);
+		}
+		assertEquals(0L, stats(executor).get("timeoutMs"));
+
+		latencyMs = 300;
+		call(executor, false);
+		Map<String, Object> after = stats(executor);
+		assertEquals(30L, after.get("p95Ms"));
+		assertEquals(300L, after.get("p99Ms"));
+		// Four times p99
+		assertEquals(1200L, after.get("timeoutMs"));
+	}
+
+	@Test
+	void stalledCallIsAnsweredByItsHedge() throws Exception {
+		AdaptiveCallExecutor executor = executor(1.0);
+		warmUp(executor);
+		stallMs = 30_000;
+
+		int primary = requests.get() + 1;
+		assertEquals(primary + 1, call(executor, true));
+
+		Map<String, Object> stats = stats(executor);
+		assertEquals(1L, stats.get("hedges"));
+		assertEquals(1L, stats.get("hedgeWins"));
+	}
+
+	@Test
+	void hedgesStayWithinBudget() throws Exception {
+		// Half a hedge earned per call: every second stalled call may be hedged
+		AdaptiveCallExecutor executor = executor(0.5);
+		warmUp(executor);
+		stallMs = 200;
+
+		for (int i = 0; i < 4; i++) {
+			int primary = requests.get() + 1;
+			int answeredBy = call(executor, true);
+			assertEquals(i % 2 == 0 ? primary : primary + 1, answeredBy);
+		}
+
+		Map<String, Object> stats = stats(executor);
+		assertEquals(24L, stats.get("calls"));
+		assertEquals(2L, stats.get("hedges"));
+		assertEquals(2L, stats.get("hedgeWins"));
+	}
+
+	@Test
+	void timedOutCallCountsAtItsTimeout() throws Exception {
+		AdaptiveCallExecutor executor = executor(0.1);
+		ReflectionTestUtils.setField(executor, "minTimeoutMillis", 100L);
+		warmUp(executor);
+		assertEquals(100L, stats(executor).get("timeoutMs"));
+
+		stallMs = 30_000;
+		assertThrows(IOException.class, () -> call(executor, false));
+
+		Map<String, Object> stats = stats(executor);
+		assertEquals(1L, stats.get("failures"));
+		// The stalled call took at least its timeout, not the 10ms the clock saw
+		assertEquals(100L, stats.get("p99Ms"));
+		assertEquals(10L, stats.get("p95Ms"));
+	}
+
+	@Test
+	void noHedgeWithoutSchedulerHeadroom() throws Exception {
+		// The primary holds the only slot, so there is no room for a hedge
+		AiWorkScheduler scheduler = scheduler(1);
+		AdaptiveCallExecutor executor = executor(1.0, scheduler);
+		warmUp(executor);
+		stallMs = 200;
+
+		int primary = requests.get() + 1;
+		assertEquals(primary, (int) scheduler.execute(100, () -> call(executor, true)));
+
+		Map<String, Object> stats = stats(executor);
+		assertEquals(0L, stats.get("hedges"));
+		assertEquals(1L, stats.get("hedgesSkipped"));
+		@SuppressWarnings("unchecked")
+		Map<String, Object> interactive = (Map<String, Object>) scheduler.getMetrics().get("interactive");
+		assertEquals(0, interactive.get("running"));
+	}
+
+	@Test
+	void hedgeReleasesItsSchedulerSlot() throws Exception {
+		AiWorkScheduler scheduler = scheduler(2);
+		AdaptiveCallExecutor executor = executor(1.0, scheduler);
+		warmUp(executor);
+		stallMs = 30_000;
+
+		int primary = requests.get() + 1;
+		assertEquals(primary + 1, (int) scheduler.execute(100, () -> call(executor, true)));
+		assertEquals(1L, stats(executor).get("hedges"));
+
+		// The hedge's slot is handed back once its call completes
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (runningCalls(scheduler) != 0 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(0, runningCalls(scheduler));
+	}
+
+	@Test
+	void sizesAreBucketedInDoublingBands() {
+		assertEquals("whisper.0", AdaptiveCallExecutor.endpointForBand("whisper", 10, 15));
+		assertEquals("whisper.15", AdaptiveCallExecutor.endpointForBand("whisper", 29, 15));
+		assertEquals("whisper.60", AdaptiveCallExecutor.endpointForBand("whisper", 119, 15));
+		assertEquals("whisper.120", AdaptiveCallExecutor.endpointForBand("whisper", 120, 15));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int runningCalls(AiWorkScheduler scheduler) {
+		return (Integer) ((Map<String, Object>) scheduler.getMetrics().get("interactive")).get("running");
+	}
+}
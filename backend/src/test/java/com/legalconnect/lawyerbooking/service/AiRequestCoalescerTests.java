@@ -0,0 +1,103 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AiRequestCoalescerTests {
+
+	@Test
+	void concurrentIdenticalCallsShareOneExecution() throws Exception {
+		AiRequestCoalescer coalescer = new AiRequestCoalescer(new AiWorkScheduler());
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(pool.submit(() -> coalescer.execute("classify", "tenant dispute", () -> {
+				calls.incrementAndGet();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "Property";
+			})));
+		}
+		// Release the running call only once the other seven have joined it
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (coalesced(coalescer) < 7 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("Property", result.get(5, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+
+		assertEquals(1, calls.get());
+		assertEquals(1L, stats(coalescer).get("executed"));
+		assertEquals(7L, coalesced(coalescer));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Long> stats(AiRequestCoalescer coalescer) {
+		Map<String, Long> stats = (Map<String, Long>) coalescer.getMetrics().get("classify");
+		return stats != null ? stats : Map.of();
+	}
+
+	private static long coalesced(AiRequestCoalescer coalescer) {
+		return stats(coalescer).getOrDefault("coalesced", 0L);
+	}
+
+	@Test
+	void differentInputsAreNotCoalesced() {
+		AiRequestCoalescer coalescer = new AiRequestCoalescer(new AiWorkScheduler());
+		assertEquals("a", coalescer.execute("mask", "a", () -> "a"));
+		assertEquals("b", coalescer.execute("mask", "b", () -> "b"));
+		assertEquals("a", coalescer.execute("mask", "a", () -> "a"));
+	}
+
+	@Test
+	void interactiveCallDoesNotJoinABackfillCall() throws Exception {
+		AiWorkScheduler scheduler = new AiWorkScheduler();
+		AiRequestCoalescer coalescer = new AiRequestCoalescer(scheduler);
+		CountDownLatch backfillRunning = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<String> backfill = pool.submit(() -> scheduler.runAs(AiPriority.BACKFILL, "reclassify",
+				() -> coalescer.execute("classify", "tenant dispute", () -> {
+					backfillRunning.countDown();
+					try {
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return "Property";
+				})));
+		assertTrue(backfillRunning.await(5, TimeUnit.SECONDS));
+
+		assertEquals("Property", coalescer.execute("classify", "tenant dispute", () -> "Property"));
+		assertEquals(0L, coalesced(coalescer));
+		assertEquals(2L, stats(coalescer).get("executed"));
+
+		release.countDown();
+		assertEquals("Property", backfill.get(5, TimeUnit.SECONDS));
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,141 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class AiWorkSchedulerTests {
+
+	private final ExecutorService pool = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	private AiWorkScheduler scheduler(long tokensPerMinute, int maxConcurrent) {
+		AiWorkScheduler scheduler = new AiWorkScheduler();
+		ReflectionTestUtils.setField(scheduler, "tokensPerMinute", tokensPerMinute);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrent", maxConcurrent);
+		ReflectionTestUtils.setField(scheduler, "backfillMaxConcurrent", maxConcurrent);
+		ReflectionTestUtils.setField(scheduler, "backfillReserve", 0.25);
+		scheduler.init();
+		return scheduler;
+	}
+
+	// Holds the only slot until released, so that everything submitted meanwhile queues up
+	private CountDownLatch occupySlot(AiWorkScheduler scheduler) throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		pool.submit(() -> scheduler.runAs(AiPriority.INTERACTIVE, "blocker", () -> scheduler.run(0, () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return null;
+		})));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		return release;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int queued(AiWorkScheduler scheduler, AiPriority priority) {
+		Map<String, Object> metrics = (Map<String, Object>) scheduler.getMetrics().get(priority.name().toLowerCase());
+		return (Integer) metrics.get("queued");
+	}
+
+	private static int queued(AiWorkScheduler scheduler) {
+		return queued(scheduler, AiPriority.INTERACTIVE) + queued(scheduler, AiPriority.BACKFILL);
+	}
+
+	// Spins until the scheduler's queue holds the expected number of tickets
+	private static void awaitQueued(AiWorkScheduler scheduler, AiPriority priority, int expected) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while ((priority == null ? queued(scheduler) : queued(scheduler, priority)) < expected) {
+			assertTrue(System.nanoTime() < deadline, "timed out waiting for queued work");
+			Thread.onSpinWait();
+		}
+	}
+
+	private void submit(AiWorkScheduler scheduler, AiPriority priority, String user, List<String> order,
+			CountDownLatch done) {
+		int before = queued(scheduler);
+		pool.submit(() -> scheduler.runAs(priority, user, () -> scheduler.run(10, () -> {
+			order.add(user);
+			done.countDown();
+			return null;
+		})));
+		// Each ticket is queued before the next is submitted, so submission order is exact
+		awaitQueued(scheduler, null, before + 1);
+	}
+
+	@Test
+	void interactiveWorkOvertakesQueuedBackfill() throws Exception {
+		AiWorkScheduler scheduler = scheduler(100000, 1);
+		CountDownLatch release = occupySlot(scheduler);
+		List<String> order = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(4);
+
+		submit(scheduler, AiPriority.BACKFILL, "bulk-1", order, done);
+		submit(scheduler, AiPriority.BACKFILL, "bulk-2", order, done);
+		submit(scheduler, AiPriority.INTERACTIVE, "client", order, done);
+		submit(scheduler, AiPriority.BACKFILL, "bulk-3", order, done);
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals("client", order.get(0));
+	}
+
+	@Test
+	void usersAreServedFairlyWithinAClass() throws Exception {
+		AiWorkScheduler scheduler = scheduler(100000, 1);
+		CountDownLatch release = occupySlot(scheduler);
+		List<String> order = new CopyOnWriteArrayList<>();
+		CountDownLatch done = new CountDownLatch(6);
+
+		for (int i = 0; i < 4; i++) {
+			submit(scheduler, AiPriority.INTERACTIVE, "heavy", order, done);
+		}
+		submit(scheduler, AiPriority.INTERACTIVE, "light", order, done);
+		submit(scheduler, AiPriority.INTERACTIVE, "light", order, done);
+		release.countDown();
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("heavy", "light", "heavy", "light", "heavy", "heavy"), order);
+	}
+
+	@Test
+	void backfillLeavesReserveForInteractive() throws Exception {
+		// 1000 tokens/min with 25% reserved: a 700 token backfill call fits, a second does not
+		AiWorkScheduler scheduler = scheduler(1000, 4);
+		scheduler.runAs(AiPriority.BACKFILL, "bulk", () -> scheduler.run(700, () -> null));
+
+		CountDownLatch backfillDone = new CountDownLatch(1);
+		pool.submit(() -> scheduler.runAs(AiPriority.BACKFILL, "bulk", () -> scheduler.run(700, () -> {
+			backfillDone.countDown();
+			return null;
+		})));
+		awaitQueued(scheduler, AiPriority.BACKFILL, 1);
+
+		// Admitted from the reserve straight away, while the backfill call keeps waiting for tokens
+		pool.submit(() -> scheduler.runAs(AiPriority.INTERACTIVE, "client", () -> scheduler.run(250, () -> null)))
+				.get(5, TimeUnit.SECONDS);
+		assertEquals(1, backfillDone.getCount());
+		assertEquals(1, queued(scheduler, AiPriority.BACKFILL));
+	}
+}
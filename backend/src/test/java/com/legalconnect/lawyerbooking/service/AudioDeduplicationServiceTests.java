@@ -0,0 +1,203 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.dto.CaseDTO;
+import com.legalconnect.lawyerbooking.dto.CaseRequest;
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+class AudioDeduplicationServiceTests {
+
+	private final ClientAudioRepository repository = mock(ClientAudioRepository.class);
+	private AudioDeduplicationService service;
+
+	private final AtomicLong ids = new AtomicLong();
+	private final List<String> pipelineRuns = Collections.synchronizedList(new ArrayList<>());
+	private final List<ClientAudio> reused = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeEach
+	void setUp() {
+		service = new AudioDeduplicationService(repository);
+		ReflectionTestUtils.setField(service, "reuseWindowMs", 600_000L);
+		when(repository.findFirstByUserIdAndContentHashAndCreatedAtAfterOrderByIdDesc(anyLong(), anyString(), any()))
+				.thenReturn(Optional.empty());
+	}
+
+	private static MockMultipartFile upload() {
+		return new MockMultipartFile("file", "statement.webm", "audio/webm", new byte[] { 1, 2, 3, 4 });
+	}
+
+	private static ClientAudio record(long id, String hash) {
+		ClientAudio ca = new ClientAudio();
+		ca.setId(id);
+		ca.setUserId(1L);
+		ca.setContentHash(hash);
+		ca.setMaskedEnglishText("masked transcript");
+		return ca;
+	}
+
+	private Function<String, ClientAudio> pipeline() {
+		return hash -> {
+			pipelineRuns.add(hash);
+			return record(ids.incrementAndGet(), hash);
+		};
+	}
+
+	// A new record per upload, built from the earlier one's outputs
+	private ClientAudio reuse(ClientAudio earlier) {
+		reused.add(earlier);
+		ClientAudio copy = record(ids.incrementAndGet(), earlier.getContentHash());
+		copy.setMaskedEnglishText(earlier.getMaskedEnglishText());
+		return copy;
+	}
+
+	@Test
+	void recentIdenticalUploadGetsItsOwnRecordFromTheStoredResults() {
+		String hash = service.contentHash(upload());
+		ClientAudio earlier = record(100L, hash);
+		when(repository.findFirstByUserIdAndContentHashAndCreatedAtAfterOrderByIdDesc(eq(1L), eq(hash), any()))
+				.thenReturn(Optional.of(earlier));
+
+		ClientAudio result = service.processOnce(upload(), 1L, pipeline(), this::reuse);
+
+		assertTrue(pipelineRuns.isEmpty());
+		assertEquals(List.of(earlier), reused);
+		assertNotEquals(100L, result.getId());
+		assertEquals("masked transcript", result.getMaskedEnglishText());
+	}
+
+	@Test
+	void onlyUploadsWithinTheWindowAreLookedUp() {
+		LocalDateTime before = LocalDateTime.now();
+		service.processOnce(upload(), 1L, pipeline(), this::reuse);
+
+		ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(repository).findFirstByUserIdAndContentHashAndCreatedAtAfterOrderByIdDesc(eq(1L), anyString(),
+				cutoff.capture());
+		assertFalse(cutoff.getValue().isBefore(before.minusMinutes(10)));
+		assertFalse(cutoff.getValue().isAfter(LocalDateTime.now().minusMinutes(10)));
+		assertEquals(1, pipelineRuns.size());
+		assertTrue(reused.isEmpty());
+	}
+
+	@Test
+	void zeroWindowNeverReusesStoredUploads() {
+		ReflectionTestUtils.setField(service, "reuseWindowMs", 0L);
+
+		service.processOnce(upload(), 1L, pipeline(), this::reuse);
+
+		verifyNoInteractions(repository);
+		assertEquals(1, pipelineRuns.size());
+	}
+
+	@Test
+	void concurrentIdenticalUploadWaitsAndReusesTheRunningResult() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Function<String, ClientAudio> slowPipeline = hash -> {
+			running.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return pipeline().apply(hash);
+		};
+
+		CompletableFuture<ClientAudio> first = CompletableFuture.supplyAsync(
+				() -> service.processOnce(upload(), 1L, slowPipeline, this::reuse));
+		assertTrue(running.await(5, TimeUnit.SECONDS));
+		CompletableFuture<ClientAudio> second = new CompletableFuture<>();
+		Thread retry = new Thread(() -> second.complete(service.processOnce(upload(), 1L, slowPipeline, this::reuse)));
+		retry.start();
+		// Finish the first upload only once the retry is parked on it
+		while (retry.getState() != Thread.State.WAITING && !second.isDone()) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		ClientAudio original = first.get(5, TimeUnit.SECONDS);
+		ClientAudio copy = second.get(5, TimeUnit.SECONDS);
+		assertEquals(1, pipelineRuns.size());
+		assertSame(original, reused.get(0));
+		assertNotEquals(original.getId(), copy.getId());
+	}
+
+	@Test
+	void anonymousUploadsAlwaysRunThePipeline() {
+		service.processOnce(upload(), null, pipeline(), this::reuse);
+		service.processOnce(upload(), null, pipeline(), this::reuse);
+
+		verifyNoInteractions(repository);
+		assertEquals(2, pipelineRuns.size());
+	}
+
+	@Test
+	void repeatedUploadCopiesTheEarlierCaseWithoutAskingTheAi() {
+		AiProviderRouter aiProviderRouter = mock(AiProviderRouter.class);
+		CaseService caseService = mock(CaseService.class);
+		AudioProcessingService audioService = new AudioProcessingService(aiProviderRouter,
+				mock(GujaratiTranslationService.class), repository, caseService, mock(LawyerRepository.class),
+				mock(GenderDetectionService.class), mock(AudioSegmentationService.class));
+		when(repository.save(any(ClientAudio.class))).thenAnswer(invocation -> {
+			ClientAudio saved = invocation.getArgument(0);
+			if (saved.getId() == null) {
+				saved.setId(ids.incrementAndGet());
+			}
+			return saved;
+		});
+
+		CaseDTO earlierCase = new CaseDTO();
+		earlierCase.setId(7L);
+		earlierCase.setCaseTitle("Tenancy deposit dispute");
+		earlierCase.setCaseType(CaseType.REAL_ESTATE);
+		when(caseService.getCaseById(7L)).thenReturn(earlierCase);
+		CaseDTO created = new CaseDTO();
+		created.setId(8L);
+		when(caseService.createCase(any())).thenReturn(created);
+
+		ClientAudio earlier = record(100L, "hash");
+		earlier.setCaseId(7L);
+		ClientAudio copy = audioService.createFromEarlierUpload(earlier, upload(), 1L, null, null);
+
+		ArgumentCaptor<CaseRequest> request = ArgumentCaptor.forClass(CaseRequest.class);
+		verify(caseService).createCase(request.capture());
+		assertEquals("Tenancy deposit dispute", request.getValue().getCaseTitle());
+		assertEquals(CaseType.REAL_ESTATE, request.getValue().getCaseType());
+		assertEquals(8L, copy.getCaseId());
+		// No title generation, classification or masking for a repeat
+		verifyNoInteractions(aiProviderRouter);
+	}
+}
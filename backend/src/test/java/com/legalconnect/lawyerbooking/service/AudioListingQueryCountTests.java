@@ -0,0 +1,87 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.legalconnect.lawyerbooking.dto.ClientAudioDTO;
+import com.legalconnect.lawyerbooking.entity.Case;
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.CaseRepository;
+import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AudioListingQueryCountTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private ClientAudioRepository clientAudioRepository;
+
+	@Autowired
+	private CaseRepository caseRepository;
+
+	@Autowired
+	private LawyerRepository lawyerRepository;
+
+	@Test
+	void lawyerListingRunsConstantNumberOfQueries() {
+		Lawyer lawyer = new Lawyer();
+		lawyer.setUsername("adv.shah");
+		lawyer.setPassword("x");
+		lawyer.setSpecializations(Set.of(CaseType.CIVIL, CaseType.FAMILY));
+		lawyer = lawyerRepository.save(lawyer);
+
+		List<Case> cases = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Case c = new Case();
+			c.setUserId(1L);
+			c.setCaseTitle("Case " + i);
+			c.setCaseType(i % 2 == 0 ? CaseType.CIVIL : CaseType.FAMILY);
+			cases.add(c);
+		}
+		cases = caseRepository.saveAll(cases);
+
+		List<ClientAudio> records = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			ClientAudio ca = new ClientAudio();
+			ca.setUserId(1L);
+			ca.setCaseId(cases.get(i % cases.size()).getId());
+			ca.setLanguage("gu");
+			ca.setMaskedEnglishText("Record " + i);
+			ca.setMaskedTextAudio(new byte[1024]);
+			records.add(ca);
+		}
+		clientAudioRepository.saveAll(records);
+		entityManager.flush();
+		entityManager.clear();
+
+		AudioProcessingService service = new AudioProcessingService(
+				null, null, clientAudioRepository, null, lawyerRepository, null, null);
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		List<ClientAudioDTO> listing = service.getAudioForLawyer(lawyer.getId());
+
+		assertEquals(1000, listing.size());
+		assertTrue(listing.stream().allMatch(dto -> dto.getCaseTitle() != null && dto.getCaseTitle().startsWith("Case ")));
+		assertTrue(listing.stream().allMatch(dto -> dto.getMaskedTextAudioBase64() == null));
+		// Lawyer (with its eagerly fetched specializations) plus the listing itself
+		long statements = statistics.getPrepareStatementCount();
+		assertTrue(statements <= 3, "Expected at most 3 statements, got " + statements);
+	}
+}
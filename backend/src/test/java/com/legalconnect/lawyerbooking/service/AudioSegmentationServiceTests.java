@@ -0,0 +1,164 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recordings are synthesized at 1kHz with a 3s minimum and 12s maximum
+ * segment length, so a 30s recording is cut two or three times.
+ */
+class AudioSegmentationServiceTests {
+
+	private static final float SAMPLE_RATE = 1000;
+	private static final int MAX_LEN = 12_000;
+
+	private final AudioConversionService audioConversionService = mock(AudioConversionService.class);
+	private final AiProviderRouter aiProviderRouter = mock(AiProviderRouter.class);
+	private AudioSegmentationService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		service = new AudioSegmentationService(audioConversionService, aiProviderRouter, new AiWorkScheduler());
+		ReflectionTestUtils.setField(service, "maxSegmentSeconds", 12);
+		ReflectionTestUtils.setField(service, "minSegmentSeconds", 3);
+		ReflectionTestUtils.setField(service, "parallelism", 4);
+		service.init();
+		when(audioConversionService.convertToWav(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	// Constant level: no pause anywhere
+	private static float[] speech(int length) {
+		float[] samples = new float[length];
+		Arrays.fill(samples, 0.5f);
+		return samples;
+	}
+
+	private static MultipartFile wav(float[] samples) throws Exception {
+		byte[] pcm = new byte[samples.length * 2];
+		for (int i = 0; i < samples.length; i++) {
+			int value = Math.round(samples[i] * 32767);
+			pcm[2 * i] = (byte) value;
+			pcm[2 * i + 1] = (byte) (value >> 8);
+		}
+		AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, samples.length),
+				AudioFileFormat.Type.WAVE, out);
+		return new MockMultipartFile("file", "consultation.wav", "audio/wav", out.toByteArray());
+	}
+
+	@Test
+	void cutsAtTheQuietestPointBetweenMinimumAndMaximumLength() {
+		float[] samples = speech(30_000);
+		// A one-second pause from 8s to 9s
+		Arrays.fill(samples, 8_000, 9_000, 0f);
+
+		List<int[]> bounds = service.findSegments(samples, SAMPLE_RATE);
+
+		int cut = bounds.get(0)[1];
+		assertTrue(cut > 8_000 && cut <= 9_000, "cut at " + cut);
+		assertCovers(bounds, samples.length);
+	}
+
+	@Test
+	void cutIsForcedAtTheMaximumLengthWithoutAPause() {
+		List<int[]> bounds = service.findSegments(speech(30_000), SAMPLE_RATE);
+
+		assertEquals(3, bounds.size());
+		assertEquals(MAX_LEN, bounds.get(0)[1]);
+		assertEquals(2 * MAX_LEN, bounds.get(1)[1]);
+		assertCovers(bounds, 30_000);
+	}
+
+	@Test
+	void shortRecordingIsASingleSegment() {
+		List<int[]> bounds = service.findSegments(speech(MAX_LEN), SAMPLE_RATE);
+
+		assertEquals(1, bounds.size());
+		assertEquals(MAX_LEN, bounds.get(0)[1]);
+	}
+
+	@Test
+	void segmentsFinishingOutOfOrderAreStitchedInPlaybackOrder() throws Exception {
+		List<String> finished = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch lastSegmentDone = new CountDownLatch(1);
+		when(aiProviderRouter.transcribe(any())).thenAnswer(invocation -> {
+			String name = invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+			if (name.equals("segment_0.wav")) {
+				// The first segment is the slowest to come back
+				assertTrue(lastSegmentDone.await(5, TimeUnit.SECONDS));
+			}
+			finished.add(name);
+			if (name.equals("segment_2.wav")) {
+				lastSegmentDone.countDown();
+			}
+			return "text of " + name.replace(".wav", "");
+		});
+
+		List<AudioSegmentationService.TranscriptSegment> segments = service.transcribe(wav(speech(30_000)));
+
+		assertEquals("segment_0.wav", finished.get(2));
+		assertEquals("text of segment_0 text of segment_1 text of segment_2",
+				AudioSegmentationService.stitch(segments));
+		assertEquals(0f, segments.get(0).getStartSeconds());
+		assertEquals(12f, segments.get(1).getStartSeconds());
+		assertEquals(30f, segments.get(2).getEndSeconds());
+	}
+
+	@Test
+	void failedSegmentFailsTheTranscription() throws Exception {
+		when(aiProviderRouter.transcribe(any())).thenAnswer(invocation -> {
+			String name = invocation.<MultipartFile>getArgument(0).getOriginalFilename();
+			if (name.equals("segment_1.wav")) {
+				throw new RuntimeException("Whisper unavailable");
+			}
+			return "text";
+		});
+
+		AudioProcessingException e = assertThrows(AudioProcessingException.class,
+				() -> service.transcribe(wav(speech(30_000))));
+		assertEquals("Whisper unavailable", e.getCause().getMessage());
+	}
+
+	// Segments are contiguous, non-empty and within the maximum length
+	private static void assertCovers(List<int[]> bounds, int length) {
+		int expectedStart = 0;
+		for (int[] b : bounds) {
+			assertEquals(expectedStart, b[0]);
+			assertTrue(b[1] > b[0] && b[1] - b[0] <= MAX_LEN);
+			expectedStart = b[1];
+		}
+		assertEquals(length, expectedStart);
+	}
+}
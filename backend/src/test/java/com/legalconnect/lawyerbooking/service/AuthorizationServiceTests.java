@@ -0,0 +1,86 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.entity.Case;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.enums.CaseStatus;
+import com.legalconnect.lawyerbooking.exception.UnauthorizedException;
+import com.legalconnect.lawyerbooking.repository.CaseRepository;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+
+class AuthorizationServiceTests {
+
+	private final AuthorizationService authorizationService = new AuthorizationService();
+	private final CaseRepository caseRepository = mock(CaseRepository.class);
+	private final MessageRepository messageRepository = mock(MessageRepository.class);
+
+	@BeforeEach
+	void signIn() {
+		ReflectionTestUtils.setField(authorizationService, "caseRepository", caseRepository);
+		ReflectionTestUtils.setField(authorizationService, "messageRepository", messageRepository);
+		UserPrincipal principal = new UserPrincipal(10L, "asha", "USER");
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+	}
+
+	@AfterEach
+	void signOut() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void receiversMayOnlyReadTheirOwnInbox() {
+		assertDoesNotThrow(() -> authorizationService.verifyReceiverAccess(10L, "user"));
+		assertThrows(UnauthorizedException.class, () -> authorizationService.verifyReceiverAccess(11L, "user"));
+		// Users and lawyers have separate id spaces
+		assertThrows(UnauthorizedException.class, () -> authorizationService.verifyReceiverAccess(10L, "lawyer"));
+	}
+
+	private Message message(long id, Long caseId, long receiverId, String receiverType) {
+		Message message = new Message();
+		message.setId(id);
+		message.setCaseId(caseId);
+		message.setReceiverId(receiverId);
+		message.setReceiverType(receiverType);
+		when(messageRepository.findById(id)).thenReturn(Optional.of(message));
+		return message;
+	}
+
+	@Test
+	void onlyTheReceiverMayMarkAMessageRead() {
+		Case own = new Case();
+		own.setUserId(10L);
+		own.setLawyerId(99L);
+		own.setCaseStatus(CaseStatus.IN_PROGRESS);
+		when(caseRepository.findById(1L)).thenReturn(Optional.of(own));
+		Case other = new Case();
+		other.setUserId(11L);
+		other.setLawyerId(99L);
+		other.setCaseStatus(CaseStatus.IN_PROGRESS);
+		when(caseRepository.findById(2L)).thenReturn(Optional.of(other));
+
+		message(100L, 1L, 10L, "user");
+		assertDoesNotThrow(() -> authorizationService.verifyMessageReadAccess(100L));
+		// Sent by this user: the lawyer received it
+		message(101L, 1L, 99L, "lawyer");
+		assertThrows(UnauthorizedException.class, () -> authorizationService.verifyMessageReadAccess(101L));
+		// Someone else's conversation
+		message(102L, 2L, 11L, "user");
+		assertThrows(UnauthorizedException.class, () -> authorizationService.verifyMessageReadAccess(102L));
+	}
+}
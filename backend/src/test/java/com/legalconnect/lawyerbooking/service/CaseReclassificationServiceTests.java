@@ -0,0 +1,199 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.legalconnect.lawyerbooking.entity.SystemSetting;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.SystemSettingRepository;
+import com.legalconnect.lawyerbooking.util.TokenEstimator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jobs run on their own thread, so the cases they read are committed rather
+ * than rolled back with a test transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CaseReclassificationServiceTests {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SystemSettingRepository systemSettingRepository;
+
+	private final AiProviderRouter aiProviderRouter = mock(AiProviderRouter.class);
+	private CaseReclassificationService job;
+
+	// Cases 1-6 with descriptions "case 1".."case 6"; case 5 has no type
+	@BeforeEach
+	void setUp() {
+		for (long id = 1; id <= 6; id++) {
+			jdbcTemplate.update("INSERT INTO cases (id, user_id, case_title, case_type, description, deleted, offer_count) "
+					+ "VALUES (?, 1, 'Untitled', ?, ?, FALSE, 0)", id, id == 5 ? null : "OTHER", "case " + id);
+		}
+		job = new CaseReclassificationService(jdbcTemplate, systemSettingRepository, aiProviderRouter,
+				new AiWorkScheduler());
+		ReflectionTestUtils.setField(job, "batchSize", 2);
+		ReflectionTestUtils.setField(job, "maxBatchTokens", 6000);
+		ReflectionTestUtils.setField(job, "maxDescriptionChars", 1500);
+	}
+
+	@AfterEach
+	void tearDown() {
+		job.shutdown();
+		jdbcTemplate.update("DELETE FROM cases");
+		systemSettingRepository.deleteAll();
+	}
+
+	private CaseReclassificationService service(int batchSize, int maxBatchTokens) {
+		CaseReclassificationService service = new CaseReclassificationService(null, null, null, null);
+		ReflectionTestUtils.setField(service, "batchSize", batchSize);
+		ReflectionTestUtils.setField(service, "maxBatchTokens", maxBatchTokens);
+		return service;
+	}
+
+	@Test
+	void packsByCountAndTokens() {
+		List<CaseReclassificationService.Candidate> page = new ArrayList<>();
+		for (int i = 1; i <= 60; i++) {
+			page.add(new CaseReclassificationService.Candidate(i, "OTHER", "Dispute with landlord over deposit."));
+		}
+
+		List<List<CaseReclassificationService.Candidate>> byCount = service(25, 100000).pack(page);
+		assertEquals(List.of(25, 25, 10), byCount.stream().map(List::size).toList());
+
+		int tokensEach = TokenEstimator.estimate(page.get(0).description) + 4;
+		List<List<CaseReclassificationService.Candidate>> byTokens = service(25, tokensEach * 10).pack(page);
+		assertEquals(6, byTokens.size());
+		assertTrue(byTokens.stream().allMatch(b -> b.size() == 10));
+	}
+
+	@Test
+	void mapsCategoriesToCaseTypes() {
+		assertEquals(CaseType.CYBER_CRIME, CaseReclassificationService.toCaseType("Cyber Crime"));
+		assertEquals(CaseType.LABOUR, CaseReclassificationService.toCaseType("Labour"));
+		assertEquals(CaseType.OTHER, CaseReclassificationService.toCaseType("Other"));
+		assertNull(CaseReclassificationService.toCaseType("Maritime"));
+	}
+
+	@Test
+	void batchAnswerIsMatchedToItsInput() {
+		CaseClassificationService classifier = new CaseClassificationService();
+
+		assertEquals(List.of("Criminal", "Other"),
+				classifier.parseBatch("```json\n[\"criminal\", \"Maritime\"]\n```", 2));
+		// Too few answers cannot be lined up with the cases
+		assertNull(classifier.parseBatch("[\"Civil\"]", 2));
+		assertNull(classifier.parseBatch("[\"Civil\", \"Family\", \"Civil\"]", 2));
+		// Malformed or missing arrays
+		assertNull(classifier.parseBatch("[\"Civil\", ", 2));
+		assertNull(classifier.parseBatch("[Civil, Family]", 2));
+		assertNull(classifier.parseBatch("{\"categories\": \"Civil\"}", 2));
+		assertNull(classifier.parseBatch(null, 2));
+	}
+
+	@Test
+	void resumesAfterTheStoredCheckpoint() {
+		systemSettingRepository.save(new SystemSetting(CaseReclassificationService.CHECKPOINT_KEY, "2", null, "AI"));
+		answerAll("Criminal");
+
+		Map<String, Object> report = runToEnd(false);
+
+		assertEquals(CaseReclassificationService.JobState.COMPLETED, report.get("state"));
+		assertEquals(2L, report.get("resumedFrom"));
+		assertEquals(4L, report.get("updated"));
+		assertEquals(List.of("OTHER", "OTHER", "CRIMINAL", "CRIMINAL", "CRIMINAL", "CRIMINAL"), caseTypes());
+		assertEquals("6", storedCheckpoint());
+	}
+
+	@Test
+	void restartIgnoresTheStoredCheckpoint() {
+		systemSettingRepository.save(new SystemSetting(CaseReclassificationService.CHECKPOINT_KEY, "4", null, "AI"));
+		answerAll("Family");
+
+		Map<String, Object> report = runToEnd(true);
+
+		assertEquals(0L, report.get("resumedFrom"));
+		assertEquals(6L, report.get("updated"));
+	}
+
+	@Test
+	void unusableBatchIsSkippedAndTheRestClassified() {
+		when(aiProviderRouter.classifyBatch(any())).thenAnswer(invocation -> {
+			List<String> texts = invocation.getArgument(0);
+			// The batch holding case 3 gets a short answer
+			return texts.contains("case 3") ? List.of("Civil") : texts.stream().map(t -> "Civil").collect(Collectors.toList());
+		});
+
+		Map<String, Object> report = runToEnd(false);
+
+		assertEquals(CaseReclassificationService.JobState.COMPLETED, report.get("state"));
+		assertEquals(2L, report.get("skipped"));
+		assertEquals(4L, report.get("updated"));
+		assertEquals(List.of("CIVIL", "CIVIL", "OTHER", "OTHER", "CIVIL", "CIVIL"), caseTypes());
+		assertEquals("6", storedCheckpoint());
+	}
+
+	@Test
+	void repeatedFailuresStopBeforeTheFailedBatches() {
+		ReflectionTestUtils.setField(job, "batchSize", 1);
+		when(aiProviderRouter.classifyBatch(any())).thenAnswer(invocation -> {
+			List<String> texts = invocation.getArgument(0);
+			return texts.contains("case 1") ? List.of("Civil") : null;
+		});
+
+		Map<String, Object> report = runToEnd(false);
+
+		assertEquals(CaseReclassificationService.JobState.FAILED, report.get("state"));
+		// One success, then three failures in a row
+		assertEquals(4L, report.get("requests"));
+		assertEquals(0L, report.get("skipped"));
+		assertEquals(1L, report.get("checkpoint"));
+		// The failed cases are retried on resume
+		assertEquals("1", storedCheckpoint());
+	}
+
+	private void answerAll(String category) {
+		when(aiProviderRouter.classifyBatch(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0))
+				.stream().map(t -> category).collect(Collectors.toList()));
+	}
+
+	private Map<String, Object> runToEnd(boolean restart) {
+		job.start(restart);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (job.getReport().get("finishedAt") == null && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		return job.getReport();
+	}
+
+	private List<String> caseTypes() {
+		return jdbcTemplate.queryForList("SELECT case_type FROM cases ORDER BY id", String.class);
+	}
+
+	private String storedCheckpoint() {
+		return systemSettingRepository.findBySettingKey(CaseReclassificationService.CHECKPOINT_KEY)
+				.map(SystemSetting::getSettingValue).orElse(null);
+	}
+}
@@ -0,0 +1,130 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.legalconnect.lawyerbooking.dto.CaseDTO;
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.enums.CaseStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class CaseTopicPublisherTests {
+
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+	// Configured like the application's mapper
+	private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+	private CaseTopicPublisher publisher;
+
+	@BeforeEach
+	void setUp() {
+		publisher = new CaseTopicPublisher(messagingTemplate, mapper);
+		ReflectionTestUtils.setField(publisher, "coalesceWindowMs", 200L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		publisher.shutdown();
+	}
+
+	private static MessageDTO message(long id, String text) {
+		MessageDTO dto = new MessageDTO();
+		dto.setId(id);
+		dto.setCaseId(7L);
+		dto.setMessageText(text);
+		dto.setCreatedAt(LocalDateTime.of(2026, 3, 1, 10, 0));
+		return dto;
+	}
+
+	private static CaseDTO caseState(CaseStatus status, String solution) {
+		CaseDTO dto = new CaseDTO();
+		dto.setId(7L);
+		dto.setCaseTitle("Tenancy dispute");
+		dto.setCaseStatus(status);
+		dto.setSolution(solution);
+		return dto;
+	}
+
+	private List<Message<?>> sent(int frames) {
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		ArgumentCaptor<Message<?>> captor = (ArgumentCaptor) ArgumentCaptor.forClass(Message.class);
+		verify(messagingTemplate, timeout(2000).times(frames)).send(eq("/topic/case/7"), captor.capture());
+		return captor.getAllValues();
+	}
+
+	private JsonNode body(Message<?> frame) throws Exception {
+		return mapper.readTree(assertInstanceOf(byte[].class, frame.getPayload()));
+	}
+
+	@Test
+	void eventsWithinTheWindowGoOutAsOneFrame() throws Exception {
+		publisher.publishMessage(7L, message(1, "hello"));
+		publisher.publishCase(7L, caseState(CaseStatus.OPEN, null));
+		publisher.publishMessage(7L, message(2, "are you there?"));
+		publisher.publishCase(7L, caseState(CaseStatus.IN_PROGRESS, null));
+
+		Message<?> frame = sent(1).get(0);
+		assertEquals(MimeTypeUtils.APPLICATION_JSON, SimpMessageHeaderAccessor.wrap(frame).getContentType());
+		JsonNode body = body(frame);
+		assertEquals(CaseTopicPublisher.FRAME_TYPE, body.get("type").asText());
+		assertEquals(2, body.get("messages").size());
+		assertEquals("hello", body.get("messages").get(0).get("messageText").asText());
+		assertEquals("2026-03-01T10:00:00", body.get("messages").get(0).get("createdAt").asText());
+		assertEquals("IN_PROGRESS", body.get("caseState").get("caseStatus").asText());
+		assertEquals("Tenancy dispute", body.get("caseState").get("caseTitle").asText());
+		assertEquals(4L, publisher.getStats().get("events"));
+		assertEquals(1L, publisher.getStats().get("frames"));
+	}
+
+	@Test
+	void everyFrameCarriesTheWholeCaseState() throws Exception {
+		publisher.publishCase(7L, caseState(CaseStatus.IN_PROGRESS, null));
+		sent(1);
+		publisher.publishCase(7L, caseState(CaseStatus.IN_PROGRESS, "Send a legal notice"));
+
+		// A subscriber that missed the first frame still gets every field
+		JsonNode state = body(sent(2).get(1)).get("caseState");
+		assertEquals(7L, state.get("id").asLong());
+		assertEquals("Tenancy dispute", state.get("caseTitle").asText());
+		assertEquals("IN_PROGRESS", state.get("caseStatus").asText());
+		assertEquals("Send a legal notice", state.get("solution").asText());
+		assertFalse(body(sent(2).get(1)).has("messages"));
+	}
+
+	@Test
+	void messageOnlyFramesLeaveTheCaseStateOut() throws Exception {
+		publisher.publishMessage(7L, message(3, "update?"));
+
+		JsonNode body = body(sent(1).get(0));
+		assertEquals(1, body.get("messages").size());
+		assertFalse(body.has("caseState"));
+	}
+
+	@Test
+	void pendingEventsAreFlushedOnShutdown() {
+		ReflectionTestUtils.setField(publisher, "coalesceWindowMs", 60_000L);
+		publisher.publishMessage(7L, message(4, "last words"));
+		publisher.shutdown();
+		sent(1);
+	}
+}
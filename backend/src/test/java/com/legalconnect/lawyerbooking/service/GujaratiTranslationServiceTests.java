@@ -0,0 +1,199 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.enums.AiPriority;
+import com.legalconnect.lawyerbooking.enums.TranslationStatus;
+import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Runs without a test transaction: the service is called from several threads,
+// which only see committed rows
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GujaratiTranslationServiceTests {
+
+	@Autowired
+	private ClientAudioRepository repository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final AiProviderRouter router = mock(AiProviderRouter.class);
+	private AiWorkScheduler scheduler;
+	private GujaratiTranslationService service;
+
+	@BeforeEach
+	void setUp() {
+		// Room for one backfill call next to interactive ones
+		scheduler = new AiWorkScheduler();
+		ReflectionTestUtils.setField(scheduler, "tokensPerMinute", 100000L);
+		ReflectionTestUtils.setField(scheduler, "maxConcurrent", 4);
+		ReflectionTestUtils.setField(scheduler, "backfillMaxConcurrent", 1);
+		ReflectionTestUtils.setField(scheduler, "backfillReserve", 0.25);
+		scheduler.init();
+		service = new GujaratiTranslationService(repository, router, scheduler);
+	}
+
+	@AfterEach
+	void tearDown() {
+		repository.deleteAll();
+	}
+
+	private Long record(String maskedEnglish) {
+		ClientAudio ca = new ClientAudio();
+		ca.setUserId(1L);
+		ca.setMaskedEnglishText(maskedEnglish);
+		ca.setGujaratiTranslationStatus(TranslationStatus.PENDING);
+		return repository.save(ca).getId();
+	}
+
+	@Test
+	void firstAccessTranslatesWithoutOverwritingConcurrentChanges() {
+		Long id = record("The tenant has not paid rent.");
+		when(router.translateToGujarati(anyString())).thenAnswer(invocation -> {
+			// A lawyer picks the record up while the translation is running
+			jdbcTemplate.update("UPDATE client_audio SET lawyer_id = 42, gender = 'FEMALE' WHERE id = ?", id);
+			return "ભાડૂઆતે ભાડું ચૂકવ્યું નથી.";
+		});
+
+		assertEquals("ભાડૂઆતે ભાડું ચૂકવ્યું નથી.", service.getOrTranslate(id));
+		assertEquals("ભાડૂઆતે ભાડું ચૂકવ્યું નથી.", service.getOrTranslate(id));
+		verify(router, times(1)).translateToGujarati(anyString());
+
+		ClientAudio stored = repository.findById(id).orElseThrow();
+		assertEquals(TranslationStatus.READY, stored.getGujaratiTranslationStatus());
+		assertEquals("FEMALE", stored.getGender());
+		assertEquals(42L, stored.getLawyerId());
+	}
+
+	@Test
+	void concurrentRequestsShareOneTranslation() throws Exception {
+		Long id = record("Hearing on Monday.");
+		CountDownLatch translating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(router.translateToGujarati(anyString())).thenAnswer(invocation -> {
+			translating.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return "સોમવારે સુનાવણી.";
+		});
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.getOrTranslate(id));
+		assertTrue(translating.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> second = new CompletableFuture<>();
+		Thread joiner = new Thread(() -> second.complete(service.getOrTranslate(id)));
+		joiner.start();
+		// Let the first translation finish only once the second request is parked on it
+		while (joiner.getState() != Thread.State.WAITING && !second.isDone()) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+
+		assertEquals("સોમવારે સુનાવણી.", first.get(5, TimeUnit.SECONDS));
+		assertEquals("સોમવારે સુનાવણી.", second.get(5, TimeUnit.SECONDS));
+		verify(router, times(1)).translateToGujarati(anyString());
+	}
+
+	@Test
+	void failedTranslationIsMarkedAndRetriedOnNextAccess() {
+		Long id = record("Bring the sale deed.");
+		// The OpenAI translator returns its input when the call fails
+		when(router.translateToGujarati(anyString())).thenReturn("Bring the sale deed.", "વેચાણ દસ્તાવેજ લાવો.");
+
+		assertNull(service.getOrTranslate(id));
+		ClientAudio failed = repository.findById(id).orElseThrow();
+		assertEquals(TranslationStatus.FAILED, failed.getGujaratiTranslationStatus());
+		assertNull(failed.getMaskedGujaratiText());
+		assertEquals("Bring the sale deed.", failed.getMaskedEnglishText());
+
+		assertEquals("વેચાણ દસ્તાવેજ લાવો.", service.getOrTranslate(id));
+		assertEquals(TranslationStatus.READY, repository.findById(id).orElseThrow().getGujaratiTranslationStatus());
+	}
+
+	@SuppressWarnings("unchecked")
+	private int queuedBackfill() {
+		return (Integer) ((Map<String, Object>) scheduler.getMetrics().get("backfill")).get("queued");
+	}
+
+	@Test
+	void readerDoesNotWaitBehindSaturatedBackfill() throws Exception {
+		Long busy = record("Adjournment granted.");
+		Long wanted = record("Appear in person.");
+		CountDownLatch busyRunning = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// Like the real providers, each call goes through the scheduler
+		when(router.translateToGujarati(anyString())).thenAnswer(invocation -> scheduler.run(100, () -> {
+			if (invocation.getArgument(0).equals("Adjournment granted.")) {
+				busyRunning.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return "ગુ: " + invocation.getArgument(0);
+		}));
+
+		// The only backfill slot is taken, so the background run for the wanted record queues
+		CompletableFuture<String> occupying = CompletableFuture.supplyAsync(
+				() -> scheduler.runAs(AiPriority.BACKFILL, "background", () -> service.getOrTranslate(busy)));
+		assertTrue(busyRunning.await(5, TimeUnit.SECONDS));
+		CompletableFuture<String> background = CompletableFuture.supplyAsync(
+				() -> scheduler.runAs(AiPriority.BACKFILL, "background", () -> service.getOrTranslate(wanted)));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (queuedBackfill() < 1) {
+			assertTrue(System.nanoTime() < deadline, "background translation never queued");
+			Thread.onSpinWait();
+		}
+
+		String read = CompletableFuture.supplyAsync(() -> service.getOrTranslate(wanted)).get(5, TimeUnit.SECONDS);
+		assertEquals("ગુ: Appear in person.", read);
+		assertEquals(1, queuedBackfill());
+
+		release.countDown();
+		assertEquals("ગુ: Adjournment granted.", occupying.get(5, TimeUnit.SECONDS));
+		assertEquals("ગુ: Appear in person.", background.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void waitingOnASharedTranslationIsBounded() throws Exception {
+		ReflectionTestUtils.setField(service, "joinTimeoutMs", 50L);
+		Long id = record("Hearing on Friday.");
+		CountDownLatch translating = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(router.translateToGujarati(anyString())).thenAnswer(invocation -> {
+			translating.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return "શુક્રવારે સુનાવણી.";
+		});
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.getOrTranslate(id));
+		assertTrue(translating.await(5, TimeUnit.SECONDS));
+		assertNull(service.getOrTranslate(id));
+
+		release.countDown();
+		assertEquals("શુક્રવારે સુનાવણી.", first.get(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,94 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Directory search over 100k lawyers, one page of 10 as the frontend asks
+ * for it. Run with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.legalconnect.lawyerbooking.service.LawyerSearchIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LawyerSearchIndexBenchmark {
+
+    private LawyerSearchIndex index;
+    private final Pageable byRating = PageRequest.of(0, 10, Sort.by("rating").descending());
+    private final Pageable deepByExperience = PageRequest.of(50, 10, Sort.by("yearsOfExperience").descending());
+
+    private final LawyerSearchCriteria all = new LawyerSearchCriteria();
+    private final LawyerSearchCriteria specializationAndRating = new LawyerSearchCriteria();
+    private final LawyerSearchCriteria name = new LawyerSearchCriteria();
+
+    @Setup
+    public void setup() {
+        index = LawyerSearchIndexTests.index(LawyerSearchIndexTests.lawyers(100_000, 42));
+        specializationAndRating.setSpecialization(CaseType.FAMILY);
+        specializationAndRating.setMinRating(4.0);
+        specializationAndRating.setMinExperience(5);
+        name.setName("mehta 12");
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result allByRating() {
+        return index.search(all, byRating);
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result specializationAndRatingByRating() {
+        return index.search(specializationAndRating, byRating);
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result specializationDeepPage() {
+        return index.search(specializationAndRating, deepByExperience);
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result nameByRating() {
+        return index.search(name, byRating);
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result allWithFacets() {
+        return index.search(all, byRating, true);
+    }
+
+    @Benchmark
+    public LawyerSearchIndex.Result specializationAndRatingWithFacets() {
+        return index.search(specializationAndRating, byRating, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LawyerSearchIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,217 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.legalconnect.lawyerbooking.dto.LawyerProfileDTO;
+import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+class LawyerSearchIndexTests {
+
+	private static final String[] FIRST = { "Aarav", "Priya", "Rohan", "Meera", "Kiran", "Anita", "Vikram", "Neha", "Sanjay", "Divya" };
+	private static final String[] LAST = { "Shah", "Patel", "Mehta", "Desai", "Joshi", "Trivedi", "Kapoor", "Iyer", "Rao", "Nair" };
+	private static final String[] AVAILABILITY = { "Mon-Fri 9am-5pm", "Weekends only", "Evenings", null };
+
+	static List<Lawyer> lawyers(int count, long seed) {
+		Random random = new Random(seed);
+		CaseType[] types = CaseType.values();
+		List<Lawyer> lawyers = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			Lawyer lawyer = new Lawyer();
+			lawyer.setId((long) i);
+			lawyer.setFullName(FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " " + i);
+			Set<CaseType> specializations = EnumSet.noneOf(CaseType.class);
+			for (int s = random.nextInt(3) + 1; s > 0; s--) {
+				specializations.add(types[random.nextInt(types.length)]);
+			}
+			lawyer.setSpecializations(specializations);
+			lawyer.setRating(random.nextInt(10) == 0 ? null : Math.round(random.nextDouble() * 50) / 10.0);
+			lawyer.setYearsOfExperience(random.nextInt(40));
+			lawyer.setCompletedCasesCount(random.nextInt(500));
+			lawyer.setAvailabilityInfo(AVAILABILITY[random.nextInt(AVAILABILITY.length)]);
+			lawyer.setVerified(random.nextBoolean());
+			lawyers.add(lawyer);
+		}
+		return lawyers;
+	}
+
+	static LawyerSearchIndex index(List<Lawyer> lawyers) {
+		LawyerRepository repository = mock(LawyerRepository.class);
+		when(repository.findAll()).thenReturn(lawyers);
+		LawyerSearchIndex index = new LawyerSearchIndex(repository);
+		index.rebuild();
+		return index;
+	}
+
+	// Reference implementation with the specification's semantics
+	private static List<Long> bruteForce(List<Lawyer> lawyers, LawyerSearchCriteria c, Comparator<Lawyer> order, int page, int size) {
+		Predicate<Lawyer> match = l -> true;
+		if (c.getName() != null) {
+			match = match.and(l -> l.getFullName().toLowerCase(Locale.ROOT).contains(c.getName().toLowerCase(Locale.ROOT)));
+		}
+		if (c.getSpecialization() != null) {
+			match = match.and(l -> l.getSpecializations().contains(c.getSpecialization()));
+		}
+		if (c.getMinRating() != null) {
+			match = match.and(l -> l.getRating() != null && l.getRating() >= c.getMinRating());
+		}
+		if (c.getMinExperience() != null) {
+			match = match.and(l -> l.getYearsOfExperience() >= c.getMinExperience());
+		}
+		if (c.getAvailability() != null) {
+			match = match.and(l -> l.getAvailabilityInfo() != null
+					&& l.getAvailabilityInfo().toLowerCase(Locale.ROOT).contains(c.getAvailability().toLowerCase(Locale.ROOT)));
+		}
+		if (c.getVerified() != null) {
+			match = match.and(l -> l.isVerified() == c.getVerified());
+		}
+		return lawyers.stream().filter(match).sorted(order.thenComparing(Lawyer::getId))
+				.skip((long) page * size).limit(size).map(Lawyer::getId).toList();
+	}
+
+	private static List<Long> ids(LawyerSearchIndex.Result result) {
+		return result.getLawyers().stream().map(LawyerProfileDTO::getId).toList();
+	}
+
+	@Test
+	void matchesSpecificationSemantics() {
+		List<Lawyer> lawyers = lawyers(5000, 42);
+		LawyerSearchIndex index = index(lawyers);
+		Comparator<Lawyer> byRatingDesc = Comparator.comparing(
+				(Lawyer l) -> l.getRating() != null ? l.getRating() : Double.NEGATIVE_INFINITY).reversed();
+
+		Random random = new Random(7);
+		for (int i = 0; i < 200; i++) {
+			LawyerSearchCriteria criteria = new LawyerSearchCriteria();
+			if (random.nextBoolean()) {
+				criteria.setSpecialization(CaseType.values()[random.nextInt(CaseType.values().length)]);
+			}
+			if (random.nextBoolean()) {
+				criteria.setMinRating(random.nextInt(5) * 1.0);
+			}
+			if (random.nextBoolean()) {
+				criteria.setMinExperience(random.nextInt(30));
+			}
+			if (random.nextInt(3) == 0) {
+				String[] names = { "a", "sh", "PAT", "meera", "iyer 1", "zz", "ra" };
+				criteria.setName(names[random.nextInt(names.length)]);
+			}
+			if (random.nextInt(4) == 0) {
+				criteria.setAvailability("week");
+			}
+			if (random.nextInt(4) == 0) {
+				criteria.setVerified(random.nextBoolean());
+			}
+			int page = random.nextInt(3);
+
+			LawyerSearchIndex.Result result = index.search(criteria, PageRequest.of(page, 10, Sort.by("rating").descending()));
+			assertEquals(bruteForce(lawyers, criteria, byRatingDesc, page, 10), ids(result), criteria.toString());
+			assertEquals(bruteForce(lawyers, criteria, byRatingDesc, 0, Integer.MAX_VALUE).size(), result.getTotalElements());
+
+			LawyerSearchIndex.Result byId = index.search(criteria, PageRequest.of(page, 20));
+			assertEquals(bruteForce(lawyers, criteria, Comparator.comparing(Lawyer::getId), page, 20), ids(byId));
+		}
+	}
+
+	@Test
+	void facetsCountEachDimensionUnderTheOtherFilters() {
+		List<Lawyer> lawyers = lawyers(3000, 11);
+		LawyerSearchIndex index = index(lawyers);
+		Comparator<Lawyer> byId = Comparator.comparing(Lawyer::getId);
+
+		LawyerSearchCriteria criteria = new LawyerSearchCriteria();
+		criteria.setSpecialization(CaseType.FAMILY);
+		criteria.setMinRating(3.0);
+		criteria.setMinExperience(5);
+		criteria.setName("sh");
+
+		LawyerSearchIndex.Result result = index.search(criteria, PageRequest.of(0, 10), true);
+		assertEquals(ids(index.search(criteria, PageRequest.of(0, 10))), ids(result));
+		assertEquals(bruteForce(lawyers, criteria, byId, 0, Integer.MAX_VALUE).size(), result.getTotalElements());
+
+		Map<String, Map<String, Long>> facets = result.getFacets();
+		for (CaseType type : CaseType.values()) {
+			LawyerSearchCriteria other = copy(criteria);
+			other.setSpecialization(type);
+			assertEquals(bruteForce(lawyers, other, byId, 0, Integer.MAX_VALUE).size(),
+					facets.get("specialization").get(type.name()).intValue(), type.name());
+		}
+
+		LawyerSearchCriteria anyRating = copy(criteria);
+		anyRating.setMinRating(null);
+		List<Long> anyRatingIds = bruteForce(lawyers, anyRating, byId, 0, Integer.MAX_VALUE);
+		long fourUp = lawyers.stream().filter(l -> anyRatingIds.contains(l.getId()) && l.getRating() != null && l.getRating() >= 4).count();
+		long unrated = lawyers.stream().filter(l -> anyRatingIds.contains(l.getId()) && l.getRating() == null).count();
+		assertEquals(fourUp, facets.get("rating").get("4-5"));
+		assertEquals(unrated, facets.get("rating").get("unrated"));
+		assertEquals(anyRatingIds.size(), facets.get("rating").values().stream().mapToLong(Long::longValue).sum());
+
+		LawyerSearchCriteria anyExperience = copy(criteria);
+		anyExperience.setMinExperience(null);
+		List<Long> anyExperienceIds = bruteForce(lawyers, anyExperience, byId, 0, Integer.MAX_VALUE);
+		long veterans = lawyers.stream().filter(l -> anyExperienceIds.contains(l.getId()) && l.getYearsOfExperience() >= 21).count();
+		assertEquals(veterans, facets.get("experience").get("21+"));
+		assertEquals(anyExperienceIds.size(), facets.get("experience").values().stream().mapToLong(Long::longValue).sum());
+	}
+
+	private static LawyerSearchCriteria copy(LawyerSearchCriteria c) {
+		LawyerSearchCriteria copy = new LawyerSearchCriteria();
+		copy.setSpecialization(c.getSpecialization());
+		copy.setMinRating(c.getMinRating());
+		copy.setMinExperience(c.getMinExperience());
+		copy.setMinCompletedCases(c.getMinCompletedCases());
+		copy.setAvailability(c.getAvailability());
+		copy.setName(c.getName());
+		copy.setVerified(c.getVerified());
+		return copy;
+	}
+
+	@Test
+	void appliesUpdatesAndRemovals() {
+		List<Lawyer> lawyers = lawyers(100, 1);
+		LawyerSearchIndex index = index(lawyers);
+		Pageable firstPage = PageRequest.of(0, 10);
+
+		Lawyer renamed = lawyers.get(5);
+		renamed.setFullName("Zubin Wadia");
+		renamed.setSpecializations(EnumSet.of(CaseType.TAX));
+		index.upsert(renamed);
+
+		LawyerSearchCriteria byName = new LawyerSearchCriteria();
+		byName.setName("wadia");
+		assertEquals(List.of(renamed.getId()), ids(index.search(byName, firstPage)));
+
+		LawyerSearchCriteria tax = new LawyerSearchCriteria();
+		tax.setSpecialization(CaseType.TAX);
+		assertEquals(bruteForce(lawyers, tax, Comparator.comparing(Lawyer::getId), 0, 10), ids(index.search(tax, firstPage)));
+
+		Lawyer added = lawyers(101, 1).get(100);
+		added.setFullName("Zubin Mistry");
+		index.upsert(added);
+		byName.setName("zubin");
+		assertEquals(List.of(renamed.getId(), added.getId()), ids(index.search(byName, firstPage)));
+
+		index.remove(renamed.getId());
+		assertEquals(List.of(added.getId()), ids(index.search(byName, firstPage)));
+		assertEquals(100, index.size());
+	}
+}
@@ -0,0 +1,129 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+class MessagePaginationTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	private MessageService messageService;
+
+	// Conversation order: (created_at, id) ascending
+	private final List<Long> conversation = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		messageService = new MessageService();
+		ReflectionTestUtils.setField(messageService, "messageRepository", messageRepository);
+
+		LocalDateTime start = LocalDateTime.of(2026, 1, 5, 10, 0);
+		for (int i = 0; i < 47; i++) {
+			Message message = save(1L, i % 2 == 0 ? 10L : 20L, "message " + i);
+			// Groups of three share a timestamp so the id has to break ties
+			message.setCreatedAt(start.plusSeconds(i / 3));
+			conversation.add(message.getId());
+			save(2L, 10L, "other case " + i);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private Message save(Long caseId, Long receiverId, String text) {
+		Message message = new Message();
+		message.setCaseId(caseId);
+		message.setSenderId(99L);
+		message.setSenderType("lawyer");
+		message.setReceiverId(receiverId);
+		message.setReceiverType("user");
+		message.setMessageText(text);
+		return messageRepository.save(message);
+	}
+
+	private static List<Long> ids(MessagePageDTO page) {
+		return page.getMessages().stream().map(MessageDTO::getId).toList();
+	}
+
+	@Test
+	void latestPageThenBackfillVisitsWholeConversationOnce() {
+		MessagePageDTO page = messageService.getMessagesByCaseId(1L, null, null, 10);
+		assertEquals(conversation.subList(37, 47), ids(page));
+		assertTrue(page.isHasOlder());
+		assertFalse(page.isHasNewer());
+
+		List<Long> seen = new ArrayList<>(ids(page));
+		while (page.isHasOlder()) {
+			page = messageService.getMessagesByCaseId(1L, page.getOlderCursor(), null, 10);
+			assertTrue(page.isHasNewer());
+			seen.addAll(0, ids(page));
+		}
+		assertEquals(conversation, seen);
+	}
+
+	@Test
+	void afterCursorCatchesUpFromAnyPoint() {
+		MessagePageDTO oldest = messageService.getMessagesByCaseId(1L, null, null, 100);
+		assertEquals(conversation, ids(oldest));
+		assertFalse(oldest.isHasOlder());
+
+		MessagePageDTO head = messageService.getMessagesByCaseId(1L, null, null, 4);
+		MessagePageDTO first = messageService.getMessagesByCaseId(1L, head.getOlderCursor(), null, 4);
+
+		List<Long> caughtUp = new ArrayList<>();
+		MessagePageDTO page = first;
+		do {
+			page = messageService.getMessagesByCaseId(1L, null, page.getNewerCursor(), 4);
+			caughtUp.addAll(ids(page));
+		} while (page.isHasNewer());
+		assertEquals(conversation.subList(43, 47), caughtUp);
+
+		MessagePageDTO nothingNew = messageService.getMessagesByCaseId(1L, null, head.getNewerCursor(), 4);
+		assertTrue(nothingNew.getMessages().isEmpty());
+		assertEquals(head.getNewerCursor(), nothingNew.getNewerCursor());
+	}
+
+	@Test
+	void receiverInboxIsPagedAcrossCases() {
+		List<Long> seen = new ArrayList<>();
+		MessagePageDTO page = messageService.getMessagesByReceiver(10L, "user", null, null, 7);
+		seen.addAll(0, ids(page));
+		while (page.isHasOlder()) {
+			page = messageService.getMessagesByReceiver(10L, "user", page.getOlderCursor(), null, 7);
+			seen.addAll(0, ids(page));
+		}
+		assertEquals(24 + 47, seen.size());
+		assertEquals(seen.size(), seen.stream().distinct().count());
+	}
+
+	@Test
+	void rejectsMalformedOrConflictingCursors() {
+		assertThrows(BadRequestException.class, () -> messageService.getMessagesByCaseId(1L, "yesterday", null, 10));
+		MessagePageDTO page = messageService.getMessagesByCaseId(1L, null, null, 10);
+		assertThrows(BadRequestException.class,
+				() -> messageService.getMessagesByCaseId(1L, page.getOlderCursor(), page.getNewerCursor(), 10));
+	}
+}
@@ -0,0 +1,138 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessageSearchResultDTO;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+class MessageSearchIndexTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MessageSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new MessageSearchIndex(jdbcTemplate, messageRepository);
+	}
+
+	private Message save(Long caseId, String text) {
+		Message message = new Message();
+		message.setCaseId(caseId);
+		message.setSenderId(99L);
+		message.setSenderType("lawyer");
+		message.setReceiverId(10L);
+		message.setReceiverType("user");
+		message.setMessageText(text);
+		return messageRepository.save(message);
+	}
+
+	private static List<Long> ids(MessageSearchResultDTO result) {
+		return result.getMessages().stream().map(MessageDTO::getId).toList();
+	}
+
+	@Test
+	void rebuildIndexesEachCaseSeparately() {
+		Message first = save(1L, "The court hearing is on Monday.");
+		save(1L, "Please bring the sale deed.");
+		Message last = save(1L, "Hearing moved; the COURT clerk called.");
+		save(2L, "Court hearing for the other case");
+		entityManager.flush();
+		index.rebuild();
+
+		assertTrue(index.isReady());
+		MessageSearchResultDTO result = index.search(1L, "court hear", null, 20);
+		assertEquals(List.of(last.getId(), first.getId()), ids(result));
+		assertEquals(2, result.getTotal());
+		assertNull(result.getNextBefore());
+		assertEquals("Hearing moved; the COURT clerk called.", result.getMessages().get(0).getMessageText());
+
+		// Every word but the last must match whole
+		assertEquals(0, index.search(1L, "cour hearing", null, 20).getTotal());
+		assertEquals(0, index.search(3L, "court", null, 20).getTotal());
+	}
+
+	@Test
+	void pagesWalkMatchesNewestFirst() {
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			Message message = save(1L, "Legal notice draft " + i);
+			expected.add(0, message.getId());
+			save(1L, "unrelated " + i);
+		}
+		entityManager.flush();
+		index.rebuild();
+
+		List<Long> seen = new ArrayList<>();
+		Long before = null;
+		do {
+			MessageSearchResultDTO page = index.search(1L, "notice", before, 10);
+			assertEquals(25, page.getTotal());
+			seen.addAll(ids(page));
+			before = page.getNextBefore();
+		} while (before != null);
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void searchBeforeTheFirstBuildReadsTheDatabase() {
+		Message message = save(1L, "Affidavit signed");
+		entityManager.flush();
+
+		assertFalse(index.isReady());
+		assertEquals(List.of(message.getId()), ids(index.search(1L, "affid", null, 20)));
+	}
+
+	@Test
+	void sentMessagesAreIndexedOnceCommitted() {
+		index.rebuild();
+		Message message = new Message();
+		message.setId(5000L);
+		message.setCaseId(7L);
+		message.setSenderType("user");
+		message.setMessageText("Uploaded the rent agreement");
+
+		index.add(message);
+		assertEquals(0, index.search(7L, "rent", null, 20).getTotal());
+
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+		assertEquals(List.of(5000L), ids(index.search(7L, "rent", null, 20)));
+		// Indexing the same message twice is harmless
+		index.add(message);
+		assertEquals(1, index.search(7L, "agreement", null, 20).getTotal());
+	}
+
+	@Test
+	void wordsKeepCombiningMarks() {
+		assertEquals(List.of("hearing", "at", "કોર્ટ", "10", "30"), MessageSearchIndex.tokenize("Hearing at કોર્ટ, 10:30"));
+		assertThrows(BadRequestException.class, () -> index.search(1L, " ?! ", null, 20));
+		assertThrows(BadRequestException.class, () -> index.search(1L, "x".repeat(201), null, 20));
+	}
+}
@@ -0,0 +1,234 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.repository.UnreadCounterRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+// The flusher writes on its own thread, so nothing here runs in a test transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MessageWriteBehindTests {
+
+	private static final long CASE_ID = 41L;
+	private static final long LAWYER_ID = 7L;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private UnreadCounterRepository counterRepository;
+
+	@TempDir
+	Path dir;
+
+	private UnreadCounterService counters;
+
+	@BeforeEach
+	void setUp() {
+		counters = new UnreadCounterService();
+		ReflectionTestUtils.setField(counters, "counterRepository", counterRepository);
+		ReflectionTestUtils.setField(counters, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(counters, "messagingTemplate", mock(SimpMessagingTemplate.class));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM messages");
+		jdbcTemplate.update("DELETE FROM message_read_watermarks");
+		jdbcTemplate.update("DELETE FROM unread_counters");
+	}
+
+	private MessageWriteBehindService service(JdbcTemplate jdbc, int batchSize, long flushIntervalMs, int capacity) {
+		MessageWriteBehindService service = new MessageWriteBehindService(jdbc, transactionManager, counters);
+		ReflectionTestUtils.setField(service, "enabled", true);
+		ReflectionTestUtils.setField(service, "batchSize", batchSize);
+		ReflectionTestUtils.setField(service, "flushIntervalMs", flushIntervalMs);
+		ReflectionTestUtils.setField(service, "queueCapacity", capacity);
+		ReflectionTestUtils.setField(service, "spillFile", dir.resolve("spill.jsonl").toString());
+		ReflectionTestUtils.setField(service, "deadLetterFile", dir.resolve("dead-letter.jsonl").toString());
+		service.init();
+		return service;
+	}
+
+	private static Message message(int n) {
+		Message message = new Message();
+		message.setCaseId(CASE_ID);
+		message.setSenderId(3L);
+		message.setSenderType("user");
+		message.setReceiverId(LAWYER_ID);
+		message.setReceiverType("lawyer");
+		message.setMessageText("message " + n);
+		return message;
+	}
+
+	private long stored() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages", Long.class);
+	}
+
+	private long counter() {
+		return counterRepository.findCount(LAWYER_ID, "lawyer").orElse(0L);
+	}
+
+	@Test
+	void concurrentSendsAreWrittenInBatchesAndFlushedOnShutdown() throws InterruptedException {
+		MessageWriteBehindService service = service(jdbcTemplate, 50, 20, 10000);
+		List<Thread> senders = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			int offset = t * 250;
+			senders.add(new Thread(() -> {
+				for (int i = 0; i < 250; i++) {
+					service.submit(message(offset + i));
+				}
+			}));
+		}
+		senders.forEach(Thread::start);
+		for (Thread sender : senders) {
+			sender.join();
+		}
+		service.shutdown();
+
+		assertEquals(1000L, stored());
+		assertEquals(1000L, service.getStats().get("persisted"));
+		assertTrue((Long) service.getStats().get("batches") <= 1000 / 2);
+		assertEquals(1000L, counter());
+		assertEquals(messageRepository.countUnread(LAWYER_ID, "lawyer"), counter());
+	}
+
+	@Test
+	void messagesBehindTheReadWatermarkAreNotCountedUnread() {
+		MessageWriteBehindService service = service(jdbcTemplate, 50, 60000, 100);
+		List<Message> sent = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			sent.add(service.submit(message(i)));
+		}
+		// Read up to the second message while all three are still queued
+		jdbcTemplate.update("INSERT INTO message_read_watermarks "
+				+ "(case_id, participant_id, participant_type, last_read_message_id, updated_at) "
+				+ "VALUES (?, ?, 'lawyer', ?, CURRENT_TIMESTAMP)", CASE_ID, LAWYER_ID, sent.get(1).getId());
+		service.shutdown();
+
+		assertEquals(3L, stored());
+		assertEquals(1L, counter());
+		assertEquals(messageRepository.countUnread(LAWYER_ID, "lawyer"), counter());
+	}
+
+	@Test
+	void fullQueueWritesOnTheCallingThread() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		JdbcTemplate stalled = spy(jdbcTemplate);
+		doAnswer(invocation -> {
+			if (Thread.currentThread().getName().equals("message-write-behind")) {
+				release.await();
+			}
+			return invocation.callRealMethod();
+		}).when(stalled).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+		MessageWriteBehindService service = service(stalled, 1, 20, 3);
+		for (int i = 0; i < 10; i++) {
+			service.submit(message(i));
+		}
+		assertTrue((Long) service.getStats().get("directWrites") >= 6);
+		release.countDown();
+		service.shutdown();
+
+		assertEquals(10L, stored());
+		assertEquals(10L, counter());
+	}
+
+	@Test
+	void unwrittenMessagesAreSpilledAndReplayedOnStart() {
+		JdbcTemplate down = spy(jdbcTemplate);
+		doThrow(new DataAccessResourceFailureException("database unreachable"))
+				.when(down).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+		MessageWriteBehindService failing = service(down, 50, 20, 100);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			ids.add(failing.submit(message(i)).getId());
+		}
+		failing.shutdown();
+		Path spill = dir.resolve("spill.jsonl");
+		assertTrue(Files.exists(spill));
+		assertEquals(0L, stored());
+
+		MessageWriteBehindService restarted = service(jdbcTemplate, 50, 20, 100);
+		assertFalse(Files.exists(spill));
+		assertEquals(ids, jdbcTemplate.queryForList("SELECT id FROM messages ORDER BY id", Long.class));
+		assertEquals(3L, counter());
+		restarted.shutdown();
+	}
+
+	@Test
+	void messageMissingARequiredColumnIsRejectedBeforeItGetsAnId() {
+		MessageWriteBehindService service = service(jdbcTemplate, 50, 20, 100);
+		Message noReceiver = message(0);
+		noReceiver.setReceiverId(null);
+
+		assertThrows(IllegalArgumentException.class, () -> service.submit(noReceiver));
+		assertNull(noReceiver.getId());
+		service.shutdown();
+		assertEquals(0L, stored());
+	}
+
+	@Test
+	void rowTheDatabaseRefusesIsDeadLetteredAndTheRestAreStored() throws Exception {
+		// One batch for everything, written at shutdown
+		MessageWriteBehindService service = service(jdbcTemplate, 50, 60000, 100);
+		service.submit(message(0));
+		Message refused = message(1);
+		refused.setReceiverType("x".repeat(30));
+		long refusedId = service.submit(refused).getId();
+		for (int i = 2; i < 6; i++) {
+			service.submit(message(i));
+		}
+		service.shutdown();
+
+		assertEquals(5L, stored());
+		assertEquals(5L, counter());
+		assertEquals(1L, service.getStats().get("deadLettered"));
+		assertFalse(Files.exists(dir.resolve("spill.jsonl")));
+		List<String> deadLetters = Files.readAllLines(dir.resolve("dead-letter.jsonl"));
+		assertEquals(1, deadLetters.size());
+		assertTrue(deadLetters.get(0).contains("\"id\":" + refusedId));
+	}
+}
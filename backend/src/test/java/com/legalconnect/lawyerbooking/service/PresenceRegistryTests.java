@@ -0,0 +1,103 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class PresenceRegistryTests {
+
+	private final LawyerRepository lawyerRepository = mock(LawyerRepository.class);
+	private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+	private final Set<SimpUser> users = new HashSet<>();
+	private PresenceRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		registry = new PresenceRegistry();
+		ReflectionTestUtils.setField(registry, "lawyerRepository", lawyerRepository);
+		ReflectionTestUtils.setField(registry, "userRegistry", userRegistry);
+		when(userRegistry.getUsers()).thenReturn(users);
+
+		mask(1L, EnumSet.of(CaseType.FAMILY, CaseType.TAX));
+		mask(2L, EnumSet.of(CaseType.CRIMINAL));
+		mask(3L, EnumSet.noneOf(CaseType.class));
+	}
+
+	private void mask(Long lawyerId, Set<CaseType> specializations) {
+		when(lawyerRepository.findSpecializationMask(lawyerId)).thenReturn(Optional.of(CaseTypeMask.of(specializations)));
+	}
+
+	private void connect(String sessionId, String role, Long id) {
+		UserPrincipal principal = new UserPrincipal(id, role + id, role.toUpperCase());
+		registry.connected(sessionId, principal);
+		SimpUser user = mock(SimpUser.class);
+		when(user.getName()).thenReturn(principal.getSessionName());
+		users.add(user);
+	}
+
+	@Test
+	void routesCasesOnlyToConnectedLawyersWithTheSpecialization() {
+		connect("s1", "lawyer", 1L);
+		connect("s2", "lawyer", 2L);
+		connect("s3", "lawyer", 3L);
+		connect("s4", "user", 1L);
+
+		assertEquals(List.of(1L), registry.lawyersFor(CaseType.FAMILY));
+		assertEquals(List.of(2L), registry.lawyersFor(CaseType.CRIMINAL));
+		assertEquals(List.of(), registry.lawyersFor(CaseType.PROPERTY));
+		assertEquals(Set.of(1L, 2L, 3L), new HashSet<>(registry.lawyersFor(null)));
+		assertEquals(4, registry.getSessionCount());
+		assertEquals(3, registry.getConnectedLawyerCount());
+
+		registry.specializationsChanged(3L, CaseTypeMask.of(EnumSet.of(CaseType.PROPERTY)));
+		assertEquals(List.of(3L), registry.lawyersFor(CaseType.PROPERTY));
+	}
+
+	@Test
+	void lawyerStaysPresentUntilTheLastSessionCloses() {
+		connect("tab-1", "lawyer", 1L);
+		connect("tab-2", "lawyer", 1L);
+
+		registry.disconnected("tab-1");
+		assertEquals(List.of(1L), registry.lawyersFor(CaseType.TAX));
+
+		registry.disconnected("tab-2");
+		registry.disconnected("tab-2");
+		users.clear();
+		assertEquals(List.of(), registry.lawyersFor(CaseType.TAX));
+		assertEquals(0, registry.getSessionCount());
+	}
+
+	@Test
+	void includesLawyersConnectedToOtherNodes() {
+		connect("s1", "lawyer", 1L);
+		SimpUser remote = mock(SimpUser.class);
+		when(remote.getName()).thenReturn("lawyer-9");
+		users.add(remote);
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[] { 9L, CaseTypeMask.of(EnumSet.of(CaseType.FAMILY)) });
+		when(lawyerRepository.findSpecializationMasks(anyCollection())).thenReturn(rows);
+
+		assertEquals(List.of(1L, 9L), registry.lawyersFor(CaseType.FAMILY));
+		assertEquals(List.of(1L), registry.lawyersFor(CaseType.TAX));
+	}
+}
@@ -0,0 +1,144 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.legalconnect.lawyerbooking.dto.RatingSummaryDTO;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.entity.Review;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.ReviewRepository;
+import com.legalconnect.lawyerbooking.util.RatingScore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+class RatingAggregateTests {
+
+	@Autowired
+	private LawyerRepository lawyerRepository;
+
+	@Autowired
+	private ReviewRepository reviewRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Lawyer lawyer(String username) {
+		Lawyer lawyer = new Lawyer();
+		lawyer.setUsername(username);
+		lawyer.setPassword("x");
+		return lawyerRepository.save(lawyer);
+	}
+
+	private void rate(Lawyer lawyer, int... stars) {
+		for (int s : stars) {
+			lawyerRepository.addRating(lawyer.getId(), s, RatingScore.PRIOR_MEAN, RatingScore.PRIOR_WEIGHT);
+		}
+	}
+
+	@Test
+	void addRatingMaintainsSumCountHistogramAndScore() {
+		Lawyer lawyer = lawyer("adv.mehta");
+		rate(lawyer, 5, 4, 4, 1);
+
+		Lawyer reloaded = lawyerRepository.findById(lawyer.getId()).orElseThrow();
+		assertEquals(14L, reloaded.getRatingSum());
+		assertEquals(4, reloaded.getRatingCount());
+		assertEquals(1, reloaded.getOneStarCount());
+		assertEquals(0, reloaded.getTwoStarCount());
+		assertEquals(0, reloaded.getThreeStarCount());
+		assertEquals(2, reloaded.getFourStarCount());
+		assertEquals(1, reloaded.getFiveStarCount());
+		assertEquals(3.5, reloaded.getRating(), 1e-9);
+		assertEquals(RatingScore.of(14, 4), reloaded.getRankingScore(), 1e-9);
+	}
+
+	@Test
+	void profileSaveDoesNotOverwriteRatingsAddedSinceItWasLoaded() {
+		Lawyer lawyer = lawyer("adv.shah");
+		rate(lawyer, 4);
+		Lawyer profile = lawyerRepository.findById(lawyer.getId()).orElseThrow();
+
+		// A review lands while the profile edit is in flight
+		rate(lawyer, 5, 2);
+		profile.setFullName("Adv. R. Shah");
+		profile.setYearsOfExperience(12);
+		lawyerRepository.saveAndFlush(profile);
+		entityManager.clear();
+
+		Lawyer reloaded = lawyerRepository.findById(lawyer.getId()).orElseThrow();
+		assertEquals("Adv. R. Shah", reloaded.getFullName());
+		assertEquals(3, reloaded.getRatingCount());
+		assertEquals(11L, reloaded.getRatingSum());
+		assertEquals(1, reloaded.getTwoStarCount());
+		assertEquals(1, reloaded.getFiveStarCount());
+		assertEquals(RatingScore.of(11, 3), reloaded.getRankingScore(), 1e-9);
+	}
+
+	@Test
+	void scoreFavoursManyGoodReviewsOverOnePerfectOne() {
+		Lawyer single = lawyer("adv.single");
+		rate(single, 5);
+		Lawyer established = lawyer("adv.established");
+		for (int i = 0; i < 40; i++) {
+			rate(established, i % 5 == 0 ? 4 : 5);
+		}
+
+		Lawyer a = lawyerRepository.findById(single.getId()).orElseThrow();
+		Lawyer b = lawyerRepository.findById(established.getId()).orElseThrow();
+		assertTrue(a.getRating() > b.getRating());
+		assertTrue(b.getRankingScore() > a.getRankingScore());
+		assertEquals(RatingScore.of(0, 0), lawyer("adv.new").getRankingScore(), 1e-9);
+	}
+
+	@Test
+	void summaryIsReadFromAggregateColumns() {
+		Lawyer lawyer = lawyer("adv.desai");
+		rate(lawyer, 5, 5, 3);
+
+		RatingSummaryDTO summary = lawyerRepository.findRatingSummary(lawyer.getId()).orElseThrow();
+		assertEquals(3, summary.getCount());
+		assertEquals(13, summary.getSum());
+		assertEquals(4.3, summary.getAverage(), 1e-9);
+		assertEquals(List.of(2, 0, 1, 0, 0), new ArrayList<>(summary.getHistogram().values()));
+
+		String before = summary.version();
+		rate(lawyer, 4);
+		assertTrue(!before.equals(lawyerRepository.findRatingSummary(lawyer.getId()).orElseThrow().version()));
+	}
+
+	@Test
+	void keysetPagesVisitEveryReviewOnceNewestFirst() {
+		Lawyer lawyer = lawyer("adv.joshi");
+		Lawyer other = lawyer("adv.other");
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 23; i++) {
+			Review review = new Review();
+			review.setCaseId((long) i);
+			review.setUserId(1L);
+			review.setLawyerId(i % 4 == 0 ? other.getId() : lawyer.getId());
+			review.setRating(5);
+			review = reviewRepository.save(review);
+			if (i % 4 != 0) {
+				expected.add(0, review.getId());
+			}
+		}
+
+		List<Long> seen = new ArrayList<>();
+		List<Review> page = reviewRepository.findByLawyerIdOrderByIdDesc(lawyer.getId(), PageRequest.of(0, 5));
+		while (!page.isEmpty()) {
+			page.forEach(r -> seen.add(r.getId()));
+			page = reviewRepository.findByLawyerIdAndIdLessThanOrderByIdDesc(
+					lawyer.getId(), page.get(page.size() - 1).getId(), PageRequest.of(0, 5));
+		}
+		assertEquals(expected, seen);
+	}
+}
@@ -0,0 +1,147 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.repository.MessageReadWatermarkRepository;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.repository.UnreadCounterRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReadWatermarkTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private MessageReadWatermarkRepository watermarkRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private UnreadCounterRepository counterRepository;
+
+	private MessageService messageService;
+
+	@BeforeEach
+	void setUp() {
+		messageService = new MessageService();
+		ReflectionTestUtils.setField(messageService, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(messageService, "watermarkRepository", watermarkRepository);
+		ReflectionTestUtils.setField(messageService, "jdbcTemplate", jdbcTemplate);
+
+		UnreadCounterService counters = new UnreadCounterService();
+		ReflectionTestUtils.setField(counters, "counterRepository", counterRepository);
+		ReflectionTestUtils.setField(counters, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(counters, "messagingTemplate", mock(SimpMessagingTemplate.class));
+		ReflectionTestUtils.setField(messageService, "unreadCounterService", counters);
+	}
+
+	private List<Message> conversation(Long caseId, int count) {
+		List<Message> messages = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Message message = new Message();
+			message.setCaseId(caseId);
+			boolean toClient = i % 4 != 3;
+			message.setSenderId(toClient ? 7L : 3L);
+			message.setSenderType(toClient ? "lawyer" : "user");
+			message.setReceiverId(toClient ? 3L : 7L);
+			message.setReceiverType(toClient ? "user" : "lawyer");
+			message.setMessageText("message " + i);
+			messages.add(messageRepository.save(message));
+		}
+		return messages;
+	}
+
+	private Statistics statistics() {
+		return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void watermarkDerivesUnreadCountsPerConversation() {
+		List<Message> first = conversation(1L, 200);
+		conversation(2L, 8);
+
+		assertEquals(150, messageService.getUnreadMessageCount(1L, 3L, "user"));
+		assertEquals(156, messageService.getUnreadMessageCount(3L, "user"));
+		assertEquals(50, messageService.getUnreadMessageCount(1L, 7L, "lawyer"));
+
+		messageService.markConversationRead(1L, 3L, "user", first.get(99).getId());
+		assertEquals(75, messageService.getUnreadMessageCount(1L, 3L, "user"));
+
+		messageService.markConversationRead(1L, 3L, "user", null);
+		assertEquals(0, messageService.getUnreadMessageCount(1L, 3L, "user"));
+		assertEquals(6, messageService.getUnreadMessageCount(3L, "user"));
+		// The other participant's watermark is untouched
+		assertEquals(50, messageService.getUnreadMessageCount(1L, 7L, "lawyer"));
+	}
+
+	@Test
+	void watermarkOnlyMovesForwardWithConstantStatements() {
+		List<Message> messages = conversation(1L, 400);
+		messageService.markConversationRead(1L, 3L, "user", messages.get(10).getId());
+
+		Statistics statistics = statistics();
+		statistics.clear();
+		messageService.markConversationRead(1L, 3L, "user", messages.get(12).getId());
+		long few = statistics.getPrepareStatementCount();
+
+		statistics.clear();
+		messageService.markConversationRead(1L, 3L, "user", messages.get(390).getId());
+		assertEquals(few, statistics.getPrepareStatementCount());
+
+		messageService.markConversationRead(1L, 3L, "user", messages.get(100).getId());
+		assertEquals(messages.get(390).getId(),
+				watermarkRepository.findByCaseIdAndParticipantIdAndParticipantType(1L, 3L, "user")
+						.orElseThrow().getLastReadMessageId());
+	}
+
+	@Test
+	void perMessageShimAdvancesTheReceiversWatermark() {
+		List<Message> messages = conversation(1L, 12);
+		messageService.markMessageAsRead(messages.get(5).getId());
+
+		assertEquals(messages.get(5).getId(),
+				watermarkRepository.findByCaseIdAndParticipantIdAndParticipantType(1L, 3L, "user")
+						.orElseThrow().getLastReadMessageId());
+		assertEquals(4, messageService.getUnreadMessageCount(1L, 3L, "user"));
+	}
+
+	@Test
+	void backfillSeedsWatermarksFromLegacyReadFlags() {
+		List<Message> messages = conversation(1L, 20);
+		for (int i = 0; i <= 12; i++) {
+			messages.get(i).setIsRead(true);
+		}
+		entityManager.flush();
+
+		messageService.backfillReadWatermarks();
+		messageService.backfillReadWatermarks();
+
+		// One per participant, and a second run adds nothing
+		assertEquals(2, watermarkRepository.count());
+		assertEquals(messages.get(12).getId(),
+				watermarkRepository.findByCaseIdAndParticipantIdAndParticipantType(1L, 3L, "user")
+						.orElseThrow().getLastReadMessageId());
+		assertEquals(5, messageService.getUnreadMessageCount(1L, 3L, "user"));
+	}
+}
@@ -0,0 +1,112 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.legalconnect.lawyerbooking.dto.LawyerSearchCriteria;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.enums.CaseType;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerSpecifications;
+import com.legalconnect.lawyerbooking.util.CaseTypeMask;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SpecializationMaskTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private LawyerRepository lawyerRepository;
+
+	private Lawyer lawyer(String username, Set<CaseType> specializations) {
+		Lawyer lawyer = new Lawyer();
+		lawyer.setUsername(username);
+		lawyer.setPassword("x");
+		lawyer.setSpecializations(specializations);
+		return lawyer;
+	}
+
+	@Test
+	void maskRoundTripsEveryCaseType() {
+		for (CaseType type : CaseType.values()) {
+			assertEquals(EnumSet.of(type), CaseTypeMask.toSet(CaseTypeMask.bit(type)));
+		}
+		Set<CaseType> all = EnumSet.allOf(CaseType.class);
+		assertEquals(all, CaseTypeMask.toSet(CaseTypeMask.of(all)));
+		assertEquals(0L, CaseTypeMask.of(null));
+	}
+
+	@Test
+	void specializationsAreReadFromMaskWithoutLoadingCollection() throws Exception {
+		Lawyer saved = lawyerRepository.save(lawyer("adv.kapoor", EnumSet.of(CaseType.TAX, CaseType.CORPORATE)));
+		entityManager.flush();
+		entityManager.clear();
+
+		Lawyer reloaded = lawyerRepository.findById(saved.getId()).orElseThrow();
+		assertEquals(EnumSet.of(CaseType.TAX, CaseType.CORPORATE), reloaded.getSpecializations());
+		assertFalse(Hibernate.isInitialized(collection(reloaded)));
+
+		reloaded.setSpecializations(EnumSet.of(CaseType.FAMILY));
+		entityManager.flush();
+		entityManager.clear();
+
+		Number rows = (Number) entityManager.createNativeQuery(
+				"SELECT COUNT(*) FROM lawyer_specializations WHERE lawyer_id = ?1")
+				.setParameter(1, saved.getId()).getSingleResult();
+		assertEquals(1, rows.intValue());
+		assertEquals(EnumSet.of(CaseType.FAMILY),
+				lawyerRepository.findById(saved.getId()).orElseThrow().getSpecializations());
+	}
+
+	@Test
+	void pagingLawyersRunsOneQueryAndFiltersOnMask() {
+		CaseType[] types = CaseType.values();
+		List<Lawyer> lawyers = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			lawyers.add(lawyer("adv." + i, EnumSet.of(types[i % types.length], types[(i * 7) % types.length])));
+		}
+		lawyerRepository.saveAll(lawyers);
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		LawyerSearchCriteria criteria = new LawyerSearchCriteria();
+		criteria.setSpecialization(CaseType.FAMILY);
+		Page<Lawyer> page = lawyerRepository.findAll(
+				LawyerSpecifications.withCriteria(criteria), PageRequest.of(0, 50, Sort.by("id")));
+		page.getContent().forEach(Lawyer::getSpecializations);
+
+		long expected = lawyers.stream().filter(l -> l.getSpecializations().contains(CaseType.FAMILY)).count();
+		assertEquals(expected, page.getTotalElements());
+		page.getContent().forEach(l -> assertEquals(true, l.getSpecializations().contains(CaseType.FAMILY)));
+		assertEquals(0, statistics.getCollectionLoadCount());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<CaseType> collection(Lawyer lawyer) throws Exception {
+		Field field = Lawyer.class.getDeclaredField("specializations");
+		field.setAccessible(true);
+		return (Set<CaseType>) field.get(lawyer);
+	}
+}
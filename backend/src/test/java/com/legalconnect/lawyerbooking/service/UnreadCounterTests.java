@@ -0,0 +1,232 @@
+package com.legalconnect.lawyerbooking.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessageRequest;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.entity.User;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
+import com.legalconnect.lawyerbooking.repository.CaseRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.MessageReadWatermarkRepository;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.repository.UnreadCounterRepository;
+import com.legalconnect.lawyerbooking.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UnreadCounterTests {
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private MessageRepository messageRepository;
+
+	@Autowired
+	private MessageReadWatermarkRepository watermarkRepository;
+
+	@Autowired
+	private UnreadCounterRepository counterRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private LawyerRepository lawyerRepository;
+
+	@Autowired
+	private CaseRepository caseRepository;
+
+	private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+	private UnreadCounterService counters;
+	private MessageService messageService;
+	private User client;
+	private Lawyer lawyer;
+
+	@BeforeEach
+	void setUp() {
+		counters = new UnreadCounterService();
+		ReflectionTestUtils.setField(counters, "counterRepository", counterRepository);
+		ReflectionTestUtils.setField(counters, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(counters, "messagingTemplate", messagingTemplate);
+
+		messageService = new MessageService();
+		ReflectionTestUtils.setField(messageService, "messageRepository", messageRepository);
+		ReflectionTestUtils.setField(messageService, "watermarkRepository", watermarkRepository);
+		ReflectionTestUtils.setField(messageService, "userRepository", userRepository);
+		ReflectionTestUtils.setField(messageService, "lawyerRepository", lawyerRepository);
+		ReflectionTestUtils.setField(messageService, "caseRepository", caseRepository);
+		CaseTopicPublisher caseTopicPublisher = new CaseTopicPublisher(messagingTemplate,
+				new com.fasterxml.jackson.databind.ObjectMapper().findAndRegisterModules());
+		ReflectionTestUtils.setField(caseTopicPublisher, "coalesceWindowMs", 0L);
+		ReflectionTestUtils.setField(messageService, "caseTopicPublisher", caseTopicPublisher);
+		ReflectionTestUtils.setField(messageService, "messageSearchIndex",
+				new MessageSearchIndex(null, messageRepository));
+		ReflectionTestUtils.setField(messageService, "unreadCounterService", counters);
+		ReflectionTestUtils.setField(messageService, "writeBehind",
+				new MessageWriteBehindService(null, mock(PlatformTransactionManager.class), counters));
+
+		client = new User();
+		client.setUsername("rhea");
+		client.setPassword("x");
+		client = userRepository.save(client);
+		lawyer = new Lawyer();
+		lawyer.setUsername("adv.rhea");
+		lawyer.setPassword("x");
+		lawyer = lawyerRepository.save(lawyer);
+		for (long caseId = 1; caseId <= 6; caseId++) {
+			entityManager.createNativeQuery("INSERT INTO cases (id, user_id, case_title, deleted, offer_count) "
+					+ "VALUES (?, ?, 'Rent dispute', false, 0)")
+					.setParameter(1, caseId)
+					.setParameter(2, client.getId())
+					.executeUpdate();
+		}
+	}
+
+	private MessageDTO lawyerWrites(Long caseId) {
+		MessageRequest request = new MessageRequest();
+		request.setCaseId(caseId);
+		request.setSenderId(lawyer.getId());
+		request.setSenderType("lawyer");
+		request.setReceiverId(client.getId());
+		request.setReceiverType("user");
+		request.setMessageText("update on case " + caseId);
+		return messageService.sendMessage(request);
+	}
+
+	private long derived() {
+		return messageRepository.countUnread(client.getId(), "user");
+	}
+
+	@Test
+	void counterFollowsSendsAndWatermarksFromLegacyStart() {
+		// Sent before counters existed
+		for (int i = 0; i < 3; i++) {
+			Message legacy = new Message();
+			legacy.setCaseId(1L);
+			legacy.setSenderId(lawyer.getId());
+			legacy.setSenderType("lawyer");
+			legacy.setReceiverId(client.getId());
+			legacy.setReceiverType("user");
+			legacy.setMessageText("legacy " + i);
+			messageRepository.save(legacy);
+		}
+
+		List<MessageDTO> sent = new ArrayList<>();
+		for (int i = 0; i < 9; i++) {
+			sent.add(lawyerWrites(i % 2 == 0 ? 1L : 2L));
+		}
+		assertEquals(12, messageService.getUnreadMessageCount(client.getId(), "user"));
+		assertEquals(derived(), messageService.getUnreadMessageCount(client.getId(), "user"));
+
+		messageService.markConversationRead(1L, client.getId(), "user", sent.get(2).getId());
+		assertEquals(derived(), messageService.getUnreadMessageCount(client.getId(), "user"));
+		messageService.markConversationRead(1L, client.getId(), "user", sent.get(0).getId());
+		messageService.markConversationRead(2L, client.getId(), "user", null);
+		assertEquals(derived(), messageService.getUnreadMessageCount(client.getId(), "user"));
+		assertEquals(derived(), counterRepository.findCount(client.getId(), "user").orElseThrow());
+
+		messageService.markMessageAsRead(sent.get(8).getId());
+		assertEquals(0, messageService.getUnreadMessageCount(client.getId(), "user"));
+		assertEquals(0, derived());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void changesArePushedToTheReceiverAndReadsComeFromMemory() {
+		lawyerWrites(5L);
+		MessageDTO last = lawyerWrites(5L);
+
+		ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+		verify(messagingTemplate, atLeastOnce()).convertAndSendToUser(
+				eq("user-" + client.getId()), eq(UnreadCounterService.UNREAD_DESTINATION), payload.capture());
+		assertEquals(2L, ((Map<String, Long>) payload.getValue()).get("count"));
+
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		for (int i = 0; i < 10; i++) {
+			assertEquals(2, messageService.getUnreadMessageCount(client.getId(), "user"));
+		}
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		messageService.markConversationRead(5L, client.getId(), "user", last.getId());
+		verify(messagingTemplate).convertAndSendToUser(
+				eq("user-" + client.getId()), eq(UnreadCounterService.UNREAD_DESTINATION), eq(Map.of("count", 0L)));
+		verify(messagingTemplate, atLeastOnce()).send(eq("/topic/case/5"), any(org.springframework.messaging.Message.class));
+	}
+
+	@Test
+	void readStateChangesRecomputeADriftedCounter() {
+		MessageDTO first = lawyerWrites(3L);
+		lawyerWrites(3L);
+		lawyerWrites(4L);
+		// A receipt counted again after a concurrent recompute already included it
+		counters.messageReceived(client.getId(), "user");
+		assertEquals(4, messageService.getUnreadMessageCount(client.getId(), "user"));
+
+		messageService.markConversationRead(3L, client.getId(), "user", first.getId());
+		assertEquals(2, derived());
+		assertEquals(2, messageService.getUnreadMessageCount(client.getId(), "user"));
+		assertEquals(2L, counterRepository.findCount(client.getId(), "user").orElseThrow());
+	}
+
+	@Test
+	void expiredCountsAreReconciledAndEvicted() {
+		ReflectionTestUtils.setField(counters, "cacheTtlMs", 0L);
+		ReflectionTestUtils.setField(counters, "reconcileIntervalMs", 0L);
+		ReflectionTestUtils.setField(counters, "maxEntries", 2);
+		lawyerWrites(6L);
+		counters.messageReceived(client.getId(), "user");
+		assertEquals(2L, counterRepository.findCount(client.getId(), "user").orElseThrow());
+
+		assertEquals(1, messageService.getUnreadMessageCount(client.getId(), "user"));
+		assertEquals(1L, counterRepository.findCount(client.getId(), "user").orElseThrow());
+
+		for (long id = 100; id < 110; id++) {
+			counters.getUnreadCount(id, "lawyer");
+		}
+		assertTrue(counters.getCachedCount() <= 2);
+	}
+
+	@Test
+	void messagesTheStoreWouldRefuseAreRejectedBeforeBroadcast() {
+		MessageRequest noReceiver = new MessageRequest();
+		noReceiver.setCaseId(1L);
+		noReceiver.setSenderId(lawyer.getId());
+		noReceiver.setSenderType("lawyer");
+		noReceiver.setReceiverType("user");
+		noReceiver.setMessageText("hello");
+		assertThrows(BadRequestException.class, () -> messageService.sendMessage(noReceiver));
+
+		assertThrows(ResourceNotFoundException.class, () -> lawyerWrites(999L));
+		verify(messagingTemplate, never()).send(any(String.class), any(org.springframework.messaging.Message.class));
+		assertEquals(0, derived());
+	}
+}
@@ -0,0 +1,58 @@
+package com.legalconnect.lawyerbooking.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class MessageIdGeneratorTests {
+
+	@Test
+	void idsAreUniqueIncreasingAndSafeForJavaScript() throws InterruptedException {
+		MessageIdGenerator generator = new MessageIdGenerator(MessageIdGenerator.MAX_NODE);
+		List<long[]> perThread = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			long[] ids = new long[20000];
+			perThread.add(ids);
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = generator.nextId();
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Set<Long> all = new HashSet<>();
+		for (long[] ids : perThread) {
+			for (int i = 0; i < ids.length; i++) {
+				assertTrue(ids[i] > 0 && ids[i] < (1L << 53));
+				assertTrue(i == 0 || ids[i] > ids[i - 1]);
+				all.add(ids[i]);
+			}
+		}
+		assertEquals(80000, all.size());
+	}
+
+	@Test
+	void nodesNeverCollide() {
+		MessageIdGenerator a = new MessageIdGenerator(1);
+		MessageIdGenerator b = new MessageIdGenerator(2);
+		Set<Long> all = new HashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			all.add(a.nextId());
+			all.add(b.nextId());
+		}
+		assertEquals(20000, all.size());
+		assertThrows(IllegalArgumentException.class, () -> new MessageIdGenerator(MessageIdGenerator.MAX_NODE + 1));
+	}
+}
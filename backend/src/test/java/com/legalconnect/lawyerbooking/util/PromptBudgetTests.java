@@ -0,0 +1,57 @@
+package com.legalconnect.lawyerbooking.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class PromptBudgetTests {
+
+	private static final String SENTENCE = "My landlord refused to return the security deposit after I vacated the flat. ";
+
+	@Test
+	void shortTextIsOneChunk() {
+		PromptBudget budget = new PromptBudget(128000, 16000, 600, 1.1, 500);
+		assertEquals(List.of(SENTENCE), budget.pack(SENTENCE));
+	}
+
+	@Test
+	void packsWholeSentencesWithinBudget() {
+		PromptBudget budget = new PromptBudget(128000, 1500, 100, 2.0, 500);
+		String text = SENTENCE.repeat(200);
+
+		List<String> chunks = budget.pack(text);
+
+		assertTrue(chunks.size() > 1);
+		assertEquals(text, String.join("", chunks));
+		for (String chunk : chunks) {
+			assertTrue(TokenEstimator.estimate(chunk) <= budget.maxInputTokens());
+			assertTrue(chunk.endsWith(". "));
+		}
+	}
+
+	@Test
+	void joinedResultsKeepSingleSeparators() {
+		PromptBudget budget = new PromptBudget(128000, 1500, 100, 2.0, 500);
+		String text = SENTENCE.repeat(100) + "\n\n" + SENTENCE.repeat(100);
+		List<String> chunks = budget.pack(text);
+
+		// Stand-in for the model: returns each chunk trimmed, as chat completions do
+		List<String> results = chunks.stream().map(String::strip).toList();
+		String joined = PromptBudget.join(chunks, results);
+
+		assertEquals(text.strip(), joined);
+		assertFalse(joined.contains(".  "));
+		assertEquals("a b", PromptBudget.join(List.of("a ", "b"), List.of(" a ", "b ")));
+	}
+
+	@Test
+	void gujaratiCostsMoreTokensThanEnglish() {
+		int english = TokenEstimator.estimate("property dispute");
+		int gujarati = TokenEstimator.estimate("મિલકત વિવાદ");
+		assertTrue(gujarati > english);
+	}
+}
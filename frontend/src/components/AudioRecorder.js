@@ -94,7 +94,7 @@ const AudioRecorder = ({ userId, onUploadSuccess }) => {
             const data = response.data;
             setResult(data);
             if (data.maskedTextAudioBase64) {
-                setAudioUrl(`data:audio/mpeg;base64,${data.maskedTextAudioBase64.replace(/^data:audio\/\w+;base64,/, '')}`);
+                setAudioUrl(`data:${data.contentType || 'audio/mpeg'};base64,${data.maskedTextAudioBase64.replace(/^data:audio\/[\w-]+;base64,/, '')}`);
             }
             toast.success('Intelligence gathered successfully');
             if (onUploadSuccess) onUploadSuccess(data);
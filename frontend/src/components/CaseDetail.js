@@ -141,7 +141,7 @@ const CaseDetail = ({ caseId, userType, userId, onBack }) => {
         try {
             const response = await ttsApi.generate(caseId, lang);
             const base64Audio = response.data.audio;
-            const audioBlob = await (await fetch(`data:audio/mp3;base64,${base64Audio}`)).blob();
+            const audioBlob = await (await fetch(`data:${response.data.contentType || 'audio/mpeg'};base64,${base64Audio}`)).blob();
             const url = URL.createObjectURL(audioBlob);
             setAudioUrl(prev => ({ ...prev, [lang]: url }));
             const audio = new Audio(url);
@@ -404,7 +404,7 @@ const CaseDetail = ({ caseId, userType, userId, onBack }) => {
                                         lawyerId={caseData.lawyerId}
                                         clientUserId={caseData.userId}
                                         caseStatus={caseData.caseStatus}
-                                        onCaseUpdate={(updated) => { setCaseData(updated); if (updated.solution) setSolution(updated.solution); fetchTimeline(); }}
+                                        onCaseUpdate={(state) => { if (state.solution && state.solution !== caseData?.solution) setSolution(state.solution); setCaseData((prev) => ({ ...prev, ...state })); fetchTimeline(); }}
                                     />
                                 </div>
                             </div>
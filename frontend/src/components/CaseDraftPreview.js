@@ -108,7 +108,7 @@ const CaseDraftPreview = ({ caseId, onPublish, onCancel }) => {
         try {
             const response = await ttsApi.generate(caseId, 'en');
             const base64Audio = response.data.audio;
-            const audioBlob = await (await fetch(`data:audio/mp3;base64,${base64Audio}`)).blob();
+            const audioBlob = await (await fetch(`data:${response.data.contentType || 'audio/mpeg'};base64,${base64Audio}`)).blob();
             const url = URL.createObjectURL(audioBlob);
             setAudioUrl(url);
             const audio = new Audio(url);
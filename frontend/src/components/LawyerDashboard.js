@@ -28,7 +28,6 @@ function LawyerDashboard() {
     const [schedFilter, setSchedFilter] = useState('all');
     const [creatingCaseId, setCreatingCaseId] = useState(null);
     const [lawyerProfile, setLawyerProfile] = useState(null);
-    const lawyerProfileRef = useRef(null);
     const [broadcastMatches, setBroadcastMatches] = useState([]); // General pool matching specializations
     const [activeRequests, setActiveRequests] = useState([]); // Direct connection requests (PENDING_APPROVAL)
     const audioRef = useRef(null);
@@ -59,7 +58,6 @@ function LawyerDashboard() {
         try {
             const response = await lawyersApi.getProfile(targetId);
             setLawyerProfile(response.data);
-            lawyerProfileRef.current = response.data; // Update ref for WS
             console.log('Lawyer profile loaded:', response.data);
         } catch (err) {
             console.error('Error fetching lawyer profile:', err);
@@ -185,7 +183,6 @@ function LawyerDashboard() {
 
     useLawyerSocket({
         lawyerId,
-        lawyerProfileRef,
         onNewRequest: handleNewRequest,
         onCaseAssigned: handleCaseAssigned,
         onCaseDeleted: handleCaseDeleted
@@ -303,6 +300,23 @@ function LawyerDashboard() {
         };
     }, []);
 
+    // Gujarati text is translated on first view, so fetch it when the tab is opened
+    const selectLanguage = async (record, lang) => {
+        setSelectedLanguage(prev => ({ ...prev, [record.id]: lang }));
+        if (lang !== 'gu' || record.maskedGujaratiText) return;
+        try {
+            const response = await audioApi.getGujarati(record.id);
+            const text = response.data.maskedGujaratiText;
+            if (text) {
+                setRecords(prev => prev.map(r => r.id === record.id
+                    ? { ...r, maskedGujaratiText: text, gujaratiTranslationStatus: 'READY' }
+                    : r));
+            }
+        } catch (err) {
+            console.error('Error fetching Gujarati translation:', err);
+        }
+    };
+
     const playAudio = async (recordId, language) => {
         // Toggle logic
         if (playingRecordId === recordId && audioRef.current) {
@@ -365,7 +379,7 @@ function LawyerDashboard() {
             const base64Audio = response.data.audio;
 
             // Play
-            const audioBlob = await (await fetch(`data:audio/mp3;base64,${base64Audio}`)).blob();
+            const audioBlob = await (await fetch(`data:${response.data.contentType || 'audio/mpeg'};base64,${base64Audio}`)).blob();
             const url = URL.createObjectURL(audioBlob);
             setCurrentAudioUrl(url);
 
@@ -526,7 +540,7 @@ function LawyerDashboard() {
                                                         {['en', 'gu'].map(lang => (
                                                             <button
                                                                 key={lang}
-                                                                onClick={() => setSelectedLanguage({ ...selectedLanguage, [record.id]: lang })}
+                                                                onClick={() => selectLanguage(record, lang)}
                                                                 className={`px-4 py-2 rounded-xl text-xs font-black uppercase tracking-widest transition-all ${(selectedLanguage[record.id] || 'en') === lang
                                                                     ? 'bg-electric-blue text-white shadow-lg shadow-electric-blue/20'
                                                                     : 'bg-gray-100 text-gray-400 hover:bg-white border border-transparent hover:border-gray-200'
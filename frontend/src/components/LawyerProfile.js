@@ -21,6 +21,8 @@ const LawyerProfile = ({ lawyerId: propLawyerId, onUpdate }) => {
   const [formData, setFormData] = useState({});
   const [saving, setSaving] = useState(false);
   const [reviews, setReviews] = useState([]);
+  const [reviewCursor, setReviewCursor] = useState(null);
+  const [ratingSummary, setRatingSummary] = useState(null);
 
   const isOwnProfile = user?.role === 'lawyer' && parseInt(user?.id) === parseInt(lawyerId);
   const isVerified = profile?.verified === true;
@@ -47,13 +49,28 @@ const LawyerProfile = ({ lawyerId: propLawyerId, onUpdate }) => {
 
   const fetchReviews = useCallback(async () => {
     try {
-      const response = await reviewsApi.getByLawyer(lawyerId);
-      setReviews(response.data || []);
+      const [page, summary] = await Promise.all([
+        reviewsApi.getPageByLawyer(lawyerId),
+        reviewsApi.getSummary(lawyerId)
+      ]);
+      setReviews(page.data.reviews || []);
+      setReviewCursor(page.data.nextCursor);
+      setRatingSummary(summary.data);
     } catch (err) {
       console.error("Failed to load reviews:", err);
     }
   }, [lawyerId]);
 
+  const loadMoreReviews = async () => {
+    try {
+      const response = await reviewsApi.getPageByLawyer(lawyerId, reviewCursor);
+      setReviews(prev => [...prev, ...(response.data.reviews || [])]);
+      setReviewCursor(response.data.nextCursor);
+    } catch (err) {
+      console.error("Failed to load reviews:", err);
+    }
+  };
+
   useEffect(() => {
     if (lawyerId) {
       fetchProfile();
@@ -553,7 +570,7 @@ const LawyerProfile = ({ lawyerId: propLawyerId, onUpdate }) => {
                   Client Testimonials
                 </h3>
                 <div className="px-4 py-2 bg-slate-50 dark:bg-slate-800 rounded-xl text-[10px] font-black uppercase tracking-widest text-slate-400">
-                  {reviews.length} Verified Reviews
+                  {ratingSummary ? ratingSummary.count : reviews.length} Verified Reviews
                 </div>
               </div>
 
@@ -588,6 +605,14 @@ const LawyerProfile = ({ lawyerId: propLawyerId, onUpdate }) => {
                       </div>
                     </div>
                   ))}
+                  {reviewCursor && (
+                    <button
+                      onClick={loadMoreReviews}
+                      className="w-full py-4 rounded-2xl border border-slate-200 dark:border-slate-700 text-[10px] font-black uppercase tracking-widest text-slate-500 hover:bg-slate-50 dark:hover:bg-slate-800 transition-all"
+                    >
+                      Load more reviews
+                    </button>
+                  )}
                 </div>
               )}
             </div>
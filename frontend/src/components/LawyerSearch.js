@@ -24,7 +24,7 @@ const LawyerSearch = ({ caseId, initialSpecialization, onSelectSuccess, onBack }
                 ...filters,
                 page,
                 size: 10,
-                sort: 'rating,desc'
+                sort: 'rankingScore,desc'
             };
             // Clean up empty filters
             Object.keys(params).forEach(key => {
@@ -3,6 +3,7 @@ import { toast } from 'react-toastify';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { messagesApi } from '../utils/api';
+import { getToken } from '../utils/auth';
 
 function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, caseStatus, onCaseUpdate }) {
   const isPending = caseStatus?.toUpperCase() === 'PENDING_APPROVAL';
@@ -10,31 +11,90 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, ca
   const [messages, setMessages] = useState([]);
   const [newMessage, setNewMessage] = useState('');
   const [connected, setConnected] = useState(false);
+  const [olderCursor, setOlderCursor] = useState(null);
+  const [hasOlder, setHasOlder] = useState(false);
+  const [loadingOlder, setLoadingOlder] = useState(false);
   const messagesEndRef = useRef(null);
+  const scrollRef = useRef(null);
+  const newerCursorRef = useRef(null);
+  const keepScrollRef = useRef(null);
+  const lastMarkedRef = useRef(0);
   const stompClientRef = useRef(null);
+  // Read through a ref so a new callback from the parent does not reconnect the socket
+  const onCaseUpdateRef = useRef(onCaseUpdate);
+  onCaseUpdateRef.current = onCaseUpdate;
+  const [searchOpen, setSearchOpen] = useState(false);
+  const [searchQuery, setSearchQuery] = useState('');
+  const [searchResult, setSearchResult] = useState(null);
 
+  const mergeMessages = (prev, incoming) => {
+    const known = new Set(prev.map(m => m.id));
+    return [...prev, ...incoming.filter(m => !known.has(m.id))];
+  };
+
+  // Latest page only; older history is loaded as the user scrolls up
   const fetchMessages = useCallback(async () => {
     if (!caseId) return;
     try {
-      const response = await messagesApi.getByCase(caseId);
-      setMessages(Array.isArray(response.data) ? response.data : []);
+      const { data } = await messagesApi.getPageByCase(caseId);
+      setMessages(data.messages || []);
+      setOlderCursor(data.olderCursor);
+      setHasOlder(data.hasOlder);
+      newerCursorRef.current = data.newerCursor;
     } catch (err) { console.error('Error fetching messages:', err); }
   }, [caseId]);
 
+  // Messages sent while the socket was down
+  const catchUp = useCallback(async () => {
+    if (!caseId || !newerCursorRef.current) return;
+    try {
+      let page;
+      do {
+        ({ data: page } = await messagesApi.getPageByCase(caseId, { after: newerCursorRef.current }));
+        newerCursorRef.current = page.newerCursor;
+        const arrived = page.messages || [];
+        setMessages((prev) => mergeMessages(prev, arrived));
+      } while (page.hasNewer);
+    } catch (err) { console.error('Error catching up on messages:', err); }
+  }, [caseId]);
+
+  const loadOlder = async () => {
+    if (!hasOlder || loadingOlder) return;
+    setLoadingOlder(true);
+    try {
+      const { data } = await messagesApi.getPageByCase(caseId, { before: olderCursor });
+      const el = scrollRef.current;
+      keepScrollRef.current = el ? el.scrollHeight - el.scrollTop : null;
+      setMessages((prev) => mergeMessages(data.messages || [], prev));
+      setOlderCursor(data.olderCursor);
+      setHasOlder(data.hasOlder);
+    } catch (err) { console.error('Error loading older messages:', err); }
+    finally { setLoadingOlder(false); }
+  };
+
   const connectWebSocket = useCallback(() => {
     const protocol = window.location.protocol === 'https:' ? 'https:' : 'http:';
     const socketUrl = `${protocol}//${window.location.hostname}:8080/ws`;
     const socket = new SockJS(socketUrl);
+    const token = getToken();
     const client = new Client({
       webSocketFactory: () => socket,
+      connectHeaders: token ? { Authorization: `Bearer ${token.trim()}` } : {},
       reconnectDelay: 5000,
       onConnect: () => {
         setConnected(true);
+        catchUp();
         client.subscribe(`/topic/case/${caseId}`, (message) => {
-          const receivedData = JSON.parse(message.body);
-          if (receivedData.messageText) {
-            setMessages((prev) => prev.some(m => m.id === receivedData.id) ? prev : [...prev, receivedData]);
-          } else if (onCaseUpdate) onCaseUpdate(receivedData);
+          // One frame per case per coalescing window: new messages plus the latest case state
+          const frame = JSON.parse(message.body);
+          if (frame.messages?.length) {
+            setMessages((prev) => {
+              const seen = new Set(prev.map(m => m.id));
+              const fresh = frame.messages.filter(m => !seen.has(m.id));
+              return fresh.length ? [...prev, ...fresh] : prev;
+            });
+          }
+          if (frame.caseState && onCaseUpdateRef.current) onCaseUpdateRef.current(frame.caseState);
         });
       },
       onStompError: () => setConnected(false),
@@ -42,14 +102,51 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, ca
     });
     client.activate();
     stompClientRef.current = client;
-  }, [caseId, onCaseUpdate]);
+  }, [caseId, catchUp]);
 
   useEffect(() => {
     if (caseId) { fetchMessages(); connectWebSocket(); }
     return () => stompClientRef.current?.deactivate();
   }, [caseId, fetchMessages, connectWebSocket]);
 
-  useEffect(() => { messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' }); }, [messages]);
+  // One watermark update covers everything up to the newest message shown
+  useEffect(() => {
+    const newest = messages[messages.length - 1];
+    if (!caseId || !newest?.id || newest.id <= lastMarkedRef.current) return;
+    lastMarkedRef.current = newest.id;
+    messagesApi.markCaseRead(caseId, newest.id).catch((err) => console.error('Error marking messages read:', err));
+  }, [messages, caseId]);
+
+  useEffect(() => {
+    // Prepending history keeps the current view in place instead of jumping to the bottom
+    if (keepScrollRef.current != null && scrollRef.current) {
+      scrollRef.current.scrollTop = scrollRef.current.scrollHeight - keepScrollRef.current;
+      keepScrollRef.current = null;
+      return;
+    }
+    messagesEndRef.current?.scrollIntoView({ behavior: 'smooth' });
+  }, [messages]);
+
+  // Server-side search over the whole conversation, not just the pages loaded here
+  useEffect(() => {
+    const q = searchQuery.trim();
+    if (!searchOpen || !caseId || !q) { setSearchResult(null); return; }
+    const timer = setTimeout(async () => {
+      try {
+        const { data } = await messagesApi.searchCase(caseId, q);
+        setSearchResult(data);
+      } catch (err) { console.error('Error searching messages:', err); }
+    }, 250);
+    return () => clearTimeout(timer);
+  }, [searchQuery, searchOpen, caseId]);
+
+  const loadMoreResults = async () => {
+    if (!searchResult?.nextBefore) return;
+    try {
+      const { data } = await messagesApi.searchCase(caseId, searchQuery.trim(), { before: searchResult.nextBefore });
+      setSearchResult((prev) => ({ ...data, messages: [...prev.messages, ...data.messages] }));
+    } catch (err) { console.error('Error searching messages:', err); }
+  };
 
   const sendMessage = async () => {
     if (!newMessage.trim() || isPending) return;
@@ -82,14 +179,64 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, ca
           </div>
           <h3 className="text-sm font-black uppercase tracking-widest text-primary dark:text-white">Secure Link</h3>
         </div>
+        <div className="flex items-center gap-2">
+        <button onClick={() => { setSearchOpen((open) => !open); setSearchQuery(''); }} className="w-8 h-8 rounded-lg flex items-center justify-center text-gray-400 hover:text-primary" title="Search conversation">
+          <span className="material-symbols-outlined !text-lg">{searchOpen ? 'close' : 'search'}</span>
+        </button>
         <div className={`flex items-center gap-2 px-3 py-1 rounded-full border ${connected ? 'bg-emerald-500/10 border-emerald-500/20 text-emerald-500' : 'bg-red-500/10 border-red-500/20 text-red-500'}`}>
           <span className={`w-1.5 h-1.5 rounded-full ${connected ? 'bg-emerald-500 animate-pulse' : 'bg-red-500'}`}></span>
           <span className="text-[10px] font-black uppercase tracking-tighter">{connected ? 'Live' : 'Offline'}</span>
         </div>
+        </div>
       </div>
 
+      {searchOpen && (
+        <div className="p-4 border-b border-gray-100 dark:border-gray-800 bg-gray-50/50 dark:bg-white/5">
+          <input
+            type="text"
+            autoFocus
+            value={searchQuery}
+            onChange={(e) => setSearchQuery(e.target.value)}
+            placeholder="Search this conversation..."
+            className="w-full px-4 py-2 bg-white dark:bg-gray-900 rounded-xl border border-gray-100 dark:border-gray-800 text-sm focus:ring-2 focus:ring-primary outline-none"
+          />
+          {searchResult && (
+            <div className="mt-3 max-h-56 overflow-y-auto space-y-2">
+              <p className="text-[10px] font-black uppercase tracking-widest text-gray-400">
+                {searchResult.total} {searchResult.total === 1 ? 'match' : 'matches'}
+              </p>
+              {searchResult.messages.map((msg) => (
+                <div key={msg.id} className="p-3 rounded-xl bg-white dark:bg-gray-800 border border-gray-100 dark:border-gray-700">
+                  <span className="text-[9px] font-black uppercase tracking-widest text-gray-400">
+                    {msg.senderType === 'lawyer' ? 'Counsel' : 'Client'}
+                    {msg.createdAt && ` · ${new Date(msg.createdAt).toLocaleString([], { dateStyle: 'medium', timeStyle: 'short' })}`}
+                  </span>
+                  <p className="text-sm text-primary dark:text-gray-200">{msg.messageText}</p>
+                </div>
+              ))}
+              {searchResult.nextBefore && (
+                <button onClick={loadMoreResults} className="text-[10px] font-black uppercase tracking-widest text-gray-400 hover:text-primary">
+                  More results
+                </button>
+              )}
+            </div>
+          )}
+        </div>
+      )}
+
       {/* Messages Area */}
-      <div className="flex-1 overflow-y-auto p-6 space-y-6 scrollbar-hide">
+      <div
+        ref={scrollRef}
+        onScroll={(e) => e.currentTarget.scrollTop === 0 && loadOlder()}
+        className="flex-1 overflow-y-auto p-6 space-y-6 scrollbar-hide"
+      >
+        {hasOlder && (
+          <div className="text-center">
+            <button onClick={loadOlder} disabled={loadingOlder} className="text-[10px] font-black uppercase tracking-widest text-gray-400 hover:text-primary disabled:opacity-50">
+              {loadingOlder ? 'Loading...' : 'Load earlier messages'}
+            </button>
+          </div>
+        )}
         {messages.length === 0 ? (
           <div className="h-full flex flex-col items-center justify-center text-center opacity-40 grayscale">
             <span className="material-symbols-outlined text-4xl mb-2">mark_chat_unread</span>
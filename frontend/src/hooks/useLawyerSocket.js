@@ -1,10 +1,10 @@
 import { useEffect, useRef } from 'react';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
+import { getToken } from '../utils/auth';
 
 const useLawyerSocket = ({
     lawyerId,
-    lawyerProfileRef,
     onNewRequest,
     onCaseAssigned,
     onCaseDeleted
@@ -25,39 +25,22 @@ const useLawyerSocket = ({
         const socket = new SockJS(socketUrl);
         const client = new Client({
             webSocketFactory: () => socket,
+            // Identifies this lawyer so the server can route events to them
+            connectHeaders: { Authorization: `Bearer ${getToken()}` },
             reconnectDelay: 5000,
             onConnect: () => {
                 console.log('WS CONNECT: Connected to request service');
 
-                // Subscribe to new case requests
-                client.subscribe('/topic/lawyer/requests', (message) => {
+                // New case requests; the server only sends cases matching our specializations
+                client.subscribe('/user/queue/lawyer/requests', (message) => {
                     if (!onNewRequest) return;
-
                     const receivedPayload = JSON.parse(message.body);
-                    const currentProfile = lawyerProfileRef.current;
-
                     console.log('WS RECEIVED: Raw payload:', receivedPayload);
-
-                    // Filter by specialization
-                    const specsPlural = (currentProfile?.specializations || "").toLowerCase();
-                    const specsSingular = (currentProfile?.specialization || "").toLowerCase();
-                    const category = (receivedPayload.category || receivedPayload.caseCategory || "").toLowerCase();
-
-                    const isMatch = !currentProfile ||
-                        specsPlural.includes(category) ||
-                        specsSingular.includes(category) ||
-                        category === "" ||
-                        (specsPlural === "" && specsSingular === "");
-
-                    if (isMatch) {
-                        onNewRequest(receivedPayload);
-                    } else {
-                        console.log(`WS FILTER SKIP: Request for "${category}" does not match lawyer specializations.`);
-                    }
+                    onNewRequest(receivedPayload);
                 });
 
-                // Subscribe to global lawyer updates
-                client.subscribe('/topic/lawyer/updates', (message) => {
+                // Assignments and deletions of cases we were offered
+                client.subscribe('/user/queue/lawyer/updates', (message) => {
                     const update = JSON.parse(message.body);
                     console.log('WS UPDATE RECEIVED:', update);
 
@@ -82,7 +65,7 @@ const useLawyerSocket = ({
                 clientRef.current.deactivate();
             }
         };
-    }, [lawyerId, lawyerProfileRef, onNewRequest, onCaseAssigned, onCaseDeleted]); // Dependencies
+    }, [lawyerId, onNewRequest, onCaseAssigned, onCaseDeleted]); // Dependencies
 
     return clientRef.current;
 };
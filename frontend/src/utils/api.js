@@ -101,6 +101,7 @@ export const audioApi = {
     },
     getAll: () => api.get('/audio/all'),
     getById: (id) => api.get(`/audio/${id}`),
+    getGujarati: (id) => api.get(`/audio/${id}/gujarati`),
 };
 
 export const casesApi = {
@@ -170,12 +171,23 @@ export const adminApi = {
 export const reviewsApi = {
     submit: (reviewData) => api.post('/reviews', reviewData),
     getByLawyer: (lawyerId) => api.get(`/reviews/lawyer/${lawyerId}`),
+    getPageByLawyer: (lawyerId, cursor, size = 10) => api.get(`/reviews/lawyer/${lawyerId}/page`, {
+        params: { cursor, size }
+    }),
+    getSummary: (lawyerId) => api.get(`/reviews/lawyer/${lawyerId}/summary`),
 };
 
 export const messagesApi = {
     send: (messageData) => api.post('/messages/send', messageData),
     getByCase: (caseId) => api.get(`/messages/case/${caseId}`),
+    getPageByCase: (caseId, { before, after, size = 30 } = {}) => api.get(`/messages/case/${caseId}/page`, {
+        params: { before, after, size }
+    }),
     markRead: (messageId) => api.put(`/messages/${messageId}/read`),
+    markCaseRead: (caseId, upTo) => api.put(`/messages/case/${caseId}/read`, null, { params: { upTo } }),
+    searchCase: (caseId, q, { before, limit = 20 } = {}) => api.get(`/messages/case/${caseId}/search`, {
+        params: { q, before, limit }
+    }),
 };
 
 export const ttsApi = {